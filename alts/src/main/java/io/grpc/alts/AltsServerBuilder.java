@@ -18,11 +18,13 @@ package io.grpc.alts;
 
 import io.grpc.BindableService;
 import io.grpc.Channel;
+import io.grpc.CompressionPolicy;
 import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
 import io.grpc.ExperimentalApi;
 import io.grpc.HandlerRegistry;
 import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.ServerCall;
@@ -100,6 +102,28 @@ public final class AltsServerBuilder extends ServerBuilder<AltsServerBuilder> {
     return this;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public AltsServerBuilder virtualThreadExecutor() {
+    delegate.virtualThreadExecutor();
+    return this;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public AltsServerBuilder directExecutorWithOffload(
+      Executor offloadExecutor, long handlerTimeBudget, TimeUnit unit) {
+    delegate.directExecutorWithOffload(offloadExecutor, handlerTimeBudget, unit);
+    return this;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public AltsServerBuilder blockingMethod(MethodDescriptor<?, ?> method) {
+    delegate.blockingMethod(method);
+    return this;
+  }
+
   /** {@inheritDoc} */
   @Override
   public AltsServerBuilder addStreamTracerFactory(Factory factory) {
@@ -162,6 +186,13 @@ public final class AltsServerBuilder extends ServerBuilder<AltsServerBuilder> {
     return this;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public AltsServerBuilder compressionPolicy(CompressionPolicy policy) {
+    delegate.compressionPolicy(policy);
+    return this;
+  }
+
   /** {@inheritDoc} */
   @Override
   public AltsServerBuilder intercept(ServerInterceptor interceptor) {
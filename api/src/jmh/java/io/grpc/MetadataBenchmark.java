@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link Metadata} lookups and mutations at various header counts.
+ */
+@State(Scope.Benchmark)
+public class MetadataBenchmark {
+
+  @Param({"5", "20", "80"})
+  public int headerCount;
+
+  private Metadata.Key<String>[] keys;
+  private Metadata.Key<String> missingKey;
+  private Metadata metadata;
+  private Metadata other;
+
+  /**
+   * Creates metadata with {@code headerCount} distinct headers.
+   */
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    keys = new Metadata.Key[headerCount];
+    metadata = new Metadata();
+    other = new Metadata();
+    for (int i = 0; i < headerCount; i++) {
+      keys[i] = Metadata.Key.of("x-header-" + i, Metadata.ASCII_STRING_MARSHALLER);
+      metadata.put(keys[i], "value-" + i);
+      other.put(keys[i], "other-" + i);
+    }
+    missingKey = Metadata.Key.of("x-missing", Metadata.ASCII_STRING_MARSHALLER);
+  }
+
+  /**
+   * Looks up every header once, as an interceptor reading many keys would.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void getAll(Blackhole bh) {
+    for (Metadata.Key<String> key : keys) {
+      bh.consume(metadata.get(key));
+    }
+  }
+
+  /**
+   * Looks up a header that is not present, which has to rule out every header.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public boolean containsMissing() {
+    return metadata.containsKey(missingKey);
+  }
+
+  /**
+   * Builds metadata from scratch and reads back the last header.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String putThenGet() {
+    Metadata m = new Metadata();
+    for (int i = 0; i < keys.length; i++) {
+      m.put(keys[i], "value");
+    }
+    return m.get(keys[keys.length - 1]);
+  }
+
+  /**
+   * Merges two sets of metadata and reads every header from the result.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void mergeThenGet(Blackhole bh) {
+    Metadata m = new Metadata();
+    m.merge(metadata);
+    m.merge(other);
+    for (Metadata.Key<String> key : keys) {
+      bh.consume(m.get(key));
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Extension to an {@link java.io.InputStream} with a {@link KnownLength known length} by adding a
+ * method that transfers all content into a {@link ByteBuffer}.
+ *
+ * <p>This is the {@link ByteBuffer} counterpart of {@link Drainable}. When the transport can
+ * expose the memory it will send from as a {@link ByteBuffer}, the implementation can serialize
+ * straight into it, instead of going through an {@link java.io.OutputStream} and its intermediate
+ * buffers.
+ */
+@ExperimentalApi("Experimental until the zero-copy message serialization path is stable")
+public interface ByteBufferDrainable extends KnownLength {
+
+  /**
+   * Transfers the entire contents of this stream to the specified target, starting at its
+   * position. The target must have at least {@link #available()} bytes remaining. The target's
+   * position after this call is unspecified; callers should rely on the returned value instead.
+   *
+   * @param target to write to.
+   * @return number of bytes written.
+   */
+  int drainTo(ByteBuffer target) throws IOException;
+}
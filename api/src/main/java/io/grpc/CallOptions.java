@@ -76,6 +76,10 @@ public final class CallOptions {
   private Integer maxInboundMessageSize;
   @Nullable
   private Integer maxOutboundMessageSize;
+  @Nullable
+  private Integer streamWeight;
+  @Nullable
+  private CompressionPolicy compressionPolicy;
 
 
   /**
@@ -118,6 +122,19 @@ public final class CallOptions {
     return newOptions;
   }
 
+  /**
+   * Sets the policy that decides which messages of the call are compressed, once compression is
+   * enabled with {@link #withCompression}. Without a policy all messages are compressed.
+   *
+   * @since 1.26.0
+   */
+  @ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+  public CallOptions withCompressionPolicy(@Nullable CompressionPolicy compressionPolicy) {
+    CallOptions newOptions = new CallOptions(this);
+    newOptions.compressionPolicy = compressionPolicy;
+    return newOptions;
+  }
+
   /**
    * Returns a new {@code CallOptions} with the given absolute deadline.
    *
@@ -178,6 +195,17 @@ public final class CallOptions {
     return compressorName;
   }
 
+  /**
+   * Returns the policy set by {@link #withCompressionPolicy}, or {@code null} if not set.
+   *
+   * @since 1.26.0
+   */
+  @Nullable
+  @ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+  public CompressionPolicy getCompressionPolicy() {
+    return compressionPolicy;
+  }
+
   /**
    * Override the HTTP/2 authority the channel claims to be connecting to. <em>This is not
    * generally safe.</em> Overriding allows advanced users to re-use a single Channel for multiple
@@ -400,6 +428,34 @@ public final class CallOptions {
     return newOptions;
   }
 
+  /**
+   * Returns a new {@code CallOptions} with the weight of the call when it shares a connection with
+   * other calls. When the connection cannot send everything pending, calls receive bandwidth in
+   * proportion to their weights, so that small interactive calls are not held up behind bulk
+   * transfers. Weights range from 1 to 256, like HTTP/2 stream weights, and calls without a weight
+   * use 16. This is a hint; transports that do not support it ignore it.
+   *
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until stream weights are supported by all transports")
+  public CallOptions withStreamWeight(int weight) {
+    checkArgument(weight >= 1 && weight <= 256, "invalid weight %s", weight);
+    CallOptions newOptions = new CallOptions(this);
+    newOptions.streamWeight = weight;
+    return newOptions;
+  }
+
+  /**
+   * Gets the weight set by {@link #withStreamWeight}, or {@code null} if not set.
+   *
+   * @since 1.26.0
+   */
+  @Nullable
+  @ExperimentalApi("Experimental until stream weights are supported by all transports")
+  public Integer getStreamWeight() {
+    return streamWeight;
+  }
+
   /**
    * Gets the maximum allowed message size acceptable from the remote peer.
    */
@@ -431,6 +487,8 @@ public final class CallOptions {
     waitForReady = other.waitForReady;
     maxInboundMessageSize = other.maxInboundMessageSize;
     maxOutboundMessageSize = other.maxOutboundMessageSize;
+    streamWeight = other.streamWeight;
+    compressionPolicy = other.compressionPolicy;
     streamTracerFactories = other.streamTracerFactories;
   }
 
@@ -446,6 +504,8 @@ public final class CallOptions {
         .add("waitForReady", isWaitForReady())
         .add("maxInboundMessageSize", maxInboundMessageSize)
         .add("maxOutboundMessageSize", maxOutboundMessageSize)
+        .add("streamWeight", streamWeight)
+        .add("compressionPolicy", compressionPolicy)
         .add("streamTracerFactories", streamTracerFactories)
         .toString();
   }
@@ -19,8 +19,6 @@ package io.grpc;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Encloses classes related to the compression and decompression of messages.
@@ -31,6 +29,9 @@ public interface Codec extends Compressor, Decompressor {
   /**
    * A gzip compressor and decompressor.  In the future this will likely support other
    * compression methods, such as compression level.
+   *
+   * <p>The zlib state of the streams is taken from a shared pool and returned when a stream is
+   * closed, or for decompression also when its end is reached.
    */
   final class Gzip implements Codec {
     @Override
@@ -40,12 +41,12 @@ public interface Codec extends Compressor, Decompressor {
 
     @Override
     public OutputStream compress(OutputStream os) throws IOException {
-      return new GZIPOutputStream(os);
+      return new PooledGzipOutputStream(os, InternalZlibPool.getDefaultInstance());
     }
 
     @Override
     public InputStream decompress(InputStream is) throws IOException {
-      return new GZIPInputStream(is);
+      return new PooledGzipInputStream(is, InternalZlibPool.getDefaultInstance());
     }
   }
 
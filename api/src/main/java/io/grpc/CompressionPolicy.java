@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Decides which outbound messages of a call are compressed, once a compressor is in use for the
+ * call. Without a policy every message is compressed, even if it is so small or so random that
+ * compression only costs CPU or makes it larger.
+ *
+ * <p>Messages are never compressed when the compressor is identity or when message compression is
+ * disabled on the call, whatever the policy says.
+ *
+ * @since 1.26.0
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+@ThreadSafe
+public abstract class CompressionPolicy {
+
+  /**
+   * Returns the policy for the outbound messages of one call of {@code fullMethodName}. It is
+   * called once per call, when the call starts to compress.
+   */
+  public abstract CallPolicy newCallPolicy(String fullMethodName);
+
+  /**
+   * Decides which messages of one call are compressed. It is used from one thread at a time.
+   */
+  public abstract static class CallPolicy {
+    /**
+     * Returns whether to compress the next message.
+     *
+     * @param messageSize the serialized size of the message, or {@code -1} if unknown
+     */
+    public abstract boolean shouldCompress(int messageSize);
+
+    /**
+     * Reports the result of compressing a message.
+     *
+     * @param uncompressedSize the serialized size of the message
+     * @param compressedSize the size of the message after compression
+     */
+    public void messageCompressed(int uncompressedSize, int compressedSize) {}
+  }
+
+  /**
+   * Returns a policy that skips compression of small messages and of methods whose messages do not
+   * compress well.
+   *
+   * <p>Messages whose size is known to be below {@code minMessageSize} are not compressed. For each
+   * method the policy measures how much compression saves over windows of recent messages. If less
+   * than {@code minSavings} of the bytes were saved, compression is disabled for the method, except
+   * for an occasional message so that it can be enabled again when the messages change.
+   *
+   * @param minMessageSize the size in bytes below which messages are not compressed
+   * @param minSavings the fraction of bytes compression must save to stay enabled for a method, for
+   *     example {@code 0.1}
+   */
+  public static CompressionPolicy adaptive(int minMessageSize, double minSavings) {
+    return new AdaptivePolicy(minMessageSize, minSavings);
+  }
+
+  private static final class AdaptivePolicy extends CompressionPolicy {
+    /** The number of compressed messages over which the savings are measured. */
+    static final int WINDOW_SIZE = 16;
+    /** While compression is disabled, one in this many messages is still compressed. */
+    static final int PROBE_INTERVAL = 16;
+
+    final int minMessageSize;
+    final double minSavings;
+    final ConcurrentMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+
+    AdaptivePolicy(int minMessageSize, double minSavings) {
+      checkArgument(minMessageSize >= 0, "minMessageSize must be >= 0: %s", minMessageSize);
+      checkArgument(
+          minSavings >= 0 && minSavings < 1, "minSavings must be in [0, 1): %s", minSavings);
+      this.minMessageSize = minMessageSize;
+      this.minSavings = minSavings;
+    }
+
+    @Override
+    public CallPolicy newCallPolicy(String fullMethodName) {
+      checkNotNull(fullMethodName, "fullMethodName");
+      MethodStats stats = methods.get(fullMethodName);
+      if (stats == null) {
+        MethodStats newStats = new MethodStats();
+        stats = methods.putIfAbsent(fullMethodName, newStats);
+        if (stats == null) {
+          stats = newStats;
+        }
+      }
+      return stats;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("minMessageSize", minMessageSize)
+          .add("minSavings", minSavings)
+          .toString();
+    }
+
+    /**
+     * The state of one method, shared by all its calls. Messages are counted with atomics, and the
+     * thread whose message completes a window decides whether compression stays enabled, so
+     * reporting a message takes no lock.
+     */
+    final class MethodStats extends CallPolicy {
+      private final AtomicInteger skipped = new AtomicInteger();
+      private final AtomicInteger messages = new AtomicInteger();
+      private final AtomicLong uncompressedBytes = new AtomicLong();
+      private final AtomicLong compressedBytes = new AtomicLong();
+      // Totals at the end of the previous window. Only written by the thread completing a window.
+      private volatile long windowStartUncompressedBytes;
+      private volatile long windowStartCompressedBytes;
+      private volatile boolean enabled = true;
+
+      @Override
+      public boolean shouldCompress(int messageSize) {
+        if (messageSize != -1 && messageSize < minMessageSize) {
+          return false;
+        }
+        return enabled || skipped.incrementAndGet() % PROBE_INTERVAL == 0;
+      }
+
+      @Override
+      public void messageCompressed(int uncompressedSize, int compressedSize) {
+        long uncompressed = uncompressedBytes.addAndGet(uncompressedSize);
+        long compressed = compressedBytes.addAndGet(compressedSize);
+        if (messages.incrementAndGet() % WINDOW_SIZE != 0) {
+          return;
+        }
+        // Messages of other calls racing with this one may be counted in either window, which
+        // does not matter for an estimate.
+        long windowUncompressed = uncompressed - windowStartUncompressedBytes;
+        long windowCompressed = compressed - windowStartCompressedBytes;
+        windowStartUncompressedBytes = uncompressed;
+        windowStartCompressedBytes = compressed;
+        if (windowUncompressed <= 0) {
+          return;
+        }
+        double savings = 1 - (double) windowCompressed / windowUncompressed;
+        enabled = savings >= minSavings;
+      }
+    }
+  }
+}
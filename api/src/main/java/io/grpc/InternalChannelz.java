@@ -1059,6 +1059,11 @@ public final class InternalChannelz {
     public final long lastMessageReceivedTimeNanos;
     public final long localFlowControlWindow;
     public final long remoteFlowControlWindow;
+    public final long flushes;
+    public final long flushedBytes;
+    public final long streamsQueued;
+    public final long streamsPending;
+    public final long streamQueueWaitNanos;
     // TODO(zpencer): report socket flags and other info
 
     /**
@@ -1076,7 +1081,12 @@ public final class InternalChannelz {
         long lastMessageSentTimeNanos,
         long lastMessageReceivedTimeNanos,
         long localFlowControlWindow,
-        long remoteFlowControlWindow) {
+        long remoteFlowControlWindow,
+        long flushes,
+        long flushedBytes,
+        long streamsQueued,
+        long streamsPending,
+        long streamQueueWaitNanos) {
       this.streamsStarted = streamsStarted;
       this.lastLocalStreamCreatedTimeNanos = lastLocalStreamCreatedTimeNanos;
       this.lastRemoteStreamCreatedTimeNanos = lastRemoteStreamCreatedTimeNanos;
@@ -1089,6 +1099,11 @@ public final class InternalChannelz {
       this.lastMessageReceivedTimeNanos = lastMessageReceivedTimeNanos;
       this.localFlowControlWindow = localFlowControlWindow;
       this.remoteFlowControlWindow = remoteFlowControlWindow;
+      this.flushes = flushes;
+      this.flushedBytes = flushedBytes;
+      this.streamsQueued = streamsQueued;
+      this.streamsPending = streamsPending;
+      this.streamQueueWaitNanos = streamQueueWaitNanos;
     }
   }
 
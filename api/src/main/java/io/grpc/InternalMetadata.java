@@ -38,6 +38,14 @@ public final class InternalMetadata {
   @Internal
   public interface TrustedAsciiMarshaller<T> extends Metadata.TrustedAsciiMarshaller<T> {}
 
+  /**
+   * A received header value that is only converted to bytes when first read.
+   *
+   * <p>Extended here to break the dependency.
+   */
+  @Internal
+  public interface LazyValue extends Metadata.LazyValue {}
+
   /**
    * Copy of StandardCharsets, which is only available on Java 1.7 and above.
    */
@@ -73,6 +81,15 @@ public final class InternalMetadata {
     return new Metadata(usedNames, binaryValues);
   }
 
+  /**
+   * Creates metadata from received headers. Each value is either a {@code byte[]} or a {@link
+   * LazyValue}, and {@code namesAndValues} may be mutated.
+   */
+  @Internal
+  public static Metadata newMetadataWithLazyValues(int usedNames, Object[] namesAndValues) {
+    return new Metadata(usedNames, namesAndValues);
+  }
+
   @Internal
   public static byte[][] serialize(Metadata md) {
     return md.serialize();
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import java.util.ArrayDeque;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded pool of the raw deflate {@link Inflater}s and {@link Deflater}s used for gzip, so that
+ * their native zlib state is not allocated and freed for every message or stream.
+ *
+ * <p>Instances are reset when they are returned. Instances returned while the pool is full are
+ * ended. An instance must not be used after it is returned.
+ */
+@Internal
+@ThreadSafe
+public final class InternalZlibPool {
+  private static final int DEFAULT_MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+  private static final InternalZlibPool DEFAULT_INSTANCE = new InternalZlibPool(DEFAULT_MAX_IDLE);
+
+  private final ObjectPool<Inflater> inflaters;
+  private final ObjectPool<Deflater> deflaters;
+
+  /**
+   * Returns the pool used by the gzip codec.
+   */
+  public static InternalZlibPool getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  /**
+   * Creates a pool that keeps up to {@code maxIdle} instances of each kind.
+   */
+  public InternalZlibPool(int maxIdle) {
+    checkArgument(maxIdle >= 0, "maxIdle must be >= 0: %s", maxIdle);
+    inflaters = new ObjectPool<Inflater>(maxIdle) {
+      @Override
+      Inflater create() {
+        return new Inflater(true);
+      }
+
+      @Override
+      void reset(Inflater inflater) {
+        inflater.reset();
+      }
+
+      @Override
+      void end(Inflater inflater) {
+        inflater.end();
+      }
+    };
+    deflaters = new ObjectPool<Deflater>(maxIdle) {
+      @Override
+      Deflater create() {
+        return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      }
+
+      @Override
+      void reset(Deflater deflater) {
+        deflater.reset();
+      }
+
+      @Override
+      void end(Deflater deflater) {
+        deflater.end();
+      }
+    };
+  }
+
+  /**
+   * Returns an {@link Inflater} for raw deflate data, as is found in a gzip member.
+   */
+  public Inflater takeInflater() {
+    return inflaters.take();
+  }
+
+  /**
+   * Returns an {@link Inflater} obtained from {@link #takeInflater} to the pool.
+   */
+  public void returnInflater(Inflater inflater) {
+    inflaters.give(checkNotNull(inflater, "inflater"));
+  }
+
+  /**
+   * Returns a {@link Deflater} that produces raw deflate data at the default compression level.
+   */
+  public Deflater takeDeflater() {
+    return deflaters.take();
+  }
+
+  /**
+   * Returns a {@link Deflater} obtained from {@link #takeDeflater} to the pool.
+   */
+  public void returnDeflater(Deflater deflater) {
+    deflaters.give(checkNotNull(deflater, "deflater"));
+  }
+
+  public Stats getInflaterStats() {
+    return inflaters.getStats();
+  }
+
+  public Stats getDeflaterStats() {
+    return deflaters.getStats();
+  }
+
+  /**
+   * Counters of one kind of pooled instance.
+   */
+  @Immutable
+  public static final class Stats {
+    /** Number of instances that were allocated because the pool was empty. */
+    public final long created;
+    /** Number of instances that were taken from the pool. */
+    public final long reused;
+    /** Number of returned instances that were ended because the pool was full. */
+    public final long discarded;
+    /** Number of instances in the pool. */
+    public final int idle;
+
+    Stats(long created, long reused, long discarded, int idle) {
+      this.created = created;
+      this.reused = reused;
+      this.discarded = discarded;
+      this.idle = idle;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("created", created)
+          .add("reused", reused)
+          .add("discarded", discarded)
+          .add("idle", idle)
+          .toString();
+    }
+  }
+
+  private abstract static class ObjectPool<T> {
+    private final int maxIdle;
+    @GuardedBy("this")
+    private final ArrayDeque<T> idle = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long created;
+    @GuardedBy("this")
+    private long reused;
+    @GuardedBy("this")
+    private long discarded;
+
+    ObjectPool(int maxIdle) {
+      this.maxIdle = maxIdle;
+    }
+
+    abstract T create();
+
+    abstract void reset(T instance);
+
+    abstract void end(T instance);
+
+    final T take() {
+      synchronized (this) {
+        T instance = idle.pollLast();
+        if (instance != null) {
+          reused++;
+          return instance;
+        }
+        created++;
+      }
+      return create();
+    }
+
+    final void give(T instance) {
+      reset(instance);
+      synchronized (this) {
+        if (idle.size() < maxIdle) {
+          idle.addLast(instance);
+          return;
+        }
+        discarded++;
+      }
+      end(instance);
+    }
+
+    final synchronized Stats getStats() {
+      return new Stats(created, reused, discarded, idle.size());
+    }
+  }
+}
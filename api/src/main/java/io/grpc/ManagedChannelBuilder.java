@@ -591,6 +591,23 @@ public abstract class ManagedChannelBuilder<T extends ManagedChannelBuilder<T>>
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Sets the number of connections each subchannel keeps open to its address. The default is 1.
+   * When greater than 1, the subchannel opens the additional connections once the first one is
+   * ready, and sends each new call on the ready connection with the fewest active calls. This
+   * lets a single busy backend use the throughput of several connections, each served by its own
+   * transport thread, and reduces how often calls wait for a connection's stream limit.
+   *
+   * @param connections the number of connections per subchannel, at least 1.
+   * @return this
+   * @throws IllegalArgumentException if {@code connections} is less than 1.
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until connection pooling is stable")
+  public T connectionsPerSubchannel(int connections) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Builds a channel using the given parameters.
    *
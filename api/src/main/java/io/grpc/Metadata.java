@@ -121,31 +121,82 @@ public final class Metadata {
    * @param usedNames the number of
    */
   Metadata(int usedNames, byte[]... binaryValues) {
-    assert (binaryValues.length & 1) == 0 : "Odd number of key-value pairs " + binaryValues.length;
+    this(usedNames, (Object[]) binaryValues);
+  }
+
+  /**
+   * Constructor called by the transport layer when it receives metadata whose values may not have
+   * been converted to bytes yet. Each value is either a {@code byte[]} or a {@link LazyValue}.
+   * Metadata will mutate the passed in array.
+   *
+   * @param usedNames the number of names used in {@code namesAndValues}
+   */
+  Metadata(int usedNames, Object[] namesAndValues) {
+    assert (namesAndValues.length & 1) == 0
+        : "Odd number of key-value pairs " + namesAndValues.length;
     size = usedNames;
-    namesAndValues = binaryValues;
+    this.namesAndValues = namesAndValues;
+    reindex();
   }
 
-  private byte[][] namesAndValues;
+  // Names are always byte[]. Values are byte[] or, if the runtime type is not byte[][], LazyValue.
+  private Object[] namesAndValues;
   // The unscaled number of headers present.
   private int size;
 
+  /**
+   * Number of headers at which lookups switch from a linear scan to {@link #index}. Below this a
+   * scan is cheaper than hashing, since most names differ in length.
+   */
+  @VisibleForTesting
+  static final int INDEX_THRESHOLD = 16;
+
+  /**
+   * Open-addressing index of header positions by name hash, or {@code null} while there are fewer
+   * than {@link #INDEX_THRESHOLD} headers. It is only changed by methods that change the headers,
+   * so that lookups do not modify this object. Each slot is a pair of ints: the name hash and the
+   * header position plus one, where zero marks an empty slot.
+   */
+  @Nullable
+  private int[] index;
+
   private byte[] name(int i) {
-    return namesAndValues[i * 2];
+    return (byte[]) namesAndValues[i * 2];
   }
 
   private void name(int i, byte[] name) {
     namesAndValues[i * 2] = name;
   }
 
+  /**
+   * Returns the value at position {@code i}, converting a {@link LazyValue} in place so later reads
+   * of this instance reuse the bytes. Other instances sharing the same {@code LazyValue} still
+   * convert it on their own.
+   */
   private byte[] value(int i) {
-    return namesAndValues[i * 2 + 1];
+    Object value = namesAndValues[i * 2 + 1];
+    if (value instanceof byte[]) {
+      return (byte[]) value;
+    }
+    byte[] bytes = ((LazyValue) value).toBytes();
+    namesAndValues[i * 2 + 1] = bytes;
+    return bytes;
   }
 
   private void value(int i, byte[] value) {
     namesAndValues[i * 2 + 1] = value;
   }
 
+  /** Copies header {@code from} to position {@code to} without converting lazy values. */
+  private void move(int from, int to) {
+    namesAndValues[to * 2] = namesAndValues[from * 2];
+    namesAndValues[to * 2 + 1] = namesAndValues[from * 2 + 1];
+  }
+
+  private boolean mayHoldLazyValues() {
+    return namesAndValues != null && !(namesAndValues instanceof byte[][]);
+  }
+
   private int cap() {
     return namesAndValues != null ? namesAndValues.length : 0;
   }
@@ -171,16 +222,11 @@ public final class Metadata {
   /**
    * Returns true if a value is defined for the given key.
    *
-   * <p>This is done by linear search, so if it is followed by {@link #get} or {@link #getAll},
+   * <p>This may be done by linear search, so if it is followed by {@link #get} or {@link #getAll},
    * prefer calling them directly and checking the return value against {@code null}.
    */
   public boolean containsKey(Key<?> key) {
-    for (int i = 0; i < size; i++) {
-      if (bytesEqual(key.asciiName(), name(i))) {
-        return true;
-      }
-    }
-    return false;
+    return firstIndexOf(key) != -1;
   }
 
   /**
@@ -190,12 +236,8 @@ public final class Metadata {
    */
   @Nullable
   public <T> T get(Key<T> key) {
-    for (int i = size - 1; i >= 0; i--) {
-      if (bytesEqual(key.asciiName(), name(i))) {
-        return key.parseBytes(value(i));
-      }
-    }
-    return null;
+    int i = lastIndexOf(key);
+    return i != -1 ? key.parseBytes(value(i)) : null;
   }
 
   private final class IterableAt<T> implements Iterable<T> {
@@ -251,12 +293,123 @@ public final class Metadata {
    */
   @Nullable
   public <T> Iterable<T> getAll(final Key<T> key) {
-    for (int i = 0; i < size; i++) {
-      if (bytesEqual(key.asciiName(), name(i))) {
-        return new IterableAt<>(key, i);
+    int i = firstIndexOf(key);
+    return i != -1 ? new IterableAt<>(key, i) : null;
+  }
+
+  /** Returns the position of the first header named {@code key}, or -1 if there is none. */
+  private int firstIndexOf(Key<?> key) {
+    if (index == null) {
+      for (int i = 0; i < size; i++) {
+        if (bytesEqual(key.asciiName(), name(i))) {
+          return i;
+        }
       }
+      return -1;
     }
-    return null;
+    return indexLookup(key, false);
+  }
+
+  /** Returns the position of the last header named {@code key}, or -1 if there is none. */
+  private int lastIndexOf(Key<?> key) {
+    if (index == null) {
+      for (int i = size - 1; i >= 0; i--) {
+        if (bytesEqual(key.asciiName(), name(i))) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    return indexLookup(key, true);
+  }
+
+  private int indexLookup(Key<?> key, boolean last) {
+    int hash = key.nameHash();
+    int mask = (index.length >> 1) - 1;
+    int found = -1;
+    for (int slot = hash & mask; index[slot * 2 + 1] != 0; slot = (slot + 1) & mask) {
+      if (index[slot * 2] != hash) {
+        continue;
+      }
+      int i = index[slot * 2 + 1] - 1;
+      if ((found == -1 || (last ? i > found : i < found)) && bytesEqual(key.asciiName(), name(i))) {
+        found = i;
+      }
+    }
+    return found;
+  }
+
+  private void buildIndex() {
+    // Start at a load factor of at most 1/4, leaving room to append before rebuilding.
+    int slots = Integer.highestOneBit(Math.max(size, INDEX_THRESHOLD) * 4);
+    index = new int[slots * 2];
+    for (int i = 0; i < size; i++) {
+      indexInsert(nameHash(name(i)), i);
+    }
+  }
+
+  /** Drops the index, and builds a new one if there are enough headers. */
+  private void reindex() {
+    index = null;
+    if (size >= INDEX_THRESHOLD) {
+      buildIndex();
+    }
+  }
+
+  /**
+   * Updates the index once the header at {@code size - 1}, whose name hashes to {@code hash}, was
+   * added.
+   */
+  private void indexAppended(int hash) {
+    if (index != null && !indexOverloaded()) {
+      indexInsert(hash, size - 1);
+    } else {
+      reindex();
+    }
+  }
+
+  @VisibleForTesting
+  boolean isIndexed() {
+    return index != null;
+  }
+
+  /** Returns whether the index is over a load factor of 1/2, and should be rebuilt larger. */
+  private boolean indexOverloaded() {
+    return size * 2 > index.length >> 1;
+  }
+
+  private void indexInsert(int hash, int i) {
+    int mask = (index.length >> 1) - 1;
+    int slot = hash & mask;
+    while (index[slot * 2 + 1] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot * 2] = hash;
+    index[slot * 2 + 1] = i + 1;
+  }
+
+  /**
+   * Hashes a header name. Only the length, the last 4 bytes and two bytes from the front half are
+   * hashed, so that hashing stays cheap for long names; names that collide are told apart by
+   * comparing their bytes. {@link Key} caches this for its own name.
+   */
+  static int nameHash(byte[] name) {
+    int len = name.length;
+    int h = len;
+    if (len != 0) {
+      h = 31 * h + name[len >>> 2];
+      h = 31 * h + name[len >>> 1];
+    }
+    for (int i = Math.max(0, len - 4); i < len; i++) {
+      h = 31 * h + name[i];
+    }
+    // Mix (murmur3 finalizer), since names that differ only in their last byte would otherwise
+    // get consecutive hashes and cluster.
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    return h ^ (h >>> 16);
   }
 
   /**
@@ -290,6 +443,7 @@ public final class Metadata {
     name(size, key.asciiName());
     value(size, key.toBytes(value));
     size++;
+    indexAppended(key.nameHash());
   }
 
   private void maybeExpand() {
@@ -298,9 +452,14 @@ public final class Metadata {
     }
   }
 
-  // Expands to exactly the desired capacity.
   private void expand(int newCapacity) {
-    byte[][] newNamesAndValues = new byte[newCapacity][];
+    expand(newCapacity, mayHoldLazyValues());
+  }
+
+  // Expands to exactly the desired capacity. Lazy values need an Object[]; otherwise a byte[][] is
+  // kept so that serialize() can return it as is.
+  private void expand(int newCapacity, boolean lazyValues) {
+    Object[] newNamesAndValues = lazyValues ? new Object[newCapacity] : new byte[newCapacity][];
     if (!isEmpty()) {
       System.arraycopy(namesAndValues, 0, newNamesAndValues, 0, len());
     }
@@ -334,6 +493,7 @@ public final class Metadata {
       size -= 1;
       name(size, null);
       value(size, null);
+      reindex();
       return true;
     }
     return false;
@@ -341,7 +501,7 @@ public final class Metadata {
 
   /** Remove all values for the given key. If there were no values, {@code null} is returned. */
   public <T> Iterable<T> removeAll(Key<T> key) {
-    if (isEmpty()) {
+    if (isEmpty() || (index != null && firstIndexOf(key) == -1)) {
       return null;
     }
     int writeIdx = 0;
@@ -353,14 +513,17 @@ public final class Metadata {
         ret.add(key.parseBytes(value(readIdx)));
         continue;
       }
-      name(writeIdx, name(readIdx));
-      value(writeIdx, value(readIdx));
+      move(readIdx, writeIdx);
       writeIdx++;
     }
     int newSize = writeIdx;
     // Multiply by two since namesAndValues is interleaved.
     Arrays.fill(namesAndValues, writeIdx * 2, len(), null);
+    boolean removed = newSize != size;
     size = newSize;
+    if (removed) {
+      reindex();
+    }
     return ret;
   }
 
@@ -370,7 +533,7 @@ public final class Metadata {
    */
   @ExperimentalApi("https://github.com/grpc/grpc-java/issues/4691")
   public <T> void discardAll(Key<T> key) {
-    if (isEmpty()) {
+    if (isEmpty() || (index != null && firstIndexOf(key) == -1)) {
       return;
     }
     int writeIdx = 0;
@@ -379,14 +542,17 @@ public final class Metadata {
       if (bytesEqual(key.asciiName(), name(readIdx))) {
         continue;
       }
-      name(writeIdx, name(readIdx));
-      value(writeIdx, value(readIdx));
+      move(readIdx, writeIdx);
       writeIdx++;
     }
     int newSize = writeIdx;
     // Multiply by two since namesAndValues is interleaved.
     Arrays.fill(namesAndValues, writeIdx * 2, len(), null);
+    boolean removed = newSize != size;
     size = newSize;
+    if (removed) {
+      reindex();
+    }
   }
 
   /**
@@ -406,8 +572,16 @@ public final class Metadata {
    */
   @Nullable
   byte[][] serialize() {
+    if (mayHoldLazyValues()) {
+      byte[][] serialized = new byte[len()][];
+      for (int i = 0; i < size; i++) {
+        serialized[i * 2] = name(i);
+        serialized[i * 2 + 1] = value(i);
+      }
+      return serialized;
+    }
     if (len() == cap()) {
-      return namesAndValues;
+      return (byte[][]) namesAndValues;
     }
     byte[][] serialized = new byte[len()][];
     System.arraycopy(namesAndValues, 0, serialized, 0, len());
@@ -425,11 +599,20 @@ public final class Metadata {
       return;
     }
     int remaining = cap() - len();
-    if (isEmpty() || remaining < other.len()) {
-      expand(len() + other.len());
+    boolean lazyValues = mayHoldLazyValues() || other.mayHoldLazyValues();
+    if (isEmpty() || remaining < other.len() || lazyValues != mayHoldLazyValues()) {
+      expand(len() + other.len(), lazyValues);
     }
     System.arraycopy(other.namesAndValues, 0, namesAndValues, len(), other.len());
+    int oldSize = size;
     size += other.size;
+    if (index != null && !indexOverloaded()) {
+      for (int i = oldSize; i < size; i++) {
+        indexInsert(nameHash(name(i)), i);
+      }
+    } else {
+      reindex();
+    }
   }
 
   /**
@@ -453,6 +636,7 @@ public final class Metadata {
         name(size, other.name(i));
         value(size, other.value(i));
         size++;
+        indexAppended(nameHash(other.name(i)));
       }
     }
   }
@@ -480,6 +664,22 @@ public final class Metadata {
     return Arrays.equals(left, right);
   }
 
+  /**
+   * A received header value that is only converted to bytes when first read, so that transports
+   * need not copy or decode values that are never used.
+   */
+  interface LazyValue {
+    /**
+     * Returns the value as bytes. Values of binary headers must be base64 decoded.
+     *
+     * <p>Each {@code Metadata} caches the result, but {@link #merge} copies unconverted values
+     * into other instances, so this may be called once per instance holding the value, possibly
+     * from different threads. Implementations must be idempotent: every call returns a new array
+     * with equal contents and has no other effect.
+     */
+    byte[] toBytes();
+  }
+
   /** Marshaller for metadata values that are serialized into raw binary. */
   public interface BinaryMarshaller<T> {
     /**
@@ -601,6 +801,7 @@ public final class Metadata {
 
     private final String name;
     private final byte[] nameBytes;
+    private final int nameHash;
 
     private static BitSet generateValidTChars() {
       BitSet valid = new BitSet(0x7f);
@@ -636,6 +837,7 @@ public final class Metadata {
       this.originalName = checkNotNull(name, "name");
       this.name = validateName(this.originalName.toLowerCase(Locale.ROOT), pseudo);
       this.nameBytes = this.name.getBytes(US_ASCII);
+      this.nameHash = Metadata.nameHash(nameBytes);
     }
 
     /**
@@ -665,6 +867,11 @@ public final class Metadata {
       return nameBytes;
     }
 
+    /** Returns {@link Metadata#nameHash} of {@link #asciiName}. */
+    int nameHash() {
+      return nameHash;
+    }
+
     /**
      * Returns true if the two objects are both Keys, and their names match (case insensitive).
      */
@@ -59,6 +59,18 @@ abstract class PartialForwardingServerCall<ReqT, RespT> extends ServerCall<ReqT,
     delegate().setMessageCompression(enabled);
   }
 
+  @Override
+  @ExperimentalApi("Experimental until write coalescing is stable")
+  public void setWriteCoalescing(boolean enabled) {
+    delegate().setWriteCoalescing(enabled);
+  }
+
+  @Override
+  @ExperimentalApi("Experimental until stream weights are supported by all transports")
+  public void setStreamWeight(int weight) {
+    delegate().setStreamWeight(weight);
+  }
+
   @Override
   @ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
   public void setCompression(String compressor) {
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import javax.annotation.Nullable;
+
+/**
+ * Reads gzip data, like {@link java.util.zip.GZIPInputStream}, with an {@link Inflater} borrowed
+ * from an {@link InternalZlibPool}. Concatenated gzip members are read as one stream. The inflater
+ * is returned once the end of the data is reached or the stream is closed, whichever comes first,
+ * since message parsers do not always close their input.
+ */
+final class PooledGzipInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 512;
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int DEFLATE_METHOD = 8;
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private final InputStream in;
+  private final InternalZlibPool pool;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int bufferStart;
+  private int bufferEnd;
+  private final CRC32 crc = new CRC32();
+  private final byte[] singleByte = new byte[1];
+  @Nullable
+  private Inflater inflater;
+  private boolean eof;
+  private boolean closed;
+
+  PooledGzipInputStream(InputStream in, InternalZlibPool pool) throws IOException {
+    this.in = in;
+    this.pool = pool;
+    readHeader();
+    inflater = pool.takeInflater();
+  }
+
+  @Override
+  public int read() throws IOException {
+    return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    while (!eof) {
+      int n;
+      try {
+        n = inflater.inflate(b, off, len);
+      } catch (DataFormatException e) {
+        String message = e.getMessage();
+        throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+      }
+      if (n > 0) {
+        crc.update(b, off, n);
+        return n;
+      }
+      if (inflater.finished()) {
+        // Bytes given to the inflater past the end of the deflate block belong to the trailer.
+        bufferStart = bufferEnd - inflater.getRemaining();
+        readTrailer();
+        if (!readNextHeader()) {
+          eof = true;
+          releaseInflater();
+        }
+      } else if (inflater.needsDictionary()) {
+        throw new ZipException("Unexpected dictionary in gzip data");
+      } else if (inflater.needsInput()) {
+        if (bufferStart == bufferEnd && !fill()) {
+          throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        inflater.setInput(buffer, bufferStart, bufferEnd - bufferStart);
+        bufferStart = bufferEnd;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int available() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    return eof ? 0 : 1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    releaseInflater();
+    in.close();
+  }
+
+  private void releaseInflater() {
+    if (inflater != null) {
+      pool.returnInflater(inflater);
+      inflater = null;
+    }
+  }
+
+  /**
+   * Reads the header of the next member, if any. Like {@link java.util.zip.GZIPInputStream}, bytes
+   * after a member that do not start a valid header are ignored.
+   */
+  private boolean readNextHeader() throws IOException {
+    if (bufferStart == bufferEnd && !fill()) {
+      return false;
+    }
+    try {
+      readHeader();
+    } catch (IOException e) {
+      return false;
+    }
+    inflater.reset();
+    return true;
+  }
+
+  private void readHeader() throws IOException {
+    crc.reset();
+    if (readHeaderUnsignedShort() != GZIP_MAGIC) {
+      throw new ZipException("Not in GZIP format");
+    }
+    if (readHeaderUnsignedByte() != DEFLATE_METHOD) {
+      throw new ZipException("Unsupported compression method");
+    }
+    int flags = readHeaderUnsignedByte();
+    // Modification time, extra flags and operating system.
+    for (int i = 0; i < 6; i++) {
+      readHeaderUnsignedByte();
+    }
+    if ((flags & FEXTRA) != 0) {
+      for (int i = readHeaderUnsignedShort(); i > 0; i--) {
+        readHeaderUnsignedByte();
+      }
+    }
+    if ((flags & FNAME) != 0) {
+      skipHeaderString();
+    }
+    if ((flags & FCOMMENT) != 0) {
+      skipHeaderString();
+    }
+    if ((flags & FHCRC) != 0) {
+      int expectedCrc = (int) crc.getValue() & 0xFFFF;
+      if (readUnsignedByte() + (readUnsignedByte() << 8) != expectedCrc) {
+        throw new ZipException("Corrupt GZIP header");
+      }
+    }
+    crc.reset();
+  }
+
+  private void readTrailer() throws IOException {
+    long expectedCrc = readUnsignedInt();
+    long expectedSize = readUnsignedInt();
+    if (expectedCrc != crc.getValue()) {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+    if (expectedSize != (inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+  }
+
+  /** Skips a zero-terminated string. */
+  private void skipHeaderString() throws IOException {
+    int b;
+    do {
+      b = readHeaderUnsignedByte();
+    } while (b != 0);
+  }
+
+  private int readHeaderUnsignedShort() throws IOException {
+    return readHeaderUnsignedByte() | (readHeaderUnsignedByte() << 8);
+  }
+
+  private int readHeaderUnsignedByte() throws IOException {
+    int b = readUnsignedByte();
+    crc.update(b);
+    return b;
+  }
+
+  private long readUnsignedInt() throws IOException {
+    long value = 0;
+    for (int i = 0; i < 4; i++) {
+      value |= (long) readUnsignedByte() << (8 * i);
+    }
+    return value;
+  }
+
+  private int readUnsignedByte() throws IOException {
+    if (bufferStart == bufferEnd && !fill()) {
+      throw new EOFException();
+    }
+    return buffer[bufferStart++] & 0xFF;
+  }
+
+  /** Reads more input into the empty buffer. Returns {@code false} at the end of the input. */
+  private boolean fill() throws IOException {
+    bufferStart = 0;
+    bufferEnd = 0;
+    int n = in.read(buffer, 0, buffer.length);
+    if (n == -1) {
+      return false;
+    }
+    bufferEnd = n;
+    return true;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a single gzip member, like {@link java.util.zip.GZIPOutputStream}, with a {@link
+ * java.util.zip.Deflater} borrowed from an {@link InternalZlibPool}. The deflater is returned when
+ * the stream is closed.
+ */
+final class PooledGzipOutputStream extends DeflaterOutputStream {
+  private static final int BUFFER_SIZE = 512;
+  // Magic number, deflate method, no flags, no modification time, no extra flags, unknown OS.
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0};
+
+  private final InternalZlibPool pool;
+  private final CRC32 crc = new CRC32();
+  private boolean closed;
+
+  PooledGzipOutputStream(OutputStream out, InternalZlibPool pool) throws IOException {
+    super(out, pool.takeDeflater(), BUFFER_SIZE);
+    this.pool = pool;
+    try {
+      out.write(HEADER);
+    } catch (IOException e) {
+      closed = true;
+      pool.returnDeflater(def);
+      throw e;
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    super.write(b, off, len);
+    crc.update(b, off, len);
+  }
+
+  @Override
+  public void finish() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (!def.finished()) {
+      super.finish();
+      writeTrailer();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      finish();
+    } finally {
+      // Once returned the deflater may be in use by another stream.
+      closed = true;
+      pool.returnDeflater(def);
+    }
+    out.close();
+  }
+
+  private void writeTrailer() throws IOException {
+    byte[] trailer = new byte[8];
+    writeInt(trailer, 0, (int) crc.getValue());
+    writeInt(trailer, 4, (int) def.getBytesRead());
+    out.write(trailer);
+  }
+
+  private static void writeInt(byte[] buf, int offset, int value) {
+    buf[offset] = (byte) value;
+    buf[offset + 1] = (byte) (value >> 8);
+    buf[offset + 2] = (byte) (value >> 16);
+    buf[offset + 3] = (byte) (value >> 24);
+  }
+}
@@ -71,6 +71,69 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
    */
   public abstract T executor(@Nullable Executor executor);
 
+  /**
+   * Runs application code on virtual threads. Each call's callbacks still run one at a time and in
+   * order, but a call that blocks only parks its own virtual thread instead of occupying a thread
+   * from a bounded pool. This suits handlers that make blocking calls, such as JDBC.
+   *
+   * <p>Virtual threads require a recent JVM and are detected at runtime. If they are unavailable
+   * the server uses its default executor, as if {@link #executor(Executor)} were called with
+   * {@code null}.
+   *
+   * <p>Replaces any executor set with {@link #executor(Executor)} or {@link #directExecutor()}.
+   *
+   * @return this
+   * @throws UnsupportedOperationException if unsupported
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until virtual threads are widely available")
+  public T virtualThreadExecutor() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Runs application code directly in the transport thread, like {@link #directExecutor()}, and
+   * moves calls that block to {@code offloadExecutor}. A call moves once one of its callbacks has
+   * run for longer than {@code handlerTimeBudget}; its method is then remembered as blocking and
+   * later calls of it start on {@code offloadExecutor}. Methods known to block in advance can be
+   * registered with {@link #blockingMethod(MethodDescriptor)}.
+   *
+   * <p>A callback that blocks is only detected once it returns, so the transport thread is still
+   * held for as long as that first callback runs.
+   *
+   * <p>The server won't take ownership of {@code offloadExecutor}. It's caller's responsibility to
+   * shut down the executor when it's desired.
+   *
+   * <p>Replaces any executor set with {@link #executor(Executor)} or {@link #directExecutor()}.
+   *
+   * @param offloadExecutor executor for calls that block
+   * @param handlerTimeBudget how long a callback may run in the transport thread
+   * @param unit the time unit of {@code handlerTimeBudget}
+   * @return this
+   * @throws UnsupportedOperationException if unsupported
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until the offload heuristic is proven on more workloads")
+  public T directExecutorWithOffload(
+      Executor offloadExecutor, long handlerTimeBudget, TimeUnit unit) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Marks {@code method} as blocking, so that its calls always run on the offload executor given
+   * to {@link #directExecutorWithOffload(Executor, long, TimeUnit)}. Has no effect with any other
+   * executor.
+   *
+   * @param method a method whose handler blocks
+   * @return this
+   * @throws UnsupportedOperationException if unsupported
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until the offload heuristic is proven on more workloads")
+  public T blockingMethod(MethodDescriptor<?, ?> method) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Adds a service implementation to the handler registry.
    *
@@ -191,6 +254,20 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
   @ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
   public abstract T compressorRegistry(@Nullable CompressorRegistry registry);
 
+  /**
+   * Sets the policy that decides which outbound messages are compressed, for calls that use a
+   * compressor. Without a policy all messages of such calls are compressed.
+   *
+   * @param policy the policy, or {@code null} to compress all messages
+   * @return this
+   * @throws UnsupportedOperationException if unsupported
+   * @since 1.26.0
+   */
+  @ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+  public T compressionPolicy(@Nullable CompressionPolicy policy) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Sets the permitted time for new connections to complete negotiation handshakes before being
    * killed.
@@ -184,6 +184,33 @@ public abstract class ServerCall<ReqT, RespT> {
     // noop
   }
 
+  /**
+   * Enables or disables coalescing of sent messages for this call, overriding the server's
+   * default. When enabled, the transport may briefly delay flushing sent messages so that a burst
+   * of small messages is written to the network together, trading a bounded amount of latency for
+   * throughput. This is a hint; transports that do not support coalescing ignore it.
+   */
+  @ExperimentalApi("Experimental until write coalescing is stable")
+  public void setWriteCoalescing(boolean enabled) {
+    // noop
+  }
+
+  /**
+   * Sets the weight of this call's responses when they share a connection with other calls,
+   * overriding any weight the client sent. When the connection cannot send everything pending,
+   * calls receive bandwidth in proportion to their weights. Weights range from 1 to 256, like
+   * HTTP/2 stream weights, and the default is 16. This is a hint; transports that do not support
+   * it ignore it.
+   *
+   * @param weight the weight, between 1 and 256.
+   * @throws IllegalArgumentException if the weight is out of range.
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until stream weights are supported by all transports")
+  public void setStreamWeight(int weight) {
+    // noop
+  }
+
   /**
    * Sets the compression algorithm for this call.  If the server does not support the compression
    * algorithm, the call will fail.  This method may only be called before {@link #sendHeaders}.
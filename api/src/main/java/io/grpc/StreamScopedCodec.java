@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import java.io.Closeable;
+
+/**
+ * A {@link Codec} whose compression state carries over between the messages of one stream, so that
+ * a message can refer to content of the messages before it. Small messages that repeat each other
+ * compress much better this way than one at a time.
+ *
+ * <p>gRPC calls {@link #newStreamCodec} when compression is negotiated for a stream, once for each
+ * direction, and uses the returned instance for all messages of that direction. Both peers must
+ * agree on the message encoding, so a stream-scoped codec needs an encoding name of its own.
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+public interface StreamScopedCodec extends Codec {
+  /**
+   * Creates the compression state of one direction of one stream.
+   */
+  StreamCodec newStreamCodec();
+
+  /**
+   * The compression state of one direction of one stream. It is used from one thread at a time.
+   *
+   * <p>{@link #compress} is called once for each compressed message, in order. The returned stream
+   * is closed at the end of the message, and must have written all of the message to the given
+   * stream by then.
+   *
+   * <p>{@link #decompress} is called once for each compressed message, in order, with a stream
+   * holding exactly the bytes written for that message. The returned stream is read to its end
+   * before the next call.
+   */
+  interface StreamCodec extends Codec, Closeable {
+    /**
+     * Releases the state once the stream has ended. No more messages are passed afterwards.
+     */
+    @Override
+    void close();
+  }
+}
@@ -132,6 +132,33 @@ public class CallOptionsTest {
     assertThat(options2.getExecutor()).isNull();
   }
 
+  @Test
+  public void withCompressionPolicy() {
+    CompressionPolicy policy = CompressionPolicy.adaptive(100, 0.1);
+    assertThat(CallOptions.DEFAULT.getCompressionPolicy()).isNull();
+    CallOptions options = allSet.withCompressionPolicy(policy);
+    assertThat(options.getCompressionPolicy()).isSameInstanceAs(policy);
+    assertThat(options.getCompressor()).isEqualTo(allSet.getCompressor());
+    assertThat(options.withCompressionPolicy(null).getCompressionPolicy()).isNull();
+  }
+
+  @Test
+  public void withStreamWeight() {
+    assertThat(CallOptions.DEFAULT.getStreamWeight()).isNull();
+    assertThat(CallOptions.DEFAULT.withStreamWeight(1).getStreamWeight()).isEqualTo(1);
+    assertThat(allSet.withStreamWeight(256).getStreamWeight()).isEqualTo(256);
+    try {
+      CallOptions.DEFAULT.withStreamWeight(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      CallOptions.DEFAULT.withStreamWeight(257);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
   @Test
   public void withDeadlineAfter() {
     Deadline actual = CallOptions.DEFAULT.withDeadlineAfter(1, MINUTES).getDeadline();
@@ -148,6 +175,7 @@ public class CallOptionsTest {
         .withCallCredentials(null)
         .withMaxInboundMessageSize(44)
         .withMaxOutboundMessageSize(55)
+        .withStreamWeight(66)
         .toString();
 
     assertThat(actual).contains("deadline=null");
@@ -159,6 +187,7 @@ public class CallOptionsTest {
     assertThat(actual).contains("waitForReady=true");
     assertThat(actual).contains("maxInboundMessageSize=44");
     assertThat(actual).contains("maxOutboundMessageSize=55");
+    assertThat(actual).contains("streamWeight=66");
     assertThat(actual).contains("streamTracerFactories=[tracerFactory1, tracerFactory2]");
   }
 
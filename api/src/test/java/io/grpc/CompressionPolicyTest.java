@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.grpc.CompressionPolicy.CallPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link CompressionPolicy}.
+ */
+@RunWith(JUnit4.class)
+public class CompressionPolicyTest {
+  private static final int WINDOW_SIZE = 16;
+
+  private final CompressionPolicy policy = CompressionPolicy.adaptive(100, 0.1);
+
+  @Test
+  public void adaptive_smallMessagesAreNotCompressed() {
+    CallPolicy callPolicy = policy.newCallPolicy("service/method");
+
+    assertFalse(callPolicy.shouldCompress(0));
+    assertFalse(callPolicy.shouldCompress(99));
+    assertTrue(callPolicy.shouldCompress(100));
+    assertTrue(callPolicy.shouldCompress(-1));
+  }
+
+  @Test
+  public void adaptive_poorSavingsDisableCompressionExceptForProbes() {
+    CallPolicy callPolicy = policy.newCallPolicy("service/method");
+    reportWindow(callPolicy, 1000, 950);
+
+    int compressed = 0;
+    for (int i = 0; i < 64; i++) {
+      if (callPolicy.shouldCompress(1000)) {
+        compressed++;
+      }
+    }
+    assertEquals(4, compressed);
+  }
+
+  @Test
+  public void adaptive_goodSavingsEnableCompressionAgain() {
+    CallPolicy callPolicy = policy.newCallPolicy("service/method");
+    reportWindow(callPolicy, 1000, 950);
+    assertFalse(callPolicy.shouldCompress(1000));
+
+    reportWindow(callPolicy, 1000, 100);
+    assertTrue(callPolicy.shouldCompress(1000));
+  }
+
+  @Test
+  public void adaptive_methodsAreMeasuredSeparately() {
+    CallPolicy callPolicy = policy.newCallPolicy("service/method");
+    reportWindow(callPolicy, 1000, 950);
+
+    assertSame(callPolicy, policy.newCallPolicy("service/method"));
+    assertFalse(policy.newCallPolicy("service/method").shouldCompress(1000));
+    assertTrue(policy.newCallPolicy("service/other").shouldCompress(1000));
+  }
+
+  @Test
+  public void adaptive_concurrentCallsShareMeasurements() throws Exception {
+    final CallPolicy callPolicy = policy.newCallPolicy("service/method");
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 100; j++) {
+            reportWindow(callPolicy, 1000, 950);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertFalse(callPolicy.shouldCompress(1000));
+  }
+
+  @Test
+  public void adaptive_invalidArguments() {
+    try {
+      CompressionPolicy.adaptive(-1, 0.1);
+      fail("Should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    try {
+      CompressionPolicy.adaptive(100, 1);
+      fail("Should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  private static void reportWindow(
+      CallPolicy callPolicy, int uncompressedSize, int compressedSize) {
+    for (int i = 0; i < WINDOW_SIZE; i++) {
+      callPolicy.messageCompressed(uncompressedSize, compressedSize);
+    }
+  }
+}
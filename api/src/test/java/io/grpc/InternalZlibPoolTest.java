@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link InternalZlibPool}.
+ */
+@RunWith(JUnit4.class)
+public class InternalZlibPoolTest {
+  private final InternalZlibPool pool = new InternalZlibPool(1);
+
+  @Test
+  public void returnedInflaterIsReused() {
+    Inflater inflater = pool.takeInflater();
+    pool.returnInflater(inflater);
+
+    assertSame(inflater, pool.takeInflater());
+    InternalZlibPool.Stats stats = pool.getInflaterStats();
+    assertEquals(1, stats.created);
+    assertEquals(1, stats.reused);
+    assertEquals(0, stats.discarded);
+    assertEquals(0, stats.idle);
+  }
+
+  @Test
+  public void returnedDeflaterIsReused() {
+    Deflater deflater = pool.takeDeflater();
+    pool.returnDeflater(deflater);
+
+    assertSame(deflater, pool.takeDeflater());
+    assertEquals(1, pool.getDeflaterStats().created);
+    assertEquals(1, pool.getDeflaterStats().reused);
+  }
+
+  @Test
+  public void instancesAreResetOnReturn() throws Exception {
+    Deflater deflater = pool.takeDeflater();
+    deflater.setInput(new byte[100]);
+    deflater.finish();
+    byte[] deflated = new byte[100];
+    int deflatedLength = deflater.deflate(deflated);
+    pool.returnDeflater(deflater);
+
+    Inflater inflater = pool.takeInflater();
+    inflater.setInput(deflated, 0, deflatedLength);
+    assertEquals(100, inflater.inflate(new byte[200]));
+    pool.returnInflater(inflater);
+
+    deflater = pool.takeDeflater();
+    assertFalse(deflater.finished());
+    assertEquals(0, deflater.getBytesRead());
+    inflater = pool.takeInflater();
+    assertFalse(inflater.finished());
+    assertEquals(0, inflater.getBytesWritten());
+  }
+
+  @Test
+  public void instancesReturnedToFullPoolAreEnded() {
+    Inflater first = pool.takeInflater();
+    Inflater second = pool.takeInflater();
+    pool.returnInflater(first);
+    pool.returnInflater(second);
+
+    InternalZlibPool.Stats stats = pool.getInflaterStats();
+    assertEquals(2, stats.created);
+    assertEquals(1, stats.discarded);
+    assertEquals(1, stats.idle);
+    try {
+      second.reset();
+      fail("Expected ended inflater to throw");
+    } catch (NullPointerException expected) {
+      // Inflater throws NullPointerException once ended.
+    }
+    assertSame(first, pool.takeInflater());
+    assertNotSame(first, pool.takeInflater());
+  }
+
+  @Test
+  public void negativeMaxIdle() {
+    try {
+      new InternalZlibPool(-1);
+      fail("Should have thrown");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+}
@@ -30,6 +30,7 @@ import com.google.common.collect.Lists;
 import io.grpc.Metadata.Key;
 import io.grpc.internal.GrpcUtil;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Locale;
 import org.junit.Rule;
@@ -334,6 +335,200 @@ public class MetadataTest {
     }
   }
 
+  @Test
+  public void indexedLookups() {
+    Metadata metadata = new Metadata();
+    Key<String>[] keys = newAsciiKeys(Metadata.INDEX_THRESHOLD * 3);
+    for (int i = 0; i < keys.length; i++) {
+      metadata.put(keys[i], "v" + i);
+    }
+    metadata.put(keys[5], "v5b");
+
+    assertEquals("v0", metadata.get(keys[0]));
+    assertEquals("v5b", metadata.get(keys[5]));
+    assertEquals(Arrays.asList("v5", "v5b"), Lists.newArrayList(metadata.getAll(keys[5])));
+    assertTrue(metadata.containsKey(keys[keys.length - 1]));
+    assertFalse(metadata.containsKey(KEY));
+    assertNull(metadata.get(KEY));
+    assertNull(metadata.getAll(KEY));
+
+    // Appending after the index is built
+    Fish lance = new Fish(LANCE);
+    metadata.put(KEY, lance);
+    assertEquals(lance, metadata.get(KEY));
+    metadata.put(keys[5], "v5c");
+    assertEquals("v5c", metadata.get(keys[5]));
+  }
+
+  @Test
+  public void indexIsMaintainedByWritesNotLookups() {
+    Metadata metadata = new Metadata();
+    Key<String>[] keys = newAsciiKeys(Metadata.INDEX_THRESHOLD);
+    for (int i = 0; i < keys.length - 1; i++) {
+      metadata.put(keys[i], "v" + i);
+    }
+    for (int i = 0; i < 10; i++) {
+      assertEquals("v0", metadata.get(keys[0]));
+    }
+    assertFalse(metadata.isIndexed());
+
+    metadata.put(keys[keys.length - 1], "last");
+    assertTrue(metadata.isIndexed());
+
+    metadata.discardAll(keys[0]);
+    assertFalse(metadata.isIndexed());
+    assertNull(metadata.get(keys[0]));
+    assertEquals("last", metadata.get(keys[keys.length - 1]));
+  }
+
+  @Test
+  public void indexedLookupsAfterRemoval() {
+    Metadata metadata = new Metadata();
+    Key<String>[] keys = newAsciiKeys(Metadata.INDEX_THRESHOLD * 2);
+    for (int i = 0; i < keys.length; i++) {
+      metadata.put(keys[i], "v" + i);
+    }
+    assertIndexed(metadata, keys[3], "v3");
+
+    assertTrue(metadata.remove(keys[0], "v0"));
+    assertNull(metadata.get(keys[0]));
+    assertEquals("v1", metadata.get(keys[1]));
+    assertEquals(Arrays.asList("v3"), Lists.newArrayList(metadata.removeAll(keys[3])));
+    assertNull(metadata.get(keys[3]));
+    assertEquals("v4", metadata.get(keys[4]));
+    assertNull(metadata.removeAll(keys[3]));
+    metadata.discardAll(keys[4]);
+    assertFalse(metadata.containsKey(keys[4]));
+    assertEquals("v" + (keys.length - 1), metadata.get(keys[keys.length - 1]));
+  }
+
+  @Test
+  public void indexedLookupsAfterMerge() {
+    Key<String>[] keys = newAsciiKeys(Metadata.INDEX_THRESHOLD * 4);
+    Metadata metadata = new Metadata();
+    Metadata other = new Metadata();
+    for (int i = 0; i < Metadata.INDEX_THRESHOLD; i++) {
+      metadata.put(keys[i], "v" + i);
+    }
+    for (int i = Metadata.INDEX_THRESHOLD; i < keys.length; i++) {
+      other.put(keys[i], "v" + i);
+    }
+    assertIndexed(metadata, keys[0], "v0");
+
+    metadata.merge(other);
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals("v" + i, metadata.get(keys[i]));
+    }
+
+    Metadata subset = new Metadata();
+    for (int i = 0; i < Metadata.INDEX_THRESHOLD; i++) {
+      subset.put(keys[i], "w" + i);
+    }
+    assertIndexed(subset, keys[0], "w0");
+    subset.merge(other, new HashSet<Key<?>>(Arrays.asList(keys)));
+    assertEquals("v" + (keys.length - 1), subset.get(keys[keys.length - 1]));
+    assertEquals("w1", subset.get(keys[1]));
+  }
+
+  @Test
+  public void indexedLookupsOnReceivedHeaders() {
+    Key<String>[] keys = newAsciiKeys(Metadata.INDEX_THRESHOLD * 2);
+    byte[][] namesAndValues = new byte[keys.length * 2][];
+    for (int i = 0; i < keys.length; i++) {
+      namesAndValues[i * 2] = keys[i].name().getBytes(US_ASCII);
+      namesAndValues[i * 2 + 1] = ("v" + i).getBytes(US_ASCII);
+    }
+    Metadata metadata = new Metadata(namesAndValues);
+    assertTrue(metadata.isIndexed());
+
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals("v" + i, metadata.get(keys[i]));
+    }
+  }
+
+  @Test
+  public void lazyValues() {
+    final int[] conversions = new int[1];
+    Metadata.LazyValue lazyLance = new Metadata.LazyValue() {
+      @Override
+      public byte[] toBytes() {
+        conversions[0]++;
+        return LANCE_BYTES;
+      }
+    };
+    Key<String> plain = Key.of("plain", Metadata.ASCII_STRING_MARSHALLER);
+    Key<String> lazy = Key.of("lazy", Metadata.ASCII_STRING_MARSHALLER);
+    Metadata metadata = new Metadata(2, new Object[] {
+        plain.asciiName(), "value".getBytes(US_ASCII), lazy.asciiName(), lazyLance});
+
+    assertEquals("value", metadata.get(plain));
+    metadata.discardAll(plain);
+    assertEquals(0, conversions[0]);
+    assertEquals(LANCE, metadata.get(lazy));
+    assertEquals(LANCE, metadata.get(lazy));
+    assertEquals(1, conversions[0]);
+  }
+
+  @Test
+  public void lazyValues_mergeAndSerialize() {
+    Metadata.LazyValue lazyLance = new Metadata.LazyValue() {
+      @Override
+      public byte[] toBytes() {
+        return LANCE_BYTES;
+      }
+    };
+    Metadata received = new Metadata(1, new Object[] {KEY.asciiName(), lazyLance, null, null});
+    Metadata metadata = new Metadata();
+    Key<String> other = Key.of("other", Metadata.ASCII_STRING_MARSHALLER);
+    metadata.put(other, "value");
+    metadata.put(other, "value");
+
+    metadata.merge(received);
+    assertEquals(3, metadata.headerCount());
+
+    byte[][] serialized = metadata.serialize();
+    assertEquals(6, serialized.length);
+    assertArrayEquals(KEY.asciiName(), serialized[4]);
+    assertArrayEquals(LANCE_BYTES, serialized[5]);
+    assertEquals(new Fish(LANCE), metadata.get(KEY));
+  }
+
+  @Test
+  public void lazyValues_convertedOncePerInstance() {
+    final int[] conversions = new int[1];
+    Metadata.LazyValue lazyLance = new Metadata.LazyValue() {
+      @Override
+      public byte[] toBytes() {
+        conversions[0]++;
+        return LANCE.getBytes(US_ASCII);
+      }
+    };
+    Key<String> lazy = Key.of("lazy", Metadata.ASCII_STRING_MARSHALLER);
+    Metadata received = new Metadata(1, new Object[] {lazy.asciiName(), lazyLance, null, null});
+    Metadata copy = new Metadata();
+    copy.merge(received);
+
+    assertEquals(LANCE, received.get(lazy));
+    assertEquals(LANCE, copy.get(lazy));
+    assertEquals(LANCE, copy.get(lazy));
+    assertEquals(2, conversions[0]);
+  }
+
+  /** Checks that {@code metadata} has built its index and finds {@code key} with it. */
+  private static void assertIndexed(Metadata metadata, Key<String> key, String expected) {
+    assertTrue(metadata.isIndexed());
+    assertEquals(expected, metadata.get(key));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Key<String>[] newAsciiKeys(int count) {
+    Key<String>[] keys = new Key[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = Key.of("key-" + i, Metadata.ASCII_STRING_MARSHALLER);
+    }
+    return keys;
+  }
+
   private static final class Fish {
     private String name;
 
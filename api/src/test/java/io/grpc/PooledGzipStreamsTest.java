@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link PooledGzipInputStream} and {@link PooledGzipOutputStream}.
+ */
+@RunWith(JUnit4.class)
+public class PooledGzipStreamsTest {
+  private final InternalZlibPool pool = new InternalZlibPool(4);
+  private final byte[] data = newData(10000);
+
+  @Test
+  public void outputIsReadableByGzipInputStream() throws Exception {
+    byte[] gzipped = compress(data);
+
+    assertArrayEquals(data, ByteStreams.toByteArray(
+        new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+    assertEquals(1, pool.getDeflaterStats().idle);
+  }
+
+  @Test
+  public void outputOfEmptyMessageIsReadableByGzipInputStream() throws Exception {
+    byte[] gzipped = compress(new byte[0]);
+
+    assertEquals(0, ByteStreams.toByteArray(
+        new GZIPInputStream(new ByteArrayInputStream(gzipped))).length);
+  }
+
+  @Test
+  public void writeAfterCloseFails() throws Exception {
+    OutputStream os = new PooledGzipOutputStream(new ByteArrayOutputStream(), pool);
+    os.close();
+    try {
+      os.write(1);
+      fail("Expected IOException");
+    } catch (IOException expected) {
+      assertEquals("Stream closed", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void readsGzipOutputStream() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    GZIPOutputStream os = new GZIPOutputStream(baos);
+    os.write(data);
+    os.close();
+
+    assertArrayEquals(data, decompress(baos.toByteArray()));
+  }
+
+  @Test
+  public void readsHeaderWithOptionalFields() throws Exception {
+    byte[] deflated = compress(data);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    // FEXTRA | FNAME | FCOMMENT
+    baos.write(new byte[] {0x1f, (byte) 0x8b, 8, 4 | 8 | 16, 0, 0, 0, 0, 0, 0});
+    baos.write(new byte[] {3, 0, 'x', 'y', 'z'});
+    baos.write(new byte[] {'n', 'a', 'm', 'e', 0});
+    baos.write(new byte[] {'c', 0});
+    baos.write(deflated, 10, deflated.length - 10);
+
+    assertArrayEquals(data, decompress(baos.toByteArray()));
+  }
+
+  @Test
+  public void readsConcatenatedMembers() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(compress(data));
+    baos.write(compress(new byte[0]));
+    baos.write(compress(data));
+
+    byte[] expected = new byte[data.length * 2];
+    System.arraycopy(data, 0, expected, 0, data.length);
+    System.arraycopy(data, 0, expected, data.length, data.length);
+    assertArrayEquals(expected, decompress(baos.toByteArray()));
+  }
+
+  @Test
+  public void ignoresTrailingGarbage() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(compress(data));
+    baos.write(new byte[] {'j', 'u', 'n', 'k'});
+    InputStream is = new PooledGzipInputStream(new ByteArrayInputStream(baos.toByteArray()), pool);
+
+    assertArrayEquals(data, ByteStreams.toByteArray(is));
+    assertEquals(1, pool.getInflaterStats().idle);
+    assertEquals(-1, is.read());
+  }
+
+  @Test
+  public void ignoresTruncatedTrailingHeader() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(compress(data));
+    baos.write(new byte[] {0x1f, (byte) 0x8b, 8});
+
+    assertArrayEquals(data, decompress(baos.toByteArray()));
+    assertEquals(1, pool.getInflaterStats().idle);
+  }
+
+  @Test
+  public void inflaterIsReturnedAtEndOfData() throws Exception {
+    InputStream is = new PooledGzipInputStream(new ByteArrayInputStream(compress(data)), pool);
+    assertEquals(0, pool.getInflaterStats().idle);
+
+    assertArrayEquals(data, ByteStreams.toByteArray(is));
+    assertEquals(1, pool.getInflaterStats().idle);
+    assertEquals(-1, is.read());
+    is.close();
+    assertEquals(1, pool.getInflaterStats().idle);
+  }
+
+  @Test
+  public void inflaterIsReturnedOnClose() throws Exception {
+    InputStream is = new PooledGzipInputStream(new ByteArrayInputStream(compress(data)), pool);
+    is.read();
+    is.close();
+
+    assertEquals(1, pool.getInflaterStats().idle);
+    try {
+      is.read();
+      fail("Expected IOException");
+    } catch (IOException expected) {
+      assertEquals("Stream closed", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void notGzip() throws Exception {
+    try {
+      decompress(data);
+      fail("Expected ZipException");
+    } catch (ZipException expected) {
+      assertEquals("Not in GZIP format", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void corruptTrailer() throws Exception {
+    byte[] gzipped = compress(data);
+    gzipped[gzipped.length - 8] ^= 1;
+    try {
+      decompress(gzipped);
+      fail("Expected ZipException");
+    } catch (ZipException expected) {
+      assertEquals("Corrupt GZIP trailer", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void truncatedData() throws Exception {
+    byte[] gzipped = compress(data);
+    byte[] truncated = new byte[gzipped.length / 2];
+    System.arraycopy(gzipped, 0, truncated, 0, truncated.length);
+    try {
+      decompress(truncated);
+      fail("Expected EOFException");
+    } catch (EOFException expected) {
+      // expected
+    }
+  }
+
+  private byte[] compress(byte[] uncompressed) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    OutputStream os = new PooledGzipOutputStream(baos, pool);
+    os.write(uncompressed);
+    os.close();
+    return baos.toByteArray();
+  }
+
+  private byte[] decompress(byte[] gzipped) throws IOException {
+    InputStream is = new PooledGzipInputStream(new ByteArrayInputStream(gzipped), pool);
+    try {
+      return ByteStreams.toByteArray(is);
+    } finally {
+      is.close();
+    }
+  }
+
+  private static byte[] newData(int size) {
+    // Half random, half repeated, so that it does compress.
+    byte[] bytes = new byte[size];
+    new Random(1).nextBytes(bytes);
+    for (int i = size / 2; i < size; i++) {
+      bytes[i] = (byte) (i % 7);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.benchmarks;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.benchmarks.proto.BenchmarkServiceGrpc;
+import io.grpc.benchmarks.proto.Messages.SimpleRequest;
+import io.grpc.benchmarks.qps.AsyncServer;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.internal.VirtualThreadExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Blocking unary call throughput from platform threads and from virtual threads. Each invocation
+ * splits {@link #CALLS_PER_INVOCATION} blocking calls across {@code concurrency} threads, so the
+ * score is calls per second. The virtual thread variants fail on JVMs without virtual threads.
+ */
+@State(Scope.Benchmark)
+public class BlockingStubBenchmark {
+
+  static final int CALLS_PER_INVOCATION = 1024;
+
+  public enum ThreadType {
+    PLATFORM, VIRTUAL
+  }
+
+  @Param({"PLATFORM", "VIRTUAL"})
+  public ThreadType threadType;
+
+  @Param({"1", "16", "256"})
+  public int concurrency;
+
+  private Server server;
+  private ManagedChannel channel;
+  private BenchmarkServiceGrpc.BenchmarkServiceBlockingStub stub;
+  private ExecutorService platformExecutor;
+  private Executor callerExecutor;
+
+  /**
+   * Starts an in-process server and the caller threads.
+   */
+  @Setup
+  public void setUp() throws Exception {
+    switch (threadType) {
+      case PLATFORM:
+        platformExecutor = Executors.newFixedThreadPool(concurrency);
+        callerExecutor = platformExecutor;
+        break;
+      case VIRTUAL:
+        if (!VirtualThreadExecutor.isAvailable()) {
+          throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        callerExecutor = VirtualThreadExecutor.create();
+        break;
+      default:
+        throw new AssertionError(threadType);
+    }
+    String name = "bench" + Math.random();
+    server = InProcessServerBuilder.forName(name)
+        .addService(new AsyncServer.BenchmarkServiceImpl())
+        .directExecutor()
+        .build()
+        .start();
+    channel = InProcessChannelBuilder.forName(name).build();
+    stub = BenchmarkServiceGrpc.newBlockingStub(channel);
+    // Wait for channel to start
+    stub.unaryCall(SimpleRequest.getDefaultInstance());
+  }
+
+  /**
+   * Stops the server and the caller threads.
+   */
+  @TearDown
+  public void tearDown() throws Exception {
+    if (platformExecutor != null) {
+      platformExecutor.shutdownNow();
+    }
+    channel.shutdownNow();
+    server.shutdownNow();
+    channel.awaitTermination(1, TimeUnit.SECONDS);
+    server.awaitTermination(1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Makes {@link #CALLS_PER_INVOCATION} blocking unary calls.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(CALLS_PER_INVOCATION)
+  public void blockingUnaryCall() throws Exception {
+    final CountDownLatch done = new CountDownLatch(concurrency);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final int callsPerThread = CALLS_PER_INVOCATION / concurrency;
+    for (int i = 0; i < concurrency; i++) {
+      callerExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < callsPerThread; j++) {
+              stub.unaryCall(SimpleRequest.getDefaultInstance());
+            }
+          } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+          } finally {
+            done.countDown();
+          }
+        }
+      });
+    }
+    done.await();
+    if (failure.get() != null) {
+      throw new Exception(failure.get());
+    }
+  }
+}
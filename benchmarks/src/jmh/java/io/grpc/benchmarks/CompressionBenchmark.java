@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.benchmarks;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+import io.grpc.Codec;
+import io.grpc.benchmarks.proto.Messages.Payload;
+import io.grpc.benchmarks.proto.Messages.SimpleResponse;
+import io.grpc.benchmarks.proto.Stats.ClientStats;
+import io.grpc.benchmarks.proto.Stats.HistogramData;
+import io.grpc.benchmarks.proto.Stats.RequestResultCount;
+import io.grpc.compression.Lz4Codec;
+import io.grpc.compression.SnappyCodec;
+import io.grpc.compression.ZstdCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the message codecs on serialized protos. The compressed size of the message is reported
+ * as an auxiliary counter of {@link #compress}.
+ */
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+  public enum PayloadType {
+    /** A latency histogram with request counts, like periodically reported telemetry. */
+    STATS,
+    /** Random bytes, like an already compressed image. */
+    RANDOM
+  }
+
+  @Param({"gzip", "lz4", "zstd", "snappy"})
+  public String codecName;
+
+  @Param({"STATS", "RANDOM"})
+  public PayloadType payloadType;
+
+  private Codec codec;
+  private byte[] message;
+  private byte[] compressedMessage;
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final byte[] readBuffer = new byte[8192];
+
+  /**
+   * Reports the size of the compressed message next to the compression throughput.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class CompressedSize {
+    /** Size of the last compressed message, in bytes. */
+    public int compressedBytes;
+  }
+
+  /**
+   * Creates the codec, the payload and its compressed form.
+   */
+  @Setup
+  public void setUp() throws Exception {
+    if ("gzip".equals(codecName)) {
+      codec = new Codec.Gzip();
+    } else if ("lz4".equals(codecName)) {
+      codec = new Lz4Codec();
+    } else if ("zstd".equals(codecName)) {
+      codec = new ZstdCodec();
+    } else if ("snappy".equals(codecName)) {
+      codec = new SnappyCodec();
+    } else {
+      throw new IllegalArgumentException("Unknown codec: " + codecName);
+    }
+    message = createPayload(payloadType).toByteArray();
+    compressMessage();
+    compressedMessage = out.toByteArray();
+  }
+
+  /**
+   * Compresses one message.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public int compress(CompressedSize size) throws IOException {
+    size.compressedBytes = compressMessage();
+    return size.compressedBytes;
+  }
+
+  /**
+   * Decompresses one message.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public int decompress() throws IOException {
+    InputStream is = codec.decompress(new ByteArrayInputStream(compressedMessage));
+    int total = 0;
+    int read;
+    while ((read = is.read(readBuffer)) != -1) {
+      total += read;
+    }
+    is.close();
+    return total;
+  }
+
+  private int compressMessage() throws IOException {
+    out.reset();
+    OutputStream os = codec.compress(out);
+    os.write(message);
+    os.close();
+    return out.size();
+  }
+
+  private static MessageLite createPayload(PayloadType payloadType) {
+    Random random = new Random(1);
+    switch (payloadType) {
+      case STATS:
+        HistogramData.Builder latencies = HistogramData.newBuilder();
+        double sum = 0;
+        for (int i = 0; i < 1000; i++) {
+          // Most buckets are empty or small, a few around the median are large.
+          int count = (int) (10000 * Math.exp(-Math.pow((i - 300) / 40.0, 2)));
+          count += random.nextInt(3);
+          latencies.addBucket(count);
+          sum += count * Math.pow(1.01, i);
+        }
+        latencies.setMinSeen(1000).setMaxSeen(Math.pow(1.01, 999)).setSum(sum).setCount(1e6);
+        ClientStats.Builder stats = ClientStats.newBuilder()
+            .setLatencies(latencies)
+            .setTimeElapsed(10.5)
+            .setTimeUser(8.25)
+            .setTimeSystem(1.75)
+            .setCqPollCount(123456);
+        for (int code = 0; code < 17; code++) {
+          stats.addRequestResults(
+              RequestResultCount.newBuilder().setStatusCode(code).setCount(random.nextInt(1000)));
+        }
+        return stats.build();
+      case RANDOM:
+        byte[] body = new byte[16 * 1024];
+        random.nextBytes(body);
+        return SimpleResponse.newBuilder()
+            .setPayload(Payload.newBuilder().setBody(ByteString.copyFrom(body)))
+            .build();
+      default:
+        throw new AssertionError();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.benchmarks;
+
+import io.grpc.Codec;
+import io.grpc.compression.ParallelCodec;
+import io.grpc.compression.ZstdCodec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the latency of compressing one large message with {@link ParallelCodec} compared to
+ * the codec it wraps.
+ */
+@State(Scope.Benchmark)
+public class ParallelCompressionBenchmark {
+
+  @Param({"gzip", "zstd"})
+  public String codecName;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  @Param({"16777216"})
+  public int messageSize;
+
+  private Codec codec;
+  private byte[] message;
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  /**
+   * Creates the codec and a message that compresses about as well as typical protos.
+   */
+  @Setup
+  public void setUp() throws Exception {
+    if ("gzip".equals(codecName)) {
+      codec = new Codec.Gzip();
+    } else if ("zstd".equals(codecName)) {
+      codec = new ZstdCodec();
+    } else {
+      throw new IllegalArgumentException("Unknown codec: " + codecName);
+    }
+    if (parallel) {
+      codec = new ParallelCodec(codec, ParallelCodec.DEFAULT_BLOCK_SIZE);
+    }
+    message = new byte[messageSize];
+    Random random = new Random(1);
+    for (int i = 0; i < message.length; i++) {
+      message[i] = (byte) (random.nextInt(32) + 'a');
+    }
+  }
+
+  /**
+   * Compresses one message.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int compress() throws IOException {
+    out.reset();
+    OutputStream os = codec.compress(out);
+    os.write(message);
+    os.close();
+    return out.size();
+  }
+}
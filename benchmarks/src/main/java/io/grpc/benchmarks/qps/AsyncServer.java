@@ -168,6 +168,7 @@ public class AsyncServer {
       File key = TestUtils.loadCert("server1.key");
       builder.useTransportSecurity(cert, key);
     }
+    builder.eventLoopAffinity(config.eventLoopAffinity);
     if (config.directExecutor) {
       builder.directExecutor();
     } else {
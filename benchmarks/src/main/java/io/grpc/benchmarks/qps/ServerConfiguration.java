@@ -39,6 +39,7 @@ class ServerConfiguration implements Configuration {
   Transport transport = Transport.NETTY_NIO;
   boolean tls;
   boolean directExecutor;
+  boolean eventLoopAffinity;
   SocketAddress address;
   int flowControlWindow = NettyChannelBuilder.DEFAULT_FLOW_CONTROL_WINDOW;
 
@@ -171,6 +172,13 @@ class ServerConfiguration implements Configuration {
         config.directExecutor = parseBoolean(value);
       }
     },
+    EVENT_LOOP_AFFINITY("", "Run the RPC calls of each connection on a thread paired with the "
+        + "connection's transport thread.", "" + DEFAULT.eventLoopAffinity) {
+      @Override
+      protected void setServerValue(ServerConfiguration config, String value) {
+        config.eventLoopAffinity = parseBoolean(value);
+      }
+    },
     FLOW_CONTROL_WINDOW("BYTES", "The HTTP/2 flow control window.",
         "" + DEFAULT.flowControlWindow) {
       @Override
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import io.grpc.ExperimentalApi;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registers the codecs of this module. The default decompressor registry is immutable, so
+ * decompressors are added to a copy that is then given to the channel or server:
+ *
+ * <pre><code>
+ * CompressionCodecs.registerCompressors(CompressorRegistry.getDefaultInstance());
+ * ServerBuilder.forPort(port)
+ *     .decompressorRegistry(
+ *         CompressionCodecs.withDecompressors(DecompressorRegistry.getDefaultInstance()))
+ *     ...
+ * </code></pre>
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+public final class CompressionCodecs {
+  private CompressionCodecs() {}
+
+  /**
+   * Returns new instances of the codecs of this module: {@link Lz4Codec}, {@link ZstdCodec},
+   * {@link SnappyCodec} and {@link ZstdStreamCodec} without dictionary.
+   */
+  public static List<Codec> getCodecs() {
+    return Collections.unmodifiableList(Arrays.<Codec>asList(
+        new Lz4Codec(), new ZstdCodec(), new SnappyCodec(), new ZstdStreamCodec()));
+  }
+
+  /**
+   * Registers the codecs of this module with {@code registry}, replacing any compressors with the
+   * same message encoding.
+   */
+  public static void registerCompressors(CompressorRegistry registry) {
+    checkNotNull(registry, "registry");
+    for (Codec codec : getCodecs()) {
+      registry.register(codec);
+    }
+  }
+
+  /**
+   * Returns a copy of {@code registry} that also contains the codecs of this module, advertised to
+   * peers in {@code grpc-accept-encoding}.
+   */
+  public static DecompressorRegistry withDecompressors(DecompressorRegistry registry) {
+    checkNotNull(registry, "registry");
+    for (Codec codec : getCodecs()) {
+      registry = registry.with(codec, true);
+    }
+    return registry;
+  }
+}
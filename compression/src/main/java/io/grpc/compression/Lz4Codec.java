@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import io.grpc.Codec;
+import io.grpc.ExperimentalApi;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream.BLOCKSIZE;
+import net.jpountz.lz4.LZ4FrameOutputStream.FLG;
+
+/**
+ * An LZ4 compressor and decompressor using the LZ4 frame format. LZ4 compresses less than gzip but
+ * is several times faster, which suits traffic within a data center.
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+public final class Lz4Codec implements Codec {
+  @Override
+  public String getMessageEncoding() {
+    return "lz4";
+  }
+
+  @Override
+  public OutputStream compress(OutputStream os) throws IOException {
+    // The default 4 MiB block size allocates buffers far larger than most messages. The decoder
+    // follows the block size declared in each frame.
+    return new LZ4FrameOutputStream(os, BLOCKSIZE.SIZE_64KB, FLG.Bits.BLOCK_INDEPENDENCE);
+  }
+
+  @Override
+  public InputStream decompress(InputStream is) throws IOException {
+    return new LZ4FrameInputStream(is);
+  }
+}
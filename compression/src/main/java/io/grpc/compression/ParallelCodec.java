@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.grpc.Codec;
+import io.grpc.ExperimentalApi;
+import io.grpc.StreamScopedCodec;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Compresses large messages in parallel with another codec whose format allows compressed
+ * streams to be concatenated, such as {@link io.grpc.Codec.Gzip} or {@link ZstdCodec}.
+ *
+ * <p>The first {@code minParallelSize} bytes of a message are compressed on the calling thread, so
+ * small messages are compressed as they would be by the other codec. The rest of a larger message
+ * is split into blocks of {@code blockSize} bytes, which are compressed independently on an
+ * executor and written in order, each as its own compressed stream. Peers decompress the result
+ * with the other codec, under the same message encoding. Blocks do not share compression context,
+ * so the result is slightly larger than with the other codec alone.
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+public final class ParallelCodec implements Codec {
+  /** The block size used by {@link #ParallelCodec(Codec, int)}. */
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private final Codec delegate;
+  private final Executor executor;
+  private final int minParallelSize;
+  private final int blockSize;
+  private final int maxPendingBlocks;
+
+  /**
+   * Creates a codec that compresses the blocks of messages larger than {@code minParallelSize}
+   * on a shared {@link ForkJoinPool}, in blocks of {@link #DEFAULT_BLOCK_SIZE} bytes.
+   */
+  public ParallelCodec(Codec delegate, int minParallelSize) {
+    this(delegate, SharedPoolHolder.POOL, minParallelSize, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a codec that compresses the blocks of messages larger than {@code minParallelSize}
+   * on {@code executor}.
+   *
+   * @param delegate the codec that compresses each block and decompresses messages. It must not be
+   *     a {@link StreamScopedCodec}
+   * @param executor runs the compression of blocks, typically a {@link ForkJoinPool}
+   * @param minParallelSize the number of bytes of a message that are compressed on the calling
+   *     thread before blocks are compressed in parallel
+   * @param blockSize the number of bytes of a message compressed by one task
+   */
+  public ParallelCodec(Codec delegate, Executor executor, int minParallelSize, int blockSize) {
+    this.delegate = checkNotNull(delegate, "delegate");
+    checkArgument(
+        !(delegate instanceof StreamScopedCodec), "%s cannot be compressed in parallel", delegate);
+    this.executor = checkNotNull(executor, "executor");
+    checkArgument(minParallelSize >= 0, "minParallelSize must be >= 0: %s", minParallelSize);
+    checkArgument(blockSize > 0, "blockSize must be > 0: %s", blockSize);
+    this.minParallelSize = minParallelSize;
+    this.blockSize = blockSize;
+    // Bounds the memory held by one message to about two blocks per processor.
+    this.maxPendingBlocks = 2 * Runtime.getRuntime().availableProcessors();
+  }
+
+  @Override
+  public String getMessageEncoding() {
+    return delegate.getMessageEncoding();
+  }
+
+  @Override
+  public OutputStream compress(OutputStream os) throws IOException {
+    return new ParallelCompressingOutputStream(os);
+  }
+
+  @Override
+  public InputStream decompress(InputStream is) throws IOException {
+    return delegate.decompress(is);
+  }
+
+  private byte[] compressBlock(byte[] block, int length) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+    OutputStream os = delegate.compress(compressed);
+    os.write(block, 0, length);
+    os.close();
+    return compressed.toByteArray();
+  }
+
+  private final class ParallelCompressingOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final ArrayDeque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private final byte[] singleByte = new byte[1];
+    /**
+     * Compresses the first bytes of the message on the calling thread. Created on the first write,
+     * so that no empty stream precedes the blocks when {@code minParallelSize} is 0.
+     */
+    private OutputStream directStream;
+    private int directBytes;
+    // Whether the first minParallelSize bytes have been written and blocks follow.
+    private boolean directDone;
+    private byte[] block;
+    private int blockLength;
+    private boolean closed;
+
+    ParallelCompressingOutputStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      singleByte[0] = (byte) b;
+      write(singleByte, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+      if (!directDone) {
+        int directLength = Math.min(len, minParallelSize - directBytes);
+        if (directLength > 0) {
+          if (directStream == null) {
+            directStream = delegate.compress(new NonClosingOutputStream(out));
+          }
+          directStream.write(b, off, directLength);
+          directBytes += directLength;
+          off += directLength;
+          len -= directLength;
+        }
+        if (len == 0) {
+          return;
+        }
+        // The rest of the message follows as separately compressed blocks.
+        if (directStream != null) {
+          directStream.close();
+          directStream = null;
+        }
+        directDone = true;
+      }
+      while (len > 0) {
+        if (block == null) {
+          block = new byte[blockSize];
+        }
+        int n = Math.min(len, blockSize - blockLength);
+        System.arraycopy(b, off, block, blockLength, n);
+        blockLength += n;
+        off += n;
+        len -= n;
+        if (blockLength == blockSize) {
+          submitBlock();
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        if (directStream != null) {
+          directStream.close();
+          directStream = null;
+        } else if (!directDone) {
+          // Nothing was written, but an empty message still needs a valid compressed stream.
+          delegate.compress(new NonClosingOutputStream(out)).close();
+        }
+        byte[] lastBlock = null;
+        if (blockLength > 0) {
+          // The caller would only wait for the last block, so compress it here.
+          lastBlock = compressBlock(block, blockLength);
+          block = null;
+        }
+        while (!pendingBlocks.isEmpty()) {
+          writeNextBlock();
+        }
+        if (lastBlock != null) {
+          out.write(lastBlock);
+        }
+      } finally {
+        for (Future<byte[]> pendingBlock : pendingBlocks) {
+          pendingBlock.cancel(false);
+        }
+        pendingBlocks.clear();
+      }
+      out.close();
+    }
+
+    private void submitBlock() throws IOException {
+      final byte[] fullBlock = block;
+      final int length = blockLength;
+      block = null;
+      blockLength = 0;
+      FutureTask<byte[]> task = new FutureTask<>(new Callable<byte[]>() {
+        @Override
+        public byte[] call() throws IOException {
+          return compressBlock(fullBlock, length);
+        }
+      });
+      executor.execute(task);
+      pendingBlocks.add(task);
+      // Write out the blocks that are done, and wait for the oldest one if too many are pending.
+      while (!pendingBlocks.isEmpty()
+          && (pendingBlocks.peek().isDone() || pendingBlocks.size() > maxPendingBlocks)) {
+        writeNextBlock();
+      }
+    }
+
+    private void writeNextBlock() throws IOException {
+      byte[] compressed;
+      try {
+        compressed = pendingBlocks.poll().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while compressing");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new IOException("Failed to compress block", cause);
+      }
+      out.write(compressed);
+    }
+  }
+
+  /** Keeps the compressed stream of the first bytes from closing the output. */
+  private static final class NonClosingOutputStream extends FilterOutputStream {
+    NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static final class SharedPoolHolder {
+    static final ForkJoinPool POOL = new ForkJoinPool();
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import io.grpc.ExperimentalApi;
+import io.grpc.StreamScopedCodec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * A Zstandard codec whose compression context lasts for a whole stream instead of one message. Each
+ * message is flushed as one or more Zstandard blocks of a single frame that spans the stream, so a
+ * message can refer to the content of all messages sent before it on the stream. This suits
+ * streams of small and similar messages, which compress poorly on their own.
+ *
+ * <p>A pre-shared dictionary additionally lets the first messages of a stream refer to typical
+ * content. Both peers must have the same dictionary, so its id is part of the message encoding,
+ * {@code zstd-stream-dict-<id>}, and peers only negotiate it if they have registered it. Without a
+ * dictionary the message encoding is {@code zstd-stream}.
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/1704")
+public final class ZstdStreamCodec implements StreamScopedCodec {
+  private static final Logger log = Logger.getLogger(ZstdStreamCodec.class.getName());
+  private static final Pattern DICTIONARY_ID = Pattern.compile("[A-Za-z0-9_.]+");
+
+  private final int level;
+  @Nullable
+  private final byte[] dictionary;
+  private final String messageEncoding;
+
+  /** Creates a codec without dictionary that compresses at {@link ZstdCodec#DEFAULT_LEVEL}. */
+  public ZstdStreamCodec() {
+    this(ZstdCodec.DEFAULT_LEVEL);
+  }
+
+  /**
+   * Creates a codec without dictionary that compresses at {@code level}.
+   *
+   * @param level a compression level from 1 to 22
+   */
+  public ZstdStreamCodec(int level) {
+    this("zstd-stream", level, null);
+  }
+
+  /**
+   * Creates a codec with a pre-shared dictionary that compresses at {@code level}. Dictionaries can
+   * be trained on sample messages with the {@code zstd --train} command.
+   *
+   * @param level a compression level from 1 to 22
+   * @param dictionary the dictionary; it is not copied and must not be modified afterwards
+   * @param dictionaryId identifies the dictionary in the message encoding. It may contain letters,
+   *     digits, {@code _} and {@code .}, and should change whenever the dictionary does
+   */
+  public ZstdStreamCodec(int level, byte[] dictionary, String dictionaryId) {
+    this(
+        "zstd-stream-dict-" + checkDictionaryId(dictionaryId),
+        level,
+        checkNotNull(dictionary, "dictionary"));
+  }
+
+  private ZstdStreamCodec(String messageEncoding, int level, @Nullable byte[] dictionary) {
+    checkArgument(level >= 1 && level <= 22, "level must be in [1, 22]: %s", level);
+    this.level = level;
+    this.dictionary = dictionary;
+    this.messageEncoding = messageEncoding;
+  }
+
+  private static String checkDictionaryId(String dictionaryId) {
+    checkNotNull(dictionaryId, "dictionaryId");
+    checkArgument(
+        DICTIONARY_ID.matcher(dictionaryId).matches(), "Invalid dictionaryId: %s", dictionaryId);
+    return dictionaryId;
+  }
+
+  @Override
+  public String getMessageEncoding() {
+    return messageEncoding;
+  }
+
+  /**
+   * Compresses a stream that holds a single message.
+   */
+  @Override
+  public OutputStream compress(OutputStream os) throws IOException {
+    return newOutputStream(os);
+  }
+
+  /**
+   * Decompresses a stream that holds a single message.
+   */
+  @Override
+  public InputStream decompress(InputStream is) throws IOException {
+    return newInputStream(is);
+  }
+
+  @Override
+  public StreamCodec newStreamCodec() {
+    return new ZstdStream();
+  }
+
+  private ZstdOutputStream newOutputStream(OutputStream os) throws IOException {
+    ZstdOutputStream zos = new ZstdOutputStream(os, level);
+    if (dictionary != null) {
+      zos.setDict(dictionary);
+    }
+    return zos;
+  }
+
+  private ZstdInputStream newInputStream(InputStream is) throws IOException {
+    ZstdInputStream zis = new ZstdInputStream(is);
+    if (dictionary != null) {
+      zis.setDict(dictionary);
+    }
+    return zis;
+  }
+
+  /**
+   * The state of one direction of one stream. The Zstandard streams are created on first use and
+   * are connected to the stream of the current message through {@link #sink} and {@link #source}.
+   */
+  private final class ZstdStream implements StreamCodec {
+    private final SwitchableOutputStream sink = new SwitchableOutputStream();
+    private final SwitchableInputStream source = new SwitchableInputStream();
+    @Nullable
+    private ZstdOutputStream compressor;
+    @Nullable
+    private ZstdInputStream decompressor;
+
+    @Override
+    public String getMessageEncoding() {
+      return messageEncoding;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+      if (compressor == null) {
+        compressor = newOutputStream(sink);
+      }
+      sink.target = checkNotNull(os, "os");
+      return new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          compressor.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          compressor.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          // Ends the message with a flushed block, but keeps the frame and its history open.
+          compressor.flush();
+          sink.target = null;
+        }
+      };
+    }
+
+    @Override
+    public InputStream decompress(final InputStream is) throws IOException {
+      if (decompressor == null) {
+        decompressor = newInputStream(source);
+        // Reaching the end of a message in the middle of the frame is expected.
+        decompressor.setContinuous(true);
+      }
+      source.source = checkNotNull(is, "is");
+      return new InputStream() {
+        @Override
+        public int read() throws IOException {
+          return decompressor.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          return decompressor.read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          source.source = null;
+          is.close();
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      // Only one of the two is used, as a stream codec belongs to a framer or a deframer. Closing
+      // ends the frame, which is discarded as the sink has no target anymore.
+      try {
+        if (compressor != null) {
+          compressor.close();
+        }
+        if (decompressor != null) {
+          decompressor.close();
+        }
+      } catch (IOException e) {
+        log.log(Level.FINE, "Failed to release Zstandard stream", e);
+      }
+    }
+  }
+
+  /** Writes to the stream of the current message, and discards writes between messages. */
+  private static final class SwitchableOutputStream extends OutputStream {
+    @Nullable
+    OutputStream target;
+
+    @Override
+    public void write(int b) throws IOException {
+      if (target != null) {
+        target.write(b);
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (target != null) {
+        target.write(b, off, len);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (target != null) {
+        target.flush();
+      }
+    }
+  }
+
+  /** Reads from the stream of the current message, and is at its end between messages. */
+  private static final class SwitchableInputStream extends InputStream {
+    @Nullable
+    InputStream source;
+
+    @Override
+    public int read() throws IOException {
+      return source == null ? -1 : source.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return source == null ? -1 : source.read(b, off, len);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.io.ByteStreams;
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/** Unit tests for the codecs of this module and {@link CompressionCodecs}. */
+@RunWith(Parameterized.class)
+public class CompressionCodecsTest {
+
+  /** Returns the codecs to test. */
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    Collection<Object[]> data = new ArrayList<>();
+    for (Codec codec : CompressionCodecs.getCodecs()) {
+      data.add(new Object[] {codec.getMessageEncoding(), codec});
+    }
+    return data;
+  }
+
+  @Parameter(0)
+  public String encoding;
+
+  @Parameter(1)
+  public Codec codec;
+
+  @Test
+  public void roundTrip_empty() throws Exception {
+    assertArrayEquals(new byte[0], roundTrip(new byte[0]));
+  }
+
+  @Test
+  public void roundTrip_repetitive() throws Exception {
+    byte[] message = new byte[100 * 1024];
+    for (int i = 0; i < message.length; i++) {
+      message[i] = (byte) (i % 7);
+    }
+    assertArrayEquals(message, roundTrip(message));
+  }
+
+  @Test
+  public void roundTrip_random() throws Exception {
+    byte[] message = new byte[100 * 1024];
+    new Random(1).nextBytes(message);
+    assertArrayEquals(message, roundTrip(message));
+  }
+
+  @Test
+  public void registerCompressors() {
+    CompressorRegistry registry = CompressorRegistry.newEmptyInstance();
+    CompressionCodecs.registerCompressors(registry);
+
+    assertThat(registry.lookupCompressor(encoding)).isNotNull();
+  }
+
+  @Test
+  public void withDecompressors() {
+    DecompressorRegistry registry =
+        CompressionCodecs.withDecompressors(DecompressorRegistry.getDefaultInstance());
+
+    assertThat(registry.lookupDecompressor(encoding)).isNotNull();
+    assertThat(registry.getAdvertisedMessageEncodings()).contains(encoding);
+    assertSame(
+        Codec.Identity.NONE,
+        registry.lookupDecompressor(Codec.Identity.NONE.getMessageEncoding()));
+  }
+
+  private byte[] roundTrip(byte[] message) throws Exception {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    OutputStream os = codec.compress(compressed);
+    os.write(message);
+    os.close();
+
+    InputStream is = codec.decompress(new ByteArrayInputStream(compressed.toByteArray()));
+    try {
+      return ByteStreams.toByteArray(is);
+    } finally {
+      is.close();
+    }
+  }
+}
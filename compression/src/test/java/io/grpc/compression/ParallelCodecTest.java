@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.google.common.io.ByteStreams;
+import io.grpc.Codec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ParallelCodec}. */
+@RunWith(JUnit4.class)
+public class ParallelCodecTest {
+  private static final int MIN_PARALLEL_SIZE = 64 * 1024;
+  private static final int BLOCK_SIZE = 16 * 1024;
+
+  private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+  private final AtomicInteger blocks = new AtomicInteger();
+  private final Executor executor = new Executor() {
+    @Override
+    public void execute(Runnable command) {
+      blocks.incrementAndGet();
+      executorService.execute(command);
+    }
+  };
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void smallMessageIsCompressedOnCallingThread() throws Exception {
+    Codec gzip = new Codec.Gzip();
+    ParallelCodec codec = new ParallelCodec(gzip, executor, MIN_PARALLEL_SIZE, BLOCK_SIZE);
+    byte[] message = newMessage(MIN_PARALLEL_SIZE);
+
+    assertArrayEquals(compress(gzip, message), compress(codec, message));
+    assertEquals(0, blocks.get());
+  }
+
+  @Test
+  public void largeGzipMessageIsCompressedInBlocks() throws Exception {
+    ParallelCodec codec =
+        new ParallelCodec(new Codec.Gzip(), executor, MIN_PARALLEL_SIZE, BLOCK_SIZE);
+    byte[] message = newMessage(MIN_PARALLEL_SIZE + 10 * BLOCK_SIZE + 100);
+
+    byte[] compressed = compress(codec, message);
+    // The last block is compressed on the calling thread.
+    assertEquals(10, blocks.get());
+    assertArrayEquals(message, ByteStreams.toByteArray(
+        codec.decompress(new ByteArrayInputStream(compressed))));
+    assertArrayEquals(message, ByteStreams.toByteArray(
+        new GZIPInputStream(new ByteArrayInputStream(compressed))));
+  }
+
+  @Test
+  public void largeZstdMessageIsCompressedInBlocks() throws Exception {
+    ParallelCodec codec = new ParallelCodec(new ZstdCodec(), executor, 0, BLOCK_SIZE);
+    byte[] message = newMessage(10 * BLOCK_SIZE);
+
+    byte[] compressed = compress(codec, message);
+    assertEquals(10, blocks.get());
+    assertArrayEquals(message, ByteStreams.toByteArray(
+        new ZstdCodec().decompress(new ByteArrayInputStream(compressed))));
+  }
+
+  @Test
+  public void noEmptyStreamBeforeBlocksWithoutMinParallelSize() throws Exception {
+    Codec gzip = new Codec.Gzip();
+    ParallelCodec codec = new ParallelCodec(gzip, executor, 0, BLOCK_SIZE);
+    byte[] message = newMessage(2 * BLOCK_SIZE);
+
+    // Each block is one gzip member, and nothing precedes the first.
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(compress(gzip, Arrays.copyOfRange(message, 0, BLOCK_SIZE)));
+    expected.write(compress(gzip, Arrays.copyOfRange(message, BLOCK_SIZE, 2 * BLOCK_SIZE)));
+    assertArrayEquals(expected.toByteArray(), compress(codec, message));
+  }
+
+  @Test
+  public void emptyMessage() throws Exception {
+    ParallelCodec codec = new ParallelCodec(new Codec.Gzip(), executor, 0, BLOCK_SIZE);
+
+    byte[] compressed = compress(codec, new byte[0]);
+    assertEquals(0, ByteStreams.toByteArray(
+        codec.decompress(new ByteArrayInputStream(compressed))).length);
+  }
+
+  @Test
+  public void blockFailureIsThrown() throws Exception {
+    final AtomicInteger compressCalls = new AtomicInteger();
+    Codec failingCodec = new Codec() {
+      @Override
+      public String getMessageEncoding() {
+        return "failing";
+      }
+
+      @Override
+      public OutputStream compress(OutputStream os) throws IOException {
+        if (compressCalls.incrementAndGet() > 1) {
+          throw new IOException("Simulated");
+        }
+        return os;
+      }
+
+      @Override
+      public InputStream decompress(InputStream is) {
+        return is;
+      }
+    };
+    ParallelCodec codec = new ParallelCodec(failingCodec, executor, 0, BLOCK_SIZE);
+
+    try {
+      compress(codec, newMessage(3 * BLOCK_SIZE));
+      fail("Expected IOException");
+    } catch (IOException expected) {
+      assertEquals("Simulated", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void streamScopedCodecIsRejected() {
+    try {
+      new ParallelCodec(new ZstdStreamCodec(), MIN_PARALLEL_SIZE);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  private static byte[] compress(Codec codec, byte[] message) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    OutputStream os = codec.compress(baos);
+    // Write in pieces that do not line up with the blocks.
+    for (int off = 0; off < message.length; off += 1000) {
+      os.write(message, off, Math.min(1000, message.length - off));
+    }
+    os.close();
+    return baos.toByteArray();
+  }
+
+  private static byte[] newMessage(int size) {
+    byte[] message = new byte[size];
+    Random random = new Random(1);
+    for (int i = 0; i < size; i++) {
+      message[i] = (byte) random.nextInt(16);
+    }
+    return message;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.compression;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.google.common.io.ByteStreams;
+import io.grpc.Codec;
+import io.grpc.StreamScopedCodec.StreamCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ZstdStreamCodec}. */
+@RunWith(JUnit4.class)
+public class ZstdStreamCodecTest {
+  private static final byte[] DICTIONARY = (
+      "{\"host\":\"frontend-\",\"metric\":\"rpc_latency_ms\",\"labels\":{\"method\":\"Get\","
+      + "\"status\":\"OK\",\"zone\":\"us-east1-b\"},\"value\":}").getBytes(UTF_8);
+
+  private final ZstdStreamCodec codec = new ZstdStreamCodec();
+
+  @Test
+  public void messageEncoding() {
+    assertEquals("zstd-stream", codec.getMessageEncoding());
+    assertEquals(
+        "zstd-stream-dict-telemetry.v1",
+        new ZstdStreamCodec(3, DICTIONARY, "telemetry.v1").getMessageEncoding());
+  }
+
+  @Test
+  public void invalidArguments() {
+    try {
+      new ZstdStreamCodec(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    try {
+      new ZstdStreamCodec(3, DICTIONARY, "a,b");
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void laterMessagesReferToEarlierOnes() throws Exception {
+    StreamCodec compressor = codec.newStreamCodec();
+    StreamCodec decompressor = codec.newStreamCodec();
+    int firstSize = 0;
+    for (int i = 0; i < 100; i++) {
+      byte[] message = message(i);
+      byte[] compressed = compress(compressor, message);
+      assertArrayEquals(message, decompress(decompressor, compressed));
+      if (i == 0) {
+        firstSize = compressed.length;
+      } else {
+        assertThat(compressed.length).isLessThan(firstSize / 2);
+      }
+    }
+    compressor.close();
+    decompressor.close();
+  }
+
+  @Test
+  public void emptyMessage() throws Exception {
+    StreamCodec compressor = codec.newStreamCodec();
+    StreamCodec decompressor = codec.newStreamCodec();
+
+    assertArrayEquals(new byte[0], decompress(decompressor, compress(compressor, new byte[0])));
+    assertArrayEquals(message(1), decompress(decompressor, compress(compressor, message(1))));
+    compressor.close();
+    decompressor.close();
+  }
+
+  @Test
+  public void dictionaryShrinksFirstMessage() throws Exception {
+    ZstdStreamCodec dictionaryCodec = new ZstdStreamCodec(3, DICTIONARY, "telemetry.v1");
+    StreamCodec compressor = dictionaryCodec.newStreamCodec();
+    StreamCodec decompressor = dictionaryCodec.newStreamCodec();
+
+    byte[] compressed = compress(compressor, message(0));
+    assertArrayEquals(message(0), decompress(decompressor, compressed));
+    assertThat(compressed.length).isLessThan(compress(codec.newStreamCodec(), message(0)).length);
+    compressor.close();
+    decompressor.close();
+  }
+
+  @Test
+  public void singleMessageRoundTrip() throws Exception {
+    byte[] compressed = compress(codec, message(0));
+
+    assertArrayEquals(message(0), decompress(codec, compressed));
+  }
+
+  private static byte[] message(int i) {
+    return ("{\"host\":\"frontend-" + (i % 7) + "\",\"metric\":\"rpc_latency_ms\",\"labels\":"
+        + "{\"method\":\"Get\",\"status\":\"OK\",\"zone\":\"us-east1-b\"},\"value\":"
+        + (i * 37 % 1000) + "}").getBytes(UTF_8);
+  }
+
+  private static byte[] compress(Codec codec, byte[] message) throws Exception {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    OutputStream os = codec.compress(compressed);
+    os.write(message);
+    os.close();
+    return compressed.toByteArray();
+  }
+
+  private static byte[] decompress(Codec codec, byte[] compressed) throws Exception {
+    InputStream is = codec.decompress(new ByteArrayInputStream(compressed));
+    try {
+      return ByteStreams.toByteArray(is);
+    } finally {
+      is.close();
+    }
+  }
+}
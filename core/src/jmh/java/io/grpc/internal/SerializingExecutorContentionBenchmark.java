@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares {@link SerializingExecutor} with the previous {@link ConcurrentLinkedQueue} based
+ * implementation when several threads submit to the same executor. Each operation has every
+ * producer submit {@link #RUNNABLES_PER_PRODUCER} runnables and completes once all have run.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+public class SerializingExecutorContentionBenchmark {
+
+  static final int RUNNABLES_PER_PRODUCER = 1000;
+
+  public enum Impl {
+    CHUNKED_MPSC,
+    CONCURRENT_LINKED_QUEUE
+  }
+
+  @Param({"CHUNKED_MPSC", "CONCURRENT_LINKED_QUEUE"})
+  public Impl impl;
+
+  @Param({"1", "2", "8"})
+  public int producers;
+
+  private ExecutorService consumerExecutor;
+  private ExecutorService producerExecutor;
+  private Executor executor;
+
+  private final Runnable noopRunnable = new Runnable() {
+    @Override
+    public void run() {}
+  };
+
+  /**
+   * Creates the executor under test.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    consumerExecutor = Executors.newSingleThreadExecutor();
+    producerExecutor = Executors.newFixedThreadPool(producers);
+    switch (impl) {
+      case CHUNKED_MPSC:
+        executor = new SerializingExecutor(consumerExecutor);
+        break;
+      case CONCURRENT_LINKED_QUEUE:
+        executor = new ConcurrentLinkedQueueSerializingExecutor(consumerExecutor);
+        break;
+      default:
+        throw new AssertionError(impl);
+    }
+  }
+
+  /**
+   * Stops the threads.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    producerExecutor.shutdownNow();
+    consumerExecutor.shutdownNow();
+    if (!consumerExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+      throw new RuntimeException("executor failed to shut down in a timely fashion");
+    }
+  }
+
+  /**
+   * Submits {@code producers * RUNNABLES_PER_PRODUCER} runnables.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void execute() throws Exception {
+    final CountDownLatch submitted = new CountDownLatch(producers);
+    for (int i = 0; i < producers; i++) {
+      producerExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < RUNNABLES_PER_PRODUCER; j++) {
+            executor.execute(noopRunnable);
+          }
+          submitted.countDown();
+        }
+      });
+    }
+    submitted.await();
+    final CountDownLatch drained = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        drained.countDown();
+      }
+    });
+    drained.await();
+  }
+
+  /**
+   * The previous {@link SerializingExecutor}, which allocates a queue node per runnable. Kept here
+   * as the baseline for comparison.
+   */
+  static final class ConcurrentLinkedQueueSerializingExecutor
+      implements Executor, Runnable {
+    private final Executor executor;
+    private final Queue<Runnable> runQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    ConcurrentLinkedQueueSerializingExecutor(Executor executor) {
+      this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable r) {
+      runQueue.add(r);
+      schedule();
+    }
+
+    private void schedule() {
+      if (running.compareAndSet(false, true)) {
+        executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      Runnable r;
+      try {
+        while ((r = runQueue.poll()) != null) {
+          r.run();
+        }
+      } finally {
+        running.set(false);
+      }
+      if (!runQueue.isEmpty()) {
+        schedule();
+      }
+    }
+  }
+}
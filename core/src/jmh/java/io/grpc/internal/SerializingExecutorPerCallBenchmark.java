@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import io.grpc.internal.SerializingExecutorContentionBenchmark.ConcurrentLinkedQueueSerializingExecutor;
+import io.grpc.internal.SerializingExecutorContentionBenchmark.Impl;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of a {@link SerializingExecutor} that lives only as long as one call, as on
+ * the server where every call gets its own. Each operation creates an executor, submits {@link
+ * #RUNNABLES_PER_CALL} runnables while the underlying executor is still busy, and then drains
+ * them, compared with the previous {@link java.util.concurrent.ConcurrentLinkedQueue} based
+ * implementation.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Thread)
+public class SerializingExecutorPerCallBenchmark {
+
+  /** Roughly the callbacks of a unary call: headers, message, halfClose, complete. */
+  static final int RUNNABLES_PER_CALL = 4;
+
+  @Param({"CHUNKED_MPSC", "CONCURRENT_LINKED_QUEUE"})
+  public Impl impl;
+
+  private final DeferringExecutor deferringExecutor = new DeferringExecutor();
+
+  private final IncrRunnable incrRunnable = new IncrRunnable();
+
+  private static final class IncrRunnable implements Runnable {
+    int val;
+
+    @Override
+    public void run() {
+      val++;
+    }
+  }
+
+  /** Holds the drain task until the call's runnables have all been submitted. */
+  private static final class DeferringExecutor implements Executor {
+    Runnable pending;
+
+    @Override
+    public void execute(Runnable r) {
+      pending = r;
+    }
+
+    void runPending() {
+      Runnable r = pending;
+      pending = null;
+      r.run();
+    }
+  }
+
+  /**
+   * Creates an executor and runs {@link #RUNNABLES_PER_CALL} runnables through it.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int executorPerCall() {
+    Executor executor;
+    switch (impl) {
+      case CHUNKED_MPSC:
+        executor = new SerializingExecutor(deferringExecutor);
+        break;
+      case CONCURRENT_LINKED_QUEUE:
+        executor = new ConcurrentLinkedQueueSerializingExecutor(deferringExecutor);
+        break;
+      default:
+        throw new AssertionError(impl);
+    }
+    for (int i = 0; i < RUNNABLES_PER_CALL; i++) {
+      executor.execute(incrRunnable);
+    }
+    deferringExecutor.runPending();
+    return incrRunnable.val;
+  }
+}
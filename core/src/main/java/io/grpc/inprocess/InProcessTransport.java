@@ -288,6 +288,12 @@ final class InProcessTransport implements ServerTransport, ConnectionClientTrans
     return serverScheduler;
   }
 
+  @Nullable
+  @Override
+  public Executor getCallExecutor() {
+    return null;
+  }
+
   @Override
   public ListenableFuture<SocketStats> getStats() {
     SettableFuture<SocketStats> ret = SettableFuture.create();
@@ -596,6 +602,12 @@ final class InProcessTransport implements ServerTransport, ConnectionClientTrans
       @Override
       public void setDecompressor(Decompressor decompressor) {}
 
+      @Override
+      public void setWriteCoalescing(boolean enabled) {}
+
+      @Override
+      public void setStreamWeight(int weight) {}
+
       @Override public Attributes getAttributes() {
         return serverStreamAttributes;
       }
@@ -137,6 +137,7 @@ public abstract class AbstractManagedChannelImplBuilder
 
   InternalChannelz channelz = InternalChannelz.instance();
   int maxTraceEvents;
+  int connectionsPerSubchannel = 1;
 
   @Nullable
   Map<String, ?> defaultServiceConfig;
@@ -454,6 +455,13 @@ public abstract class AbstractManagedChannelImplBuilder
     return thisT();
   }
 
+  @Override
+  public T connectionsPerSubchannel(int connections) {
+    checkArgument(connections >= 1, "connections must be at least 1");
+    this.connectionsPerSubchannel = connections;
+    return thisT();
+  }
+
   /**
    * Disable or enable stats features. Enabled by default.
    *
@@ -16,6 +16,9 @@
 
 package io.grpc.internal;
 
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+
 /**
  * Abstract base class for {@link ReadableBuffer} implementations.
  */
@@ -45,6 +48,30 @@ public abstract class AbstractReadableBuffer implements ReadableBuffer {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public void mark() {}
+
+  @Override
+  public void reset() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean byteBufferSupported() {
+    return false;
+  }
+
+  @Nullable
+  @Override
+  public ByteBuffer getByteBuffer() {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public void close() {}
 
@@ -23,6 +23,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.BinaryLog;
 import io.grpc.BindableService;
+import io.grpc.CompressionPolicy;
 import io.grpc.CompressorRegistry;
 import io.grpc.Context;
 import io.grpc.Deadline;
@@ -30,6 +31,7 @@ import io.grpc.DecompressorRegistry;
 import io.grpc.HandlerRegistry;
 import io.grpc.InternalChannelz;
 import io.grpc.InternalNotifyOnServerBuild;
+import io.grpc.MethodDescriptor;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.ServerInterceptor;
@@ -40,9 +42,13 @@ import io.grpc.ServerTransportFilter;
 import io.opencensus.trace.Tracing;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
 /**
@@ -52,6 +58,7 @@ import javax.annotation.Nullable;
  */
 public abstract class AbstractServerImplBuilder<T extends AbstractServerImplBuilder<T>>
         extends ServerBuilder<T> {
+  private static final Logger log = Logger.getLogger(AbstractServerImplBuilder.class.getName());
 
   public static ServerBuilder<?> forPort(int port) {
     throw new UnsupportedOperationException("Subclass failed to hide static factory");
@@ -76,8 +83,14 @@ public abstract class AbstractServerImplBuilder<T extends AbstractServerImplBuil
   private final List<ServerStreamTracer.Factory> streamTracerFactories = new ArrayList<>();
   HandlerRegistry fallbackRegistry = DEFAULT_FALLBACK_REGISTRY;
   ObjectPool<? extends Executor> executorPool = DEFAULT_EXECUTOR_POOL;
+  @Nullable
+  Executor offloadExecutor;
+  long offloadBudgetNanos;
+  final Set<String> blockingMethods = new HashSet<>();
   DecompressorRegistry decompressorRegistry = DEFAULT_DECOMPRESSOR_REGISTRY;
   CompressorRegistry compressorRegistry = DEFAULT_COMPRESSOR_REGISTRY;
+  @Nullable
+  CompressionPolicy compressionPolicy;
   long handshakeTimeoutMillis = DEFAULT_HANDSHAKE_TIMEOUT_MILLIS;
   Deadline.Ticker ticker = Deadline.getSystemTicker();
   @Nullable private CensusStatsModule censusStatsOverride;
@@ -99,9 +112,36 @@ public abstract class AbstractServerImplBuilder<T extends AbstractServerImplBuil
   @Override
   public final T executor(@Nullable Executor executor) {
     this.executorPool = executor != null ? new FixedObjectPool<>(executor) : DEFAULT_EXECUTOR_POOL;
+    this.offloadExecutor = null;
     return thisT();
   }
 
+  @Override
+  public final T directExecutorWithOffload(
+      Executor offloadExecutor, long handlerTimeBudget, TimeUnit unit) {
+    checkNotNull(offloadExecutor, "offloadExecutor");
+    checkArgument(handlerTimeBudget > 0, "handlerTimeBudget must be positive");
+    directExecutor();
+    this.offloadExecutor = offloadExecutor;
+    this.offloadBudgetNanos = unit.toNanos(handlerTimeBudget);
+    return thisT();
+  }
+
+  @Override
+  public final T blockingMethod(MethodDescriptor<?, ?> method) {
+    blockingMethods.add(checkNotNull(method, "method").getFullMethodName());
+    return thisT();
+  }
+
+  @Override
+  public final T virtualThreadExecutor() {
+    if (!VirtualThreadExecutor.isAvailable()) {
+      log.log(Level.INFO, "Virtual threads are not supported by this JVM; using default executor");
+      return executor(null);
+    }
+    return executor(VirtualThreadExecutor.create());
+  }
+
   @Override
   public final T addService(ServerServiceDefinition service) {
     registryBuilder.addService(checkNotNull(service, "service"));
@@ -152,6 +192,12 @@ public abstract class AbstractServerImplBuilder<T extends AbstractServerImplBuil
     return thisT();
   }
 
+  @Override
+  public final T compressionPolicy(@Nullable CompressionPolicy policy) {
+    this.compressionPolicy = policy;
+    return thisT();
+  }
+
   @Override
   public final T handshakeTimeout(long timeout, TimeUnit unit) {
     checkArgument(timeout > 0, "handshake timeout is %s, but must be positive", timeout);
@@ -162,6 +162,16 @@ public abstract class AbstractServerStream extends AbstractStream
     transportState().setDecompressor(Preconditions.checkNotNull(decompressor, "decompressor"));
   }
 
+  @Override
+  public void setWriteCoalescing(boolean enabled) {
+    // noop by default, transports that can defer flushes override this.
+  }
+
+  @Override
+  public void setStreamWeight(int weight) {
+    // noop by default, transports that can prioritize streams override this.
+  }
+
   @Override public Attributes getAttributes() {
     return Attributes.EMPTY;
   }
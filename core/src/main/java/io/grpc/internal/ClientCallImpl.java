@@ -281,7 +281,8 @@ final class ClientCallImpl<ReqT, RespT> extends ClientCall<ReqT, RespT> {
     if (effectiveDeadline != null) {
       stream.setDeadline(effectiveDeadline);
     }
-    stream.setCompressor(compressor);
+    stream.setCompressor(CompressorWithPolicy.withPolicy(
+        compressor, callOptions.getCompressionPolicy(), method.getFullMethodName()));
     if (fullStreamDecompression) {
       stream.setFullStreamDecompression(fullStreamDecompression);
     }
@@ -19,8 +19,10 @@ package io.grpc.internal;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.InvalidMarkException;
 import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.Deque;
+import javax.annotation.Nullable;
 
 /**
  * A {@link ReadableBuffer} that is composed of 0 or more {@link ReadableBuffer}s. This provides a
@@ -28,12 +30,16 @@ import java.util.Queue;
  *
  * <p>When a buffer is added to a composite, its life cycle is controlled by the composite. Once
  * the composite has read past the end of a given buffer, that buffer is automatically closed and
- * removed from the composite.
+ * removed from the composite. While the composite is {@link #mark marked}, buffers that have been
+ * read past are instead retained until the composite is closed or marked again, so that {@link
+ * #reset} can restore them.
  */
 public class CompositeReadableBuffer extends AbstractReadableBuffer {
 
   private int readableBytes;
-  private final Queue<ReadableBuffer> buffers = new ArrayDeque<>();
+  private final Deque<ReadableBuffer> buffers = new ArrayDeque<>();
+  private Deque<ReadableBuffer> rewindableBuffers;
+  private boolean marked;
 
   /**
    * Adds a new {@link ReadableBuffer} at the end of the buffer list. After a buffer is added, it is
@@ -42,6 +48,14 @@ public class CompositeReadableBuffer extends AbstractReadableBuffer {
    * this {@code CompositeBuffer}.
    */
   public void addBuffer(ReadableBuffer buffer) {
+    boolean markHead = marked && buffers.isEmpty();
+    enqueueBuffer(buffer);
+    if (markHead) {
+      buffers.peek().mark();
+    }
+  }
+
+  private void enqueueBuffer(ReadableBuffer buffer) {
     if (!(buffer instanceof CompositeReadableBuffer)) {
       buffers.add(buffer);
       readableBytes += buffer.readableBytes();
@@ -141,22 +155,97 @@ public class CompositeReadableBuffer extends AbstractReadableBuffer {
     CompositeReadableBuffer newBuffer = new CompositeReadableBuffer();
     while (length > 0) {
       ReadableBuffer buffer = buffers.peek();
-      if (buffer.readableBytes() > length) {
+      int readable = buffer.readableBytes();
+      if (readable > length) {
         newBuffer.addBuffer(buffer.readBytes(length));
         length = 0;
       } else {
-        newBuffer.addBuffer(buffers.poll());
-        length -= buffer.readableBytes();
+        if (marked) {
+          // The buffer must stay available for reset(), so hand out a view of its content instead.
+          newBuffer.addBuffer(buffer.readBytes(readable));
+          advanceBuffer();
+        } else {
+          newBuffer.addBuffer(buffers.poll());
+        }
+        length -= readable;
       }
     }
     return newBuffer;
   }
 
+  @Override
+  public boolean markSupported() {
+    for (ReadableBuffer buffer : buffers) {
+      if (!buffer.markSupported()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void mark() {
+    if (rewindableBuffers == null) {
+      rewindableBuffers = new ArrayDeque<>(Math.min(buffers.size(), 16));
+    }
+    while (!rewindableBuffers.isEmpty()) {
+      rewindableBuffers.remove().close();
+    }
+    marked = true;
+    ReadableBuffer buffer = buffers.peek();
+    if (buffer != null) {
+      buffer.mark();
+    }
+  }
+
+  @Override
+  public void reset() {
+    if (!marked) {
+      throw new InvalidMarkException();
+    }
+    ReadableBuffer buffer = buffers.peek();
+    if (buffer != null) {
+      int currentRemaining = buffer.readableBytes();
+      buffer.reset();
+      readableBytes += buffer.readableBytes() - currentRemaining;
+    }
+    while ((buffer = rewindableBuffers.pollLast()) != null) {
+      buffer.reset();
+      buffers.addFirst(buffer);
+      readableBytes += buffer.readableBytes();
+    }
+  }
+
+  @Override
+  public boolean byteBufferSupported() {
+    for (ReadableBuffer buffer : buffers) {
+      if (!buffer.byteBufferSupported()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Nullable
+  @Override
+  public ByteBuffer getByteBuffer() {
+    ReadableBuffer buffer = buffers.peek();
+    if (buffer == null) {
+      return null;
+    }
+    return buffer.getByteBuffer();
+  }
+
   @Override
   public void close() {
     while (!buffers.isEmpty()) {
       buffers.remove().close();
     }
+    if (rewindableBuffers != null) {
+      while (!rewindableBuffers.isEmpty()) {
+        rewindableBuffers.remove().close();
+      }
+    }
   }
 
   /**
@@ -196,6 +285,22 @@ public class CompositeReadableBuffer extends AbstractReadableBuffer {
   private void advanceBufferIfNecessary() {
     ReadableBuffer buffer = buffers.peek();
     if (buffer.readableBytes() == 0) {
+      advanceBuffer();
+    }
+  }
+
+  /**
+   * Removes the current buffer. The buffer is closed, unless this composite is marked, in which
+   * case it is retained for {@link #reset} and the next buffer is marked.
+   */
+  private void advanceBuffer() {
+    if (marked) {
+      rewindableBuffers.add(buffers.remove());
+      ReadableBuffer next = buffers.peek();
+      if (next != null) {
+        next.mark();
+      }
+    } else {
       buffers.remove().close();
     }
   }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.grpc.Codec;
+import io.grpc.CompressionPolicy;
+import io.grpc.Compressor;
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Compressor} together with the {@link CompressionPolicy.CallPolicy} of the call it is
+ * used for. It is passed to {@link Stream#setCompressor}, and {@link MessageFramer} unwraps it.
+ */
+final class CompressorWithPolicy implements Compressor {
+  final Compressor delegate;
+  final CompressionPolicy.CallPolicy callPolicy;
+
+  /**
+   * Returns {@code compressor} with the policy for a call of {@code fullMethodName}, or just
+   * {@code compressor} if there is no policy or nothing to compress with.
+   */
+  static Compressor withPolicy(
+      Compressor compressor, @Nullable CompressionPolicy policy, String fullMethodName) {
+    if (policy == null || compressor == Codec.Identity.NONE) {
+      return compressor;
+    }
+    return new CompressorWithPolicy(compressor, policy.newCallPolicy(fullMethodName));
+  }
+
+  private CompressorWithPolicy(Compressor delegate, CompressionPolicy.CallPolicy callPolicy) {
+    this.delegate = checkNotNull(delegate, "delegate");
+    this.callPolicy = checkNotNull(callPolicy, "callPolicy");
+  }
+
+  @Override
+  public String getMessageEncoding() {
+    return delegate.getMessageEncoding();
+  }
+
+  @Override
+  public OutputStream compress(OutputStream os) throws IOException {
+    return delegate.compress(os);
+  }
+}
@@ -16,8 +16,10 @@
 
 package io.grpc.internal;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import io.grpc.InternalZlibPool;
 import java.io.Closeable;
 import java.util.zip.CRC32;
 import java.util.zip.DataFormatException;
@@ -155,6 +157,7 @@ class GzipInflatingBuffer implements Closeable {
    */
   private final CompositeReadableBuffer gzippedData = new CompositeReadableBuffer();
 
+  private final InternalZlibPool zlibPool;
   private final CRC32 crc = new CRC32();
 
   private final GzipMetadataReader gzipMetadataReader = new GzipMetadataReader();
@@ -183,6 +186,18 @@ class GzipInflatingBuffer implements Closeable {
 
   private boolean isStalled = true;
 
+  GzipInflatingBuffer() {
+    this(InternalZlibPool.getDefaultInstance());
+  }
+
+  /**
+   * Creates a buffer that takes its {@link Inflater} from {@code zlibPool} when a gzip stream
+   * starts, and returns it when closed or when no further stream is buffered.
+   */
+  GzipInflatingBuffer(InternalZlibPool zlibPool) {
+    this.zlibPool = checkNotNull(zlibPool, "zlibPool");
+  }
+
   /**
    * Returns true when more bytes must be added via {@link #addGzippedBytes} to enable additional
    * calls to {@link #inflateBytes} to make progress.
@@ -218,7 +233,7 @@ class GzipInflatingBuffer implements Closeable {
       closed = true;
       gzippedData.close();
       if (inflater != null) {
-        inflater.end();
+        zlibPool.returnInflater(inflater);
         inflater = null;
       }
     }
@@ -395,7 +410,7 @@ class GzipInflatingBuffer implements Closeable {
 
   private boolean initializeInflater() {
     if (inflater == null) {
-      inflater = new Inflater(true);
+      inflater = zlibPool.takeInflater();
     } else {
       inflater.reset();
     }
@@ -457,7 +472,7 @@ class GzipInflatingBuffer implements Closeable {
     if (inflater != null
         && gzipMetadataReader.readableBytes() <= GZIP_HEADER_MIN_SIZE + GZIP_TRAILER_SIZE) {
       // We don't have enough bytes to begin inflating a concatenated gzip stream, drop context
-      inflater.end();
+      zlibPool.returnInflater(inflater);
       inflater = null;
     }
     if (gzipMetadataReader.readableBytes() < GZIP_TRAILER_SIZE) {
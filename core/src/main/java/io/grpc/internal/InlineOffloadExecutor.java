@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.grpc.Deadline;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Executes the callbacks of one call directly in the calling thread, like {@link
+ * SerializeReentrantCallsDirectExecutor}, until one of them runs for longer than a time budget.
+ * The call then moves to an offload executor for the rest of its lifetime, and the overrun is
+ * recorded in {@link BlockingMethods}, which marks the method as blocking once it overruns
+ * repeatedly so that later calls of it can be started on the offload executor.
+ *
+ * <p>Callbacks run one at a time and in order, including across the move.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class InlineOffloadExecutor implements Executor {
+
+  private static final Logger log = Logger.getLogger(InlineOffloadExecutor.class.getName());
+
+  private final Executor offloadExecutor;
+  private final long budgetNanos;
+  private final String fullMethodName;
+  private final BlockingMethods blockingMethods;
+  private final Deadline.Ticker ticker;
+
+  private boolean executing;
+  private boolean offloaded;
+  // Lazily initialized if a reentrant call is detected.
+  private ArrayDeque<Runnable> taskQueue;
+
+  /**
+   * Creates an executor for a call of {@code fullMethodName}.
+   *
+   * @param offloadExecutor serializing executor that callbacks are run on once the call has moved
+   * @param budgetNanos how long a callback may run in the calling thread
+   * @param blockingMethods records the overruns of the method, shared by the calls of a server
+   */
+  InlineOffloadExecutor(
+      Executor offloadExecutor, long budgetNanos, String fullMethodName,
+      BlockingMethods blockingMethods, Deadline.Ticker ticker) {
+    this.offloadExecutor = Preconditions.checkNotNull(offloadExecutor, "offloadExecutor");
+    this.budgetNanos = budgetNanos;
+    this.fullMethodName = Preconditions.checkNotNull(fullMethodName, "fullMethodName");
+    this.blockingMethods = Preconditions.checkNotNull(blockingMethods, "blockingMethods");
+    this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    Preconditions.checkNotNull(task, "'task' must not be null.");
+    if (offloaded) {
+      offloadExecutor.execute(task);
+      return;
+    }
+    if (executing) {
+      enqueue(task);
+      return;
+    }
+    executing = true;
+    try {
+      runTimed(task);
+      if (taskQueue != null) {
+        while (!offloaded && (task = taskQueue.poll()) != null) {
+          runTimed(task);
+        }
+        if (offloaded) {
+          // Keep the order of callbacks queued behind the one that blocked.
+          while ((task = taskQueue.poll()) != null) {
+            offloadExecutor.execute(task);
+          }
+        }
+      }
+    } finally {
+      executing = false;
+    }
+  }
+
+  /** Whether the call has moved to the offload executor. */
+  boolean isOffloaded() {
+    return offloaded;
+  }
+
+  private void runTimed(Runnable task) {
+    long start = ticker.nanoTime();
+    try {
+      task.run();
+    } catch (Throwable t) {
+      log.log(Level.SEVERE, "Exception while executing runnable " + task, t);
+    }
+    long end = ticker.nanoTime();
+    long elapsedNanos = end - start;
+    if (elapsedNanos > budgetNanos) {
+      offloaded = true;
+      if (blockingMethods.recordOverrun(fullMethodName, end)) {
+        log.log(
+            Level.WARNING,
+            "Callbacks of {0} repeatedly blocked the transport thread, most recently for {1} ms. "
+                + "Its calls will run on the offload executor",
+            new Object[] {fullMethodName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)});
+      }
+    }
+  }
+
+  private void enqueue(Runnable r) {
+    if (taskQueue == null) {
+      taskQueue = new ArrayDeque<>(4);
+    }
+    taskQueue.add(r);
+  }
+
+  /**
+   * The methods of a server whose calls start on the offload executor: those configured as
+   * blocking, and those whose callbacks overran their budget {@link #OVERRUNS_TO_MARK} times
+   * within {@link #OVERRUN_WINDOW_NANOS}. A single slow callback, such as one that happened to hit
+   * a GC pause, only moves its own call.
+   */
+  @ThreadSafe
+  static final class BlockingMethods {
+    @VisibleForTesting
+    static final int OVERRUNS_TO_MARK = 3;
+    @VisibleForTesting
+    static final long OVERRUN_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Set<String> methods =
+        Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    // Only methods that overran recently but are not marked yet.
+    private final ConcurrentMap<String, Overruns> overruns = new ConcurrentHashMap<>();
+
+    BlockingMethods(Collection<String> configured) {
+      methods.addAll(configured);
+    }
+
+    boolean contains(String fullMethodName) {
+      return methods.contains(fullMethodName);
+    }
+
+    /**
+     * Records that a callback of the method overran its budget at {@code nowNanos}. Returns {@code
+     * true} if this marked the method as blocking.
+     */
+    boolean recordOverrun(String fullMethodName, long nowNanos) {
+      if (methods.contains(fullMethodName)) {
+        return false;
+      }
+      Overruns methodOverruns = overruns.get(fullMethodName);
+      if (methodOverruns == null) {
+        Overruns newOverruns = new Overruns();
+        methodOverruns = overruns.putIfAbsent(fullMethodName, newOverruns);
+        if (methodOverruns == null) {
+          methodOverruns = newOverruns;
+        }
+      }
+      if (!methodOverruns.record(nowNanos)) {
+        return false;
+      }
+      overruns.remove(fullMethodName);
+      return methods.add(fullMethodName);
+    }
+
+    private static final class Overruns {
+      @GuardedBy("this")
+      private int count;
+      @GuardedBy("this")
+      private long windowStartNanos;
+
+      /** Returns {@code true} once the method has overrun often enough to be marked. */
+      synchronized boolean record(long nowNanos) {
+        if (count == 0 || nowNanos - windowStartNanos > OVERRUN_WINDOW_NANOS) {
+          count = 0;
+          windowStartNanos = nowNanos;
+        }
+        return ++count >= OVERRUNS_TO_MARK;
+      }
+    }
+  }
+}
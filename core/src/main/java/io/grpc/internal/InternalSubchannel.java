@@ -55,6 +55,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -76,6 +77,17 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
   private final ChannelTracer channelTracer;
   private final ChannelLogger channelLogger;
 
+  /**
+   * The number of transports to keep open to the current address while READY: {@link
+   * #activeTransport} and the pooled transports.
+   */
+  private final int connectionsPerSubchannel;
+
+  /**
+   * Counts transport picks, so that picks among equally loaded transports rotate.
+   */
+  private final AtomicInteger pickCount = new AtomicInteger();
+
   /**
    * All field must be mutated in the syncContext.
    */
@@ -137,13 +149,42 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
    * The to-be active transport, which is not ready yet.
    */
   @Nullable
-  private ConnectionClientTransport pendingTransport;
+  private CallTracingTransport pendingTransport;
 
   /**
    * The transport for new outgoing requests. Non-null only in READY state.
    */
   @Nullable
-  private volatile ManagedClientTransport activeTransport;
+  private volatile CallTracingTransport activeTransport;
+
+  /**
+   * Additional transports to the address of {@link #activeTransport} that are not ready yet. They
+   * are only started in READY state when more than one connection per subchannel is configured.
+   */
+  private final List<CallTracingTransport> connectingPooledTransports = new ArrayList<>();
+
+  /**
+   * Additional transports to the address of {@link #activeTransport} that are ready.
+   */
+  private final List<CallTracingTransport> readyPooledTransports = new ArrayList<>();
+
+  /**
+   * The policy for replacing pooled transports that were lost or failed to connect. Reset when a
+   * pooled transport becomes ready.
+   */
+  @Nullable
+  private BackoffPolicy pooledReconnectPolicy;
+
+  @Nullable
+  private ScheduledHandle pooledReconnectTask;
+
+  /**
+   * {@link #activeTransport} followed by {@link #readyPooledTransports}, from which new outgoing
+   * requests pick the transport with the fewest active streams. Non-null only in READY state when
+   * more than one connection per subchannel is configured.
+   */
+  @Nullable
+  private volatile CallTracingTransport[] readyTransports;
 
   private volatile ConnectivityStateInfo state = ConnectivityStateInfo.forNonError(IDLE);
 
@@ -154,7 +195,7 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
       ClientTransportFactory transportFactory, ScheduledExecutorService scheduledExecutor,
       Supplier<Stopwatch> stopwatchSupplier, SynchronizationContext syncContext, Callback callback,
       InternalChannelz channelz, CallTracer callsTracer, ChannelTracer channelTracer,
-      InternalLogId logId, ChannelLogger channelLogger) {
+      InternalLogId logId, ChannelLogger channelLogger, int connectionsPerSubchannel) {
     Preconditions.checkNotNull(addressGroups, "addressGroups");
     Preconditions.checkArgument(!addressGroups.isEmpty(), "addressGroups is empty");
     checkListHasNoNulls(addressGroups, "addressGroups contains null entry");
@@ -175,6 +216,9 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
     this.channelTracer = Preconditions.checkNotNull(channelTracer, "channelTracer");
     this.logId = Preconditions.checkNotNull(logId, "logId");
     this.channelLogger = Preconditions.checkNotNull(channelLogger, "channelLogger");
+    Preconditions.checkArgument(
+        connectionsPerSubchannel >= 1, "connectionsPerSubchannel must be at least 1");
+    this.connectionsPerSubchannel = connectionsPerSubchannel;
   }
 
   ChannelLogger getChannelLogger() {
@@ -183,6 +227,10 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
 
   @Override
   public ClientTransport obtainActiveTransport() {
+    CallTracingTransport[] savedReadyTransports = readyTransports;
+    if (savedReadyTransports != null) {
+      return pickTransport(savedReadyTransports);
+    }
     ClientTransport savedTransport = activeTransport;
     if (savedTransport != null) {
       return savedTransport;
@@ -205,9 +253,32 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
    */
   @Nullable
   ClientTransport getTransport() {
+    CallTracingTransport[] savedReadyTransports = readyTransports;
+    if (savedReadyTransports != null) {
+      return pickTransport(savedReadyTransports);
+    }
     return activeTransport;
   }
 
+  /**
+   * Returns the transport with the fewest active streams. Ties are broken in turn, so that
+   * transports share the load when streams are short-lived.
+   */
+  private ClientTransport pickTransport(CallTracingTransport[] transports) {
+    int start = (pickCount.getAndIncrement() & Integer.MAX_VALUE) % transports.length;
+    CallTracingTransport picked = transports[start];
+    int pickedActiveStreams = picked.activeStreams();
+    for (int i = 1; i < transports.length && pickedActiveStreams > 0; i++) {
+      CallTracingTransport transport = transports[(start + i) % transports.length];
+      int activeStreams = transport.activeStreams();
+      if (activeStreams < pickedActiveStreams) {
+        picked = transport;
+        pickedActiveStreams = activeStreams;
+      }
+    }
+    return picked;
+  }
+
   /**
    * Returns the authority string associated with this Subchannel.
    */
@@ -223,6 +294,13 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
     if (addressIndex.isAtBeginning()) {
       connectingTimer.reset().start();
     }
+    pendingTransport = startTransport();
+  }
+
+  /**
+   * Creates and starts a transport to the current address.
+   */
+  private CallTracingTransport startTransport() {
     SocketAddress address = addressIndex.getCurrentAddress();
 
     HttpConnectProxiedSocketAddress proxiedAddr = null;
@@ -243,19 +321,102 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
     TransportLogger transportLogger = new TransportLogger();
     // In case the transport logs in the constructor, use the subchannel logId
     transportLogger.logId = getLogId();
-    ConnectionClientTransport transport =
+    CallTracingTransport transport =
         new CallTracingTransport(
             transportFactory
                 .newClientTransport(address, options, transportLogger), callsTracer);
     transportLogger.logId = transport.getLogId();
     channelz.addClientSocket(transport);
-    pendingTransport = transport;
     transports.add(transport);
     Runnable runnable = transport.start(new TransportListener(transport, address));
     if (runnable != null) {
       syncContext.executeLater(runnable);
     }
     channelLogger.log(ChannelLogLevel.INFO, "Started transport {0}", transportLogger.logId);
+    return transport;
+  }
+
+  /**
+   * Starts pooled transports to the address of {@link #activeTransport} until there are as many
+   * transports as connections per subchannel.
+   */
+  private void startPooledTransports() {
+    syncContext.throwIfNotInThisSynchronizationContext();
+
+    int started = 1 + connectingPooledTransports.size() + readyPooledTransports.size();
+    for (; started < connectionsPerSubchannel; started++) {
+      connectingPooledTransports.add(startTransport());
+    }
+    updateReadyTransports();
+  }
+
+  /**
+   * Starts pooled transports again after a backoff, so that a backend that refuses or drops
+   * additional connections does not cause a reconnect loop.
+   */
+  private void schedulePooledReconnect() {
+    syncContext.throwIfNotInThisSynchronizationContext();
+
+    class EndOfPooledBackoff implements Runnable {
+      @Override
+      public void run() {
+        pooledReconnectTask = null;
+        if (activeTransport != null) {
+          startPooledTransports();
+        }
+      }
+    }
+
+    if (pooledReconnectTask != null) {
+      return;
+    }
+    if (pooledReconnectPolicy == null) {
+      pooledReconnectPolicy = backoffPolicyProvider.get();
+    }
+    long delayNanos = pooledReconnectPolicy.nextBackoffNanos();
+    channelLogger.log(
+        ChannelLogLevel.DEBUG, "Will replace pooled transport after {0} ns", delayNanos);
+    pooledReconnectTask = syncContext.schedule(
+        new EndOfPooledBackoff(),
+        delayNanos,
+        TimeUnit.NANOSECONDS,
+        scheduledExecutor);
+  }
+
+  private void updateReadyTransports() {
+    syncContext.throwIfNotInThisSynchronizationContext();
+
+    if (connectionsPerSubchannel == 1 || activeTransport == null) {
+      readyTransports = null;
+      return;
+    }
+    CallTracingTransport[] ready = new CallTracingTransport[1 + readyPooledTransports.size()];
+    ready[0] = activeTransport;
+    for (int i = 0; i < readyPooledTransports.size(); i++) {
+      ready[i + 1] = readyPooledTransports.get(i);
+    }
+    readyTransports = ready;
+  }
+
+  /**
+   * Shuts down the pooled transports. Must be called whenever {@link #activeTransport} is cleared.
+   */
+  private void shutdownPooledTransports(Status reason) {
+    syncContext.throwIfNotInThisSynchronizationContext();
+
+    List<CallTracingTransport> pooledTransports = new ArrayList<>(connectingPooledTransports);
+    pooledTransports.addAll(readyPooledTransports);
+    connectingPooledTransports.clear();
+    readyPooledTransports.clear();
+    readyTransports = null;
+    if (pooledReconnectTask != null) {
+      pooledReconnectTask.cancel();
+      pooledReconnectTask = null;
+    }
+    pooledReconnectPolicy = null;
+    for (CallTracingTransport transport : pooledTransports) {
+      transport.shutdown(reason);
+    }
   }
 
   /**
@@ -362,9 +523,10 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
           }
         }
         if (savedTransport != null) {
-          savedTransport.shutdown(
-              Status.UNAVAILABLE.withDescription(
-                  "InternalSubchannel closed transport due to address change"));
+          Status reason = Status.UNAVAILABLE.withDescription(
+              "InternalSubchannel closed transport due to address change");
+          savedTransport.shutdown(reason);
+          shutdownPooledTransports(reason);
         }
       }
     });
@@ -396,6 +558,7 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
         if (savedPendingTransport != null) {
           savedPendingTransport.shutdown(reason);
         }
+        shutdownPooledTransports(reason);
       }
     });
   }
@@ -495,11 +658,11 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
 
   /** Listener for real transports. */
   private class TransportListener implements ManagedClientTransport.Listener {
-    final ConnectionClientTransport transport;
+    final CallTracingTransport transport;
     final SocketAddress address;
     boolean shutdownInitiated = false;
 
-    TransportListener(ConnectionClientTransport transport, SocketAddress address) {
+    TransportListener(CallTracingTransport transport, SocketAddress address) {
       this.transport = transport;
       this.address = address;
     }
@@ -520,6 +683,11 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
             activeTransport = transport;
             pendingTransport = null;
             gotoNonErrorState(READY);
+            startPooledTransports();
+          } else if (connectingPooledTransports.remove(transport)) {
+            pooledReconnectPolicy = null;
+            readyPooledTransports.add(transport);
+            updateReadyTransports();
           }
         }
       });
@@ -541,8 +709,15 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
           if (state.getState() == SHUTDOWN) {
             return;
           }
-          if (activeTransport == transport) {
+          if (activeTransport == transport && !readyPooledTransports.isEmpty()) {
+            // Carry on with the remaining connections, and replace this one after a backoff.
+            activeTransport = readyPooledTransports.remove(0);
+            updateReadyTransports();
+            schedulePooledReconnect();
+          } else if (activeTransport == transport) {
             activeTransport = null;
+            shutdownPooledTransports(Status.UNAVAILABLE.withDescription(
+                "InternalSubchannel closed pooled transport after losing its active transport"));
             addressIndex.reset();
             gotoNonErrorState(IDLE);
           } else if (pendingTransport == transport) {
@@ -559,6 +734,11 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
             } else {
               startNewTransport();
             }
+          } else if (readyPooledTransports.remove(transport)) {
+            updateReadyTransports();
+            schedulePooledReconnect();
+          } else if (connectingPooledTransports.remove(transport)) {
+            schedulePooledReconnect();
           }
         }
       });
@@ -618,6 +798,7 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
   static final class CallTracingTransport extends ForwardingConnectionClientTransport {
     private final ConnectionClientTransport delegate;
     private final CallTracer callTracer;
+    private final AtomicInteger activeStreams = new AtomicInteger();
 
     private CallTracingTransport(ConnectionClientTransport delegate, CallTracer callTracer) {
       this.delegate = delegate;
@@ -629,6 +810,13 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
       return delegate;
     }
 
+    /**
+     * Returns the number of streams that have been started and not yet closed.
+     */
+    int activeStreams() {
+      return activeStreams.get();
+    }
+
     @Override
     public ClientStream newStream(
         MethodDescriptor<?, ?> method, Metadata headers, CallOptions callOptions) {
@@ -642,6 +830,7 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
         @Override
         public void start(final ClientStreamListener listener) {
           callTracer.reportCallStarted();
+          activeStreams.incrementAndGet();
           super.start(new ForwardingClientStreamListener() {
             @Override
             protected ClientStreamListener delegate() {
@@ -651,6 +840,7 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
             @Override
             public void closed(Status status, Metadata trailers) {
               callTracer.reportCallEnded(status.isOk());
+              activeStreams.decrementAndGet();
               super.closed(status, trailers);
             }
 
@@ -658,6 +848,7 @@ final class InternalSubchannel implements InternalInstrumented<ChannelStats>, Tr
             public void closed(
                 Status status, RpcProgress rpcProgress, Metadata trailers) {
               callTracer.reportCallEnded(status.isOk());
+              activeStreams.decrementAndGet();
               super.closed(status, rpcProgress, trailers);
             }
           });
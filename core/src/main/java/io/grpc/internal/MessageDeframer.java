@@ -21,9 +21,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
 import io.grpc.Codec;
 import io.grpc.Decompressor;
 import io.grpc.Status;
+import io.grpc.StreamScopedCodec;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
@@ -90,6 +93,9 @@ public class MessageDeframer implements Closeable, Deframer {
   private final StatsTraceContext statsTraceCtx;
   private final TransportTracer transportTracer;
   private Decompressor decompressor;
+  /** Non-{@code null} if {@link #decompressor} keeps state for this stream. */
+  @Nullable
+  private StreamScopedCodec.StreamCodec streamCodec;
   private GzipInflatingBuffer fullStreamDecompressor;
   private byte[] inflatedBuffer;
   private int inflatedIndex;
@@ -121,7 +127,7 @@ public class MessageDeframer implements Closeable, Deframer {
       StatsTraceContext statsTraceCtx,
       TransportTracer transportTracer) {
     this.listener = checkNotNull(listener, "sink");
-    this.decompressor = checkNotNull(decompressor, "decompressor");
+    useDecompressor(checkNotNull(decompressor, "decompressor"));
     this.maxInboundMessageSize = maxMessageSize;
     this.statsTraceCtx = checkNotNull(statsTraceCtx, "statsTraceCtx");
     this.transportTracer = checkNotNull(transportTracer, "transportTracer");
@@ -139,7 +145,23 @@ public class MessageDeframer implements Closeable, Deframer {
   @Override
   public void setDecompressor(Decompressor decompressor) {
     checkState(fullStreamDecompressor == null, "Already set full stream decompressor");
-    this.decompressor = checkNotNull(decompressor, "Can't pass an empty decompressor");
+    useDecompressor(checkNotNull(decompressor, "Can't pass an empty decompressor"));
+  }
+
+  private void useDecompressor(Decompressor decompressor) {
+    closeStreamCodec();
+    if (decompressor instanceof StreamScopedCodec) {
+      streamCodec = ((StreamScopedCodec) decompressor).newStreamCodec();
+      decompressor = streamCodec;
+    }
+    this.decompressor = decompressor;
+  }
+
+  private void closeStreamCodec() {
+    if (streamCodec != null) {
+      streamCodec.close();
+      streamCodec = null;
+    }
   }
 
   @Override
@@ -222,6 +244,7 @@ public class MessageDeframer implements Closeable, Deframer {
         nextFrame.close();
       }
     } finally {
+      closeStreamCodec();
       fullStreamDecompressor = null;
       unprocessed = null;
       nextFrame = null;
@@ -428,8 +451,18 @@ public class MessageDeframer implements Closeable, Deframer {
       // Enforce the maxMessageSize limit on the returned stream.
       InputStream unlimitedStream =
           decompressor.decompress(ReadableBuffers.openStream(nextFrame, true));
-      return new SizeEnforcingInputStream(
+      InputStream limitedStream = new SizeEnforcingInputStream(
           unlimitedStream, maxInboundMessageSize, statsTraceCtx);
+      if (streamCodec == null) {
+        return limitedStream;
+      }
+      // The codec's state depends on every message before, so decompress this message completely
+      // before the next one arrives instead of leaving it to the application.
+      try {
+        return new ByteArrayInputStream(ByteStreams.toByteArray(limitedStream));
+      } finally {
+        limitedStream.close();
+      }
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
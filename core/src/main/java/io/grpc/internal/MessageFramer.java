@@ -22,11 +22,14 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.lang.Math.min;
 
 import com.google.common.io.ByteStreams;
+import io.grpc.ByteBufferDrainable;
 import io.grpc.Codec;
+import io.grpc.CompressionPolicy;
 import io.grpc.Compressor;
 import io.grpc.Drainable;
 import io.grpc.KnownLength;
 import io.grpc.Status;
+import io.grpc.StreamScopedCodec;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -74,6 +77,11 @@ public class MessageFramer implements Framer {
   private int maxOutboundMessageSize = NO_MAX_OUTBOUND_MESSAGE_SIZE;
   private WritableBuffer buffer;
   private Compressor compressor = Codec.Identity.NONE;
+  /** Non-{@code null} if {@link #compressor} keeps state for this stream. */
+  @Nullable
+  private StreamScopedCodec.StreamCodec streamCodec;
+  @Nullable
+  private CompressionPolicy.CallPolicy compressionPolicy;
   private boolean messageCompression = true;
   private final OutputStreamAdapter outputStreamAdapter = new OutputStreamAdapter();
   private final byte[] headerScratch = new byte[HEADER_LENGTH];
@@ -102,7 +110,18 @@ public class MessageFramer implements Framer {
 
   @Override
   public MessageFramer setCompressor(Compressor compressor) {
-    this.compressor = checkNotNull(compressor, "Can't pass an empty compressor");
+    checkNotNull(compressor, "Can't pass an empty compressor");
+    closeStreamCodec();
+    compressionPolicy = null;
+    if (compressor instanceof CompressorWithPolicy) {
+      compressionPolicy = ((CompressorWithPolicy) compressor).callPolicy;
+      compressor = ((CompressorWithPolicy) compressor).delegate;
+    }
+    if (compressor instanceof StreamScopedCodec) {
+      streamCodec = ((StreamScopedCodec) compressor).newStreamCodec();
+      compressor = streamCodec;
+    }
+    this.compressor = compressor;
     return this;
   }
 
@@ -135,6 +154,9 @@ public class MessageFramer implements Framer {
     int messageLength = -2;
     try {
       messageLength = getKnownLength(message);
+      if (compressed && messageLength != 0 && compressionPolicy != null) {
+        compressed = compressionPolicy.shouldCompress(messageLength);
+      }
       if (messageLength != 0 && compressed) {
         written = writeCompressed(message, messageLength);
       } else {
@@ -195,6 +217,9 @@ public class MessageFramer implements Framer {
               String.format("message too large %d > %d", written , maxOutboundMessageSize))
           .asRuntimeException();
     }
+    if (compressionPolicy != null) {
+      compressionPolicy.messageCompressed(written, bufferChain.readableBytes());
+    }
 
     writeBufferChain(bufferChain, true);
     return written;
@@ -227,6 +252,15 @@ public class MessageFramer implements Framer {
       buffer = bufferAllocator.allocate(header.position() + messageLength);
     }
     writeRaw(headerScratch, 0, header.position());
+    if (message instanceof ByteBufferDrainable && messageLength > 0) {
+      ByteBuffer target = buffer.writableByteBuffer(messageLength);
+      if (target != null) {
+        // Serialize straight into the transport's buffer, skipping the OutputStream adapter.
+        int written = ((ByteBufferDrainable) message).drainTo(target);
+        buffer.commitWritableByteBuffer(written);
+        return written;
+      }
+    }
     return writeToOutputStream(message, outputStreamAdapter);
   }
 
@@ -326,6 +360,7 @@ public class MessageFramer implements Framer {
         releaseBuffer();
       }
       commitToSink(true, true);
+      closeStreamCodec();
     }
   }
 
@@ -337,6 +372,14 @@ public class MessageFramer implements Framer {
   public void dispose() {
     closed = true;
     releaseBuffer();
+    closeStreamCodec();
+  }
+
+  private void closeStreamCodec() {
+    if (streamCodec != null) {
+      streamCodec.close();
+      streamCodec = null;
+    }
   }
 
   private void releaseBuffer() {
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * An unbounded lock-free queue for many producers and a single consumer, made of linked array
+ * chunks. Producers claim a slot with one atomic increment, so an element costs no allocation
+ * except for a new chunk once the last one is full. No chunk is allocated until the first {@link
+ * #offer}, and chunks start at {@link #FIRST_CHUNK_SIZE} slots and double up to {@link
+ * #MAX_CHUNK_SIZE}, so a short-lived queue holding a handful of elements stays small.
+ *
+ * <p>{@link #poll} and {@link #remove} must not be called concurrently. An element whose producer
+ * has claimed a slot but not yet stored into it hides the elements offered after it, so {@link
+ * #poll} may return {@code null} while {@link #offer} is in progress. Callers must not depend on
+ * seeing an element before its {@code offer()} call has returned.
+ */
+final class MpscChunkedQueue<E> {
+  private static final Logger log = Logger.getLogger(MpscChunkedQueue.class.getName());
+
+  @VisibleForTesting
+  static final int FIRST_CHUNK_SIZE = 4;
+  @VisibleForTesting
+  static final int MAX_CHUNK_SIZE = 32;
+
+  /** Replaces a removed element, and is skipped by {@link #poll}. */
+  private static final Object REMOVED = new Object();
+
+  // When using Atomic*FieldUpdater, some Samsung Android 5.0.x devices encounter a bug in their JDK
+  // reflection API that triggers a NoSuchFieldException. When this occurs, fallback to a
+  // synchronized implementation.
+  private static final AtomicHelper atomicHelper = getAtomicHelper();
+
+  private static AtomicHelper getAtomicHelper() {
+    AtomicHelper helper;
+    try {
+      helper =
+          new FieldUpdaterAtomicHelper(
+              AtomicReferenceFieldUpdater.newUpdater(
+                  MpscChunkedQueue.class, Chunk.class, "head"),
+              AtomicReferenceFieldUpdater.newUpdater(
+                  MpscChunkedQueue.class, Chunk.class, "tail"),
+              AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next"),
+              AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "claimed"));
+    } catch (Throwable t) {
+      log.log(Level.SEVERE, "FieldUpdaterAtomicHelper failed", t);
+      helper = new SynchronizedAtomicHelper();
+    }
+    return helper;
+  }
+
+  // Null until the first offer(). Producers only set it from null to the first chunk, and after
+  // that only the consumer writes it. Volatile so that isEmpty() is well defined when called by a
+  // thread that was the consumer until just before.
+  private volatile Chunk head;
+  // Null until the first offer(), and set after head.
+  private volatile Chunk tail;
+  private volatile int headIndex;
+
+  /** Adds {@code e} at the end of the queue. May be called from any thread. */
+  void offer(E e) {
+    Chunk chunk = tail;
+    if (chunk == null) {
+      atomicHelper.casHead(this, null, new Chunk(FIRST_CHUNK_SIZE));
+      atomicHelper.casTail(this, null, head);
+      chunk = tail;
+    }
+    while (true) {
+      int index = atomicHelper.getAndIncrementClaimed(chunk);
+      if (index < chunk.length()) {
+        chunk.set(index, e);
+        return;
+      }
+      Chunk next = chunk.next;
+      if (next == null) {
+        atomicHelper.casNext(
+            chunk, null, new Chunk(Math.min(chunk.length() * 2, MAX_CHUNK_SIZE)));
+        next = chunk.next;
+      }
+      atomicHelper.casTail(this, chunk, next);
+      chunk = next;
+    }
+  }
+
+  /**
+   * Removes and returns the element at the head of the queue, or returns {@code null} if there is
+   * none.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  E poll() {
+    Chunk chunk = head;
+    if (chunk == null) {
+      return null;
+    }
+    int index = headIndex;
+    while (true) {
+      if (index == chunk.length()) {
+        Chunk next = chunk.next;
+        if (next == null) {
+          return null;
+        }
+        // Consumed chunks are left to the garbage collector, since a producer may still hold them.
+        chunk = next;
+        index = 0;
+        head = chunk;
+        headIndex = 0;
+      }
+      Object e = chunk.get(index);
+      if (e == null) {
+        return null;
+      }
+      chunk.lazySet(index, null);
+      headIndex = ++index;
+      if (e != REMOVED) {
+        return (E) e;
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@link #poll} would return {@code null}. It may also be called by a
+   * thread that stopped consuming, in which case the answer may be stale if another thread has
+   * started consuming since.
+   */
+  boolean isEmpty() {
+    Chunk chunk = head;
+    if (chunk == null) {
+      return true;
+    }
+    int index = headIndex;
+    while (true) {
+      if (index == chunk.length()) {
+        chunk = chunk.next;
+        if (chunk == null) {
+          return true;
+        }
+        index = 0;
+      }
+      Object e = chunk.get(index);
+      if (e != REMOVED) {
+        return e == null;
+      }
+      index++;
+    }
+  }
+
+  /**
+   * Removes the first occurrence of {@code e}, compared by identity. Only the consumer may call
+   * this.
+   */
+  boolean remove(E e) {
+    Chunk chunk = head;
+    int index = headIndex;
+    while (chunk != null) {
+      // Slots that are claimed but not yet stored into are skipped.
+      int claimed = Math.min(chunk.claimed, chunk.length());
+      for (; index < claimed; index++) {
+        if (chunk.get(index) == e) {
+          chunk.set(index, REMOVED);
+          return true;
+        }
+      }
+      if (claimed < chunk.length()) {
+        return false;
+      }
+      chunk = chunk.next;
+      index = 0;
+    }
+    return false;
+  }
+
+  /**
+   * Extends the slot array rather than wrapping it, and keeps its counters in plain volatile
+   * fields, so a chunk is a single object besides its backing array.
+   */
+  @SuppressWarnings("serial")
+  static final class Chunk extends AtomicReferenceArray<Object> {
+    /** Number of slots claimed by producers. May exceed the capacity once full. */
+    volatile int claimed;
+    volatile Chunk next;
+
+    Chunk(int capacity) {
+      super(capacity);
+    }
+  }
+
+  private abstract static class AtomicHelper {
+    abstract boolean casHead(MpscChunkedQueue<?> queue, Chunk expect, Chunk update);
+
+    abstract boolean casTail(MpscChunkedQueue<?> queue, Chunk expect, Chunk update);
+
+    abstract boolean casNext(Chunk chunk, Chunk expect, Chunk update);
+
+    abstract int getAndIncrementClaimed(Chunk chunk);
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static final class FieldUpdaterAtomicHelper extends AtomicHelper {
+    private final AtomicReferenceFieldUpdater<MpscChunkedQueue, Chunk> headUpdater;
+    private final AtomicReferenceFieldUpdater<MpscChunkedQueue, Chunk> tailUpdater;
+    private final AtomicReferenceFieldUpdater<Chunk, Chunk> nextUpdater;
+    private final AtomicIntegerFieldUpdater<Chunk> claimedUpdater;
+
+    FieldUpdaterAtomicHelper(
+        AtomicReferenceFieldUpdater<MpscChunkedQueue, Chunk> headUpdater,
+        AtomicReferenceFieldUpdater<MpscChunkedQueue, Chunk> tailUpdater,
+        AtomicReferenceFieldUpdater<Chunk, Chunk> nextUpdater,
+        AtomicIntegerFieldUpdater<Chunk> claimedUpdater) {
+      this.headUpdater = headUpdater;
+      this.tailUpdater = tailUpdater;
+      this.nextUpdater = nextUpdater;
+      this.claimedUpdater = claimedUpdater;
+    }
+
+    @Override
+    boolean casHead(MpscChunkedQueue<?> queue, Chunk expect, Chunk update) {
+      return headUpdater.compareAndSet(queue, expect, update);
+    }
+
+    @Override
+    boolean casTail(MpscChunkedQueue<?> queue, Chunk expect, Chunk update) {
+      return tailUpdater.compareAndSet(queue, expect, update);
+    }
+
+    @Override
+    boolean casNext(Chunk chunk, Chunk expect, Chunk update) {
+      return nextUpdater.compareAndSet(chunk, expect, update);
+    }
+
+    @Override
+    int getAndIncrementClaimed(Chunk chunk) {
+      return claimedUpdater.getAndIncrement(chunk);
+    }
+  }
+
+  private static final class SynchronizedAtomicHelper extends AtomicHelper {
+    @Override
+    boolean casHead(MpscChunkedQueue<?> queue, Chunk expect, Chunk update) {
+      synchronized (queue) {
+        if (queue.head == expect) {
+          queue.head = update;
+          return true;
+        }
+        return false;
+      }
+    }
+
+    @Override
+    boolean casTail(MpscChunkedQueue<?> queue, Chunk expect, Chunk update) {
+      synchronized (queue) {
+        if (queue.tail == expect) {
+          queue.tail = update;
+          return true;
+        }
+        return false;
+      }
+    }
+
+    @Override
+    boolean casNext(Chunk chunk, Chunk expect, Chunk update) {
+      synchronized (chunk) {
+        if (chunk.next == expect) {
+          chunk.next = update;
+          return true;
+        }
+        return false;
+      }
+    }
+
+    @Override
+    int getAndIncrementClaimed(Chunk chunk) {
+      synchronized (chunk) {
+        return chunk.claimed++;
+      }
+    }
+  }
+}
@@ -19,8 +19,6 @@ package io.grpc.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.logging.Level;
@@ -31,6 +29,9 @@ import javax.annotation.Nullable;
  * Executor ensuring that all {@link Runnable} tasks submitted are executed in order
  * using the provided {@link Executor}, and serially such that no two will ever be
  * running at the same time.
+ *
+ * <p>Pending tasks are kept in a lock-free {@link MpscChunkedQueue}, so submitting a task neither
+ * locks nor allocates a queue node.
  */
 // TODO(madongfly): figure out a way to not expose it or move it to transport package.
 public final class SerializingExecutor implements Executor, Runnable {
@@ -61,8 +62,8 @@ public final class SerializingExecutor implements Executor, Runnable {
   /** Underlying executor that all submitted Runnable objects are run on. */
   private final Executor executor;
 
-  /** A list of Runnables to be run in order. */
-  private final Queue<Runnable> runQueue = new ConcurrentLinkedQueue<>();
+  /** A list of Runnables to be run in order. Only the thread that set RUNNING may poll it. */
+  private final MpscChunkedQueue<Runnable> runQueue = new MpscChunkedQueue<>();
 
   private volatile int runState = STOPPED;
 
@@ -82,7 +83,7 @@ public final class SerializingExecutor implements Executor, Runnable {
    */
   @Override
   public void execute(Runnable r) {
-    runQueue.add(checkNotNull(r, "'r' must not be null."));
+    runQueue.offer(checkNotNull(r, "'r' must not be null."));
     schedule(r);
   }
 
@@ -100,10 +101,10 @@ public final class SerializingExecutor implements Executor, Runnable {
         if (!success) {
           if (removable != null) {
             // This case can only be reached if 'this' was not currently running, and we failed to
-            // reschedule.  The item should still be in the queue for removal.
-            // ConcurrentLinkedQueue claims that null elements are not allowed, but seems to not
-            // throw if the item to remove is null.  If removable is present in the queue twice,
-            // the wrong one may be removed.  It doesn't seem possible for this case to exist today.
+            // reschedule.  The item should still be in the queue for removal, and no other thread
+            // polls the queue while this one holds RUNNING.  If removable is present in the queue
+            // twice, the wrong one may be removed.  It doesn't seem possible for this case to exist
+            // today.
             // This is important to run in case of RejectedExectuionException, so that future calls
             // to execute don't succeed and accidentally run a previous runnable.
             runQueue.remove(removable);
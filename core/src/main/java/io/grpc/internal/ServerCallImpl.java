@@ -28,6 +28,7 @@ import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.Attributes;
 import io.grpc.Codec;
+import io.grpc.CompressionPolicy;
 import io.grpc.Compressor;
 import io.grpc.CompressorRegistry;
 import io.grpc.Context;
@@ -42,6 +43,7 @@ import io.perfmark.Tag;
 import java.io.InputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 final class ServerCallImpl<ReqT, RespT> extends ServerCall<ReqT, RespT> {
 
@@ -59,6 +61,8 @@ final class ServerCallImpl<ReqT, RespT> extends ServerCall<ReqT, RespT> {
   private final byte[] messageAcceptEncoding;
   private final DecompressorRegistry decompressorRegistry;
   private final CompressorRegistry compressorRegistry;
+  @Nullable
+  private final CompressionPolicy compressionPolicy;
   private CallTracer serverCallTracer;
 
   // state
@@ -71,13 +75,14 @@ final class ServerCallImpl<ReqT, RespT> extends ServerCall<ReqT, RespT> {
   ServerCallImpl(ServerStream stream, MethodDescriptor<ReqT, RespT> method,
       Metadata inboundHeaders, Context.CancellableContext context,
       DecompressorRegistry decompressorRegistry, CompressorRegistry compressorRegistry,
-      CallTracer serverCallTracer, Tag tag) {
+      @Nullable CompressionPolicy compressionPolicy, CallTracer serverCallTracer, Tag tag) {
     this.stream = stream;
     this.method = method;
     this.context = context;
     this.messageAcceptEncoding = inboundHeaders.get(MESSAGE_ACCEPT_ENCODING_KEY);
     this.decompressorRegistry = decompressorRegistry;
     this.compressorRegistry = compressorRegistry;
+    this.compressionPolicy = compressionPolicy;
     this.serverCallTracer = serverCallTracer;
     this.serverCallTracer.reportCallStarted();
     this.tag = tag;
@@ -127,7 +132,8 @@ final class ServerCallImpl<ReqT, RespT> extends ServerCall<ReqT, RespT> {
     // Always put compressor, even if it's identity.
     headers.put(MESSAGE_ENCODING_KEY, compressor.getMessageEncoding());
 
-    stream.setCompressor(compressor);
+    stream.setCompressor(CompressorWithPolicy.withPolicy(
+        compressor, compressionPolicy, method.getFullMethodName()));
 
     headers.discardAll(MESSAGE_ACCEPT_ENCODING_KEY);
     byte[] advertisedEncodings =
@@ -181,6 +187,17 @@ final class ServerCallImpl<ReqT, RespT> extends ServerCall<ReqT, RespT> {
     stream.setMessageCompression(enable);
   }
 
+  @Override
+  public void setWriteCoalescing(boolean enable) {
+    stream.setWriteCoalescing(enable);
+  }
+
+  @Override
+  public void setStreamWeight(int weight) {
+    checkArgument(weight >= 1 && weight <= 256, "invalid weight %s", weight);
+    stream.setStreamWeight(weight);
+  }
+
   @Override
   public void setCompression(String compressorName) {
     // Added here to give a better error message.
@@ -32,6 +32,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.grpc.Attributes;
 import io.grpc.BinaryLog;
+import io.grpc.CompressionPolicy;
 import io.grpc.CompressorRegistry;
 import io.grpc.Context;
 import io.grpc.Deadline;
@@ -71,6 +72,7 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
 /**
@@ -95,6 +97,11 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
   private final ObjectPool<? extends Executor> executorPool;
   /** Executor for application processing. Safe to read after {@link #start()}. */
   private Executor executor;
+  /** Executor for calls that block, or {@code null} unless running with offload. */
+  @Nullable private final Executor offloadExecutor;
+  private final long offloadBudgetNanos;
+  /** The methods known to block. Only used with {@link #offloadExecutor}. */
+  private final InlineOffloadExecutor.BlockingMethods blockingMethods;
   private final HandlerRegistry registry;
   private final HandlerRegistry fallbackRegistry;
   private final List<ServerTransportFilter> transportFilters;
@@ -121,6 +128,7 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
 
   private final DecompressorRegistry decompressorRegistry;
   private final CompressorRegistry compressorRegistry;
+  @Nullable private final CompressionPolicy compressionPolicy;
   private final BinaryLog binlog;
 
   private final InternalChannelz channelz;
@@ -139,6 +147,9 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
       List<? extends InternalServer> transportServers,
       Context rootContext) {
     this.executorPool = Preconditions.checkNotNull(builder.executorPool, "executorPool");
+    this.offloadExecutor = builder.offloadExecutor;
+    this.offloadBudgetNanos = builder.offloadBudgetNanos;
+    this.blockingMethods = new InlineOffloadExecutor.BlockingMethods(builder.blockingMethods);
     this.registry = Preconditions.checkNotNull(builder.registryBuilder.build(), "registryBuilder");
     this.fallbackRegistry =
         Preconditions.checkNotNull(builder.fallbackRegistry, "fallbackRegistry");
@@ -152,6 +163,7 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
     this.rootContext = Preconditions.checkNotNull(rootContext, "rootContext").fork();
     this.decompressorRegistry = builder.decompressorRegistry;
     this.compressorRegistry = builder.compressorRegistry;
+    this.compressionPolicy = builder.compressionPolicy;
     this.transportFilters = Collections.unmodifiableList(
         new ArrayList<>(builder.transportFilters));
     this.interceptors =
@@ -499,13 +511,25 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
           stream.statsTraceContext(), "statsTraceCtx not present from stream");
 
       final Context.CancellableContext context = createContext(stream, headers, statsTraceCtx);
+      Executor callExecutor = transport.getCallExecutor();
+      if (callExecutor == null) {
+        callExecutor = executor;
+      }
       final Executor wrappedExecutor;
       // This is a performance optimization that avoids the synchronization and queuing overhead
       // that comes with SerializingExecutor.
-      if (executor == directExecutor()) {
-        wrappedExecutor = new SerializeReentrantCallsDirectExecutor();
+      if (callExecutor == directExecutor()) {
+        if (offloadExecutor == null) {
+          wrappedExecutor = new SerializeReentrantCallsDirectExecutor();
+        } else if (blockingMethods.contains(methodName)) {
+          wrappedExecutor = new SerializingExecutor(offloadExecutor);
+        } else {
+          wrappedExecutor = new InlineOffloadExecutor(
+              new SerializingExecutor(offloadExecutor), offloadBudgetNanos, methodName,
+              blockingMethods, ticker);
+        }
       } else {
-        wrappedExecutor = new SerializingExecutor(executor);
+        wrappedExecutor = new SerializingExecutor(callExecutor);
       }
 
       final Link link = PerfMark.linkOut();
@@ -638,6 +662,7 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
           context,
           decompressorRegistry,
           compressorRegistry,
+          compressionPolicy,
           serverCallTracer,
           tag);
 
@@ -67,6 +67,22 @@ public interface ServerStream extends Stream {
    */
   void setDecompressor(Decompressor decompressor);
 
+  /**
+   * Enables or disables coalescing of flushed writes. If the transport does not support
+   * coalescing, this may do nothing.
+   *
+   * @param enabled whether flushed writes may be delayed so they can be written together.
+   */
+  void setWriteCoalescing(boolean enabled);
+
+  /**
+   * Sets the weight used to share the connection with other streams. If the transport does not
+   * support stream weights, this may do nothing.
+   *
+   * @param weight the weight, between 1 and 256.
+   */
+  void setStreamWeight(int weight);
+
   /**
    * Attributes describing stream.  This is inherited from the transport attributes, and used
    * as the basis of {@link io.grpc.ServerCall#getAttributes}.
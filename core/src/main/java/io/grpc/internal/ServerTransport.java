@@ -19,7 +19,9 @@ package io.grpc.internal;
 import io.grpc.InternalChannelz.SocketStats;
 import io.grpc.InternalInstrumented;
 import io.grpc.Status;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
 
 /** An inbound connection. */
 public interface ServerTransport extends InternalInstrumented<SocketStats> {
@@ -44,4 +46,12 @@ public interface ServerTransport extends InternalInstrumented<SocketStats> {
    * outstanding tasks are cancelled when the transport terminates.
    */
   ScheduledExecutorService getScheduledExecutorService();
+
+  /**
+   * Returns the executor on which the application callbacks of this transport's calls should be
+   * run instead of the server's executor, or {@code null} to use the server's executor. A
+   * transport may use this to keep all calls of a connection on the same thread.
+   */
+  @Nullable
+  Executor getCallExecutor();
 }
@@ -36,6 +36,11 @@ public final class TransportTracer {
   private long streamsSucceeded;
   private long streamsFailed;
   private long keepAlivesSent;
+  private long flushes;
+  private long flushedBytes;
+  private long streamsQueued;
+  private long streamsPending;
+  private long streamQueueWaitNanos;
   private FlowControlReader flowControlWindowReader;
 
   private long messagesSent;
@@ -72,7 +77,12 @@ public final class TransportTracer {
         lastMessageSentTimeNanos,
         lastMessageReceivedTimeNanos,
         localFlowControlWindow,
-        remoteFlowControlWindow);
+        remoteFlowControlWindow,
+        flushes,
+        flushedBytes,
+        streamsQueued,
+        streamsPending,
+        streamQueueWaitNanos);
   }
 
   /**
@@ -128,6 +138,34 @@ public final class TransportTracer {
     keepAlivesSent++;
   }
 
+  /**
+   * Reports that the transport flushed its pending writes to the socket. {@code numBytes} is the
+   * number of message bytes written since the previous flush and must be at least 0.
+   */
+  public void reportFlush(long numBytes) {
+    flushes++;
+    flushedBytes += numBytes;
+  }
+
+  /**
+   * Called by the client to report that a new stream has to wait for the peer to allow more
+   * concurrent streams before it can be started.
+   */
+  public void reportStreamQueued() {
+    streamsQueued++;
+    streamsPending++;
+  }
+
+  /**
+   * Reports that a stream previously reported by {@link #reportStreamQueued} is no longer
+   * waiting, either because it was started or because it failed. {@code waitNanos} is how long it
+   * waited and must be at least 0.
+   */
+  public void reportStreamDequeued(long waitNanos) {
+    streamsPending--;
+    streamQueueWaitNanos += waitNanos;
+  }
+
   /**
    * Registers a {@link FlowControlReader} that can be used to read the local and remote flow
    * control window sizes.
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Executor that starts a new virtual thread for every task. Virtual threads are only available on
+ * newer JVMs, so they are looked up reflectively; use {@link #isAvailable} before {@link #create}.
+ *
+ * <p>Wrapped in a {@link SerializingExecutor}, this runs each call's callbacks in order on at most
+ * one virtual thread at a time, so blocking in a handler only parks that call.
+ */
+public final class VirtualThreadExecutor implements Executor {
+  private static final Logger log = Logger.getLogger(VirtualThreadExecutor.class.getName());
+
+  private static final String THREAD_NAME_PREFIX = "grpc-virtual-executor-";
+
+  @Nullable
+  private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+  private final ThreadFactory threadFactory;
+
+  @VisibleForTesting
+  VirtualThreadExecutor(ThreadFactory threadFactory) {
+    this.threadFactory = checkNotNull(threadFactory, "threadFactory");
+  }
+
+  /**
+   * Returns whether the running JVM supports virtual threads.
+   */
+  public static boolean isAvailable() {
+    return VIRTUAL_THREAD_FACTORY != null;
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread.
+   *
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   */
+  public static VirtualThreadExecutor create() {
+    if (VIRTUAL_THREAD_FACTORY == null) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+    }
+    return new VirtualThreadExecutor(VIRTUAL_THREAD_FACTORY);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    threadFactory.newThread(checkNotNull(command, "command")).start();
+  }
+
+  /**
+   * Returns {@code Thread.ofVirtual().name(prefix, 0).factory()}, or {@code null} if virtual
+   * threads are not available.
+   */
+  @Nullable
+  private static ThreadFactory createVirtualThreadFactory() {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      Object builder = ofVirtual.invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, THREAD_NAME_PREFIX, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (NoSuchMethodException e) {
+      // Expected on JVMs without virtual threads
+      return null;
+    } catch (Exception e) {
+      log.log(Level.FINE, "Unable to create virtual thread factory", e);
+      return null;
+    }
+  }
+}
@@ -16,6 +16,9 @@
 
 package io.grpc.internal;
 
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+
 /**
  * An interface for a byte buffer that can only be written to.
  * {@link WritableBuffer}s are a generic way to transfer bytes to
@@ -50,6 +53,24 @@ public interface WritableBuffer {
    */
   int readableBytes();
 
+  /**
+   * Returns a {@link ByteBuffer} covering the next {@code length} writable bytes of this buffer, so
+   * that they can be filled in place, or {@code null} if this buffer can not expose its storage
+   * that way or has fewer than {@code length} writable bytes. Bytes put into the returned buffer
+   * only become readable once {@link #commitWritableByteBuffer} is called.
+   */
+  @Nullable
+  ByteBuffer writableByteBuffer(int length);
+
+  /**
+   * Makes the first {@code length} bytes of the buffer last returned by {@link
+   * #writableByteBuffer} part of the content of this buffer.
+   *
+   * @throws UnsupportedOperationException if this buffer does not support {@link
+   *         #writableByteBuffer}
+   */
+  void commitWritableByteBuffer(int length);
+
   /**
    * Releases the buffer, indicating to the {@link WritableBufferAllocator} that
    * this buffer is no longer used and its resources can be reused.
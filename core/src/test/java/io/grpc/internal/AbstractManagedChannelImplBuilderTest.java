@@ -139,6 +139,22 @@ public class AbstractManagedChannelImplBuilderTest {
     directAddressBuilder.nameResolverFactory(mock(NameResolver.Factory.class));
   }
 
+  @Test
+  public void connectionsPerSubchannel_default() {
+    assertEquals(1, builder.connectionsPerSubchannel);
+  }
+
+  @Test
+  public void connectionsPerSubchannel_normal() {
+    assertEquals(builder, builder.connectionsPerSubchannel(4));
+    assertEquals(4, builder.connectionsPerSubchannel);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void connectionsPerSubchannel_zero() {
+    builder.connectionsPerSubchannel(0);
+  }
+
   @Test
   public void defaultLoadBalancingPolicy_default() {
     assertEquals("pick_first", builder.defaultLbPolicy);
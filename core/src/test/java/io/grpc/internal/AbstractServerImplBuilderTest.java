@@ -19,13 +19,18 @@ package io.grpc.internal;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.ServerStreamTracer;
 import io.grpc.internal.testing.StatsTestUtils.FakeStatsRecorder;
 import io.grpc.internal.testing.StatsTestUtils.FakeTagContextBinarySerializer;
 import io.grpc.internal.testing.StatsTestUtils.FakeTagger;
+import io.grpc.testing.TestMethodDescriptors;
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -89,6 +94,51 @@ public class AbstractServerImplBuilderTest {
     assertThat(factories).containsExactly(DUMMY_USER_TRACER);
   }
 
+  @Test
+  public void virtualThreadExecutor() {
+    builder.directExecutor();
+    builder.virtualThreadExecutor();
+
+    Executor executor = builder.executorPool.getObject();
+    if (VirtualThreadExecutor.isAvailable()) {
+      assertThat(executor).isInstanceOf(VirtualThreadExecutor.class);
+    } else {
+      // Falls back to the default executor
+      assertThat(executor).isNotSameInstanceAs(MoreExecutors.directExecutor());
+      assertThat(executor).isNotInstanceOf(VirtualThreadExecutor.class);
+    }
+    builder.executorPool.returnObject(executor);
+  }
+
+  @Test
+  public void directExecutorWithOffload() {
+    Executor offloadExecutor = new Executor() {
+      @Override
+      public void execute(Runnable command) {}
+    };
+    builder.directExecutorWithOffload(offloadExecutor, 5, TimeUnit.MILLISECONDS);
+
+    assertThat(builder.executorPool.getObject()).isSameInstanceAs(MoreExecutors.directExecutor());
+    assertThat(builder.offloadExecutor).isSameInstanceAs(offloadExecutor);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(5), builder.offloadBudgetNanos);
+
+    builder.executor(null);
+    assertThat(builder.offloadExecutor).isNull();
+  }
+
+  @Test
+  public void blockingMethod() {
+    MethodDescriptor<Void, Void> method = MethodDescriptor.<Void, Void>newBuilder()
+        .setType(MethodDescriptor.MethodType.UNARY)
+        .setFullMethodName("service/blocking")
+        .setRequestMarshaller(TestMethodDescriptors.voidMarshaller())
+        .setResponseMarshaller(TestMethodDescriptors.voidMarshaller())
+        .build();
+    builder.blockingMethod(method);
+
+    assertThat(builder.blockingMethods).containsExactly("service/blocking");
+  }
+
   static class Builder extends AbstractServerImplBuilder<Builder> {
     Builder() {
       overrideCensusStatsModule(
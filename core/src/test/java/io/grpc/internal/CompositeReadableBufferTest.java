@@ -18,7 +18,11 @@ package io.grpc.internal;
 
 import static com.google.common.base.Charsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
 import java.io.ByteArrayOutputStream;
@@ -166,6 +170,58 @@ public class CompositeReadableBufferTest {
     verify(mock2).close();
   }
 
+  @Test
+  public void markAndResetShouldRestoreAcrossBuffers() {
+    assertTrue(composite.markSupported());
+    composite.skipBytes(1);
+    composite.mark();
+    composite.skipBytes(EXPECTED_VALUE.length() - 2);
+    assertEquals(1, composite.readableBytes());
+
+    composite.reset();
+    assertEquals(EXPECTED_VALUE.length() - 1, composite.readableBytes());
+    assertEquals(EXPECTED_VALUE.substring(1), ReadableBuffers.readAsStringUtf8(composite));
+  }
+
+  @Test
+  public void markShouldRetainBuffersUntilClose() {
+    composite = new CompositeReadableBuffer();
+    ReadableBuffer buffer1 = spy(ReadableBuffers.wrap(new byte[] {1, 2}));
+    ReadableBuffer buffer2 = spy(ReadableBuffers.wrap(new byte[] {3}));
+    composite.addBuffer(buffer1);
+    composite.addBuffer(buffer2);
+
+    composite.mark();
+    composite.skipBytes(3);
+    verify(buffer1, never()).close();
+
+    composite.reset();
+    assertEquals(1, composite.readUnsignedByte());
+    composite.close();
+    verify(buffer1).close();
+    verify(buffer2).close();
+  }
+
+  @Test
+  public void getByteBufferShouldReturnHeadBuffer() {
+    composite = new CompositeReadableBuffer();
+    composite.addBuffer(ReadableBuffers.wrap(ByteBuffer.wrap(new byte[] {1, 2})));
+    composite.addBuffer(ReadableBuffers.wrap(ByteBuffer.wrap(new byte[] {3})));
+    assertTrue(composite.byteBufferSupported());
+
+    ByteBuffer byteBuffer = composite.getByteBuffer();
+    assertEquals(2, byteBuffer.remaining());
+    assertEquals(3, composite.readableBytes());
+    composite.skipBytes(2);
+    assertEquals(3, composite.getByteBuffer().get());
+  }
+
+  @Test
+  public void byteBufferNotSupportedIfAnyBufferDoesNotSupportIt() {
+    composite.addBuffer(ReadableBuffers.wrap(ByteBuffer.wrap(new byte[] {1})));
+    assertFalse(composite.byteBufferSupported());
+  }
+
   private void splitAndAdd(String value) {
     int partLength = Math.max(1, value.length() / 4);
     for (int startIndex = 0, endIndex = 0; startIndex < value.length(); startIndex = endIndex) {
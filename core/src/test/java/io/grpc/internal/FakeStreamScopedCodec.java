@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import io.grpc.StreamScopedCodec;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link StreamScopedCodec} that does not compress, but records how its stream codecs are used.
+ */
+final class FakeStreamScopedCodec implements StreamScopedCodec {
+  final List<FakeStreamCodec> streamCodecs = new ArrayList<>();
+
+  @Override
+  public String getMessageEncoding() {
+    return "fake-stream";
+  }
+
+  @Override
+  public OutputStream compress(OutputStream os) {
+    return os;
+  }
+
+  @Override
+  public InputStream decompress(InputStream is) {
+    return is;
+  }
+
+  @Override
+  public StreamCodec newStreamCodec() {
+    FakeStreamCodec streamCodec = new FakeStreamCodec();
+    streamCodecs.add(streamCodec);
+    return streamCodec;
+  }
+
+  static final class FakeStreamCodec implements StreamCodec {
+    int messagesCompressed;
+    int messagesDecompressed;
+    long bytesDecompressed;
+    boolean closed;
+
+    @Override
+    public String getMessageEncoding() {
+      return "fake-stream";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) {
+      messagesCompressed++;
+      return os;
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) {
+      messagesDecompressed++;
+      return new FilterInputStream(is) {
+        @Override
+        public int read() throws IOException {
+          int b = super.read();
+          if (b != -1) {
+            bytesDecompressed++;
+          }
+          return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          int n = super.read(b, off, len);
+          if (n > 0) {
+            bytesDecompressed += n;
+          }
+          return n;
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.google.common.io.ByteStreams;
+import io.grpc.InternalZlibPool;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
@@ -195,6 +196,33 @@ public class GzipInflatingBufferTest {
         Arrays.equals(originalData, Arrays.copyOf(b, originalData.length)));
   }
 
+  @Test
+  public void inflaterIsTakenFromPoolAndReturned() throws Exception {
+    InternalZlibPool pool = new InternalZlibPool(1);
+    gzipInflatingBuffer = new GzipInflatingBuffer(pool);
+    gzipInflatingBuffer.addGzippedBytes(ReadableBuffers.wrap(gzippedData));
+    gzipInflatingBuffer.addGzippedBytes(ReadableBuffers.wrap(gzippedData));
+
+    byte[] b = new byte[originalData.length];
+    assertEquals(originalData.length, gzipInflatingBuffer.inflateBytes(b, 0, originalData.length));
+    assertTrue("inflated data does not match", Arrays.equals(originalData, b));
+    // The second gzip stream reuses the inflater, which is returned once no more data is buffered.
+    assertEquals(originalData.length, gzipInflatingBuffer.inflateBytes(b, 0, originalData.length));
+    assertTrue("inflated data does not match", Arrays.equals(originalData, b));
+    assertEquals(0, gzipInflatingBuffer.inflateBytes(b, 0, 1));
+    assertEquals(1, pool.getInflaterStats().created);
+    assertEquals(1, pool.getInflaterStats().idle);
+
+    gzipInflatingBuffer.addGzippedBytes(ReadableBuffers.wrap(gzippedData));
+    assertEquals(1, gzipInflatingBuffer.inflateBytes(b, 0, 1));
+    assertEquals(1, pool.getInflaterStats().reused);
+    assertEquals(0, pool.getInflaterStats().idle);
+
+    gzipInflatingBuffer.close();
+    assertEquals(1, pool.getInflaterStats().created);
+    assertEquals(1, pool.getInflaterStats().idle);
+  }
+
   @Test
   public void closeStopsDecompression() throws Exception {
     gzipInflatingBuffer.addGzippedBytes(ReadableBuffers.wrap(gzippedData));
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.grpc.internal.InlineOffloadExecutor.BlockingMethods;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link InlineOffloadExecutor}. */
+@RunWith(JUnit4.class)
+public class InlineOffloadExecutorTest {
+  private static final String METHOD = "service/method";
+  private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final FakeClock fakeClock = new FakeClock();
+  private final FakeClock offloadClock = new FakeClock();
+  private final Executor offloadExecutor = offloadClock.getScheduledExecutorService();
+  private final BlockingMethods blockingMethods =
+      new BlockingMethods(Collections.<String>emptyList());
+  private final List<Integer> callOrder = new ArrayList<>();
+  private final InlineOffloadExecutor executor = new InlineOffloadExecutor(
+      offloadExecutor, BUDGET_NANOS, METHOD, blockingMethods, fakeClock.getDeadlineTicker());
+
+  @Test
+  public void fastTasksRunInline() {
+    executor.execute(new Task(1, BUDGET_NANOS));
+    executor.execute(new Task(2, 0));
+
+    assertEquals(asList(1, 2), callOrder);
+    assertFalse(executor.isOffloaded());
+    assertFalse(blockingMethods.contains(METHOD));
+    assertEquals(0, offloadClock.numPendingTasks());
+  }
+
+  @Test
+  public void slowTaskMovesCallToOffloadExecutor() {
+    executor.execute(new Task(1, BUDGET_NANOS + 1));
+
+    assertTrue(executor.isOffloaded());
+
+    executor.execute(new Task(2, 0));
+    assertEquals(asList(1), callOrder);
+    assertEquals(1, offloadClock.runDueTasks());
+    assertEquals(asList(1, 2), callOrder);
+  }
+
+  @Test
+  public void singleSlowCallbackDoesNotMarkMethodBlocking() {
+    executor.execute(new Task(1, BUDGET_NANOS + 1));
+    assertTrue(executor.isOffloaded());
+    assertFalse(blockingMethods.contains(METHOD));
+
+    // The next call of the method starts inline again.
+    InlineOffloadExecutor nextCall = newCallExecutor();
+    nextCall.execute(new Task(2, 0));
+    assertEquals(asList(1, 2), callOrder);
+    assertFalse(nextCall.isOffloaded());
+  }
+
+  @Test
+  public void repeatedSlowCallbacksMarkMethodBlocking() {
+    for (int i = 0; i < BlockingMethods.OVERRUNS_TO_MARK - 1; i++) {
+      newCallExecutor().execute(new Task(i, BUDGET_NANOS + 1));
+      assertFalse(blockingMethods.contains(METHOD));
+    }
+    newCallExecutor().execute(new Task(-1, BUDGET_NANOS + 1));
+    assertTrue(blockingMethods.contains(METHOD));
+  }
+
+  @Test
+  public void slowCallbacksSpreadOverTimeDoNotMarkMethodBlocking() {
+    for (int i = 0; i < 2 * BlockingMethods.OVERRUNS_TO_MARK; i++) {
+      newCallExecutor().execute(new Task(i, BUDGET_NANOS + 1));
+      fakeClock.forwardNanos(BlockingMethods.OVERRUN_WINDOW_NANOS / 2);
+    }
+    assertFalse(blockingMethods.contains(METHOD));
+  }
+
+  @Test
+  public void configuredMethodIsBlocking() {
+    BlockingMethods configured = new BlockingMethods(Collections.singletonList(METHOD));
+    assertTrue(configured.contains(METHOD));
+    assertFalse(configured.contains("service/other"));
+  }
+
+  @Test
+  public void reentrantTasksQueuedBehindSlowTaskKeepOrder() {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        executor.execute(new Task(2, 0));
+        executor.execute(new Task(3, 0));
+        callOrder.add(1);
+        fakeClock.forwardNanos(BUDGET_NANOS + 1);
+      }
+    });
+    executor.execute(new Task(4, 0));
+
+    assertEquals(asList(1), callOrder);
+    assertEquals(3, offloadClock.runDueTasks());
+    assertEquals(asList(1, 2, 3, 4), callOrder);
+  }
+
+  @Test
+  public void exceptionDoesNotCancelQueuedTasks() {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        executor.execute(new Task(1, 0));
+        throw new RuntimeException("Simulated");
+      }
+    });
+
+    assertEquals(asList(1), callOrder);
+    assertFalse(executor.isOffloaded());
+  }
+
+  private InlineOffloadExecutor newCallExecutor() {
+    return new InlineOffloadExecutor(
+        offloadExecutor, BUDGET_NANOS, METHOD, blockingMethods, fakeClock.getDeadlineTicker());
+  }
+
+  private final class Task implements Runnable {
+    final int id;
+    final long durationNanos;
+
+    Task(int id, long durationNanos) {
+      this.id = id;
+      this.durationNanos = durationNanos;
+    }
+
+    @Override
+    public void run() {
+      callOrder.add(id);
+      fakeClock.forwardNanos(durationNanos);
+    }
+  }
+}
@@ -41,17 +41,20 @@ import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Iterables;
 import io.grpc.Attributes;
+import io.grpc.CallOptions;
 import io.grpc.ConnectivityStateInfo;
 import io.grpc.EquivalentAddressGroup;
 import io.grpc.InternalChannelz;
 import io.grpc.InternalLogId;
 import io.grpc.InternalWithLogId;
+import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.SynchronizationContext;
 import io.grpc.internal.InternalSubchannel.CallTracingTransport;
 import io.grpc.internal.InternalSubchannel.Index;
 import io.grpc.internal.InternalSubchannel.TransportLogger;
 import io.grpc.internal.TestUtils.MockClientTransportInfo;
+import io.grpc.testing.TestMethodDescriptors;
 import java.net.SocketAddress;
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -137,6 +140,7 @@ public class InternalSubchannelTest {
 
   private InternalSubchannel internalSubchannel;
   private BlockingQueue<MockClientTransportInfo> transports;
+  private int connectionsPerSubchannel = 1;
 
   @Before public void setUp() {
     when(mockBackoffPolicyProvider.get())
@@ -1287,6 +1291,156 @@ public class InternalSubchannelTest {
         .setUserAgent(USER_AGENT);
   }
 
+  @Test
+  public void connectionsPerSubchannel_spreadsStreamsOverPooledTransports() {
+    SocketAddress addr = mock(SocketAddress.class);
+    connectionsPerSubchannel = 3;
+    createInternalSubchannel(addr);
+
+    assertNull(internalSubchannel.obtainActiveTransport());
+    MockClientTransportInfo first = transports.poll();
+    first.listener.transportReady();
+    assertExactCallbackInvokes("onStateChange:CONNECTING", "onStateChange:READY");
+    // The pooled transports are started once the first one is ready.
+    verify(mockTransportFactory, times(3)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+    MockClientTransportInfo second = transports.poll();
+    MockClientTransportInfo third = transports.poll();
+    assertSame(first.transport, startStreamOnActiveTransport());
+
+    second.listener.transportReady();
+    third.listener.transportReady();
+    assertNoCallbackInvoke();
+    // New streams go to the transports with the fewest active streams.
+    assertThat(Arrays.asList(startStreamOnActiveTransport(), startStreamOnActiveTransport()))
+        .containsExactly(second.transport, third.transport);
+
+    // Losing the first transport keeps the subchannel READY on the others, and replaces it after
+    // a backoff.
+    first.listener.transportShutdown(Status.UNAVAILABLE);
+    assertNoCallbackInvoke();
+    assertEquals(READY, internalSubchannel.getState());
+    fakeClock.forwardNanos(10);
+    verify(mockTransportFactory, times(4)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+    MockClientTransportInfo fourth = transports.poll();
+    fourth.listener.transportReady();
+    assertSame(fourth.transport, startStreamOnActiveTransport());
+
+    internalSubchannel.shutdown(SHUTDOWN_REASON);
+    verify(second.transport).shutdown(same(SHUTDOWN_REASON));
+    verify(third.transport).shutdown(same(SHUTDOWN_REASON));
+    verify(fourth.transport).shutdown(same(SHUTDOWN_REASON));
+  }
+
+  @Test
+  public void connectionsPerSubchannel_pooledTransportsClosedWithActiveTransport() {
+    SocketAddress addr = mock(SocketAddress.class);
+    connectionsPerSubchannel = 2;
+    createInternalSubchannel(addr);
+
+    assertNull(internalSubchannel.obtainActiveTransport());
+    MockClientTransportInfo first = transports.poll();
+    first.listener.transportReady();
+    MockClientTransportInfo second = transports.poll();
+    assertExactCallbackInvokes("onStateChange:CONNECTING", "onStateChange:READY");
+
+    // No pooled transport is ready to take over, so the subchannel goes IDLE.
+    first.listener.transportShutdown(Status.UNAVAILABLE);
+    assertExactCallbackInvokes("onStateChange:IDLE");
+    verify(second.transport).shutdown(any(Status.class));
+    second.listener.transportReady();
+    assertEquals(IDLE, internalSubchannel.getState());
+    assertNoCallbackInvoke();
+  }
+
+  @Test
+  public void connectionsPerSubchannel_failedPooledTransportRetriedWithBackoff() {
+    SocketAddress addr = mock(SocketAddress.class);
+    connectionsPerSubchannel = 2;
+    createInternalSubchannel(addr);
+
+    assertNull(internalSubchannel.obtainActiveTransport());
+    MockClientTransportInfo first = transports.poll();
+    first.listener.transportReady();
+    assertExactCallbackInvokes("onStateChange:CONNECTING", "onStateChange:READY");
+    verify(mockTransportFactory, times(2)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+
+    // The pooled transport fails to connect, and is retried after the first backoff.
+    transports.poll().listener.transportShutdown(Status.UNAVAILABLE);
+    verify(mockBackoffPolicyProvider, times(1)).get();
+    verify(mockBackoffPolicy1, times(1)).nextBackoffNanos();
+    fakeClock.forwardNanos(9);
+    verify(mockTransportFactory, times(2)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+    fakeClock.forwardNanos(1);
+    verify(mockTransportFactory, times(3)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+
+    // Failing again backs off further with the same policy.
+    transports.poll().listener.transportShutdown(Status.UNAVAILABLE);
+    verify(mockBackoffPolicy1, times(2)).nextBackoffNanos();
+    fakeClock.forwardNanos(99);
+    verify(mockTransportFactory, times(3)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+    fakeClock.forwardNanos(1);
+    verify(mockTransportFactory, times(4)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+
+    // Connecting resets the backoff.
+    MockClientTransportInfo fourth = transports.poll();
+    fourth.listener.transportReady();
+    fourth.listener.transportShutdown(Status.UNAVAILABLE);
+    verify(mockBackoffPolicyProvider, times(2)).get();
+    verify(mockBackoffPolicy2, times(1)).nextBackoffNanos();
+    assertEquals(READY, internalSubchannel.getState());
+    assertNoCallbackInvoke();
+
+    internalSubchannel.shutdown(SHUTDOWN_REASON);
+    assertEquals(0, fakeClock.numPendingTasks());
+  }
+
+  @Test
+  public void connectionsPerSubchannel_lostPooledTransportReplacedAfterBackoff() {
+    SocketAddress addr = mock(SocketAddress.class);
+    connectionsPerSubchannel = 2;
+    createInternalSubchannel(addr);
+
+    assertNull(internalSubchannel.obtainActiveTransport());
+    MockClientTransportInfo first = transports.poll();
+    first.listener.transportReady();
+    MockClientTransportInfo second = transports.poll();
+    second.listener.transportReady();
+    assertExactCallbackInvokes("onStateChange:CONNECTING", "onStateChange:READY");
+
+    // Losing a ready pooled transport does not reconnect right away.
+    second.listener.transportShutdown(Status.UNAVAILABLE);
+    assertSame(first.transport, startStreamOnActiveTransport());
+    verify(mockTransportFactory, times(2)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+    assertEquals(1, fakeClock.numPendingTasks());
+    fakeClock.forwardNanos(10);
+    verify(mockTransportFactory, times(3)).newClientTransport(
+        eq(addr), eq(createClientTransportOptions()), isA(TransportLogger.class));
+    assertEquals(READY, internalSubchannel.getState());
+
+    // Shutting down cancels a pending replacement.
+    transports.poll().listener.transportShutdown(Status.UNAVAILABLE);
+    assertEquals(1, fakeClock.numPendingTasks());
+    internalSubchannel.shutdown(SHUTDOWN_REASON);
+    assertEquals(0, fakeClock.numPendingTasks());
+    verify(first.transport).shutdown(same(SHUTDOWN_REASON));
+  }
+
+  private ConnectionClientTransport startStreamOnActiveTransport() {
+    CallTracingTransport transport =
+        (CallTracingTransport) internalSubchannel.obtainActiveTransport();
+    transport.newStream(TestMethodDescriptors.voidMethod(), new Metadata(), CallOptions.DEFAULT)
+        .start(mock(ClientStreamListener.class));
+    return transport.delegate();
+  }
+
   private void createInternalSubchannel(SocketAddress ... addrs) {
     createInternalSubchannel(new EquivalentAddressGroup(Arrays.asList(addrs)));
   }
@@ -1302,7 +1456,8 @@ public class InternalSubchannelTest {
         channelz, CallTracer.getDefaultFactory().create(),
         subchannelTracer,
         logId,
-        new ChannelLoggerImpl(subchannelTracer, fakeClock.getTimeProvider()));
+        new ChannelLoggerImpl(subchannelTracer, fakeClock.getTimeProvider()),
+        connectionsPerSubchannel);
   }
 
   private void assertNoCallbackInvoke() {
@@ -19,6 +19,7 @@ package io.grpc.internal;
 import static com.google.common.truth.Truth.assertThat;
 import static io.grpc.internal.GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
@@ -310,6 +311,28 @@ public class MessageDeframerTest {
       verifyNoMoreInteractions(listener);
     }
 
+    @Test
+    public void streamScopedCodec_messageIsDecompressedBeforeDelivery() {
+      FakeStreamScopedCodec codec = new FakeStreamScopedCodec();
+      deframer = new MessageDeframer(listener, codec, DEFAULT_MAX_MESSAGE_SIZE,
+              statsTraceCtx, transportTracer);
+      deframer.request(2);
+
+      deframer.deframe(buffer(new byte[]{1, 0, 0, 0, 2, 3, 14, 1, 0, 0, 0, 1, 15}));
+      assertEquals(1, codec.streamCodecs.size());
+      FakeStreamScopedCodec.FakeStreamCodec streamCodec = codec.streamCodecs.get(0);
+      assertEquals(2, streamCodec.messagesDecompressed);
+      // Both messages were read before the application had a chance to.
+      assertEquals(3, streamCodec.bytesDecompressed);
+      verify(listener, times(2)).messagesAvailable(producer.capture());
+      assertEquals(Bytes.asList(new byte[]{3, 14}), bytes(producer.getAllValues().get(0).next()));
+      assertEquals(Bytes.asList(new byte[]{15}), bytes(producer.getAllValues().get(1).next()));
+      assertFalse(streamCodec.closed);
+
+      deframer.close();
+      assertTrue(streamCodec.closed);
+    }
+
     @Test
     public void deliverIsReentrantSafe() {
       doAnswer(
@@ -16,24 +16,32 @@
 
 package io.grpc.internal;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import io.grpc.ByteBufferDrainable;
 import io.grpc.Codec;
+import io.grpc.CompressionPolicy;
 import io.grpc.StreamTracer;
 import io.grpc.internal.testing.TestStreamTracer.TestBaseStreamTracer;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -85,6 +93,33 @@ public class MessageFramerTest {
     checkStats(2, 2);
   }
 
+  @Test
+  public void byteBufferDrainablePayloadWrittenInPlace() {
+    ByteBufferDrainableInputStream message = new ByteBufferDrainableInputStream(new byte[]{3, 14});
+    framer.writePayload(message);
+    framer.flush();
+
+    assertTrue(message.drainedToByteBuffer);
+    verify(sink).deliverFrame(toWriteBuffer(new byte[] {0, 0, 0, 0, 2, 3, 14}), false, true, 1);
+    assertEquals(1, allocator.allocCount);
+    verifyNoMoreInteractions(sink);
+    checkStats(2, 2);
+  }
+
+  @Test
+  public void byteBufferDrainablePayloadTooLargeForBufferFallsBackToStream() {
+    allocator = new BytesWritableBufferAllocator(6, 6);
+    framer = new MessageFramer(sink, allocator, statsTraceCtx);
+    ByteBufferDrainableInputStream message = new ByteBufferDrainableInputStream(new byte[]{3, 14});
+    framer.writePayload(message);
+    framer.flush();
+
+    assertFalse(message.drainedToByteBuffer);
+    verify(sink).deliverFrame(toWriteBuffer(new byte[] {0, 0, 0, 0, 2, 3}), false, false, 1);
+    verify(sink).deliverFrame(toWriteBuffer(new byte[] {14}), false, true, 0);
+    verifyNoMoreInteractions(sink);
+  }
+
   @Test
   public void simpleUnknownLengthPayload() {
     writeUnknownLength(framer, new byte[]{3, 14});
@@ -271,6 +306,49 @@ public class MessageFramerTest {
     checkStats(length, 1000);
   }
 
+  @Test
+  public void compressionPolicyDecidesWhichMessagesAreCompressed() {
+    final List<Integer> compressedSizes = new ArrayList<>();
+    CompressionPolicy policy = new CompressionPolicy() {
+      @Override
+      public CallPolicy newCallPolicy(String fullMethodName) {
+        assertEquals("service/method", fullMethodName);
+        return new CallPolicy() {
+          @Override
+          public boolean shouldCompress(int messageSize) {
+            return messageSize >= 100;
+          }
+
+          @Override
+          public void messageCompressed(int uncompressedSize, int compressedSize) {
+            compressedSizes.add(uncompressedSize);
+            compressedSizes.add(compressedSize);
+          }
+        };
+      }
+    };
+    allocator = new BytesWritableBufferAllocator(100, Integer.MAX_VALUE);
+    framer = new MessageFramer(sink, allocator, statsTraceCtx)
+        .setCompressor(CompressorWithPolicy.withPolicy(
+            new Codec.Gzip(), policy, "service/method"));
+    writeKnownLength(framer, new byte[]{3, 14});
+    framer.flush();
+    verify(sink).deliverFrame(toWriteBuffer(new byte[] {0, 0, 0, 0, 2, 3, 14}), false, true, 1);
+    assertThat(compressedSizes).isEmpty();
+
+    writeKnownLength(framer, new byte[1000]);
+    framer.flush();
+    // The header of a compressed message is written to its own buffer.
+    verify(sink, times(3)).deliverFrame(frameCaptor.capture(), eq(false), anyBoolean(), anyInt());
+    ByteWritableBuffer header = frameCaptor.getAllValues().get(1);
+    assertEquals(5, header.size());
+    assertEquals(1, header.data[0]);
+    assertThat(compressedSizes).hasSize(2);
+    assertEquals(1000, (int) compressedSizes.get(0));
+    assertEquals(frameCaptor.getAllValues().get(2).size(), (int) compressedSizes.get(1));
+    checkStats(2, 2, compressedSizes.get(1), 1000);
+  }
+
   @Test
   public void dontCompressIfNoEncoding() {
     allocator = new BytesWritableBufferAllocator(100, Integer.MAX_VALUE);
@@ -352,6 +430,22 @@ public class MessageFramerTest {
     checkStats(0, 0);
   }
 
+  @Test
+  public void streamScopedCodecIsUsedForAllMessagesAndClosed() {
+    FakeStreamScopedCodec codec = new FakeStreamScopedCodec();
+    framer.setCompressor(codec);
+    writeKnownLength(framer, new byte[]{3, 14});
+    writeKnownLength(framer, new byte[]{15, 92});
+
+    assertEquals(1, codec.streamCodecs.size());
+    FakeStreamScopedCodec.FakeStreamCodec streamCodec = codec.streamCodecs.get(0);
+    assertEquals(2, streamCodec.messagesCompressed);
+    assertFalse(streamCodec.closed);
+
+    framer.close();
+    assertTrue(streamCodec.closed);
+  }
+
   private static WritableBuffer toWriteBuffer(byte[] data) {
     return toWriteBufferWithMinSize(data, 0);
   }
@@ -422,6 +516,19 @@ public class MessageFramerTest {
       return writeIdx;
     }
 
+    @Override
+    public ByteBuffer writableByteBuffer(int length) {
+      if (writableBytes() < length) {
+        return null;
+      }
+      return ByteBuffer.wrap(data, writeIdx, length).slice();
+    }
+
+    @Override
+    public void commitWritableByteBuffer(int length) {
+      writeIdx += length;
+    }
+
     @Override
     public void release() {
       data = null;
@@ -450,6 +557,24 @@ public class MessageFramerTest {
     }
   }
 
+  private static class ByteBufferDrainableInputStream extends ByteArrayInputStream
+      implements ByteBufferDrainable {
+    boolean drainedToByteBuffer;
+
+    ByteBufferDrainableInputStream(byte[] bytes) {
+      super(bytes);
+    }
+
+    @Override
+    public int drainTo(ByteBuffer target) {
+      drainedToByteBuffer = true;
+      int length = available();
+      target.put(buf, pos, length);
+      pos += length;
+      return length;
+    }
+  }
+
   static class BytesWritableBufferAllocator implements WritableBufferAllocator {
     public int minSize;
     public int maxSize;
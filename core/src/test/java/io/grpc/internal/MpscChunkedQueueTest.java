@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link MpscChunkedQueue}. */
+@RunWith(JUnit4.class)
+public class MpscChunkedQueueTest {
+  private final MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<>();
+
+  @Test
+  public void newQueueIsEmpty() {
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+    assertFalse(queue.remove(1));
+  }
+
+  @Test
+  public void pollsInOrderAcrossChunks() {
+    int count = MpscChunkedQueue.MAX_CHUNK_SIZE * 3 + 3;
+    for (int i = 0; i < count; i++) {
+      queue.offer(i);
+    }
+    for (int i = 0; i < count; i++) {
+      assertFalse(queue.isEmpty());
+      assertEquals(i, (int) queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void offerAfterDrainAtChunkBoundary() {
+    for (int i = 0; i < MpscChunkedQueue.FIRST_CHUNK_SIZE; i++) {
+      queue.offer(i);
+    }
+    for (int i = 0; i < MpscChunkedQueue.FIRST_CHUNK_SIZE; i++) {
+      assertEquals(i, (int) queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+
+    queue.offer(100);
+    assertFalse(queue.isEmpty());
+    assertEquals(100, (int) queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void removeSkipsElement() {
+    Integer removed = 1000;
+    for (int i = 0; i < MpscChunkedQueue.FIRST_CHUNK_SIZE; i++) {
+      queue.offer(i);
+    }
+    queue.offer(removed);
+    queue.offer(-1);
+
+    assertTrue(queue.remove(removed));
+    assertFalse(queue.remove(removed));
+    for (int i = 0; i < MpscChunkedQueue.FIRST_CHUNK_SIZE; i++) {
+      assertEquals(i, (int) queue.poll());
+    }
+    assertEquals(-1, (int) queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void removedLastElementLeavesQueueEmpty() {
+    Integer removed = 1000;
+    queue.offer(removed);
+
+    assertTrue(queue.remove(removed));
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void concurrentProducersKeepPerProducerOrder() throws Exception {
+    final int producers = 4;
+    final int perProducer = 10000;
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          for (int i = 0; i < perProducer; i++) {
+            queue.offer(producer * perProducer + i);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+
+    int[] next = new int[producers];
+    int polled = 0;
+    while (polled < producers * perProducer) {
+      Integer value = queue.poll();
+      if (value == null) {
+        Thread.yield();
+        continue;
+      }
+      int producer = value / perProducer;
+      assertEquals(next[producer]++, value % perProducer);
+      polled++;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(queue.isEmpty());
+  }
+}
@@ -19,6 +19,7 @@ package io.grpc.internal;
 import static com.google.common.base.Charsets.UTF_8;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
@@ -116,6 +117,33 @@ public abstract class ReadableBufferTestBase {
     assertArrayEquals(new byte[] {'h', 'e'}, Arrays.copyOfRange(array, 0, 2));     
   }
 
+  @Test
+  public void markAndResetShouldSucceed() {
+    ReadableBuffer buffer = buffer();
+    assumeTrue(buffer.markSupported());
+    buffer.skipBytes(1);
+    buffer.mark();
+    byte[] array = new byte[2];
+    buffer.readBytes(array, 0, 2);
+    assertArrayEquals(new byte[] {'e', 'l'}, array);
+    buffer.reset();
+    assertEquals(msg.length() - 1, buffer.readableBytes());
+    buffer.readBytes(array, 0, 2);
+    assertArrayEquals(new byte[] {'e', 'l'}, array);
+  }
+
+  @Test
+  public void getByteBufferDoesNotAffectBufferPosition() {
+    ReadableBuffer buffer = buffer();
+    assumeTrue(buffer.byteBufferSupported());
+    buffer.skipBytes(1);
+    ByteBuffer byteBuffer = buffer.getByteBuffer();
+    assertEquals('e', byteBuffer.get());
+    assertEquals('l', byteBuffer.get());
+    assertEquals(msg.length() - 1, buffer.readableBytes());
+    assertEquals('e', buffer.readUnsignedByte());
+  }
+
   protected abstract ReadableBuffer buffer();
 
   private static String repeatUntilLength(String toRepeat, int length) {
@@ -116,6 +116,32 @@ public class SerializingExecutorTest {
     assertEquals(Arrays.asList(1, 2, 3), runs);
   }
 
+  @Test
+  public void runsInOrderAcrossQueueChunks() {
+    int count = MpscChunkedQueue.MAX_CHUNK_SIZE * 3 + 1;
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      executor.execute(new AddToRuns(i));
+      expected.add(i);
+    }
+    singleExecutor.drain();
+    assertEquals(expected, runs);
+  }
+
+  @Test
+  public void drainsRepeatedlyAcrossChunkBoundaries() {
+    List<Integer> expected = new ArrayList<>();
+    int next = 0;
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < MpscChunkedQueue.MAX_CHUNK_SIZE - 1; i++) {
+        executor.execute(new AddToRuns(next));
+        expected.add(next++);
+      }
+      singleExecutor.drain();
+    }
+    assertEquals(expected, runs);
+  }
+
   @Test
   public void testFirstRunnableThrows() {
     final RuntimeException ex = new RuntimeException();
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doThrow;
@@ -31,6 +32,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.io.CharStreams;
+import io.grpc.CompressionPolicy;
+import io.grpc.Compressor;
 import io.grpc.CompressorRegistry;
 import io.grpc.Context;
 import io.grpc.DecompressorRegistry;
@@ -90,7 +93,7 @@ public class ServerCallImplTest {
     MockitoAnnotations.initMocks(this);
     context = Context.ROOT.withCancellation();
     call = new ServerCallImpl<>(stream, UNARY_METHOD, requestHeaders, context,
-        DecompressorRegistry.getDefaultInstance(), CompressorRegistry.getDefaultInstance(),
+        DecompressorRegistry.getDefaultInstance(), CompressorRegistry.getDefaultInstance(), null,
         serverCallTracer, PerfMark.createTag());
   }
 
@@ -113,7 +116,7 @@ public class ServerCallImplTest {
     assertEquals(0, before.lastCallStartedNanos);
 
     call = new ServerCallImpl<>(stream, UNARY_METHOD, requestHeaders, context,
-        DecompressorRegistry.getDefaultInstance(), CompressorRegistry.getDefaultInstance(),
+        DecompressorRegistry.getDefaultInstance(), CompressorRegistry.getDefaultInstance(), null,
         tracer, PerfMark.createTag());
 
     // required boilerplate
@@ -149,6 +152,22 @@ public class ServerCallImplTest {
     verify(stream).writeHeaders(headers);
   }
 
+  @Test
+  public void sendHeader_compressorIsPassedWithCompressionPolicy() {
+    requestHeaders.put(GrpcUtil.MESSAGE_ACCEPT_ENCODING_KEY, "gzip".getBytes(UTF_8));
+    call = new ServerCallImpl<>(stream, UNARY_METHOD, requestHeaders, context,
+        DecompressorRegistry.getDefaultInstance(), CompressorRegistry.getDefaultInstance(),
+        CompressionPolicy.adaptive(100, 0.1), serverCallTracer, PerfMark.createTag());
+    call.setCompression("gzip");
+
+    call.sendHeaders(new Metadata());
+
+    ArgumentCaptor<Compressor> compressorCaptor = ArgumentCaptor.forClass(Compressor.class);
+    verify(stream).setCompressor(compressorCaptor.capture());
+    assertTrue(compressorCaptor.getValue() instanceof CompressorWithPolicy);
+    assertEquals("gzip", compressorCaptor.getValue().getMessageEncoding());
+  }
+
   @Test
   public void sendHeader_failsOnSecondCall() {
     call.sendHeaders(new Metadata());
@@ -225,6 +244,7 @@ public class ServerCallImplTest {
         context,
         DecompressorRegistry.getDefaultInstance(),
         CompressorRegistry.getDefaultInstance(),
+        null,
         serverCallTracer,
         PerfMark.createTag());
     serverCall.sendHeaders(new Metadata());
@@ -260,6 +280,7 @@ public class ServerCallImplTest {
         context,
         DecompressorRegistry.getDefaultInstance(),
         CompressorRegistry.getDefaultInstance(),
+        null,
         serverCallTracer,
         PerfMark.createTag());
     serverCall.sendHeaders(new Metadata());
@@ -298,6 +319,7 @@ public class ServerCallImplTest {
         context,
         DecompressorRegistry.getDefaultInstance(),
         CompressorRegistry.getDefaultInstance(),
+        null,
         serverCallTracer,
         PerfMark.createTag());
     serverCall.close(Status.OK, new Metadata());
@@ -344,6 +366,37 @@ public class ServerCallImplTest {
     verify(stream).setMessageCompression(true);
   }
 
+  @Test
+  public void setWriteCoalescing() {
+    call.setWriteCoalescing(true);
+
+    verify(stream).setWriteCoalescing(true);
+  }
+
+  @Test
+  public void setStreamWeight() {
+    call.setStreamWeight(64);
+
+    verify(stream).setStreamWeight(64);
+  }
+
+  @Test
+  public void setStreamWeight_outOfRange() {
+    try {
+      call.setStreamWeight(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    try {
+      call.setStreamWeight(257);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+    verify(stream, never()).setStreamWeight(anyInt());
+  }
+
   @Test
   public void streamListener_halfClosed() {
     ServerStreamListenerImpl<Long> streamListener =
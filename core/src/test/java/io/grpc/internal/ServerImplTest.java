@@ -469,6 +469,64 @@ public class ServerImplTest {
     assertEquals(Status.Code.UNIMPLEMENTED, statusCaptor.getValue().getCode());
   }
 
+  @Test
+  public void transportCallExecutorIsUsedInsteadOfServerExecutor() throws Exception {
+    createAndStartServer();
+    FakeClock transportExecutor = new FakeClock();
+    SimpleServerTransport serverTransport = new SimpleServerTransport();
+    serverTransport.callExecutor = transportExecutor.getScheduledExecutorService();
+    ServerTransportListener transportListener
+        = transportServer.registerNewServerTransport(serverTransport);
+    transportListener.transportReady(Attributes.EMPTY);
+    Metadata requestHeaders = new Metadata();
+    StatsTraceContext statsTraceCtx =
+        StatsTraceContext.newServerContext(
+            streamTracerFactories, "Waiter/nonexist", requestHeaders);
+    when(stream.statsTraceContext()).thenReturn(statsTraceCtx);
+    transportListener.streamCreated(stream, "Waiter/nonexist", requestHeaders);
+
+    assertEquals(0, executor.numPendingTasks());
+    assertEquals(1, transportExecutor.runDueTasks());
+    verify(stream).close(statusCaptor.capture(), any(Metadata.class));
+    assertEquals(Status.Code.UNIMPLEMENTED, statusCaptor.getValue().getCode());
+  }
+
+  @Test
+  public void directExecutorWithOffload_blockingMethodRunsOnOffloadExecutor() throws Exception {
+    FakeClock offloadExecutor = new FakeClock();
+    builder.fallbackHandlerRegistry(fallbackRegistry);
+    builder.directExecutorWithOffload(
+        offloadExecutor.getScheduledExecutorService(), 1, TimeUnit.MILLISECONDS);
+    builder.blockingMethod(METHOD);
+    server = new ServerImpl(builder, Collections.singletonList(transportServer), SERVER_CONTEXT);
+    server.start();
+    ServerTransportListener transportListener
+        = transportServer.registerNewServerTransport(new SimpleServerTransport());
+    transportListener.transportReady(Attributes.EMPTY);
+
+    Metadata requestHeaders = new Metadata();
+    StatsTraceContext statsTraceCtx =
+        StatsTraceContext.newServerContext(
+            streamTracerFactories, "Waiter/nonexist", requestHeaders);
+    when(stream.statsTraceContext()).thenReturn(statsTraceCtx);
+    transportListener.streamCreated(stream, "Waiter/nonexist", requestHeaders);
+    // Methods not known to block run inline.
+    assertEquals(0, offloadExecutor.numPendingTasks());
+    verify(stream).close(statusCaptor.capture(), any(Metadata.class));
+    assertEquals(Status.Code.UNIMPLEMENTED, statusCaptor.getValue().getCode());
+
+    ServerStream blockingStream = mock(ServerStream.class);
+    statsTraceCtx =
+        StatsTraceContext.newServerContext(
+            streamTracerFactories, METHOD.getFullMethodName(), requestHeaders);
+    when(blockingStream.statsTraceContext()).thenReturn(statsTraceCtx);
+    transportListener.streamCreated(blockingStream, METHOD.getFullMethodName(), requestHeaders);
+    verify(blockingStream, never()).close(any(Status.class), any(Metadata.class));
+    assertEquals(1, offloadExecutor.runDueTasks());
+    verify(blockingStream).close(statusCaptor.capture(), any(Metadata.class));
+    assertEquals(Status.Code.UNIMPLEMENTED, statusCaptor.getValue().getCode());
+  }
+
   @Test
   public void decompressorNotFound() throws Exception {
     String decompressorName = "NON_EXISTENT_DECOMPRESSOR";
@@ -1455,6 +1513,7 @@ public class ServerImplTest {
 
   private class SimpleServerTransport implements ServerTransport {
     ServerTransportListener listener;
+    Executor callExecutor;
     InternalLogId id = InternalLogId.allocate(getClass(), /*details=*/ null);
 
     @Override
@@ -1477,6 +1536,11 @@ public class ServerImplTest {
       return timer.getScheduledExecutorService();
     }
 
+    @Override
+    public Executor getCallExecutor() {
+      return callExecutor;
+    }
+
     @Override
     public ListenableFuture<SocketStats> getStats() {
       SettableFuture<SocketStats> ret = SettableFuture.create();
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link VirtualThreadExecutor}. */
+@RunWith(JUnit4.class)
+public class VirtualThreadExecutorTest {
+
+  private final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+  private final ThreadFactory threadFactory = new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r);
+      threads.add(thread);
+      return thread;
+    }
+  };
+
+  @Test
+  public void executeStartsNewThreadPerTask() throws Exception {
+    VirtualThreadExecutor executor = new VirtualThreadExecutor(threadFactory);
+    final CountDownLatch latch = new CountDownLatch(2);
+    Runnable task = new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+      }
+    };
+
+    executor.execute(task);
+    executor.execute(task);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(2, threads.size());
+  }
+
+  @Test
+  public void serializingExecutorPreservesOrder() throws Exception {
+    SerializingExecutor executor =
+        new SerializingExecutor(new VirtualThreadExecutor(threadFactory));
+    final List<Integer> runs = Collections.synchronizedList(new ArrayList<Integer>());
+    final CountDownLatch done = new CountDownLatch(1);
+    for (int i = 0; i < 100; i++) {
+      final int val = i;
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          runs.add(val);
+        }
+      });
+    }
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        done.countDown();
+      }
+    });
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertThat(runs).hasSize(100);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, (int) runs.get(i));
+    }
+  }
+
+  @Test
+  public void create_matchesAvailability() {
+    if (VirtualThreadExecutor.isAvailable()) {
+      assertThat(VirtualThreadExecutor.create()).isNotNull();
+      return;
+    }
+    try {
+      VirtualThreadExecutor.create();
+      fail("Expected exception");
+    } catch (UnsupportedOperationException expected) {
+      // expected
+    }
+  }
+}
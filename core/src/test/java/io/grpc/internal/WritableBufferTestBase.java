@@ -18,7 +18,9 @@ package io.grpc.internal;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
 
+import java.nio.ByteBuffer;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -101,4 +103,17 @@ public abstract class WritableBufferTestBase {
 
     assertArrayEquals(b, writtenBytes());
   }
+
+  @Test
+  public void testWritableByteBuffer() {
+    buffer().write(new byte[] {1}, 0, 1);
+    ByteBuffer target = buffer().writableByteBuffer(3);
+    assumeNotNull(target);
+    target.put(new byte[] {2, 3});
+    assertEquals(1, buffer().readableBytes());
+
+    buffer().commitWritableByteBuffer(2);
+    assertEquals(3, buffer().readableBytes());
+    assertArrayEquals(new byte[] {1, 2, 3}, writtenBytes());
+  }
 }
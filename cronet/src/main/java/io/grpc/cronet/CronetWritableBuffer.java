@@ -19,6 +19,7 @@ package io.grpc.cronet;
 import com.google.common.base.Preconditions;
 import io.grpc.internal.WritableBuffer;
 import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
 
 class CronetWritableBuffer implements WritableBuffer {
   private final ByteBuffer buffer;
@@ -47,6 +48,22 @@ class CronetWritableBuffer implements WritableBuffer {
     return buffer.position();
   }
 
+  @Nullable
+  @Override
+  public ByteBuffer writableByteBuffer(int length) {
+    if (buffer.remaining() < length) {
+      return null;
+    }
+    ByteBuffer target = buffer.slice();
+    target.limit(length);
+    return target;
+  }
+
+  @Override
+  public void commitWritableByteBuffer(int length) {
+    buffer.position(buffer.position() + length);
+  }
+
   @Override
   public void release() {
   }
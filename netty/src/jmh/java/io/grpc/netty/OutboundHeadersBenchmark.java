@@ -60,6 +60,8 @@ public class OutboundHeadersBenchmark {
   private final AsciiString defaultPath = new AsciiString("/Service.MethodMethodMethod");
   private final AsciiString authority = new AsciiString("authority.googleapis.bogus");
   private final AsciiString userAgent = new AsciiString("grpc-java-netty");
+  private final GrpcHttp2OutboundHeaders.ClientRequestHeadersCache requestHeadersCache =
+      new GrpcHttp2OutboundHeaders.ClientRequestHeadersCache(authority, scheme, userAgent);
   private final Http2HeadersEncoder headersEncoder = new DefaultHttp2HeadersEncoder();
   private final ByteBuf scratchBuffer = UnpooledByteBufAllocator.DEFAULT.buffer(4096);
 
@@ -78,6 +80,18 @@ public class OutboundHeadersBenchmark {
         userAgent);
   }
 
+  /**
+   * Same as {@link #convertClientHeaders}, reusing the per-transport headers of the method like
+   * {@link NettyClientStream} does.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Http2Headers convertClientHeadersFromCache() {
+    return Utils.convertClientHeaders(metadata,
+        requestHeadersCache.preHeaders(authority, defaultPath));
+  }
+
   @Benchmark
   @BenchmarkMode(Mode.SampleTime)
   @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark for {@link WriteQueue} with several threads writing to one connection. Each operation
+ * has every producer thread enqueue {@link #COMMANDS_PER_PRODUCER} flushed commands, and completes
+ * once the event loop has drained all of them.
+ */
+@State(Scope.Benchmark)
+public class WriteQueueBenchmark {
+
+  static final int COMMANDS_PER_PRODUCER = 1000;
+
+  @Param({"1", "4", "16", "64"})
+  public int producers;
+
+  private EventLoopGroup group;
+  private Channel serverChannel;
+  private Channel channel;
+  private WriteQueue writeQueue;
+  private ExecutorService producerExecutor;
+
+  /**
+   * Connects a local channel whose writes are discarded, so that only the queue and the event loop
+   * are measured.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    group = new DefaultEventLoopGroup(1);
+    LocalAddress address = new LocalAddress("WriteQueueBenchmark");
+    serverChannel = new ServerBootstrap()
+        .group(group)
+        .channel(LocalServerChannel.class)
+        .childHandler(new ChannelInboundHandlerAdapter())
+        .bind(address)
+        .sync()
+        .channel();
+    channel = new Bootstrap()
+        .group(group)
+        .channel(LocalChannel.class)
+        .handler(new ChannelOutboundHandlerAdapter() {
+          @Override
+          public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            promise.setSuccess();
+          }
+        })
+        .connect(address)
+        .sync()
+        .channel();
+    writeQueue = new WriteQueue(channel);
+    producerExecutor = Executors.newFixedThreadPool(producers);
+  }
+
+  /**
+   * Closes the channels and stops the threads.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    producerExecutor.shutdownNow();
+    channel.close().sync();
+    serverChannel.close().sync();
+    group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+  }
+
+  /**
+   * Enqueues and flushes {@code producers * COMMANDS_PER_PRODUCER} commands.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void enqueueAndFlush() throws Exception {
+    final CountDownLatch enqueued = new CountDownLatch(producers);
+    for (int i = 0; i < producers; i++) {
+      producerExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < COMMANDS_PER_PRODUCER; j++) {
+            writeQueue.enqueue(new NoopCommand(), true);
+          }
+          enqueued.countDown();
+        }
+      });
+    }
+    enqueued.await();
+    // Runnables are processed in order with the writes, so this runs once all are drained.
+    final CountDownLatch drained = new CountDownLatch(1);
+    writeQueue.enqueue(new Runnable() {
+      @Override
+      public void run() {
+        drained.countDown();
+      }
+    }, true);
+    drained.await();
+  }
+
+  private static final class NoopCommand extends WriteQueue.AbstractQueuedCommand {}
+}
@@ -16,6 +16,7 @@
 
 package io.grpc.netty;
 
+import static io.netty.handler.codec.http2.Http2CodecUtil.CONNECTION_STREAM_ID;
 import static io.netty.handler.codec.http2.Http2CodecUtil.getEmbeddedHttp2Exception;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -35,7 +36,7 @@ import java.util.concurrent.TimeUnit;
  */
 abstract class AbstractNettyHandler extends GrpcHttp2ConnectionHandler {
   private static final long GRACEFUL_SHUTDOWN_NO_TIMEOUT = -1;
-  private boolean autoTuneFlowControlOn = false;
+  private boolean autoTuneFlowControlOn;
   private int initialConnectionWindow;
   private ChannelHandlerContext ctx;
   private final FlowControlPinger flowControlPing = new FlowControlPinger();
@@ -46,8 +47,10 @@ abstract class AbstractNettyHandler extends GrpcHttp2ConnectionHandler {
       ChannelPromise channelUnused,
       Http2ConnectionDecoder decoder,
       Http2ConnectionEncoder encoder,
-      Http2Settings initialSettings) {
+      Http2Settings initialSettings,
+      boolean autoFlowControl) {
     super(channelUnused, decoder, encoder, initialSettings);
+    this.autoTuneFlowControlOn = autoFlowControl;
 
     // During a graceful shutdown, wait until all streams are closed.
     gracefulShutdownTimeoutMillis(GRACEFUL_SHUTDOWN_NO_TIMEOUT);
@@ -102,6 +105,18 @@ abstract class AbstractNettyHandler extends GrpcHttp2ConnectionHandler {
     }
   }
 
+  /**
+   * Sets the weight the outbound flow controller gives the stream when it shares the connection
+   * window with other streams. Does nothing if the stream is not active. Must be called from the
+   * event loop.
+   */
+  void setStreamWeight(int streamId, short weight) {
+    if (connection().stream(streamId) != null) {
+      encoder().flowController().updateDependencyTree(
+          streamId, CONNECTION_STREAM_ID, weight, false);
+    }
+  }
+
   @VisibleForTesting
   FlowControlPinger flowControlPing() {
     return flowControlPing;
@@ -28,15 +28,17 @@ class CreateStreamCommand extends WriteQueue.AbstractQueuedCommand {
   private final NettyClientStream.TransportState stream;
   private final boolean shouldBeCountedForInUse;
   private final boolean get;
+  private final short weight;
 
   CreateStreamCommand(
       Http2Headers headers,
       NettyClientStream.TransportState stream,
-      boolean shouldBeCountedForInUse, boolean get) {
+      boolean shouldBeCountedForInUse, boolean get, short weight) {
     this.stream = Preconditions.checkNotNull(stream, "stream");
     this.headers = Preconditions.checkNotNull(headers, "headers");
     this.shouldBeCountedForInUse = shouldBeCountedForInUse;
     this.get = get;
+    this.weight = weight;
   }
 
   NettyClientStream.TransportState stream() {
@@ -54,4 +56,8 @@ class CreateStreamCommand extends WriteQueue.AbstractQueuedCommand {
   boolean isGet() {
     return get;
   }
+
+  short weight() {
+    return weight;
+  }
 }
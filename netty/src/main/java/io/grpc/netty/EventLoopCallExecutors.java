@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.netty;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Pairs each event loop of a worker group with an application executor of its own, so that all
+ * calls of a connection run on the same thread instead of on any thread of the server's executor.
+ * The pairing is shared by all the servers using the worker group, such as those of the listen
+ * addresses of one {@link NettyServerBuilder}, and is shut down once the last of them releases it.
+ */
+@ThreadSafe
+final class EventLoopCallExecutors {
+  @GuardedBy("EventLoopCallExecutors.class")
+  private static final Map<EventLoopGroup, EventLoopCallExecutors> byWorkerGroup =
+      new IdentityHashMap<>();
+
+  private final EventLoopGroup workerGroup;
+  private final EventExecutorGroup callExecutorGroup;
+  // Only written before the instance is published.
+  private final Map<EventExecutor, Executor> callExecutors = new IdentityHashMap<>();
+  @GuardedBy("EventLoopCallExecutors.class")
+  private int refCount;
+
+  private EventLoopCallExecutors(EventLoopGroup workerGroup) {
+    this.workerGroup = workerGroup;
+    List<EventExecutor> eventLoops = new ArrayList<>();
+    for (EventExecutor eventLoop : workerGroup) {
+      eventLoops.add(eventLoop);
+    }
+    callExecutorGroup = new DefaultEventExecutorGroup(
+        eventLoops.size(), new DefaultThreadFactory("grpc-call-executor", /* daemon= */ true));
+    Iterator<EventExecutor> callExecutorIterator = callExecutorGroup.iterator();
+    for (EventExecutor eventLoop : eventLoops) {
+      callExecutors.put(eventLoop, callExecutorIterator.next());
+    }
+  }
+
+  /**
+   * Returns the pairing for {@code workerGroup}, creating it if no server uses it yet. Each call
+   * must be matched by a call to {@link #release}.
+   */
+  static synchronized EventLoopCallExecutors acquire(EventLoopGroup workerGroup) {
+    checkNotNull(workerGroup, "workerGroup");
+    EventLoopCallExecutors executors = byWorkerGroup.get(workerGroup);
+    if (executors == null) {
+      executors = new EventLoopCallExecutors(workerGroup);
+      byWorkerGroup.put(workerGroup, executors);
+    }
+    executors.refCount++;
+    return executors;
+  }
+
+  /**
+   * Releases a pairing returned by {@link #acquire}, shutting its executors down if no other server
+   * uses it.
+   */
+  void release() {
+    synchronized (EventLoopCallExecutors.class) {
+      checkState(refCount > 0, "Already released");
+      if (--refCount > 0) {
+        return;
+      }
+      byWorkerGroup.remove(workerGroup);
+    }
+    callExecutorGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+  }
+
+  /** Returns the executor paired with {@code eventLoop}, or {@code null} if it is not a worker. */
+  @Nullable
+  Executor forEventLoop(EventExecutor eventLoop) {
+    return callExecutors.get(eventLoop);
+  }
+}
@@ -39,6 +39,7 @@ import static io.netty.handler.codec.http2.Http2Exception.connectionError;
 import static io.netty.util.AsciiString.isUpperCase;
 
 import com.google.common.io.BaseEncoding;
+import io.grpc.InternalMetadata;
 import io.grpc.Metadata;
 import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
 import io.netty.handler.codec.http2.Http2Headers;
@@ -83,6 +84,10 @@ class GrpcHttp2HeadersUtils {
    * and retrievial a O(n). Header name equality is not determined by the equals implementation of
    * {@link CharSequence} type, but by comparing two names byte to byte.
    *
+   * <p>Values that would need copying or base64 decoding are stored as {@link
+   * InternalMetadata.LazyValue}s, so that the work is only done for values that are read from the
+   * resulting {@link Metadata}.
+   *
    * <p>All {@link CharSequence} input parameters and return values are required to be of type
    * {@link AsciiString}.
    */
@@ -91,23 +96,25 @@ class GrpcHttp2HeadersUtils {
     private static final AsciiString binaryHeaderSuffix =
         new AsciiString(Metadata.BINARY_HEADER_SUFFIX.getBytes(US_ASCII));
 
-    private byte[][] namesAndValues;
+    private Object[] namesAndValues;
     private AsciiString[] values;
     private int namesAndValuesIdx;
 
     GrpcHttp2InboundHeaders(int numHeadersGuess) {
       checkArgument(numHeadersGuess > 0, "numHeadersGuess needs to be positive: %s",
           numHeadersGuess);
-      namesAndValues = new byte[numHeadersGuess * 2][];
+      namesAndValues = new Object[numHeadersGuess * 2];
       values = new AsciiString[numHeadersGuess];
     }
 
     protected Http2Headers add(AsciiString name, AsciiString value) {
       byte[] nameBytes = bytes(name);
-      byte[] valueBytes;
       if (!name.endsWith(binaryHeaderSuffix)) {
-        valueBytes = bytes(value);
-        addHeader(value, nameBytes, valueBytes);
+        if (value.isEntireArrayUsed()) {
+          addHeader(value, nameBytes, value.array());
+        } else {
+          addHeader(value, nameBytes, new LazyAsciiValue(value, false));
+        }
         return this;
       }
       int startPos = 0;
@@ -116,14 +123,20 @@ class GrpcHttp2HeadersUtils {
         int indexOfComma = value.indexOf(',', startPos);
         endPos = indexOfComma == AsciiString.INDEX_NOT_FOUND ? value.length() : indexOfComma;
         AsciiString curVal = value.subSequence(startPos, endPos, false);
-        valueBytes = BaseEncoding.base64().decode(curVal);
+        // Validate now so that malformed values still fail the headers, but only decode on read.
+        if (!BaseEncoding.base64().canDecode(curVal)) {
+          throw new IllegalArgumentException("Invalid base64 value for header " + name);
+        }
         startPos = indexOfComma + 1;
-        addHeader(curVal, nameBytes, valueBytes);
+        addHeader(curVal, nameBytes, new LazyAsciiValue(curVal, true));
       }
       return this;
     }
 
-    private void addHeader(AsciiString value, byte[] nameBytes, byte[] valueBytes) {
+    /**
+     * @param valueBytes either a {@code byte[]} or an {@link InternalMetadata.LazyValue}
+     */
+    private void addHeader(AsciiString value, byte[] nameBytes, Object valueBytes) {
       if (namesAndValuesIdx == namesAndValues.length) {
         expandHeadersAndValues();
       }
@@ -136,7 +149,7 @@ class GrpcHttp2HeadersUtils {
 
     protected CharSequence get(AsciiString name) {
       for (int i = 0; i < namesAndValuesIdx; i += 2) {
-        if (equals(name, namesAndValues[i])) {
+        if (equals(name, (byte[]) namesAndValues[i])) {
           return values[i / 2];
         }
       }
@@ -153,7 +166,7 @@ class GrpcHttp2HeadersUtils {
       AsciiString name = requireAsciiString(csName);
       List<CharSequence> returnValues = new ArrayList<>(4);
       for (int i = 0; i < namesAndValuesIdx; i += 2) {
-        if (equals(name, namesAndValues[i])) {
+        if (equals(name, (byte[]) namesAndValues[i])) {
           returnValues.add(values[i / 2]);
         }
       }
@@ -161,16 +174,18 @@ class GrpcHttp2HeadersUtils {
     }
 
     /**
-     * Returns the header names and values as bytes. An even numbered index contains the
-     * {@code byte[]} representation of a header name (in insertion order), and the subsequent
-     * odd index number contains the corresponding header value.
+     * Returns the header names and values. An even numbered index contains the {@code byte[]}
+     * representation of a header name (in insertion order), and the subsequent odd index number
+     * contains the corresponding header value, as a {@code byte[]} or an {@link
+     * InternalMetadata.LazyValue}.
      *
-     * <p>The values of binary headers (with a -bin suffix), are already base64 decoded.
+     * <p>The values of binary headers (with a -bin suffix), are base64 decoded when converted to
+     * bytes.
      *
      * <p>The array may contain several {@code null} values at the end. A {@code null} value an
      * index means that all higher numbered indices also contain {@code null} values.
      */
-    byte[][] namesAndValues() {
+    Object[] namesAndValues() {
       return namesAndValues;
     }
 
@@ -230,7 +245,7 @@ class GrpcHttp2HeadersUtils {
       int newValuesLen = Math.max(2, values.length + values.length / 2);
       int newNamesAndValuesLen = newValuesLen * 2;
 
-      byte[][] newNamesAndValues = new byte[newNamesAndValuesLen][];
+      Object[] newNamesAndValues = new Object[newNamesAndValuesLen];
       AsciiString[] newValues = new AsciiString[newValuesLen];
       System.arraycopy(namesAndValues, 0, newNamesAndValues, 0, namesAndValues.length);
       System.arraycopy(values, 0, newValues, 0, values.length);
@@ -255,7 +270,7 @@ class GrpcHttp2HeadersUtils {
       StringBuilder builder = new StringBuilder();
       boolean prependSeparator = false;
       for (int i = 0; i < namesAndValuesIdx; i += 2) {
-        String name = new String(namesAndValues[i], US_ASCII);
+        String name = new String((byte[]) namesAndValues[i], US_ASCII);
         // If binary headers, the value is base64 encoded.
         AsciiString value = values[i / 2];
         appendNameAndValue(builder, name, value, prependSeparator);
@@ -265,6 +280,25 @@ class GrpcHttp2HeadersUtils {
     }
   }
 
+  /**
+   * A header value that is copied out of its {@link AsciiString}, and base64 decoded if it belongs
+   * to a binary header, only when read.
+   */
+  private static final class LazyAsciiValue implements InternalMetadata.LazyValue {
+    private final AsciiString value;
+    private final boolean binary;
+
+    LazyAsciiValue(AsciiString value, boolean binary) {
+      this.value = value;
+      this.binary = binary;
+    }
+
+    @Override
+    public byte[] toBytes() {
+      return binary ? BaseEncoding.base64().decode(value) : value.toByteArray();
+    }
+  }
+
   /**
    * A {@link GrpcHttp2InboundHeaders} implementation, optimized for HTTP/2 request headers. That
    * is, HTTP/2 request pseudo headers are stored in dedicated fields and are NOT part of the
@@ -16,11 +16,16 @@
 
 package io.grpc.netty;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
 import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.util.AsciiString;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A custom implementation of Http2Headers that only includes methods used by gRPC.
@@ -34,7 +39,23 @@ final class GrpcHttp2OutboundHeaders extends AbstractHttp2Headers {
   static GrpcHttp2OutboundHeaders clientRequestHeaders(byte[][] serializedMetadata,
       AsciiString authority, AsciiString path, AsciiString method, AsciiString scheme,
       AsciiString userAgent) {
-    AsciiString[] preHeaders = new AsciiString[] {
+    return clientRequestHeaders(
+        serializedMetadata, clientRequestPreHeaders(authority, path, method, scheme, userAgent));
+  }
+
+  /**
+   * Creates request headers from pseudo and reserved headers built by {@link
+   * #clientRequestPreHeaders}. {@code preHeaders} is not copied, and may be shared between
+   * requests since it is never modified.
+   */
+  static GrpcHttp2OutboundHeaders clientRequestHeaders(byte[][] serializedMetadata,
+      AsciiString[] preHeaders) {
+    return new GrpcHttp2OutboundHeaders(preHeaders, serializedMetadata);
+  }
+
+  static AsciiString[] clientRequestPreHeaders(AsciiString authority, AsciiString path,
+      AsciiString method, AsciiString scheme, AsciiString userAgent) {
+    return new AsciiString[] {
         Http2Headers.PseudoHeaderName.AUTHORITY.value(), authority,
         Http2Headers.PseudoHeaderName.PATH.value(), path,
         Http2Headers.PseudoHeaderName.METHOD.value(), method,
@@ -43,7 +64,6 @@ final class GrpcHttp2OutboundHeaders extends AbstractHttp2Headers {
         Utils.TE_HEADER, Utils.TE_TRAILERS,
         Utils.USER_AGENT, userAgent,
     };
-    return new GrpcHttp2OutboundHeaders(preHeaders, serializedMetadata);
   }
 
   static GrpcHttp2OutboundHeaders serverResponseHeaders(byte[][] serializedMetadata) {
@@ -66,6 +86,11 @@ final class GrpcHttp2OutboundHeaders extends AbstractHttp2Headers {
     this.preHeaders = preHeaders;
   }
 
+  @VisibleForTesting
+  AsciiString[] preHeaders() {
+    return preHeaders;
+  }
+
   @Override
   @SuppressWarnings("ReferenceEquality") // STATUS.value() never changes.
   public CharSequence status() {
@@ -154,4 +179,60 @@ final class GrpcHttp2OutboundHeaders extends AbstractHttp2Headers {
     builder.append(']');
     return builder.toString();
   }
+
+  /**
+   * The pseudo and reserved headers of POST requests on one transport, by path. The authority,
+   * scheme and user agent are fixed per transport, so the headers of each method are built once
+   * per transport and then shared by its requests. Requests whose authority was overridden for
+   * the call are built without the cache.
+   */
+  static final class ClientRequestHeadersCache {
+    /** Bounds the cache for channels that call an open-ended set of methods. */
+    @VisibleForTesting
+    static final int MAX_CACHED_PATHS = 1000;
+
+    private final AsciiString authority;
+    private final AsciiString scheme;
+    private final AsciiString userAgent;
+    // Arrays are never modified once built. Racing puts for the same path are harmless.
+    private final ConcurrentMap<AsciiString, AsciiString[]> preHeadersByPath =
+        new ConcurrentHashMap<>();
+
+    ClientRequestHeadersCache(AsciiString authority, AsciiString scheme, AsciiString userAgent) {
+      this.authority = checkNotNull(authority, "authority");
+      this.scheme = checkNotNull(scheme, "scheme");
+      this.userAgent = userAgent;
+    }
+
+    AsciiString authority() {
+      return authority;
+    }
+
+    AsciiString scheme() {
+      return scheme;
+    }
+
+    AsciiString userAgent() {
+      return userAgent;
+    }
+
+    /**
+     * Returns the pre-headers for a POST request to {@code path}, reusing those of earlier
+     * requests on this transport unless {@code authority} is not the transport's.
+     */
+    @SuppressWarnings("ReferenceEquality") // Only the transport's own instance is cached
+    AsciiString[] preHeaders(AsciiString authority, AsciiString path) {
+      if (authority != this.authority) {
+        return clientRequestPreHeaders(authority, path, Utils.HTTP_METHOD, scheme, userAgent);
+      }
+      AsciiString[] preHeaders = preHeadersByPath.get(path);
+      if (preHeaders == null) {
+        preHeaders = clientRequestPreHeaders(authority, path, Utils.HTTP_METHOD, scheme, userAgent);
+        if (preHeadersByPath.size() < MAX_CACHED_PATHS) {
+          preHeadersByPath.putIfAbsent(path, preHeaders);
+        }
+      }
+      return preHeaders;
+    }
+  }
 }
@@ -25,6 +25,7 @@ import static io.grpc.internal.GrpcUtil.KEEPALIVE_TIME_NANOS_DISABLED;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.grpc.Attributes;
+import io.grpc.CallOptions;
 import io.grpc.ChannelLogger;
 import io.grpc.EquivalentAddressGroup;
 import io.grpc.ExperimentalApi;
@@ -73,6 +74,8 @@ public final class NettyChannelBuilder
       new ReflectiveChannelFactory<>(Utils.DEFAULT_CLIENT_CHANNEL_TYPE);
   private static final ObjectPool<? extends EventLoopGroup> DEFAULT_EVENT_LOOP_GROUP_POOL =
       SharedResourcePool.forResource(Utils.DEFAULT_WORKER_EVENT_LOOP_GROUP);
+  private static final ObjectPool<? extends EventLoopGroup> IO_URING_EVENT_LOOP_GROUP_POOL =
+      SharedResourcePool.forResource(Utils.IO_URING_WORKER_EVENT_LOOP_GROUP);
 
   private final Map<ChannelOption<?>, Object> channelOptions =
       new HashMap<>();
@@ -89,6 +92,12 @@ public final class NettyChannelBuilder
   private boolean keepAliveWithoutCalls;
   private ProtocolNegotiatorFactory protocolNegotiatorFactory;
   private LocalSocketPicker localSocketPicker;
+  private long maxFlushDelayNanos;
+  private boolean writeCoalescing;
+  private int writeCoalescingMaxBytes = WriteQueue.DEFAULT_COALESCING_MAX_BYTES;
+  private long writeCoalescingMaxDelayNanos = WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS;
+  private int maxPendingStreams = Integer.MAX_VALUE;
+  private boolean preferIoUring;
 
   /**
    * If true, indicates that the transport may use the GET method for RPCs, and may include the
@@ -230,6 +239,20 @@ public final class NettyChannelBuilder
     return this;
   }
 
+  /**
+   * Uses Netty's io_uring transport instead of the default epoll or NIO transport, if {@code
+   * netty-incubator-transport-native-io_uring} is on the classpath and the kernel supports it.
+   * Otherwise the default is used. Has no effect if a channel type or {@code EventLoopGroup} is
+   * provided.
+   *
+   * <p>Not public because the io_uring transport requires Netty 4.1.52 or later, and until gRPC's
+   * Netty dependency is upgraded {@link Utils#isIoUringAvailable} is always false.
+   */
+  NettyChannelBuilder preferIoUring(boolean enable) {
+    preferIoUring = enable;
+    return this;
+  }
+
   /**
    * SSL/TLS context to use instead of the system default. It must have been configured with {@link
    * GrpcSslContexts}, but options could have been overridden.
@@ -361,6 +384,77 @@ public final class NettyChannelBuilder
     return this;
   }
 
+  /**
+   * Sets how long a connection may hold back flushing its written frames to the socket while more
+   * writes are queued and less than 64 KiB of message data was written since the last flush. Under
+   * load this lets frames from many calls share a single {@code writev}, at the cost of up to
+   * {@code maxFlushDelay} of extra latency. The default is {@code 0}, which flushes after every
+   * small batch of writes.
+   *
+   * @since 1.26.0
+   */
+  public NettyChannelBuilder maxFlushDelay(long maxFlushDelay, TimeUnit timeUnit) {
+    checkArgument(maxFlushDelay >= 0, "maxFlushDelay must be non-negative: %s", maxFlushDelay);
+    maxFlushDelayNanos = timeUnit.toNanos(maxFlushDelay);
+    return this;
+  }
+
+  /**
+   * Per-call override of {@link #writeCoalescing}. When set to {@code true} or {@code false} in
+   * the {@link CallOptions} of a call, enables or disables coalescing of that call's flushed
+   * writes regardless of the channel's default.
+   *
+   * @since 1.26.0
+   */
+  public static final CallOptions.Key<Boolean> WRITE_COALESCING =
+      CallOptions.Key.create("io.grpc.netty.WRITE_COALESCING");
+
+  /**
+   * Enables coalescing of flushed writes for all calls on this channel. Instead of flushing each
+   * streamed message to the socket as it is sent, the transport lets flushed messages accumulate
+   * until {@code maxBytes} are pending or {@code maxDelay} has passed since the first of them, and
+   * then writes them out together. A burst of small messages in a client-streaming call is then
+   * sent in a few large DATA frames rather than one frame and one syscall per message.
+   *
+   * <p>Coalescing trades up to {@code maxDelay} of latency per message for throughput, so it is
+   * disabled by default. Individual calls can opt in or out with {@link #WRITE_COALESCING}; calls
+   * that opt in on a channel without coalescing enabled use budgets of 16 KiB and 50 microseconds.
+   *
+   * @param maxBytes the number of pending coalesced bytes that triggers a flush. Must be positive
+   * @param maxDelay the longest a coalesced write is delayed before being flushed. Must be
+   *     non-negative
+   * @since 1.26.0
+   */
+  public NettyChannelBuilder writeCoalescing(int maxBytes, long maxDelay, TimeUnit timeUnit) {
+    checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+    checkArgument(maxDelay >= 0, "maxDelay must be non-negative: %s", maxDelay);
+    writeCoalescing = true;
+    writeCoalescingMaxBytes = maxBytes;
+    writeCoalescingMaxDelayNanos = timeUnit.toNanos(maxDelay);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of new calls that may wait on a connection for the server to allow
+   * more concurrent streams. Once a connection has as many streams as the server's {@code
+   * MAX_CONCURRENT_STREAMS} setting permits, further calls are queued until one of them finishes.
+   * A call that would exceed this limit is instead failed with {@link
+   * io.grpc.Status.Code#RESOURCE_EXHAUSTED} before anything is sent. If retries are enabled the
+   * channel makes one transparent retry, which may pick the same connection again; otherwise the
+   * call fails. {@code 0} disables queueing. The default is unlimited.
+   *
+   * <p>The number of calls queued and the time they spent waiting are reported in the
+   * connection's channelz socket stats.
+   *
+   * @since 1.26.0
+   */
+  public NettyChannelBuilder maxPendingStreams(int maxPendingStreams) {
+    checkArgument(maxPendingStreams >= 0, "maxPendingStreams must be non-negative: %s",
+        maxPendingStreams);
+    this.maxPendingStreams = maxPendingStreams;
+    return this;
+  }
+
 
   /**
    * If non-{@code null}, attempts to create connections bound to a local port.
@@ -402,6 +496,14 @@ public final class NettyChannelBuilder
   protected ClientTransportFactory buildTransportFactory() {
     assertEventLoopAndChannelType();
 
+    ChannelFactory<? extends Channel> channelFactory = this.channelFactory;
+    ObjectPool<? extends EventLoopGroup> eventLoopGroupPool = this.eventLoopGroupPool;
+    if (preferIoUring && channelFactory == DEFAULT_CHANNEL_FACTORY
+        && eventLoopGroupPool == DEFAULT_EVENT_LOOP_GROUP_POOL && Utils.isIoUringAvailable()) {
+      channelFactory = new ReflectiveChannelFactory<>(Utils.ioUringChannelType());
+      eventLoopGroupPool = IO_URING_EVENT_LOOP_GROUP_POOL;
+    }
+
     ProtocolNegotiator negotiator;
     if (protocolNegotiatorFactory != null) {
       negotiator = protocolNegotiatorFactory.buildProtocolNegotiator();
@@ -421,7 +523,9 @@ public final class NettyChannelBuilder
         negotiator, channelFactory, channelOptions,
         eventLoopGroupPool, flowControlWindow, maxInboundMessageSize(),
         maxHeaderListSize, keepAliveTimeNanos, keepAliveTimeoutNanos, keepAliveWithoutCalls,
-        transportTracerFactory, localSocketPicker, useGetForSafeMethods);
+        transportTracerFactory, localSocketPicker, useGetForSafeMethods, maxFlushDelayNanos,
+        writeCoalescing,
+        writeCoalescingMaxBytes, writeCoalescingMaxDelayNanos, maxPendingStreams);
   }
 
   @VisibleForTesting
@@ -543,6 +647,11 @@ public final class NettyChannelBuilder
     private final TransportTracer.Factory transportTracerFactory;
     private final LocalSocketPicker localSocketPicker;
     private final boolean useGetForSafeMethods;
+    private final long maxFlushDelayNanos;
+    private final boolean writeCoalescing;
+    private final int writeCoalescingMaxBytes;
+    private final long writeCoalescingMaxDelayNanos;
+    private final int maxPendingStreams;
 
     private boolean closed;
 
@@ -552,7 +661,8 @@ public final class NettyChannelBuilder
         int flowControlWindow, int maxMessageSize, int maxHeaderListSize,
         long keepAliveTimeNanos, long keepAliveTimeoutNanos, boolean keepAliveWithoutCalls,
         TransportTracer.Factory transportTracerFactory, LocalSocketPicker localSocketPicker,
-        boolean useGetForSafeMethods) {
+        boolean useGetForSafeMethods, long maxFlushDelayNanos, boolean writeCoalescing,
+        int writeCoalescingMaxBytes, long writeCoalescingMaxDelayNanos, int maxPendingStreams) {
       this.protocolNegotiator = checkNotNull(protocolNegotiator, "protocolNegotiator");
       this.channelFactory = channelFactory;
       this.channelOptions = new HashMap<ChannelOption<?>, Object>(channelOptions);
@@ -568,6 +678,11 @@ public final class NettyChannelBuilder
       this.localSocketPicker =
           localSocketPicker != null ? localSocketPicker : new LocalSocketPicker();
       this.useGetForSafeMethods = useGetForSafeMethods;
+      this.maxFlushDelayNanos = maxFlushDelayNanos;
+      this.writeCoalescing = writeCoalescing;
+      this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+      this.writeCoalescingMaxDelayNanos = writeCoalescingMaxDelayNanos;
+      this.maxPendingStreams = maxPendingStreams;
     }
 
     @Override
@@ -601,7 +716,9 @@ public final class NettyChannelBuilder
           maxMessageSize, maxHeaderListSize, keepAliveTimeNanosState.get(), keepAliveTimeoutNanos,
           keepAliveWithoutCalls, options.getAuthority(), options.getUserAgent(),
           tooManyPingsRunnable, transportTracerFactory.create(), options.getEagAttributes(),
-          localSocketPicker, channelLogger, useGetForSafeMethods);
+          localSocketPicker, channelLogger, useGetForSafeMethods, maxFlushDelayNanos,
+          writeCoalescing,
+          writeCoalescingMaxBytes, writeCoalescingMaxDelayNanos, maxPendingStreams);
       return transport;
     }
 
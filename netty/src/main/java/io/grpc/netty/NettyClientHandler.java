@@ -17,6 +17,8 @@
 package io.grpc.netty;
 
 import static io.netty.handler.codec.http2.DefaultHttp2LocalFlowController.DEFAULT_WINDOW_UPDATE_RATIO;
+import static io.netty.handler.codec.http2.Http2CodecUtil.CONNECTION_STREAM_ID;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_PRIORITY_WEIGHT;
 import static io.netty.util.CharsetUtil.UTF_8;
 import static io.netty.util.internal.ObjectUtil.checkNotNull;
 
@@ -78,6 +80,7 @@ import io.perfmark.PerfMark;
 import io.perfmark.Tag;
 import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -100,11 +103,19 @@ class NettyClientHandler extends AbstractNettyHandler {
    */
   private static final Status EXHAUSTED_STREAMS_STATUS =
           Status.UNAVAILABLE.withDescription("Stream IDs have been exhausted");
+  /**
+   * Status used when a new stream cannot be started because too many are already waiting for the
+   * server to allow more concurrent streams.
+   */
+  private static final Status PENDING_STREAMS_EXHAUSTED_STATUS =
+      Status.RESOURCE_EXHAUSTED.withDescription(
+          "Too many streams are waiting for MAX_CONCURRENT_STREAMS");
   private static final long USER_PING_PAYLOAD = 1111;
 
   private final Http2Connection.PropertyKey streamKey;
   private final ClientTransportLifecycleManager lifecycleManager;
   private final KeepAliveManager keepAliveManager;
+  private final int maxPendingStreams;
   // Returns new unstarted stopwatches
   private final Supplier<Stopwatch> stopwatchFactory;
   private final TransportTracer transportTracer;
@@ -133,6 +144,7 @@ class NettyClientHandler extends AbstractNettyHandler {
       @Nullable KeepAliveManager keepAliveManager,
       int flowControlWindow,
       int maxHeaderListSize,
+      int maxPendingStreams,
       Supplier<Stopwatch> stopwatchFactory,
       Runnable tooManyPingsRunnable,
       TransportTracer transportTracer,
@@ -157,6 +169,7 @@ class NettyClientHandler extends AbstractNettyHandler {
         keepAliveManager,
         flowControlWindow,
         maxHeaderListSize,
+        maxPendingStreams,
         stopwatchFactory,
         tooManyPingsRunnable,
         transportTracer,
@@ -173,6 +186,7 @@ class NettyClientHandler extends AbstractNettyHandler {
       KeepAliveManager keepAliveManager,
       int flowControlWindow,
       int maxHeaderListSize,
+      int maxPendingStreams,
       Supplier<Stopwatch> stopwatchFactory,
       Runnable tooManyPingsRunnable,
       TransportTracer transportTracer,
@@ -183,6 +197,7 @@ class NettyClientHandler extends AbstractNettyHandler {
     Preconditions.checkNotNull(lifecycleManager, "lifecycleManager");
     Preconditions.checkArgument(flowControlWindow > 0, "flowControlWindow must be positive");
     Preconditions.checkArgument(maxHeaderListSize > 0, "maxHeaderListSize must be positive");
+    Preconditions.checkArgument(maxPendingStreams >= 0, "maxPendingStreams must be non-negative");
     Preconditions.checkNotNull(stopwatchFactory, "stopwatchFactory");
     Preconditions.checkNotNull(tooManyPingsRunnable, "tooManyPingsRunnable");
     Preconditions.checkNotNull(eagAttributes, "eagAttributes");
@@ -226,6 +241,7 @@ class NettyClientHandler extends AbstractNettyHandler {
         settings,
         lifecycleManager,
         keepAliveManager,
+        maxPendingStreams,
         stopwatchFactory,
         tooManyPingsRunnable,
         transportTracer,
@@ -239,14 +255,16 @@ class NettyClientHandler extends AbstractNettyHandler {
       Http2Settings settings,
       ClientTransportLifecycleManager lifecycleManager,
       KeepAliveManager keepAliveManager,
+      int maxPendingStreams,
       Supplier<Stopwatch> stopwatchFactory,
       final Runnable tooManyPingsRunnable,
       TransportTracer transportTracer,
       Attributes eagAttributes,
       String authority) {
-    super(/* channelUnused= */ null, decoder, encoder, settings);
+    super(/* channelUnused= */ null, decoder, encoder, settings, /* autoFlowControl= */ false);
     this.lifecycleManager = lifecycleManager;
     this.keepAliveManager = keepAliveManager;
+    this.maxPendingStreams = maxPendingStreams;
     this.stopwatchFactory = stopwatchFactory;
     this.transportTracer = Preconditions.checkNotNull(transportTracer);
     this.eagAttributes = eagAttributes;
@@ -330,8 +348,10 @@ class NettyClientHandler extends AbstractNettyHandler {
     }
   }
 
-  void startWriteQueue(Channel channel) {
-    clientWriteQueue = new WriteQueue(channel);
+  void startWriteQueue(Channel channel, long maxFlushDelayNanos, int coalescingMaxBytes,
+      long coalescingMaxDelayNanos) {
+    clientWriteQueue = new WriteQueue(channel, transportTracer, maxFlushDelayNanos,
+        coalescingMaxBytes, coalescingMaxDelayNanos);
   }
 
   WriteQueue getWriteQueue() {
@@ -511,7 +531,8 @@ class NettyClientHandler extends AbstractNettyHandler {
 
   /**
    * Attempts to create a new stream from the given command. If there are too many active streams,
-   * the creation request is queued.
+   * the creation request is queued, or refused if {@code maxPendingStreams} requests are already
+   * queued.
    */
   private void createStream(CreateStreamCommand command, ChannelPromise promise)
           throws Exception {
@@ -525,6 +546,16 @@ class NettyClientHandler extends AbstractNettyHandler {
       return;
     }
 
+    if (!connection().local().canOpenStream()
+        && ((StreamBufferingEncoder) encoder()).numBufferedStreams() >= maxPendingStreams) {
+      command.stream().setNonExistent();
+      // Nothing has been sent, so the call may be transparently retried if retries are enabled.
+      command.stream().transportReportStatus(
+          PENDING_STREAMS_EXHAUSTED_STATUS, RpcProgress.REFUSED, true, new Metadata());
+      promise.setFailure(PENDING_STREAMS_EXHAUSTED_STATUS.asRuntimeException());
+      return;
+    }
+
     // Get the stream ID for the new stream.
     int streamId;
     try {
@@ -552,7 +583,8 @@ class NettyClientHandler extends AbstractNettyHandler {
     PerfMark.linkIn(command.getLink());
     try {
       createStreamTraced(
-          streamId, stream, headers, command.isGet(), command.shouldBeCountedForInUse(), promise);
+          streamId, stream, headers, command.isGet(), command.shouldBeCountedForInUse(),
+          command.weight(), promise);
     } finally {
       PerfMark.stopTask("NettyClientHandler.createStream", stream.tag());
     }
@@ -564,51 +596,76 @@ class NettyClientHandler extends AbstractNettyHandler {
       final Http2Headers headers,
       boolean isGet,
       final boolean shouldBeCountedForInUse,
+      final short weight,
       final ChannelPromise promise) {
     // Create an intermediate promise so that we can intercept the failure reported back to the
     // application.
     ChannelPromise tempPromise = ctx().newPromise();
-    encoder().writeHeaders(ctx(), streamId, headers, 0, isGet, tempPromise)
-        .addListener(new ChannelFutureListener() {
-          @Override
-          public void operationComplete(ChannelFuture future) throws Exception {
-            if (future.isSuccess()) {
-              // The http2Stream will be null in case a stream buffered in the encoder
-              // was canceled via RST_STREAM.
-              Http2Stream http2Stream = connection().stream(streamId);
-              if (http2Stream != null) {
-                stream.getStatsTraceContext().clientOutboundHeaders();
-                http2Stream.setProperty(streamKey, stream);
-
-                // This delays the in-use state until the I/O completes, which technically may
-                // be later than we would like.
-                if (shouldBeCountedForInUse) {
-                  inUseState.updateObjectInUse(http2Stream, true);
-                }
-
-                // Attach the client stream to the HTTP/2 stream object as user data.
-                stream.setHttp2Stream(http2Stream);
-              }
-              // Otherwise, the stream has been cancelled and Netty is sending a
-              // RST_STREAM frame which causes it to purge pending writes from the
-              // flow-controller and delete the http2Stream. The stream listener has already
-              // been notified of cancellation so there is nothing to do.
-
-              // Just forward on the success status to the original promise.
-              promise.setSuccess();
-            } else {
-              final Throwable cause = future.cause();
-              if (cause instanceof StreamBufferingEncoder.Http2GoAwayException) {
-                StreamBufferingEncoder.Http2GoAwayException e =
-                    (StreamBufferingEncoder.Http2GoAwayException) cause;
-                lifecycleManager.notifyShutdown(statusFromGoAway(e.errorCode(), e.debugData()));
-                promise.setFailure(lifecycleManager.getShutdownThrowable());
-              } else {
-                promise.setFailure(cause);
-              }
+    // The encoder buffers the stream until the server allows more concurrent streams.
+    final Stopwatch queuedStopwatch;
+    if (connection().local().canOpenStream()) {
+      queuedStopwatch = null;
+    } else {
+      transportTracer.reportStreamQueued();
+      queuedStopwatch = stopwatchFactory.get().start();
+    }
+    ChannelFuture headersFuture;
+    if (weight == DEFAULT_PRIORITY_WEIGHT) {
+      headersFuture = encoder().writeHeaders(ctx(), streamId, headers, 0, isGet, tempPromise);
+    } else {
+      // Tell the server the weight so that it can prioritize the responses, and apply it to our
+      // own writes as soon as the stream exists. A stream buffered by the encoder gets it once
+      // its headers have been written.
+      headersFuture = encoder().writeHeaders(
+          ctx(), streamId, headers, CONNECTION_STREAM_ID, weight, false, 0, isGet, tempPromise);
+      setStreamWeight(streamId, weight);
+    }
+    headersFuture.addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) throws Exception {
+        if (queuedStopwatch != null) {
+          transportTracer.reportStreamDequeued(queuedStopwatch.elapsed(TimeUnit.NANOSECONDS));
+        }
+        if (future.isSuccess()) {
+          // The http2Stream will be null in case a stream buffered in the encoder
+          // was canceled via RST_STREAM.
+          Http2Stream http2Stream = connection().stream(streamId);
+          if (http2Stream != null) {
+            if (weight != DEFAULT_PRIORITY_WEIGHT) {
+              setStreamWeight(streamId, weight);
             }
+            stream.getStatsTraceContext().clientOutboundHeaders();
+            http2Stream.setProperty(streamKey, stream);
+
+            // This delays the in-use state until the I/O completes, which technically may
+            // be later than we would like.
+            if (shouldBeCountedForInUse) {
+              inUseState.updateObjectInUse(http2Stream, true);
+            }
+
+            // Attach the client stream to the HTTP/2 stream object as user data.
+            stream.setHttp2Stream(http2Stream);
           }
-        });
+          // Otherwise, the stream has been cancelled and Netty is sending a
+          // RST_STREAM frame which causes it to purge pending writes from the
+          // flow-controller and delete the http2Stream. The stream listener has already
+          // been notified of cancellation so there is nothing to do.
+
+          // Just forward on the success status to the original promise.
+          promise.setSuccess();
+        } else {
+          final Throwable cause = future.cause();
+          if (cause instanceof StreamBufferingEncoder.Http2GoAwayException) {
+            StreamBufferingEncoder.Http2GoAwayException e =
+                (StreamBufferingEncoder.Http2GoAwayException) cause;
+            lifecycleManager.notifyShutdown(statusFromGoAway(e.errorCode(), e.debugData()));
+            promise.setFailure(lifecycleManager.getShutdownThrowable());
+          } else {
+            promise.setFailure(cause);
+          }
+        }
+      }
+    });
   }
 
   /**
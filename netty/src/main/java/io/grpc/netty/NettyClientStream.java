@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static io.netty.buffer.Unpooled.EMPTY_BUFFER;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_PRIORITY_WEIGHT;
 
 import com.google.common.base.Preconditions;
 import com.google.common.io.BaseEncoding;
@@ -35,6 +36,7 @@ import io.grpc.internal.Http2ClientStreamTransportState;
 import io.grpc.internal.StatsTraceContext;
 import io.grpc.internal.TransportTracer;
 import io.grpc.internal.WritableBuffer;
+import io.grpc.netty.GrpcHttp2OutboundHeaders.ClientRequestHeadersCache;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -61,22 +63,22 @@ class NettyClientStream extends AbstractClientStream {
   private final WriteQueue writeQueue;
   private final MethodDescriptor<?, ?> method;
   private final Channel channel;
+  private final ClientRequestHeadersCache requestHeadersCache;
   private AsciiString authority;
-  private final AsciiString scheme;
-  private final AsciiString userAgent;
+  private final boolean writeCoalescing;
+  private final short weight;
 
   NettyClientStream(
       TransportState state,
       MethodDescriptor<?, ?> method,
       Metadata headers,
       Channel channel,
-      AsciiString authority,
-      AsciiString scheme,
-      AsciiString userAgent,
+      ClientRequestHeadersCache requestHeadersCache,
       StatsTraceContext statsTraceCtx,
       TransportTracer transportTracer,
       CallOptions callOptions,
-      boolean useGetForSafeMethods) {
+      boolean useGetForSafeMethods,
+      boolean writeCoalescing) {
     super(
         new NettyWritableBufferAllocator(channel.alloc()),
         statsTraceCtx,
@@ -88,9 +90,11 @@ class NettyClientStream extends AbstractClientStream {
     this.writeQueue = state.handler.getWriteQueue();
     this.method = checkNotNull(method, "method");
     this.channel = checkNotNull(channel, "channel");
-    this.authority = checkNotNull(authority, "authority");
-    this.scheme = checkNotNull(scheme, "scheme");
-    this.userAgent = userAgent;
+    this.requestHeadersCache = checkNotNull(requestHeadersCache, "requestHeadersCache");
+    this.authority = requestHeadersCache.authority();
+    this.writeCoalescing = writeCoalescing;
+    Integer streamWeight = callOptions.getStreamWeight();
+    this.weight = streamWeight != null ? streamWeight.shortValue() : DEFAULT_PRIORITY_WEIGHT;
   }
 
   @Override
@@ -133,18 +137,18 @@ class NettyClientStream extends AbstractClientStream {
         methodDescriptorAccessor.setRawMethodName(method, defaultPath);
       }
       boolean get = (requestPayload != null);
-      AsciiString httpMethod;
+      Http2Headers http2Headers;
       if (get) {
         // Forge the query string
         // TODO(ericgribkoff) Add the key back to the query string
-        defaultPath =
+        AsciiString path =
             new AsciiString(defaultPath + "?" + BaseEncoding.base64().encode(requestPayload));
-        httpMethod = Utils.HTTP_GET_METHOD;
+        http2Headers = Utils.convertClientHeaders(headers, requestHeadersCache.scheme(), path,
+            authority, Utils.HTTP_GET_METHOD, requestHeadersCache.userAgent());
       } else {
-        httpMethod = Utils.HTTP_METHOD;
+        http2Headers = Utils.convertClientHeaders(
+            headers, requestHeadersCache.preHeaders(authority, defaultPath));
       }
-      Http2Headers http2Headers = Utils.convertClientHeaders(headers, scheme, defaultPath,
-          authority, httpMethod, userAgent);
 
       ChannelFutureListener failureListener = new ChannelFutureListener() {
         @Override
@@ -164,7 +168,8 @@ class NettyClientStream extends AbstractClientStream {
       };
       // Write the command requesting the creation of the stream.
       writeQueue.enqueue(
-          new CreateStreamCommand(http2Headers, transportState(), shouldBeCountedForInUse(), get),
+          new CreateStreamCommand(
+              http2Headers, transportState(), shouldBeCountedForInUse(), get, weight),
           !method.getType().clientSendsOneMessage() || get).addListener(failureListener);
     }
 
@@ -177,20 +182,25 @@ class NettyClientStream extends AbstractClientStream {
       if (numBytes > 0) {
         // Add the bytes to outbound flow control.
         onSendingBytes(numBytes);
-        writeQueue.enqueue(new SendGrpcFrameCommand(transportState(), bytebuf, endOfStream), flush)
-            .addListener(new ChannelFutureListener() {
-              @Override
-              public void operationComplete(ChannelFuture future) throws Exception {
-                // If the future succeeds when http2stream is null, the stream has been cancelled
-                // before it began and Netty is purging pending writes from the flow-controller.
-                if (future.isSuccess() && transportState().http2Stream() != null) {
-                  // Remove the bytes from outbound flow control, optionally notifying
-                  // the client that they can send more bytes.
-                  transportState().onSentBytes(numBytes);
-                  NettyClientStream.this.getTransportTracer().reportMessageSent(numMessages);
-                }
-              }
-            });
+        SendGrpcFrameCommand command =
+            new SendGrpcFrameCommand(transportState(), bytebuf, endOfStream);
+        // The end of the stream is never delayed, there is nothing left to coalesce it with.
+        ChannelFuture writeFuture = flush && writeCoalescing && !endOfStream
+            ? writeQueue.enqueueCoalesced(command, numBytes)
+            : writeQueue.enqueue(command, flush);
+        writeFuture.addListener(new ChannelFutureListener() {
+          @Override
+          public void operationComplete(ChannelFuture future) throws Exception {
+            // If the future succeeds when http2stream is null, the stream has been cancelled
+            // before it began and Netty is purging pending writes from the flow-controller.
+            if (future.isSuccess() && transportState().http2Stream() != null) {
+              // Remove the bytes from outbound flow control, optionally notifying
+              // the client that they can send more bytes.
+              transportState().onSentBytes(numBytes);
+              NettyClientStream.this.getTransportTracer().reportMessageSent(numMessages);
+            }
+          }
+        });
       } else {
         // The frame is empty and will not impact outbound flow control. Just send it.
         writeQueue.enqueue(
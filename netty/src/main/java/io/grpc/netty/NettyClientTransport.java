@@ -41,6 +41,7 @@ import io.grpc.internal.KeepAliveManager;
 import io.grpc.internal.KeepAliveManager.ClientKeepAlivePinger;
 import io.grpc.internal.StatsTraceContext;
 import io.grpc.internal.TransportTracer;
+import io.grpc.netty.GrpcHttp2OutboundHeaders.ClientRequestHeadersCache;
 import io.grpc.netty.NettyChannelBuilder.LocalSocketPicker;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
@@ -76,8 +77,7 @@ class NettyClientTransport implements ConnectionClientTransport {
   private final EventLoopGroup group;
   private final ProtocolNegotiator negotiator;
   private final String authorityString;
-  private final AsciiString authority;
-  private final AsciiString userAgent;
+  private final ClientRequestHeadersCache requestHeadersCache;
   private final int flowControlWindow;
   private final int maxMessageSize;
   private final int maxHeaderListSize;
@@ -85,7 +85,6 @@ class NettyClientTransport implements ConnectionClientTransport {
   private final long keepAliveTimeNanos;
   private final long keepAliveTimeoutNanos;
   private final boolean keepAliveWithoutCalls;
-  private final AsciiString negotiationScheme;
   private final Runnable tooManyPingsRunnable;
   private NettyClientHandler handler;
   // We should not send on the channel until negotiation completes. This is a hard requirement
@@ -101,6 +100,11 @@ class NettyClientTransport implements ConnectionClientTransport {
   private final LocalSocketPicker localSocketPicker;
   private final ChannelLogger channelLogger;
   private final boolean useGetForSafeMethods;
+  private final long maxFlushDelayNanos;
+  private final boolean writeCoalescing;
+  private final int writeCoalescingMaxBytes;
+  private final long writeCoalescingMaxDelayNanos;
+  private final int maxPendingStreams;
 
   NettyClientTransport(
       SocketAddress address, ChannelFactory<? extends Channel> channelFactory,
@@ -110,9 +114,9 @@ class NettyClientTransport implements ConnectionClientTransport {
       boolean keepAliveWithoutCalls, String authority, @Nullable String userAgent,
       Runnable tooManyPingsRunnable, TransportTracer transportTracer, Attributes eagAttributes,
       LocalSocketPicker localSocketPicker, ChannelLogger channelLogger,
-      boolean useGetForSafeMethods) {
+      boolean useGetForSafeMethods, long maxFlushDelayNanos, boolean writeCoalescing,
+      int writeCoalescingMaxBytes, long writeCoalescingMaxDelayNanos, int maxPendingStreams) {
     this.negotiator = Preconditions.checkNotNull(negotiator, "negotiator");
-    this.negotiationScheme = this.negotiator.scheme();
     this.remoteAddress = Preconditions.checkNotNull(address, "address");
     this.group = Preconditions.checkNotNull(group, "group");
     this.channelFactory = channelFactory;
@@ -124,8 +128,10 @@ class NettyClientTransport implements ConnectionClientTransport {
     this.keepAliveTimeoutNanos = keepAliveTimeoutNanos;
     this.keepAliveWithoutCalls = keepAliveWithoutCalls;
     this.authorityString = authority;
-    this.authority = new AsciiString(authority);
-    this.userAgent = new AsciiString(GrpcUtil.getGrpcUserAgent("netty", userAgent));
+    this.requestHeadersCache = new ClientRequestHeadersCache(
+        new AsciiString(authority),
+        negotiator.scheme(),
+        new AsciiString(GrpcUtil.getGrpcUserAgent("netty", userAgent)));
     this.tooManyPingsRunnable =
         Preconditions.checkNotNull(tooManyPingsRunnable, "tooManyPingsRunnable");
     this.transportTracer = Preconditions.checkNotNull(transportTracer, "transportTracer");
@@ -134,6 +140,11 @@ class NettyClientTransport implements ConnectionClientTransport {
     this.logId = InternalLogId.allocate(getClass(), remoteAddress.toString());
     this.channelLogger = Preconditions.checkNotNull(channelLogger, "channelLogger");
     this.useGetForSafeMethods = useGetForSafeMethods;
+    this.maxFlushDelayNanos = maxFlushDelayNanos;
+    this.writeCoalescing = writeCoalescing;
+    this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+    this.writeCoalescingMaxDelayNanos = writeCoalescingMaxDelayNanos;
+    this.maxPendingStreams = maxPendingStreams;
   }
 
   @Override
@@ -189,13 +200,17 @@ class NettyClientTransport implements ConnectionClientTransport {
         method,
         headers,
         channel,
-        authority,
-        negotiationScheme,
-        userAgent,
+        requestHeadersCache,
         statsTraceCtx,
         transportTracer,
         callOptions,
-        useGetForSafeMethods);
+        useGetForSafeMethods,
+        coalesceWrites(callOptions));
+  }
+
+  private boolean coalesceWrites(CallOptions callOptions) {
+    Boolean override = callOptions.getOption(NettyChannelBuilder.WRITE_COALESCING);
+    return override != null ? override : writeCoalescing;
   }
 
   @SuppressWarnings("unchecked")
@@ -215,6 +230,7 @@ class NettyClientTransport implements ConnectionClientTransport {
         keepAliveManager,
         flowControlWindow,
         maxHeaderListSize,
+        maxPendingStreams,
         GrpcUtil.STOPWATCH_SUPPLIER,
         tooManyPingsRunnable,
         transportTracer,
@@ -276,7 +292,8 @@ class NettyClientTransport implements ConnectionClientTransport {
     }
     channel = regFuture.channel();
     // Start the write queue as soon as the channel is constructed
-    handler.startWriteQueue(channel);
+    handler.startWriteQueue(
+        channel, maxFlushDelayNanos, writeCoalescingMaxBytes, writeCoalescingMaxDelayNanos);
     // This write will have no effect, yet it will only complete once the negotiationHandler
     // flushes any pending writes. We need it to be staged *before* the `connect` so that
     // the channel can't have been closed yet, removing all handlers. This write will sit in the
@@ -41,6 +41,8 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPromise;
@@ -58,6 +60,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * Netty-based server implementation.
@@ -78,6 +81,7 @@ class NettyServer implements InternalServer, InternalWithLogId {
   private ServerListener listener;
   private Channel channel;
   private final int flowControlWindow;
+  private final boolean autoFlowControl;
   private final int maxMessageSize;
   private final int maxHeaderListSize;
   private final long keepAliveTimeInNanos;
@@ -87,6 +91,14 @@ class NettyServer implements InternalServer, InternalWithLogId {
   private final long maxConnectionAgeGraceInNanos;
   private final boolean permitKeepAliveWithoutCalls;
   private final long permitKeepAliveTimeInNanos;
+  private final long maxFlushDelayNanos;
+  private final boolean writeCoalescing;
+  private final int writeCoalescingMaxBytes;
+  private final long writeCoalescingMaxDelayNanos;
+  private final boolean eventLoopAffinity;
+  // Acquired at startup if eventLoopAffinity is enabled, and released with the worker group.
+  @Nullable
+  private EventLoopCallExecutors callExecutors;
   private final ReferenceCounted eventLoopReferenceCounter = new EventLoopReferenceCounter();
   private final List<? extends ServerStreamTracer.Factory> streamTracerFactories;
   private final TransportTracer.Factory transportTracerFactory;
@@ -103,11 +115,14 @@ class NettyServer implements InternalServer, InternalWithLogId {
       ProtocolNegotiator protocolNegotiator,
       List<? extends ServerStreamTracer.Factory> streamTracerFactories,
       TransportTracer.Factory transportTracerFactory,
-      int maxStreamsPerConnection, int flowControlWindow, int maxMessageSize, int maxHeaderListSize,
+      int maxStreamsPerConnection, boolean autoFlowControl, int flowControlWindow,
+      int maxMessageSize, int maxHeaderListSize,
       long keepAliveTimeInNanos, long keepAliveTimeoutInNanos,
       long maxConnectionIdleInNanos,
       long maxConnectionAgeInNanos, long maxConnectionAgeGraceInNanos,
       boolean permitKeepAliveWithoutCalls, long permitKeepAliveTimeInNanos,
+      long maxFlushDelayNanos, boolean writeCoalescing, int writeCoalescingMaxBytes,
+      long writeCoalescingMaxDelayNanos, boolean eventLoopAffinity,
       InternalChannelz channelz) {
     this.address = address;
     this.channelFactory = checkNotNull(channelFactory, "channelFactory");
@@ -121,6 +136,7 @@ class NettyServer implements InternalServer, InternalWithLogId {
     this.streamTracerFactories = checkNotNull(streamTracerFactories, "streamTracerFactories");
     this.transportTracerFactory = transportTracerFactory;
     this.maxStreamsPerConnection = maxStreamsPerConnection;
+    this.autoFlowControl = autoFlowControl;
     this.flowControlWindow = flowControlWindow;
     this.maxMessageSize = maxMessageSize;
     this.maxHeaderListSize = maxHeaderListSize;
@@ -131,6 +147,11 @@ class NettyServer implements InternalServer, InternalWithLogId {
     this.maxConnectionAgeGraceInNanos = maxConnectionAgeGraceInNanos;
     this.permitKeepAliveWithoutCalls = permitKeepAliveWithoutCalls;
     this.permitKeepAliveTimeInNanos = permitKeepAliveTimeInNanos;
+    this.maxFlushDelayNanos = maxFlushDelayNanos;
+    this.writeCoalescing = writeCoalescing;
+    this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+    this.writeCoalescingMaxDelayNanos = writeCoalescingMaxDelayNanos;
+    this.eventLoopAffinity = eventLoopAffinity;
     this.channelz = Preconditions.checkNotNull(channelz);
     this.logId =
         InternalLogId.allocate(getClass(), address != null ? address.toString() : "No address");
@@ -153,6 +174,9 @@ class NettyServer implements InternalServer, InternalWithLogId {
   @Override
   public void start(ServerListener serverListener) throws IOException {
     listener = checkNotNull(serverListener, "serverListener");
+    if (eventLoopAffinity) {
+      callExecutors = EventLoopCallExecutors.acquire(workerGroup);
+    }
 
     ServerBootstrap b = new ServerBootstrap();
     b.group(bossGroup, workerGroup);
@@ -190,6 +214,7 @@ class NettyServer implements InternalServer, InternalWithLogId {
                 streamTracerFactories,
                 transportTracerFactory.create(),
                 maxStreamsPerConnection,
+                autoFlowControl,
                 flowControlWindow,
                 maxMessageSize,
                 maxHeaderListSize,
@@ -199,7 +224,12 @@ class NettyServer implements InternalServer, InternalWithLogId {
                 maxConnectionAgeInNanos,
                 maxConnectionAgeGraceInNanos,
                 permitKeepAliveWithoutCalls,
-                permitKeepAliveTimeInNanos);
+                permitKeepAliveTimeInNanos,
+                maxFlushDelayNanos,
+                writeCoalescing,
+                writeCoalescingMaxBytes,
+                writeCoalescingMaxDelayNanos,
+                callExecutors != null ? callExecutors.forEventLoop(ch.eventLoop()) : null);
         ServerTransportListener transportListener;
         // This is to order callbacks on the listener, not to guard access to channel.
         synchronized (NettyServer.this) {
@@ -215,13 +245,27 @@ class NettyServer implements InternalServer, InternalWithLogId {
         }
 
         /**
-         * Releases the event loop if the channel is "done", possibly due to the channel closing.
+         * Releases the event loop if the channel is "done", or once the channel is unregistered
+         * after closing. The close future completes before channelInactive, where the handler
+         * closes the remaining streams, so releasing then could shut down the call executor
+         * before those streams' callbacks run.
          */
-        final class LoopReleaser implements ChannelFutureListener {
+        final class LoopReleaser extends ChannelInboundHandlerAdapter
+            implements ChannelFutureListener {
           private boolean done;
 
           @Override
           public void operationComplete(ChannelFuture future) throws Exception {
+            release();
+          }
+
+          @Override
+          public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
+            release();
+            super.channelUnregistered(ctx);
+          }
+
+          private void release() {
             if (!done) {
               done = true;
               eventLoopReferenceCounter.release();
@@ -230,9 +274,10 @@ class NettyServer implements InternalServer, InternalWithLogId {
         }
 
         transport.start(transportListener);
-        ChannelFutureListener loopReleaser = new LoopReleaser();
+        LoopReleaser loopReleaser = new LoopReleaser();
         channelDone.addListener(loopReleaser);
-        ch.closeFuture().addListener(loopReleaser);
+        // First, so that no other handler can keep channelUnregistered from it.
+        ch.pipeline().addFirst(loopReleaser);
       }
     });
     // Bind and start to accept incoming connections.
@@ -320,6 +365,10 @@ class NettyServer implements InternalServer, InternalWithLogId {
           }
         } finally {
           workerGroup = null;
+          if (callExecutors != null) {
+            callExecutors.release();
+            callExecutors = null;
+          }
         }
       }
     }
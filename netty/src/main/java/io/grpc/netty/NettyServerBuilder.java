@@ -78,6 +78,10 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
       SharedResourcePool.forResource(Utils.DEFAULT_BOSS_EVENT_LOOP_GROUP);
   private static final ObjectPool<? extends EventLoopGroup> DEFAULT_WORKER_EVENT_LOOP_GROUP_POOL =
       SharedResourcePool.forResource(Utils.DEFAULT_WORKER_EVENT_LOOP_GROUP);
+  private static final ObjectPool<? extends EventLoopGroup> IO_URING_BOSS_EVENT_LOOP_GROUP_POOL =
+      SharedResourcePool.forResource(Utils.IO_URING_BOSS_EVENT_LOOP_GROUP);
+  private static final ObjectPool<? extends EventLoopGroup> IO_URING_WORKER_EVENT_LOOP_GROUP_POOL =
+      SharedResourcePool.forResource(Utils.IO_URING_WORKER_EVENT_LOOP_GROUP);
 
   private final List<SocketAddress> listenAddresses = new ArrayList<>();
 
@@ -91,6 +95,7 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
   private SslContext sslContext;
   private ProtocolNegotiator protocolNegotiator;
   private int maxConcurrentCallsPerConnection = Integer.MAX_VALUE;
+  private boolean autoFlowControl;
   private int flowControlWindow = DEFAULT_FLOW_CONTROL_WINDOW;
   private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
   private int maxHeaderListSize = GrpcUtil.DEFAULT_MAX_HEADER_LIST_SIZE;
@@ -101,6 +106,12 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
   private long maxConnectionAgeGraceInNanos = MAX_CONNECTION_AGE_GRACE_NANOS_INFINITE;
   private boolean permitKeepAliveWithoutCalls;
   private long permitKeepAliveTimeInNanos = TimeUnit.MINUTES.toNanos(5);
+  private long maxFlushDelayNanos;
+  private boolean writeCoalescing;
+  private int writeCoalescingMaxBytes = WriteQueue.DEFAULT_COALESCING_MAX_BYTES;
+  private long writeCoalescingMaxDelayNanos = WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS;
+  private boolean preferIoUring;
+  private boolean eventLoopAffinity;
 
   /**
    * Creates a server builder that will bind to the given port.
@@ -267,6 +278,40 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
     return this;
   }
 
+  /**
+   * Uses Netty's io_uring transport instead of the default epoll or NIO transport, if {@code
+   * netty-incubator-transport-native-io_uring} is on the classpath and the kernel supports it.
+   * Otherwise the default is used. Has no effect if a channel type or any {@code EventLoopGroup}
+   * is provided.
+   *
+   * <p>Not public because the io_uring transport requires Netty 4.1.52 or later, and until gRPC's
+   * Netty dependency is upgraded {@link Utils#isIoUringAvailable} is always false.
+   */
+  NettyServerBuilder preferIoUring(boolean enable) {
+    preferIoUring = enable;
+    return this;
+  }
+
+  /**
+   * Pairs each worker event loop with an application thread of its own, and runs the calls of
+   * every connection on the thread paired with the connection's event loop instead of on the
+   * {@link #executor executor}. A connection's calls then stay on one thread rather than moving
+   * between all the threads of the executor, which avoids most cross-thread handoffs and keeps
+   * their data in one CPU cache.
+   *
+   * <p>Since the calls of all connections served by an event loop share one thread, a call that
+   * blocks delays the others. This is best suited to services whose handlers do not block and
+   * whose load is spread over many connections. The executor is still used to deliver
+   * cancellations. Disabled by default.
+   *
+   * @since 1.26.0
+   */
+  @ExperimentalApi("Experimental until the benefits are measured across more workloads")
+  public NettyServerBuilder eventLoopAffinity(boolean enable) {
+    eventLoopAffinity = enable;
+    return this;
+  }
+
   /**
    * Sets the TLS context to use for encryption. Providing a context enables encryption. It must
    * have been configured with {@link GrpcSslContexts}, but options could have been overridden.
@@ -324,14 +369,33 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
     return this;
   }
 
+  /**
+   * Sets the initial HTTP/2 flow control window and enables auto-tuning of the window. Each
+   * connection then measures its bandwidth-delay product with PING frames while receiving data, and
+   * raises the window of the connection and its streams up to twice the measured product, at most 8
+   * MiB. This keeps high-latency connections from being limited by the window. Use {@link
+   * #flowControlWindow} for a fixed window instead.
+   *
+   * @since 1.26.0
+   */
+  public NettyServerBuilder initialFlowControlWindow(int initialFlowControlWindow) {
+    checkArgument(initialFlowControlWindow > 0, "initialFlowControlWindow must be positive: %s",
+        initialFlowControlWindow);
+    this.flowControlWindow = initialFlowControlWindow;
+    this.autoFlowControl = true;
+    return this;
+  }
+
   /**
    * Sets the HTTP/2 flow control window. If not called, the default value
-   * is {@link #DEFAULT_FLOW_CONTROL_WINDOW}).
+   * is {@link #DEFAULT_FLOW_CONTROL_WINDOW}). This disables the auto-tuning enabled by {@link
+   * #initialFlowControlWindow}.
    */
   public NettyServerBuilder flowControlWindow(int flowControlWindow) {
     checkArgument(flowControlWindow > 0, "flowControlWindow must be positive: %s",
         flowControlWindow);
     this.flowControlWindow = flowControlWindow;
+    this.autoFlowControl = false;
     return this;
   }
 
@@ -524,12 +588,65 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
     return this;
   }
 
+  /**
+   * Sets how long a connection may hold back flushing its written frames to the socket while more
+   * writes are queued and less than 64 KiB of message data was written since the last flush. Under
+   * load this lets frames from many calls share a single {@code writev}, at the cost of up to
+   * {@code maxFlushDelay} of extra latency. The default is {@code 0}, which flushes after every
+   * small batch of writes.
+   *
+   * @since 1.26.0
+   */
+  public NettyServerBuilder maxFlushDelay(long maxFlushDelay, TimeUnit timeUnit) {
+    checkArgument(maxFlushDelay >= 0, "maxFlushDelay must be non-negative: %s", maxFlushDelay);
+    maxFlushDelayNanos = timeUnit.toNanos(maxFlushDelay);
+    return this;
+  }
+
+  /**
+   * Enables coalescing of flushed writes for all calls on this server. Instead of flushing each
+   * streamed message to the socket as it is sent, the transport lets flushed messages accumulate
+   * until {@code maxBytes} are pending or {@code maxDelay} has passed since the first of them, and
+   * then writes them out together. A burst of small messages in a server-streaming call is then
+   * sent in a few large DATA frames rather than one frame and one syscall per message.
+   *
+   * <p>Coalescing trades up to {@code maxDelay} of latency per message for throughput, so it is
+   * disabled by default. Individual calls can opt in or out with {@link
+   * io.grpc.ServerCall#setWriteCoalescing}; calls that opt in on a server without coalescing
+   * enabled use budgets of 16 KiB and 50 microseconds.
+   *
+   * @param maxBytes the number of pending coalesced bytes that triggers a flush. Must be positive
+   * @param maxDelay the longest a coalesced write is delayed before being flushed. Must be
+   *     non-negative
+   * @since 1.26.0
+   */
+  public NettyServerBuilder writeCoalescing(int maxBytes, long maxDelay, TimeUnit timeUnit) {
+    checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+    checkArgument(maxDelay >= 0, "maxDelay must be non-negative: %s", maxDelay);
+    writeCoalescing = true;
+    writeCoalescingMaxBytes = maxBytes;
+    writeCoalescingMaxDelayNanos = timeUnit.toNanos(maxDelay);
+    return this;
+  }
+
   @Override
   @CheckReturnValue
   protected List<NettyServer> buildTransportServers(
       List<? extends ServerStreamTracer.Factory> streamTracerFactories) {
     assertEventLoopsAndChannelType();
 
+    ChannelFactory<? extends ServerChannel> channelFactory = this.channelFactory;
+    ObjectPool<? extends EventLoopGroup> bossEventLoopGroupPool = this.bossEventLoopGroupPool;
+    ObjectPool<? extends EventLoopGroup> workerEventLoopGroupPool = this.workerEventLoopGroupPool;
+    if (preferIoUring && channelFactory == Utils.DEFAULT_SERVER_CHANNEL_FACTORY
+        && bossEventLoopGroupPool == DEFAULT_BOSS_EVENT_LOOP_GROUP_POOL
+        && workerEventLoopGroupPool == DEFAULT_WORKER_EVENT_LOOP_GROUP_POOL
+        && Utils.isIoUringAvailable()) {
+      channelFactory = new ReflectiveChannelFactory<>(Utils.ioUringServerChannelType());
+      bossEventLoopGroupPool = IO_URING_BOSS_EVENT_LOOP_GROUP_POOL;
+      workerEventLoopGroupPool = IO_URING_WORKER_EVENT_LOOP_GROUP_POOL;
+    }
+
     ProtocolNegotiator negotiator = protocolNegotiator;
     if (negotiator == null) {
       negotiator = sslContext != null ? ProtocolNegotiators.serverTls(sslContext) :
@@ -541,10 +658,14 @@ public final class NettyServerBuilder extends AbstractServerImplBuilder<NettySer
       NettyServer transportServer = new NettyServer(
           listenAddress, channelFactory, channelOptions, bossEventLoopGroupPool,
           workerEventLoopGroupPool, negotiator, streamTracerFactories,
-          getTransportTracerFactory(), maxConcurrentCallsPerConnection, flowControlWindow,
+          getTransportTracerFactory(), maxConcurrentCallsPerConnection, autoFlowControl,
+          flowControlWindow,
           maxMessageSize, maxHeaderListSize, keepAliveTimeInNanos, keepAliveTimeoutInNanos,
           maxConnectionIdleInNanos, maxConnectionAgeInNanos, maxConnectionAgeGraceInNanos,
-          permitKeepAliveWithoutCalls, permitKeepAliveTimeInNanos, getChannelz());
+          permitKeepAliveWithoutCalls, permitKeepAliveTimeInNanos, maxFlushDelayNanos,
+          writeCoalescing,
+          writeCoalescingMaxBytes, writeCoalescingMaxDelayNanos, eventLoopAffinity,
+          getChannelz());
       transportServers.add(transportServer);
     }
     return Collections.unmodifiableList(transportServers);
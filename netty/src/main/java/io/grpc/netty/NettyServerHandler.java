@@ -115,6 +115,10 @@ class NettyServerHandler extends AbstractNettyHandler {
   private final List<? extends ServerStreamTracer.Factory> streamTracerFactories;
   private final TransportTracer transportTracer;
   private final KeepAliveEnforcer keepAliveEnforcer;
+  private final long maxFlushDelayNanos;
+  private final boolean writeCoalescing;
+  private final int writeCoalescingMaxBytes;
+  private final long writeCoalescingMaxDelayNanos;
   /** Incomplete attributes produced by negotiator. */
   private Attributes negotiationAttributes;
   private InternalChannelz.Security securityInfo;
@@ -139,6 +143,7 @@ class NettyServerHandler extends AbstractNettyHandler {
       List<? extends ServerStreamTracer.Factory> streamTracerFactories,
       TransportTracer transportTracer,
       int maxStreams,
+      boolean autoFlowControl,
       int flowControlWindow,
       int maxHeaderListSize,
       int maxMessageSize,
@@ -148,7 +153,11 @@ class NettyServerHandler extends AbstractNettyHandler {
       long maxConnectionAgeInNanos,
       long maxConnectionAgeGraceInNanos,
       boolean permitKeepAliveWithoutCalls,
-      long permitKeepAliveTimeInNanos) {
+      long permitKeepAliveTimeInNanos,
+      long maxFlushDelayNanos,
+      boolean writeCoalescing,
+      int writeCoalescingMaxBytes,
+      long writeCoalescingMaxDelayNanos) {
     Preconditions.checkArgument(maxHeaderListSize > 0, "maxHeaderListSize must be positive: %s",
         maxHeaderListSize);
     Http2FrameLogger frameLogger = new Http2FrameLogger(LogLevel.DEBUG, NettyServerHandler.class);
@@ -165,6 +174,7 @@ class NettyServerHandler extends AbstractNettyHandler {
         streamTracerFactories,
         transportTracer,
         maxStreams,
+        autoFlowControl,
         flowControlWindow,
         maxHeaderListSize,
         maxMessageSize,
@@ -174,7 +184,11 @@ class NettyServerHandler extends AbstractNettyHandler {
         maxConnectionAgeInNanos,
         maxConnectionAgeGraceInNanos,
         permitKeepAliveWithoutCalls,
-        permitKeepAliveTimeInNanos);
+        permitKeepAliveTimeInNanos,
+        maxFlushDelayNanos,
+        writeCoalescing,
+        writeCoalescingMaxBytes,
+        writeCoalescingMaxDelayNanos);
   }
 
   @VisibleForTesting
@@ -186,6 +200,7 @@ class NettyServerHandler extends AbstractNettyHandler {
       List<? extends ServerStreamTracer.Factory> streamTracerFactories,
       TransportTracer transportTracer,
       int maxStreams,
+      boolean autoFlowControl,
       int flowControlWindow,
       int maxHeaderListSize,
       int maxMessageSize,
@@ -195,7 +210,11 @@ class NettyServerHandler extends AbstractNettyHandler {
       long maxConnectionAgeInNanos,
       long maxConnectionAgeGraceInNanos,
       boolean permitKeepAliveWithoutCalls,
-      long permitKeepAliveTimeInNanos) {
+      long permitKeepAliveTimeInNanos,
+      long maxFlushDelayNanos,
+      boolean writeCoalescing,
+      int writeCoalescingMaxBytes,
+      long writeCoalescingMaxDelayNanos) {
     Preconditions.checkArgument(maxStreams > 0, "maxStreams must be positive: %s", maxStreams);
     Preconditions.checkArgument(flowControlWindow > 0, "flowControlWindow must be positive: %s",
         flowControlWindow);
@@ -234,11 +253,14 @@ class NettyServerHandler extends AbstractNettyHandler {
         streamTracerFactories,
         transportTracer,
         decoder, encoder, settings,
+        autoFlowControl,
         maxMessageSize,
         keepAliveTimeInNanos, keepAliveTimeoutInNanos,
         maxConnectionIdleInNanos,
         maxConnectionAgeInNanos, maxConnectionAgeGraceInNanos,
-        keepAliveEnforcer);
+        keepAliveEnforcer,
+        maxFlushDelayNanos,
+        writeCoalescing, writeCoalescingMaxBytes, writeCoalescingMaxDelayNanos);
   }
 
   private NettyServerHandler(
@@ -250,14 +272,19 @@ class NettyServerHandler extends AbstractNettyHandler {
       Http2ConnectionDecoder decoder,
       Http2ConnectionEncoder encoder,
       Http2Settings settings,
+      boolean autoFlowControl,
       int maxMessageSize,
       long keepAliveTimeInNanos,
       long keepAliveTimeoutInNanos,
       long maxConnectionIdleInNanos,
       long maxConnectionAgeInNanos,
       long maxConnectionAgeGraceInNanos,
-      final KeepAliveEnforcer keepAliveEnforcer) {
-    super(channelUnused, decoder, encoder, settings);
+      final KeepAliveEnforcer keepAliveEnforcer,
+      long maxFlushDelayNanos,
+      boolean writeCoalescing,
+      int writeCoalescingMaxBytes,
+      long writeCoalescingMaxDelayNanos) {
+    super(channelUnused, decoder, encoder, settings, autoFlowControl);
 
     final MaxConnectionIdleManager maxConnectionIdleManager;
     if (maxConnectionIdleInNanos == MAX_CONNECTION_IDLE_NANOS_DISABLED) {
@@ -305,6 +332,16 @@ class NettyServerHandler extends AbstractNettyHandler {
     this.maxConnectionAgeInNanos = maxConnectionAgeInNanos;
     this.maxConnectionAgeGraceInNanos = maxConnectionAgeGraceInNanos;
     this.keepAliveEnforcer = checkNotNull(keepAliveEnforcer, "keepAliveEnforcer");
+    checkArgument(maxFlushDelayNanos >= 0,
+        "maxFlushDelayNanos must be non-negative: %s", maxFlushDelayNanos);
+    this.maxFlushDelayNanos = maxFlushDelayNanos;
+    checkArgument(writeCoalescingMaxBytes > 0,
+        "writeCoalescingMaxBytes must be positive: %s", writeCoalescingMaxBytes);
+    checkArgument(writeCoalescingMaxDelayNanos >= 0,
+        "writeCoalescingMaxDelayNanos must be non-negative: %s", writeCoalescingMaxDelayNanos);
+    this.writeCoalescing = writeCoalescing;
+    this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+    this.writeCoalescingMaxDelayNanos = writeCoalescingMaxDelayNanos;
 
     streamKey = encoder.connection().newKey();
     this.transportListener = checkNotNull(transportListener, "transportListener");
@@ -322,7 +359,8 @@ class NettyServerHandler extends AbstractNettyHandler {
 
   @Override
   public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
-    serverWriteQueue = new WriteQueue(ctx.channel());
+    serverWriteQueue = new WriteQueue(ctx.channel(), transportTracer, maxFlushDelayNanos,
+        writeCoalescingMaxBytes, writeCoalescingMaxDelayNanos);
 
     // init max connection age monitor
     if (maxConnectionAgeInNanos != MAX_CONNECTION_AGE_NANOS_DISABLED) {
@@ -597,6 +635,13 @@ class NettyServerHandler extends AbstractNettyHandler {
     return serverWriteQueue;
   }
 
+  /**
+   * Whether streams on this connection coalesce their writes unless overridden per call.
+   */
+  boolean isWriteCoalescing() {
+    return writeCoalescing;
+  }
+
   /**
    * Handler for commands sent from the stream.
    */
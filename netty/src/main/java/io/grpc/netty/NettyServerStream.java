@@ -54,6 +54,7 @@ class NettyServerStream extends AbstractServerStream {
   private final String authority;
   private final TransportTracer transportTracer;
   private final int streamId;
+  private boolean writeCoalescing;
 
   public NettyServerStream(
       Channel channel,
@@ -71,6 +72,7 @@ class NettyServerStream extends AbstractServerStream {
     this.transportTracer = checkNotNull(transportTracer, "transportTracer");
     // Read the id early to avoid reading transportState later.
     this.streamId = transportState().id();
+    this.writeCoalescing = state.handler.isWriteCoalescing();
   }
 
   @Override
@@ -93,6 +95,23 @@ class NettyServerStream extends AbstractServerStream {
     return authority;
   }
 
+  @Override
+  public void setWriteCoalescing(boolean enabled) {
+    writeCoalescing = enabled;
+  }
+
+  @Override
+  public void setStreamWeight(int weight) {
+    final short streamWeight = (short) weight;
+    // Queued in order with the writes, so that everything written afterwards uses the new weight.
+    writeQueue.enqueue(new Runnable() {
+      @Override
+      public void run() {
+        state.handler.setStreamWeight(streamId, streamWeight);
+      }
+    }, false);
+  }
+
   private class Sink implements AbstractServerStream.Sink {
 
     private void requestInternal(final int numMessages) {
@@ -146,26 +165,34 @@ class NettyServerStream extends AbstractServerStream {
 
     private void writeFrameInternal(WritableBuffer frame, boolean flush, final int numMessages) {
       Preconditions.checkArgument(numMessages >= 0);
+      boolean coalesce = flush && writeCoalescing;
       if (frame == null) {
-        writeQueue.scheduleFlush();
+        if (coalesce) {
+          writeQueue.scheduleCoalescedFlush(0);
+        } else {
+          writeQueue.scheduleFlush();
+        }
         return;
       }
       ByteBuf bytebuf = ((NettyWritableBuffer) frame).bytebuf().touch();
       final int numBytes = bytebuf.readableBytes();
       // Add the bytes to outbound flow control.
       onSendingBytes(numBytes);
-      writeQueue.enqueue(new SendGrpcFrameCommand(transportState(), bytebuf, false), flush)
-          .addListener(new ChannelFutureListener() {
-            @Override
-            public void operationComplete(ChannelFuture future) throws Exception {
-              // Remove the bytes from outbound flow control, optionally notifying
-              // the client that they can send more bytes.
-              transportState().onSentBytes(numBytes);
-              if (future.isSuccess()) {
-                transportTracer.reportMessageSent(numMessages);
-              }
-            }
-          });
+      SendGrpcFrameCommand command = new SendGrpcFrameCommand(transportState(), bytebuf, false);
+      ChannelFuture writeFuture = coalesce
+          ? writeQueue.enqueueCoalesced(command, numBytes)
+          : writeQueue.enqueue(command, flush);
+      writeFuture.addListener(new ChannelFutureListener() {
+        @Override
+        public void operationComplete(ChannelFuture future) throws Exception {
+          // Remove the bytes from outbound flow control, optionally notifying
+          // the client that they can send more bytes.
+          transportState().onSentBytes(numBytes);
+          if (future.isSuccess()) {
+            transportTracer.reportMessageSent(numMessages);
+          }
+        }
+      });
     }
 
     @Override
@@ -182,7 +209,7 @@ class NettyServerStream extends AbstractServerStream {
     public void writeTrailers(Metadata trailers, boolean headersSent, Status status) {
       PerfMark.startTask("NettyServerStream$Sink.writeTrailers");
       try {
-        Http2Headers http2Trailers = Utils.convertTrailers(trailers, headersSent);
+        Http2Headers http2Trailers = Utils.convertTrailers(trailers, headersSent, status);
         writeQueue.enqueue(
             SendResponseHeadersCommand.createTrailers(transportState(), http2Trailers, status),
             true);
@@ -38,9 +38,11 @@ import io.netty.util.concurrent.GenericFutureListener;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * The Netty-based server transport.
@@ -59,6 +61,7 @@ class NettyServerTransport implements ServerTransport {
   private NettyServerHandler grpcHandler;
   private ServerTransportListener listener;
   private boolean terminated;
+  private final boolean autoFlowControl;
   private final int flowControlWindow;
   private final int maxMessageSize;
   private final int maxHeaderListSize;
@@ -69,6 +72,12 @@ class NettyServerTransport implements ServerTransport {
   private final long maxConnectionAgeGraceInNanos;
   private final boolean permitKeepAliveWithoutCalls;
   private final long permitKeepAliveTimeInNanos;
+  private final long maxFlushDelayNanos;
+  private final boolean writeCoalescing;
+  private final int writeCoalescingMaxBytes;
+  private final long writeCoalescingMaxDelayNanos;
+  @Nullable
+  private final Executor callExecutor;
   private final List<? extends ServerStreamTracer.Factory> streamTracerFactories;
   private final TransportTracer transportTracer;
 
@@ -79,6 +88,7 @@ class NettyServerTransport implements ServerTransport {
       List<? extends ServerStreamTracer.Factory> streamTracerFactories,
       TransportTracer transportTracer,
       int maxStreams,
+      boolean autoFlowControl,
       int flowControlWindow,
       int maxMessageSize,
       int maxHeaderListSize,
@@ -88,7 +98,12 @@ class NettyServerTransport implements ServerTransport {
       long maxConnectionAgeInNanos,
       long maxConnectionAgeGraceInNanos,
       boolean permitKeepAliveWithoutCalls,
-      long permitKeepAliveTimeInNanos) {
+      long permitKeepAliveTimeInNanos,
+      long maxFlushDelayNanos,
+      boolean writeCoalescing,
+      int writeCoalescingMaxBytes,
+      long writeCoalescingMaxDelayNanos,
+      @Nullable Executor callExecutor) {
     this.channel = Preconditions.checkNotNull(channel, "channel");
     this.channelUnused = channelUnused;
     this.protocolNegotiator = Preconditions.checkNotNull(protocolNegotiator, "protocolNegotiator");
@@ -96,6 +111,7 @@ class NettyServerTransport implements ServerTransport {
         Preconditions.checkNotNull(streamTracerFactories, "streamTracerFactories");
     this.transportTracer = Preconditions.checkNotNull(transportTracer, "transportTracer");
     this.maxStreams = maxStreams;
+    this.autoFlowControl = autoFlowControl;
     this.flowControlWindow = flowControlWindow;
     this.maxMessageSize = maxMessageSize;
     this.maxHeaderListSize = maxHeaderListSize;
@@ -106,6 +122,11 @@ class NettyServerTransport implements ServerTransport {
     this.maxConnectionAgeGraceInNanos = maxConnectionAgeGraceInNanos;
     this.permitKeepAliveWithoutCalls = permitKeepAliveWithoutCalls;
     this.permitKeepAliveTimeInNanos = permitKeepAliveTimeInNanos;
+    this.maxFlushDelayNanos = maxFlushDelayNanos;
+    this.writeCoalescing = writeCoalescing;
+    this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+    this.writeCoalescingMaxDelayNanos = writeCoalescingMaxDelayNanos;
+    this.callExecutor = callExecutor;
     SocketAddress remote = channel.remoteAddress();
     this.logId = InternalLogId.allocate(getClass(), remote != null ? remote.toString() : null);
   }
@@ -146,6 +167,12 @@ class NettyServerTransport implements ServerTransport {
     return channel.eventLoop();
   }
 
+  @Nullable
+  @Override
+  public Executor getCallExecutor() {
+    return callExecutor;
+  }
+
   @Override
   public void shutdown() {
     if (channel.isOpen()) {
@@ -252,6 +279,7 @@ class NettyServerTransport implements ServerTransport {
         streamTracerFactories,
         transportTracer,
         maxStreams,
+        autoFlowControl,
         flowControlWindow,
         maxHeaderListSize,
         maxMessageSize,
@@ -261,6 +289,10 @@ class NettyServerTransport implements ServerTransport {
         maxConnectionAgeInNanos,
         maxConnectionAgeGraceInNanos,
         permitKeepAliveWithoutCalls,
-        permitKeepAliveTimeInNanos);
+        permitKeepAliveTimeInNanos,
+        maxFlushDelayNanos,
+        writeCoalescing,
+        writeCoalescingMaxBytes,
+        writeCoalescingMaxDelayNanos);
   }
 }
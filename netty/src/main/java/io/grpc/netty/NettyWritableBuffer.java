@@ -18,6 +18,8 @@ package io.grpc.netty;
 
 import io.grpc.internal.WritableBuffer;
 import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
 
 /**
  * The {@link WritableBuffer} used by the Netty transport.
@@ -50,6 +52,20 @@ class NettyWritableBuffer implements WritableBuffer {
     return bytebuf.readableBytes();
   }
 
+  @Nullable
+  @Override
+  public ByteBuffer writableByteBuffer(int length) {
+    if (bytebuf.writableBytes() < length || bytebuf.nioBufferCount() != 1) {
+      return null;
+    }
+    return bytebuf.nioBuffer(bytebuf.writerIndex(), length);
+  }
+
+  @Override
+  public void commitWritableByteBuffer(int length) {
+    bytebuf.writerIndex(bytebuf.writerIndex() + length);
+  }
+
   @Override
   public void release() {
     bytebuf.release();
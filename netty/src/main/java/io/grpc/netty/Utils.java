@@ -28,6 +28,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.grpc.InternalChannelz;
 import io.grpc.InternalMetadata;
+import io.grpc.InternalStatus;
 import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.internal.GrpcUtil;
@@ -47,6 +48,7 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http2.Http2Exception;
 import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.util.AsciiString;
+import io.netty.util.Version;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
@@ -76,10 +78,23 @@ class Utils {
   public static final AsciiString TE_HEADER = AsciiString.of(GrpcUtil.TE_HEADER.name());
   public static final AsciiString TE_TRAILERS = AsciiString.of(GrpcUtil.TE_TRAILERS);
   public static final AsciiString USER_AGENT = AsciiString.of(GrpcUtil.USER_AGENT_KEY.name());
+  /**
+   * Trailers holding only {@code grpc-status}, indexed by {@link Status.Code#value}. They are never
+   * modified, so may be written to any number of streams.
+   */
+  private static final Http2Headers[] STATUS_ONLY_TRAILERS = statusOnlyTrailers(true);
+  /** Like {@link #STATUS_ONLY_TRAILERS}, for responses that end without sending headers. */
+  private static final Http2Headers[] STATUS_ONLY_TRAILERS_ONLY = statusOnlyTrailers(false);
   public static final Resource<EventLoopGroup> NIO_BOSS_EVENT_LOOP_GROUP
       = new DefaultEventLoopGroupResource(1, "grpc-nio-boss-ELG", EventLoopGroupType.NIO);
   public static final Resource<EventLoopGroup> NIO_WORKER_EVENT_LOOP_GROUP
       = new DefaultEventLoopGroupResource(0, "grpc-nio-worker-ELG", EventLoopGroupType.NIO);
+  public static final Resource<EventLoopGroup> IO_URING_BOSS_EVENT_LOOP_GROUP
+      = new DefaultEventLoopGroupResource(
+          1, "grpc-io_uring-boss-ELG", EventLoopGroupType.IO_URING);
+  public static final Resource<EventLoopGroup> IO_URING_WORKER_EVENT_LOOP_GROUP
+      = new DefaultEventLoopGroupResource(
+          0, "grpc-io_uring-worker-ELG", EventLoopGroupType.IO_URING);
   public static final Resource<EventLoopGroup> DEFAULT_BOSS_EVENT_LOOP_GROUP;
   public static final Resource<EventLoopGroup> DEFAULT_WORKER_EVENT_LOOP_GROUP;
 
@@ -112,7 +127,7 @@ class Utils {
   public static Metadata convertHeaders(Http2Headers http2Headers) {
     if (http2Headers instanceof GrpcHttp2InboundHeaders) {
       GrpcHttp2InboundHeaders h = (GrpcHttp2InboundHeaders) http2Headers;
-      return InternalMetadata.newMetadata(h.numHeaders(), h.namesAndValues());
+      return InternalMetadata.newMetadataWithLazyValues(h.numHeaders(), h.namesAndValues());
     }
     return InternalMetadata.newMetadata(convertHeadersToArray(http2Headers));
   }
@@ -150,18 +165,24 @@ class Utils {
     Preconditions.checkNotNull(authority, "authority");
     Preconditions.checkNotNull(method, "method");
 
+    return convertClientHeaders(
+        headers,
+        GrpcHttp2OutboundHeaders.clientRequestPreHeaders(
+            authority, defaultPath, method, scheme, userAgent));
+  }
+
+  /**
+   * Like {@link #convertClientHeaders(Metadata, AsciiString, AsciiString, AsciiString,
+   * AsciiString, AsciiString)}, with pseudo and reserved headers that were already built by {@link
+   * GrpcHttp2OutboundHeaders#clientRequestPreHeaders}.
+   */
+  static Http2Headers convertClientHeaders(Metadata headers, AsciiString[] preHeaders) {
     // Discard any application supplied duplicates of the reserved headers
     headers.discardAll(CONTENT_TYPE_KEY);
     headers.discardAll(GrpcUtil.TE_HEADER);
     headers.discardAll(GrpcUtil.USER_AGENT_KEY);
 
-    return GrpcHttp2OutboundHeaders.clientRequestHeaders(
-        toHttp2Headers(headers),
-        authority,
-        defaultPath,
-        method,
-        scheme,
-        userAgent);
+    return GrpcHttp2OutboundHeaders.clientRequestHeaders(toHttp2Headers(headers), preHeaders);
   }
 
   public static Http2Headers convertServerHeaders(Metadata headers) {
@@ -176,7 +197,7 @@ class Utils {
   public static Metadata convertTrailers(Http2Headers http2Headers) {
     if (http2Headers instanceof GrpcHttp2InboundHeaders) {
       GrpcHttp2InboundHeaders h = (GrpcHttp2InboundHeaders) http2Headers;
-      return InternalMetadata.newMetadata(h.numHeaders(), h.namesAndValues());
+      return InternalMetadata.newMetadataWithLazyValues(h.numHeaders(), h.namesAndValues());
     }
     return InternalMetadata.newMetadata(convertHeadersToArray(http2Headers));
   }
@@ -188,6 +209,31 @@ class Utils {
     return GrpcHttp2OutboundHeaders.serverResponseTrailers(toHttp2Headers(trailers));
   }
 
+  /**
+   * Like {@link #convertTrailers(Metadata, boolean)}, for trailers that {@code status} was already
+   * added to. When the status has no description and there are no other trailers, the result is
+   * shared and nothing is converted.
+   */
+  static Http2Headers convertTrailers(Metadata trailers, boolean headersSent, Status status) {
+    if (status.getDescription() == null && InternalMetadata.headerCount(trailers) == 1) {
+      // The only trailer is grpc-status
+      int code = status.getCode().value();
+      return headersSent ? STATUS_ONLY_TRAILERS[code] : STATUS_ONLY_TRAILERS_ONLY[code];
+    }
+    return convertTrailers(trailers, headersSent);
+  }
+
+  private static Http2Headers[] statusOnlyTrailers(boolean headersSent) {
+    Status.Code[] codes = Status.Code.values();
+    Http2Headers[] trailers = new Http2Headers[codes[codes.length - 1].value() + 1];
+    for (Status.Code code : codes) {
+      Metadata metadata = new Metadata();
+      metadata.put(InternalStatus.CODE_KEY, code.toStatus());
+      trailers[code.value()] = convertTrailers(metadata, headersSent);
+    }
+    return trailers;
+  }
+
   public static Status statusFromThrowable(Throwable t) {
     Status s = Status.fromThrowable(t);
     if (s.getCode() != Status.Code.UNKNOWN) {
@@ -292,6 +338,93 @@ class Utils {
     }
   }
 
+  /**
+   * Returns whether Netty's io_uring transport is on the classpath and usable on this host. Unlike
+   * epoll, it is never used by default.
+   *
+   * <p>The io_uring transport needs Netty 4.1.52 or later, so this is always false with the Netty
+   * version gRPC is currently built against.
+   */
+  static boolean isIoUringAvailable() {
+    Version nettyVersion = Version.identify().get("netty-common");
+    if (nettyVersion == null || !nettySupportsIoUring(nettyVersion.artifactVersion())) {
+      return false;
+    }
+    try {
+      return (boolean) (Boolean)
+          Class
+              .forName("io.netty.incubator.channel.uring.IOUring")
+              .getDeclaredMethod("isAvailable")
+              .invoke(null);
+    } catch (ClassNotFoundException e) {
+      // this is normal if netty-incubator-transport-native-io_uring isn't a runtime dependency.
+      return false;
+    } catch (Exception e) {
+      throw new RuntimeException("Exception while checking io_uring availability", e);
+    }
+  }
+
+  /**
+   * Returns whether {@code version}, a Netty artifact version such as {@code 4.1.42.Final}, is
+   * recent enough for the io_uring transport.
+   */
+  @VisibleForTesting
+  static boolean nettySupportsIoUring(String version) {
+    String[] parts = version.split("\\.", 4);
+    if (parts.length < 3) {
+      return false;
+    }
+    int[] minimum = {4, 1, 52};
+    try {
+      for (int i = 0; i < minimum.length; i++) {
+        int part = Integer.parseInt(parts[i]);
+        if (part != minimum[i]) {
+          return part > minimum[i];
+        }
+      }
+    } catch (NumberFormatException e) {
+      return false;
+    }
+    return true;
+  }
+
+  // Must call when io_uring is available
+  static Class<? extends Channel> ioUringChannelType() {
+    try {
+      return Class
+          .forName("io.netty.incubator.channel.uring.IOUringSocketChannel")
+          .asSubclass(Channel.class);
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException("Cannot load IOUringSocketChannel", e);
+    }
+  }
+
+  // Must call when io_uring is available
+  static Class<? extends ServerChannel> ioUringServerChannelType() {
+    try {
+      return Class
+          .forName("io.netty.incubator.channel.uring.IOUringServerSocketChannel")
+          .asSubclass(ServerChannel.class);
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException("Cannot load IOUringServerSocketChannel", e);
+    }
+  }
+
+  // Must call when io_uring is available
+  private static EventLoopGroup createIoUringEventLoopGroup(
+      int parallelism,
+      ThreadFactory threadFactory) {
+    try {
+      return Class
+          .forName("io.netty.incubator.channel.uring.IOUringEventLoopGroup")
+          .asSubclass(EventLoopGroup.class)
+          .getConstructor(Integer.TYPE, ThreadFactory.class)
+          .newInstance(parallelism, threadFactory);
+    } catch (Exception e) {
+      throw new RuntimeException("Cannot create io_uring EventLoopGroup", e);
+    }
+  }
+
   private static ChannelFactory<ServerChannel> nioServerChannelFactory() {
     return new ChannelFactory<ServerChannel>() {
       @Override
@@ -347,6 +480,8 @@ class Utils {
           return new NioEventLoopGroup(numEventLoops, threadFactory);
         case EPOLL:
           return createEpollEventLoopGroup(numEventLoops, threadFactory);
+        case IO_URING:
+          return createIoUringEventLoopGroup(numEventLoops, threadFactory);
         default:
           throw new AssertionError("Unknown/Unsupported EventLoopGroupType: " + eventLoopGroupType);
       }
@@ -404,7 +539,8 @@ class Utils {
 
   private enum EventLoopGroupType {
     NIO,
-    EPOLL
+    EPOLL,
+    IO_URING
   }
 
   private Utils() {
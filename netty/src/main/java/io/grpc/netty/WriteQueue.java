@@ -19,24 +19,36 @@ package io.grpc.netty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.grpc.internal.TransportTracer;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
+import io.netty.util.internal.PlatformDependent;
 import io.perfmark.Link;
 import io.perfmark.PerfMark;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A queue of pending writes to a {@link Channel} that is flushed as a single unit.
  */
 class WriteQueue {
 
-  // Dequeue in chunks, so we don't have to acquire the queue's log too often.
+  // Flush after each chunk of dequeued commands, so written buffers are released periodically.
   @VisibleForTesting
   static final int DEQUE_CHUNK_SIZE = 128;
 
+  // Flush once this many bytes of messages were written since the last flush, even within the
+  // delay budget. Matches HTTP/2's default initial window, which written DATA frames may be held
+  // against in the flow controller without the channel becoming unwritable.
+  @VisibleForTesting
+  static final int MAX_DEFERRED_FLUSH_BYTES = 64 * 1024;
+
+  static final int DEFAULT_COALESCING_MAX_BYTES = 16 * 1024;
+  static final long DEFAULT_COALESCING_MAX_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
   /**
    * {@link Runnable} used to schedule work onto the tail of the event loop.
    */
@@ -47,13 +59,58 @@ class WriteQueue {
     }
   };
 
+  /**
+   * {@link Runnable} used to flush coalesced writes once their delay budget has elapsed.
+   */
+  private final Runnable coalescingDeadline = new Runnable() {
+    @Override
+    public void run() {
+      coalescingFlushScheduled.set(false);
+      scheduleFlush();
+    }
+  };
+
   private final Channel channel;
   private final Queue<QueuedCommand> queue;
   private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final TransportTracer transportTracer;
+  private final long maxFlushDelayNanos;
+  private final int coalescingMaxBytes;
+  private final long coalescingMaxDelayNanos;
+  private final AtomicInteger coalescedBytes = new AtomicInteger();
+  private final AtomicBoolean coalescingFlushScheduled = new AtomicBoolean();
 
   public WriteQueue(Channel channel) {
+    this(channel, new TransportTracer(), 0, DEFAULT_COALESCING_MAX_BYTES,
+        DEFAULT_COALESCING_MAX_DELAY_NANOS);
+  }
+
+  /**
+   * Creates a queue for the given channel.
+   *
+   * @param transportTracer receives the flush statistics of the queue.
+   * @param maxFlushDelayNanos how long a drain of the queue may defer flushing the channel while
+   *     more commands are pending and less than {@link #MAX_DEFERRED_FLUSH_BYTES} of messages
+   *     were written since the last flush. {@code 0} flushes after every {@link #DEQUE_CHUNK_SIZE}
+   *     commands.
+   * @param coalescingMaxBytes the byte budget of {@link #enqueueCoalesced}.
+   * @param coalescingMaxDelayNanos the delay budget of {@link #enqueueCoalesced}.
+   */
+  WriteQueue(Channel channel, TransportTracer transportTracer, long maxFlushDelayNanos,
+      int coalescingMaxBytes, long coalescingMaxDelayNanos) {
     this.channel = Preconditions.checkNotNull(channel, "channel");
-    queue = new ConcurrentLinkedQueue<>();
+    this.transportTracer = Preconditions.checkNotNull(transportTracer, "transportTracer");
+    Preconditions.checkArgument(maxFlushDelayNanos >= 0, "maxFlushDelayNanos must be non-negative");
+    this.maxFlushDelayNanos = maxFlushDelayNanos;
+    Preconditions.checkArgument(coalescingMaxBytes > 0, "coalescingMaxBytes must be positive");
+    Preconditions.checkArgument(
+        coalescingMaxDelayNanos >= 0, "coalescingMaxDelayNanos must be non-negative");
+    this.coalescingMaxBytes = coalescingMaxBytes;
+    this.coalescingMaxDelayNanos = coalescingMaxDelayNanos;
+    // Many application threads enqueue, only the event loop dequeues. The MPSC queue links
+    // fixed-size array chunks, so unlike ConcurrentLinkedQueue it does not allocate a node per
+    // command, and producers contend on a single index rather than on the tail node.
+    queue = PlatformDependent.newMpscQueue();
   }
 
   /**
@@ -101,30 +158,74 @@ class WriteQueue {
     }
   }
 
+  /**
+   * Enqueue a write command whose flush may be deferred so it can be coalesced with writes that
+   * follow it. The flush is scheduled once the coalesced writes reach the byte budget, or once the
+   * delay budget has elapsed, whichever comes first. A flush scheduled for any other reason also
+   * writes out the coalesced commands.
+   *
+   * @param command a write to be executed on the channel.
+   * @param numBytes the number of bytes the command adds to the coalesced writes.
+   */
+  @CanIgnoreReturnValue
+  ChannelFuture enqueueCoalesced(QueuedCommand command, int numBytes) {
+    ChannelFuture future = enqueue(command, false);
+    scheduleCoalescedFlush(numBytes);
+    return future;
+  }
+
+  /**
+   * Schedule a flush on the channel within the coalescing budgets, accounting for {@code numBytes}
+   * more coalesced bytes.
+   */
+  void scheduleCoalescedFlush(int numBytes) {
+    if (coalescedBytes.addAndGet(numBytes) >= coalescingMaxBytes
+        || coalescingMaxDelayNanos == 0) {
+      scheduleFlush();
+    } else if (coalescingFlushScheduled.compareAndSet(false, true)) {
+      channel.eventLoop().schedule(
+          coalescingDeadline, coalescingMaxDelayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
   /**
    * Process the queue of commands and dispatch them to the stream. This method is only
    * called in the event loop
    */
   private void flush() {
     PerfMark.startTask("WriteQueue.periodicFlush");
+    // Everything coalesced so far is about to be written out.
+    coalescedBytes.set(0);
     try {
       QueuedCommand cmd;
+      // The number of commands and bytes written since the last flush.
       int i = 0;
+      long bytes = 0;
       boolean flushedOnce = false;
+      long lastFlushNanos = maxFlushDelayNanos == 0 ? 0 : System.nanoTime();
       while ((cmd = queue.poll()) != null) {
+        if (cmd instanceof SendGrpcFrameCommand) {
+          bytes += ((SendGrpcFrameCommand) cmd).content().readableBytes();
+        }
         cmd.run(channel);
-        if (++i == DEQUE_CHUNK_SIZE) {
-          i = 0;
-          // Flush each chunk so we are releasing buffers periodically. In theory this loop
-          // might never end as new events are continuously added to the queue, if we never
-          // flushed in that case we would be guaranteed to OOM.
+        // Flush each chunk so we are releasing buffers periodically. In theory this loop
+        // might never end as new events are continuously added to the queue, if we never
+        // flushed in that case we would be guaranteed to OOM. The flush may be deferred for a
+        // bounded time and number of bytes, so that more writes share a syscall.
+        if (++i % DEQUE_CHUNK_SIZE == 0 && !deferFlush(lastFlushNanos, bytes)) {
           PerfMark.startTask("WriteQueue.flush0");
           try {
             channel.flush();
           } finally {
             PerfMark.stopTask("WriteQueue.flush0");
           }
+          transportTracer.reportFlush(bytes);
+          i = 0;
+          bytes = 0;
           flushedOnce = true;
+          if (maxFlushDelayNanos != 0) {
+            lastFlushNanos = System.nanoTime();
+          }
         }
       }
       // Must flush at least once, even if there were no writes.
@@ -135,6 +236,7 @@ class WriteQueue {
         } finally {
           PerfMark.stopTask("WriteQueue.flush1");
         }
+        transportTracer.reportFlush(bytes);
       }
     } finally {
       PerfMark.stopTask("WriteQueue.periodicFlush");
@@ -146,6 +248,19 @@ class WriteQueue {
     }
   }
 
+  /**
+   * Returns {@code true} if the flush of a drained chunk may wait for the next chunk: more commands
+   * are pending and neither the byte nor the delay budget has run out. The bytes written since the
+   * last flush are counted here rather than relying on {@link Channel#isWritable}, since DATA
+   * frames waiting in the HTTP/2 flow controller do not count against the channel's write buffer.
+   */
+  private boolean deferFlush(long lastFlushNanos, long bytesSinceFlush) {
+    return maxFlushDelayNanos != 0
+        && !queue.isEmpty()
+        && bytesSinceFlush < MAX_DEFERRED_FLUSH_BYTES
+        && System.nanoTime() - lastFlushNanos < maxFlushDelayNanos;
+  }
+
   private static class RunnableCommand implements QueuedCommand {
     private final Runnable runnable;
     private final Link link;
@@ -16,12 +16,15 @@
 
 package io.grpc.netty;
 
+import static com.google.common.truth.Truth.assertThat;
 import static io.grpc.InternalMetadata.BASE64_ENCODING_OMIT_PADDING;
 import static io.netty.util.AsciiString.of;
 import static junit.framework.TestCase.assertNotSame;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import io.grpc.InternalMetadata;
+import io.grpc.Metadata;
 import io.grpc.netty.GrpcHttp2HeadersUtils.GrpcHttp2InboundHeaders;
 import io.grpc.netty.GrpcHttp2HeadersUtils.GrpcHttp2RequestHeaders;
 import io.grpc.netty.GrpcHttp2HeadersUtils.GrpcHttp2ResponseHeaders;
@@ -73,11 +76,43 @@ public class GrpcHttp2InboundHeadersTest {
 
     assertEquals(1, headers.size());
 
-    byte[][] namesAndValues = ((GrpcHttp2InboundHeaders)headers).namesAndValues();
+    Object[] namesAndValues = ((GrpcHttp2InboundHeaders)headers).namesAndValues();
 
-    assertEquals(of("foo-bin"), new AsciiString(namesAndValues[0]));
-    assertNotSame(data, namesAndValues[1]);
-    assertArrayEquals(data, namesAndValues[1]);
+    assertEquals(of("foo-bin"), new AsciiString((byte[]) namesAndValues[0]));
+    byte[] value = Utils.convertHeaders(headers)
+        .get(Metadata.Key.of("foo-bin", Metadata.BINARY_BYTE_MARSHALLER));
+    assertNotSame(data, value);
+    assertArrayEquals(data, value);
+  }
+
+  @Test
+  public void valuesAreConvertedOnlyWhenRead() {
+    Http2Headers headers = new GrpcHttp2RequestHeaders(1);
+    byte[] data = new byte[] {1, 2, 3};
+    AsciiString encoded = of(BASE64_ENCODING_OMIT_PADDING.encode(data));
+    AsciiString slice = of("xxbarxx").subSequence(2, 5, false);
+    headers.add(of("foo-bin"), encoded);
+    headers.add(of("bar"), slice);
+    headers.add(of("baz"), of("baz"));
+
+    Object[] namesAndValues = ((GrpcHttp2InboundHeaders) headers).namesAndValues();
+    assertThat(namesAndValues[1]).isInstanceOf(InternalMetadata.LazyValue.class);
+    assertThat(namesAndValues[3]).isInstanceOf(InternalMetadata.LazyValue.class);
+    // A value that is a whole array is used as is
+    assertThat(namesAndValues[5]).isInstanceOf(byte[].class);
+
+    Metadata metadata = Utils.convertHeaders(headers);
+    assertEquals("bar", metadata.get(Metadata.Key.of("bar", Metadata.ASCII_STRING_MARSHALLER)));
+    assertThat(namesAndValues[3]).isInstanceOf(byte[].class);
+    assertThat(namesAndValues[1]).isInstanceOf(InternalMetadata.LazyValue.class);
+    assertArrayEquals(data,
+        metadata.get(Metadata.Key.of("foo-bin", Metadata.BINARY_BYTE_MARSHALLER)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidBinaryHeaderFailsEagerly() {
+    Http2Headers headers = new GrpcHttp2RequestHeaders(1);
+    headers.add(of("foo-bin"), of("!!!!"));
   }
 
 }
@@ -29,6 +29,7 @@ import static io.grpc.netty.Utils.STATUS_OK;
 import static io.grpc.netty.Utils.TE_HEADER;
 import static io.grpc.netty.Utils.TE_TRAILERS;
 import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_PRIORITY_WEIGHT;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -53,6 +54,7 @@ import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.grpc.Attributes;
+import io.grpc.InternalChannelz.TransportStats;
 import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.StatusException;
@@ -80,6 +82,7 @@ import io.netty.handler.codec.http2.Http2Error;
 import io.netty.handler.codec.http2.Http2Exception;
 import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.handler.codec.http2.Http2LocalFlowController;
+import io.netty.handler.codec.http2.Http2RemoteFlowController;
 import io.netty.handler.codec.http2.Http2Settings;
 import io.netty.handler.codec.http2.Http2Stream;
 import io.netty.util.AsciiString;
@@ -111,6 +114,7 @@ public class NettyClientHandlerTest extends NettyHandlerTestBase<NettyClientHand
   private Http2Headers grpcHeaders;
   private long nanoTime; // backs a ticker, for testing ping round-trip time measurement
   private int maxHeaderListSize = Integer.MAX_VALUE;
+  private int maxPendingStreams = Integer.MAX_VALUE;
   private int streamId = 3;
   private ClientTransportLifecycleManager lifecycleManager;
   private KeepAliveManager mockKeepAliveManager = null;
@@ -209,6 +213,41 @@ public class NettyClientHandlerTest extends NettyHandlerTestBase<NettyClientHand
         eq(DEFAULT_PRIORITY_WEIGHT), eq(false), eq(0), eq(false), any(ChannelPromise.class));
   }
 
+  @Test
+  public void createStreamWithWeightShouldSendPriority() throws Exception {
+    enqueue(new CreateStreamCommand(grpcHeaders, streamTransportState, true, false, (short) 64));
+    verifyWrite().writeHeaders(eq(ctx()), eq(3), eq(grpcHeaders), eq(0),
+        eq((short) 64), eq(false), eq(0), eq(false), any(ChannelPromise.class));
+  }
+
+  @Test
+  public void connectionWindowSharedByStreamWeight() throws Exception {
+    NettyClientStream.TransportState light = streamTransportState;
+    enqueue(new CreateStreamCommand(grpcHeaders, light, true, false, DEFAULT_PRIORITY_WEIGHT));
+    NettyClientStream.TransportState heavy = new TransportStateImpl(
+        handler(),
+        channel().eventLoop(),
+        DEFAULT_MAX_MESSAGE_SIZE,
+        transportTracer);
+    heavy.setListener(streamListener);
+    short heavyWeight = (short) (DEFAULT_PRIORITY_WEIGHT * 3);
+    enqueue(new CreateStreamCommand(grpcHeaders, heavy, true, false, heavyWeight));
+
+    // Queue a full window on each stream so that they compete for the connection window.
+    handler().getWriteQueue().enqueue(new SendGrpcFrameCommand(
+        light, Unpooled.wrappedBuffer(new byte[DEFAULT_WINDOW_SIZE]), false), false);
+    enqueue(new SendGrpcFrameCommand(
+        heavy, Unpooled.wrappedBuffer(new byte[DEFAULT_WINDOW_SIZE]), false));
+
+    Http2RemoteFlowController flowController = connection().remote().flowController();
+    assertEquals(0, flowController.windowSize(connection().connectionStream()));
+    int lightSent = DEFAULT_WINDOW_SIZE - flowController.windowSize(connection().stream(3));
+    int heavySent = DEFAULT_WINDOW_SIZE - flowController.windowSize(connection().stream(5));
+    assertEquals(DEFAULT_WINDOW_SIZE, lightSent + heavySent);
+    // The heavier stream gets about three quarters of the window.
+    assertEquals(DEFAULT_WINDOW_SIZE * 3 / 4, heavySent, 64);
+  }
+
   @Test
   public void cancelShouldSucceed() throws Exception {
     createStream();
@@ -468,6 +507,52 @@ public class NettyClientHandlerTest extends NettyHandlerTestBase<NettyClientHand
     verify(streamListener).closed(eq(Status.CANCELLED), same(PROCESSED), any(Metadata.class));
   }
 
+  @Test
+  public void createStreamBeyondMaxPendingStreamsShouldBeRefused() throws Exception {
+    maxPendingStreams = 1;
+    setUp();
+    receiveMaxConcurrentStreams(0);
+    ChannelFuture bufferedFuture = enqueue(
+        newCreateStreamCommand(grpcHeaders, streamTransportState));
+    assertFalse(bufferedFuture.isDone());
+
+    ClientStreamListener refusedListener = mock(ClientStreamListener.class);
+    NettyClientStream.TransportState refusedState = new TransportStateImpl(
+        handler(),
+        channel().eventLoop(),
+        DEFAULT_MAX_MESSAGE_SIZE,
+        transportTracer);
+    refusedState.setListener(refusedListener);
+    ChannelFuture refusedFuture = enqueue(newCreateStreamCommand(grpcHeaders, refusedState));
+
+    assertTrue(refusedFuture.isDone());
+    assertFalse(refusedFuture.isSuccess());
+    ArgumentCaptor<Status> captor = ArgumentCaptor.forClass(Status.class);
+    verify(refusedListener).closed(captor.capture(), same(REFUSED), any(Metadata.class));
+    assertEquals(Status.Code.RESOURCE_EXHAUSTED, captor.getValue().getCode());
+    assertFalse(bufferedFuture.isDone());
+    assertEquals(1, transportTracer.getStats().streamsPending);
+  }
+
+  @Test
+  public void bufferedStreamShouldReportQueueWait() throws Exception {
+    receiveMaxConcurrentStreams(0);
+    ChannelFuture future = enqueue(newCreateStreamCommand(grpcHeaders, streamTransportState));
+    TransportStats before = transportTracer.getStats();
+    assertEquals(1, before.streamsQueued);
+    assertEquals(1, before.streamsPending);
+    assertEquals(0, before.streamQueueWaitNanos);
+
+    nanoTime += 1234;
+    receiveMaxConcurrentStreams(1);
+
+    assertTrue(future.isSuccess());
+    TransportStats after = transportTracer.getStats();
+    assertEquals(1, after.streamsQueued);
+    assertEquals(0, after.streamsPending);
+    assertEquals(1234, after.streamQueueWaitNanos);
+  }
+
   @Test
   public void channelShutdownShouldCancelBufferedStreams() throws Exception {
     // Force a stream to get added to the pending queue.
@@ -743,6 +828,7 @@ public class NettyClientHandlerTest extends NettyHandlerTestBase<NettyClientHand
         mockKeepAliveManager,
         flowControlWindow,
         maxHeaderListSize,
+        maxPendingStreams,
         stopwatchSupplier,
         tooManyPingsRunnable,
         transportTracer,
@@ -752,7 +838,8 @@ public class NettyClientHandlerTest extends NettyHandlerTestBase<NettyClientHand
 
   @Override
   protected WriteQueue initWriteQueue() {
-    handler().startWriteQueue(channel());
+    handler().startWriteQueue(channel(), 0, WriteQueue.DEFAULT_COALESCING_MAX_BYTES,
+        WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS);
     return handler().getWriteQueue();
   }
 
@@ -762,7 +849,7 @@ public class NettyClientHandlerTest extends NettyHandlerTestBase<NettyClientHand
 
   private static CreateStreamCommand newCreateStreamCommand(
       Http2Headers headers, NettyClientStream.TransportState stream) {
-    return new CreateStreamCommand(headers, stream, true, false);
+    return new CreateStreamCommand(headers, stream, true, false, DEFAULT_PRIORITY_WEIGHT);
   }
 
   private static class PingCallbackImpl implements ClientTransport.PingCallback {
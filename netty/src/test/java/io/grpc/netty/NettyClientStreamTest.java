@@ -27,7 +27,9 @@ import static io.netty.util.CharsetUtil.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -54,6 +56,7 @@ import io.grpc.internal.GrpcUtil;
 import io.grpc.internal.StatsTraceContext;
 import io.grpc.internal.StreamListener;
 import io.grpc.internal.TransportTracer;
+import io.grpc.netty.GrpcHttp2OutboundHeaders.ClientRequestHeadersCache;
 import io.grpc.netty.WriteQueue.QueuedCommand;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -68,6 +71,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.LinkedList;
 import java.util.Queue;
+import javax.annotation.Nullable;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -415,12 +419,12 @@ public class NettyClientStreamTest extends NettyStreamTestBase<NettyClientStream
         methodDescriptor,
         new Metadata(),
         channel,
-        AsciiString.of("localhost"),
-        AsciiString.of("http"),
-        AsciiString.of("agent"),
+        new ClientRequestHeadersCache(
+            AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent")),
         StatsTraceContext.NOOP,
         transportTracer,
         CallOptions.DEFAULT,
+        false,
         false);
     stream.start(listener);
     stream().transportState().setId(STREAM_ID);
@@ -446,12 +450,12 @@ public class NettyClientStreamTest extends NettyStreamTestBase<NettyClientStream
         methodDescriptor,
         new Metadata(),
         channel,
-        AsciiString.of("localhost"),
-        AsciiString.of("http"),
-        AsciiString.of("good agent"),
+        new ClientRequestHeadersCache(
+            AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("good agent")),
         StatsTraceContext.NOOP,
         transportTracer,
         CallOptions.DEFAULT,
+        false,
         false);
     stream.start(listener);
 
@@ -461,6 +465,93 @@ public class NettyClientStreamTest extends NettyStreamTestBase<NettyClientStream
         .containsEntry(Utils.USER_AGENT, AsciiString.of("good agent"));
   }
 
+  @Test
+  public void streamWeightFromCallOptions() {
+    listener = mock(ClientStreamListener.class);
+    Mockito.reset(writeQueue);
+    ChannelPromise completedPromise = new DefaultChannelPromise(channel)
+        .setSuccess();
+    when(writeQueue.enqueue(any(QueuedCommand.class), anyBoolean())).thenReturn(completedPromise);
+
+    stream = new NettyClientStream(
+        new TransportStateImpl(handler, DEFAULT_MAX_MESSAGE_SIZE),
+        methodDescriptor,
+        new Metadata(),
+        channel,
+        new ClientRequestHeadersCache(
+            AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent")),
+        StatsTraceContext.NOOP,
+        transportTracer,
+        CallOptions.DEFAULT.withStreamWeight(200),
+        false,
+        false);
+    stream.start(listener);
+
+    ArgumentCaptor<CreateStreamCommand> cmdCap = ArgumentCaptor.forClass(CreateStreamCommand.class);
+    verify(writeQueue).enqueue(cmdCap.capture(), eq(false));
+    assertEquals(200, cmdCap.getValue().weight());
+  }
+
+  @Test
+  public void requestHeadersReusedOnSameTransport() {
+    ClientRequestHeadersCache cache = new ClientRequestHeadersCache(
+        AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent"));
+    GrpcHttp2OutboundHeaders first = startAndCaptureHeaders(cache, null);
+    GrpcHttp2OutboundHeaders second = startAndCaptureHeaders(cache, null);
+    assertThat(ImmutableListMultimap.copyOf(second))
+        .containsExactlyEntriesIn(ImmutableListMultimap.copyOf(first)).inOrder();
+    // The pseudo and reserved headers are not rebuilt for the second call.
+    assertSame(first.preHeaders(), second.preHeaders());
+
+    // Another transport keeps its own headers.
+    GrpcHttp2OutboundHeaders otherTransport = startAndCaptureHeaders(
+        new ClientRequestHeadersCache(
+            AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent")),
+        null);
+    assertNotSame(first.preHeaders(), otherTransport.preHeaders());
+  }
+
+  @Test
+  public void requestHeadersWithCallAuthorityNotCached() {
+    ClientRequestHeadersCache cache = new ClientRequestHeadersCache(
+        AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent"));
+    GrpcHttp2OutboundHeaders first = startAndCaptureHeaders(cache, "otherhost");
+    GrpcHttp2OutboundHeaders second = startAndCaptureHeaders(cache, null);
+
+    assertThat(ImmutableListMultimap.copyOf(first))
+        .containsEntry(AsciiString.of(":authority"), AsciiString.of("otherhost"));
+    assertThat(ImmutableListMultimap.copyOf(first))
+        .containsEntry(AsciiString.of(":path"), AsciiString.of("/testService/test"));
+    assertThat(ImmutableListMultimap.copyOf(second))
+        .containsEntry(AsciiString.of(":authority"), AsciiString.of("localhost"));
+    assertNotSame(first.preHeaders(), second.preHeaders());
+  }
+
+  private GrpcHttp2OutboundHeaders startAndCaptureHeaders(
+      ClientRequestHeadersCache cache, @Nullable String callAuthority) {
+    Mockito.reset(writeQueue);
+    ChannelPromise completedPromise = new DefaultChannelPromise(channel).setSuccess();
+    when(writeQueue.enqueue(any(QueuedCommand.class), anyBoolean())).thenReturn(completedPromise);
+    NettyClientStream stream = new NettyClientStream(
+        new TransportStateImpl(handler, DEFAULT_MAX_MESSAGE_SIZE),
+        methodDescriptor,
+        new Metadata(),
+        channel,
+        cache,
+        StatsTraceContext.NOOP,
+        transportTracer,
+        CallOptions.DEFAULT,
+        false,
+        false);
+    if (callAuthority != null) {
+      stream.setAuthority(callAuthority);
+    }
+    stream.start(mock(ClientStreamListener.class));
+    ArgumentCaptor<CreateStreamCommand> cmdCap = ArgumentCaptor.forClass(CreateStreamCommand.class);
+    verify(writeQueue).enqueue(cmdCap.capture(), eq(false));
+    return (GrpcHttp2OutboundHeaders) cmdCap.getValue().headers();
+  }
+
   @Test
   public void getRequestSentThroughHeader() {
     // Creating a GET method
@@ -477,13 +568,13 @@ public class NettyClientStreamTest extends NettyStreamTestBase<NettyClientStream
         descriptor,
         new Metadata(),
         channel,
-        AsciiString.of("localhost"),
-        AsciiString.of("http"),
-        AsciiString.of("agent"),
+        new ClientRequestHeadersCache(
+            AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent")),
         StatsTraceContext.NOOP,
         transportTracer,
         CallOptions.DEFAULT,
-        true);
+        true,
+        false);
     stream.start(listener);
     stream.transportState().setId(STREAM_ID);
     stream.transportState().setHttp2Stream(http2Stream);
@@ -511,12 +602,12 @@ public class NettyClientStreamTest extends NettyStreamTestBase<NettyClientStream
         methodDescriptor,
         new Metadata(),
         channel,
-        AsciiString.of("localhost"),
-        AsciiString.of("http"),
-        AsciiString.of("agent"),
+        new ClientRequestHeadersCache(
+            AsciiString.of("localhost"), AsciiString.of("http"), AsciiString.of("agent")),
         StatsTraceContext.NOOP,
         transportTracer,
         CallOptions.DEFAULT,
+        false,
         false);
     stream.start(listener);
     stream.transportState().setHttp2Stream(http2Stream);
@@ -193,7 +193,9 @@ public class NettyClientTransportTest {
         newNegotiator(), DEFAULT_WINDOW_SIZE, DEFAULT_MAX_MESSAGE_SIZE,
         GrpcUtil.DEFAULT_MAX_HEADER_LIST_SIZE, KEEPALIVE_TIME_NANOS_DISABLED, 1L, false, authority,
         null /* user agent */, tooManyPingsRunnable, new TransportTracer(), Attributes.EMPTY,
-        new SocketPicker(), new FakeChannelLogger(), false);
+        new SocketPicker(), new FakeChannelLogger(), false, 0, false,
+        WriteQueue.DEFAULT_COALESCING_MAX_BYTES, WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS,
+        Integer.MAX_VALUE);
     transports.add(transport);
     callMeMaybe(transport.start(clientTransportListener));
 
@@ -439,7 +441,8 @@ public class NettyClientTransportTest {
         newNegotiator(), DEFAULT_WINDOW_SIZE, DEFAULT_MAX_MESSAGE_SIZE,
         GrpcUtil.DEFAULT_MAX_HEADER_LIST_SIZE, KEEPALIVE_TIME_NANOS_DISABLED, 1, false, authority,
         null, tooManyPingsRunnable, new TransportTracer(), Attributes.EMPTY, new SocketPicker(),
-        new FakeChannelLogger(), false);
+        new FakeChannelLogger(), false, 0, false, WriteQueue.DEFAULT_COALESCING_MAX_BYTES,
+        WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS, Integer.MAX_VALUE);
     transports.add(transport);
 
     // Should not throw
@@ -709,7 +712,9 @@ public class NettyClientTransportTest {
         negotiator, DEFAULT_WINDOW_SIZE, maxMsgSize, maxHeaderListSize,
         keepAliveTimeNano, keepAliveTimeoutNano,
         false, authority, userAgent, tooManyPingsRunnable,
-        new TransportTracer(), eagAttributes, new SocketPicker(), new FakeChannelLogger(), false);
+        new TransportTracer(), eagAttributes, new SocketPicker(), new FakeChannelLogger(), false,
+        0, false, WriteQueue.DEFAULT_COALESCING_MAX_BYTES,
+        WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS, Integer.MAX_VALUE);
     transports.add(transport);
     return transport;
   }
@@ -727,11 +732,12 @@ public class NettyClientTransportTest {
         Collections.<ServerStreamTracer.Factory>emptyList(),
         TransportTracer.getDefaultFactory(),
         maxStreamsPerConnection,
-        DEFAULT_WINDOW_SIZE, DEFAULT_MAX_MESSAGE_SIZE, maxHeaderListSize,
+        false, DEFAULT_WINDOW_SIZE, DEFAULT_MAX_MESSAGE_SIZE, maxHeaderListSize,
         DEFAULT_SERVER_KEEPALIVE_TIME_NANOS, DEFAULT_SERVER_KEEPALIVE_TIMEOUT_NANOS,
         MAX_CONNECTION_IDLE_NANOS_DISABLED,
         MAX_CONNECTION_AGE_NANOS_DISABLED, MAX_CONNECTION_AGE_GRACE_NANOS_INFINITE, true, 0,
-        channelz);
+        0, false, WriteQueue.DEFAULT_COALESCING_MAX_BYTES,
+        WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS, false, channelz);
     server.start(serverListener);
     address = TestUtils.testServerAddress((InetSocketAddress) server.getListenSocketAddress());
     authority = GrpcUtil.authorityFromHostAndPort(address.getHostString(), address.getPort());
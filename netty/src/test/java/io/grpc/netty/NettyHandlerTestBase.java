@@ -100,6 +100,7 @@ public abstract class NettyHandlerTestBase<T extends Http2ConnectionHandler> {
   protected void manualSetUp() throws Exception {}
 
   protected final TransportTracer transportTracer = new TransportTracer();
+  protected boolean autoFlowControl;
   protected int flowControlWindow = DEFAULT_WINDOW_SIZE;
 
   private final FakeClock fakeClock = new FakeClock();
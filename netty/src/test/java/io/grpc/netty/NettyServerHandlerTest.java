@@ -136,6 +136,7 @@ public class NettyServerHandlerTest extends NettyHandlerTestBase<NettyServerHand
   private int maxHeaderListSize = Integer.MAX_VALUE;
   private boolean permitKeepAliveWithoutCalls = true;
   private long permitKeepAliveTimeInNanos = 0;
+  private boolean writeCoalescing;
   private long maxConnectionIdleInNanos = MAX_CONNECTION_IDLE_NANOS_DISABLED;
   private long maxConnectionAgeInNanos = MAX_CONNECTION_AGE_NANOS_DISABLED;
   private long maxConnectionAgeGraceInNanos = MAX_CONNECTION_AGE_GRACE_NANOS_INFINITE;
@@ -410,6 +411,35 @@ public class NettyServerHandlerTest extends NettyHandlerTestBase<NettyServerHand
     assertEquals(flowControlWindow, actualInitialWindowSize);
   }
 
+  @Test
+  public void autoFlowControl_disabledByDefault() throws Exception {
+    manualSetUp();
+    makeStream();
+
+    channelRead(dataFrame(STREAM_ID, false, content()));
+
+    assertEquals(0, handler().flowControlPing().getPingCount());
+  }
+
+  @Test
+  public void autoFlowControl_growsWindowToMeasuredBdp() throws Exception {
+    autoFlowControl = true;
+    manualSetUp();
+    makeStream();
+    Http2Stream connectionStream = connection().connectionStream();
+    Http2LocalFlowController localFlowController = connection().local().flowController();
+
+    channelRead(dataFrame(STREAM_ID, false, content()));
+    assertEquals(1, handler().flowControlPing().getPingCount());
+
+    int bdp = 4 * flowControlWindow;
+    handler().flowControlPing().setDataSizeAndSincePing(bdp);
+    channelRead(pingFrame(true, handler().flowControlPing().payload()));
+
+    assertEquals(2 * bdp, localFlowController.initialWindowSize(connectionStream));
+    assertEquals(2 * bdp, transportTracer.getStats().localFlowControlWindow);
+  }
+
   @Test
   public void cancelShouldSendRstStream() throws Exception {
     manualSetUp();
@@ -1093,6 +1123,7 @@ public class NettyServerHandlerTest extends NettyHandlerTestBase<NettyServerHand
         Arrays.asList(streamTracerFactory),
         transportTracer,
         maxConcurrentStreams,
+        autoFlowControl,
         flowControlWindow,
         maxHeaderListSize,
         DEFAULT_MAX_MESSAGE_SIZE,
@@ -1102,7 +1133,11 @@ public class NettyServerHandlerTest extends NettyHandlerTestBase<NettyServerHand
         maxConnectionAgeInNanos,
         maxConnectionAgeGraceInNanos,
         permitKeepAliveWithoutCalls,
-        permitKeepAliveTimeInNanos);
+        permitKeepAliveTimeInNanos,
+        0,
+        writeCoalescing,
+        WriteQueue.DEFAULT_COALESCING_MAX_BYTES,
+        WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS);
   }
 
   @Override
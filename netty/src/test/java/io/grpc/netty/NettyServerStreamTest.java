@@ -21,6 +21,7 @@ import static io.grpc.internal.GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE;
 import static io.grpc.netty.NettyTestUtil.messageFrame;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.atLeastOnce;
@@ -124,6 +125,31 @@ public class NettyServerStreamTest extends NettyStreamTestBase<NettyServerStream
         eq(true));
   }
 
+  @Test
+  public void writeMessageWithWriteCoalescingShouldDeferFlush() throws Exception {
+    stream.writeHeaders(new Metadata());
+    stream.setWriteCoalescing(true);
+
+    byte[] msg = smallMessage();
+    stream.writeMessage(new ByteArrayInputStream(msg));
+    stream.flush();
+
+    verify(writeQueue).enqueueCoalesced(
+        eq(new SendGrpcFrameCommand(stream.transportState(), messageFrame(MESSAGE), false)),
+        anyInt());
+    verify(writeQueue, never()).enqueue(any(SendGrpcFrameCommand.class), eq(true));
+  }
+
+  @Test
+  public void setStreamWeightShouldBeQueuedWithWrites() throws Exception {
+    stream().setStreamWeight(64);
+
+    ArgumentCaptor<Runnable> runnableCap = ArgumentCaptor.forClass(Runnable.class);
+    verify(writeQueue).enqueue(runnableCap.capture(), eq(false));
+    runnableCap.getValue().run();
+    verify(handler).setStreamWeight(STREAM_ID, (short) 64);
+  }
+
   @Test
   public void writeHeadersShouldSendHeaders() throws Exception {
     Metadata headers = new Metadata();
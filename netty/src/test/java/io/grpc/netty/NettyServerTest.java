@@ -19,31 +19,51 @@ package io.grpc.netty;
 import static com.google.common.truth.Truth.assertThat;
 import static io.grpc.InternalChannelz.id;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.util.concurrent.SettableFuture;
 import io.grpc.Attributes;
 import io.grpc.InternalChannelz;
 import io.grpc.InternalChannelz.SocketStats;
 import io.grpc.InternalInstrumented;
+import io.grpc.ManagedChannel;
 import io.grpc.Metadata;
+import io.grpc.Server;
 import io.grpc.ServerStreamTracer;
+import io.grpc.internal.FixedObjectPool;
 import io.grpc.internal.ServerListener;
 import io.grpc.internal.ServerStream;
 import io.grpc.internal.ServerTransport;
 import io.grpc.internal.ServerTransportListener;
 import io.grpc.internal.SharedResourcePool;
 import io.grpc.internal.TransportTracer;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.protobuf.SimpleRequest;
+import io.grpc.testing.protobuf.SimpleResponse;
+import io.grpc.testing.protobuf.SimpleServiceGrpc;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ReflectiveChannelFactory;
 import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -66,6 +86,7 @@ public class NettyServerTest {
         Collections.<ServerStreamTracer.Factory>emptyList(),
         TransportTracer.getDefaultFactory(),
         1, // ignore
+        false, // ignore
         1, // ignore
         1, // ignore
         1, // ignore
@@ -73,6 +94,8 @@ public class NettyServerTest {
         1, 1, // ignore
         1, 1, // ignore
         true, 0, // ignore
+        0, false, 1, 0, // ignore
+        false, // ignore
         channelz);
     ns.start(new ServerListener() {
       @Override
@@ -104,6 +127,7 @@ public class NettyServerTest {
         Collections.<ServerStreamTracer.Factory>emptyList(),
         TransportTracer.getDefaultFactory(),
         1, // ignore
+        false, // ignore
         1, // ignore
         1, // ignore
         1, // ignore
@@ -111,6 +135,8 @@ public class NettyServerTest {
         1, 1, // ignore
         1, 1, // ignore
         true, 0, // ignore
+        0, false, 1, 0, // ignore
+        false, // ignore
         channelz);
 
     assertThat(ns.getListenSocketAddress()).isEqualTo(addr);
@@ -142,6 +168,7 @@ public class NettyServerTest {
         Collections.<ServerStreamTracer.Factory>emptyList(),
         TransportTracer.getDefaultFactory(),
         1, // ignore
+        false, // ignore
         1, // ignore
         1, // ignore
         1, // ignore
@@ -149,6 +176,8 @@ public class NettyServerTest {
         1, 1, // ignore
         1, 1, // ignore
         true, 0, // ignore
+        0, false, 1, 0, // ignore
+        false, // ignore
         channelz);
     ns.start(new ServerListener() {
       @Override
@@ -192,6 +221,7 @@ public class NettyServerTest {
         Collections.<ServerStreamTracer.Factory>emptyList(),
         TransportTracer.getDefaultFactory(),
         1, // ignore
+        false, // ignore
         1, // ignore
         1, // ignore
         1, // ignore
@@ -199,6 +229,8 @@ public class NettyServerTest {
         1, 1, // ignore
         1, 1, // ignore
         true, 0, // ignore
+        0, false, 1, 0, // ignore
+        false, // ignore
         channelz);
     final SettableFuture<Void> shutdownCompleted = SettableFuture.create();
     ns.start(new ServerListener() {
@@ -234,6 +266,131 @@ public class NettyServerTest {
     assertNull(channelz.getSocket(id(listenSocket)));
   }
 
+  @Test
+  public void eventLoopAffinity_pairsCallExecutorWithEventLoop() throws Exception {
+    NioEventLoopGroup workerGroup = new NioEventLoopGroup(1);
+    final List<ServerTransport> transports = new CopyOnWriteArrayList<>();
+    final CountDownLatch transportsCreated = new CountDownLatch(2);
+    InetSocketAddress addr = new InetSocketAddress(0);
+    NettyServer ns = new NettyServer(
+        addr,
+        new ReflectiveChannelFactory<>(NioServerSocketChannel.class),
+        new HashMap<ChannelOption<?>, Object>(),
+        new FixedObjectPool<>(workerGroup),
+        new FixedObjectPool<>(workerGroup),
+        ProtocolNegotiators.plaintext(),
+        Collections.<ServerStreamTracer.Factory>emptyList(),
+        TransportTracer.getDefaultFactory(),
+        1, // ignore
+        false, // ignore
+        1, // ignore
+        1, // ignore
+        1, // ignore
+        1, // ignore
+        1, 1, // ignore
+        1, 1, // ignore
+        true, 0, // ignore
+        0, false, 1, 0, // ignore
+        true,
+        channelz);
+    ns.start(new ServerListener() {
+      @Override
+      public ServerTransportListener transportCreated(ServerTransport transport) {
+        transports.add(transport);
+        transportsCreated.countDown();
+        return new NoopServerTransportListener();
+      }
+
+      @Override
+      public void serverShutdown() {}
+    });
+
+    Socket socket1 = new Socket();
+    socket1.connect(ns.getListenSocketAddress(), /* timeout= */ 8000);
+    Socket socket2 = new Socket();
+    socket2.connect(ns.getListenSocketAddress(), /* timeout= */ 8000);
+    assertTrue(transportsCreated.await(5, TimeUnit.SECONDS));
+
+    // Both connections are served by the only event loop, so share its call executor.
+    Executor callExecutor = transports.get(0).getCallExecutor();
+    assertNotNull(callExecutor);
+    assertNotSame(workerGroup.next(), callExecutor);
+    assertSame(callExecutor, transports.get(1).getCallExecutor());
+
+    socket1.close();
+    socket2.close();
+    ns.shutdown();
+    workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void eventLoopAffinity_callExecutorsSharedPerWorkerGroup() throws Exception {
+    NioEventLoopGroup workerGroup = new NioEventLoopGroup(1);
+    EventLoopCallExecutors executors1 = EventLoopCallExecutors.acquire(workerGroup);
+    EventLoopCallExecutors executors2 = EventLoopCallExecutors.acquire(workerGroup);
+    assertSame(executors1, executors2);
+    Executor callExecutor = executors1.forEventLoop(workerGroup.next());
+    assertNotNull(callExecutor);
+
+    executors1.release();
+    assertSame(executors2, EventLoopCallExecutors.acquire(workerGroup));
+    executors2.release();
+    executors2.release();
+    assertTrue(((EventExecutor) callExecutor).isShuttingDown());
+
+    // Once released by every server, the next one gets a fresh pairing.
+    EventLoopCallExecutors executors3 = EventLoopCallExecutors.acquire(workerGroup);
+    assertNotSame(executors1, executors3);
+    executors3.release();
+    workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void eventLoopAffinity_callbacksRunWhenConnectionDropsAfterServerShutdown()
+      throws Exception {
+    final CountDownLatch callStarted = new CountDownLatch(1);
+    final CountDownLatch callCancelled = new CountDownLatch(1);
+    Server server = NettyServerBuilder.forPort(0)
+        .eventLoopAffinity(true)
+        .addService(new SimpleServiceGrpc.SimpleServiceImplBase() {
+          @Override
+          public void unaryRpc(
+              SimpleRequest request, StreamObserver<SimpleResponse> responseObserver) {
+            ((ServerCallStreamObserver<SimpleResponse>) responseObserver).setOnCancelHandler(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    callCancelled.countDown();
+                  }
+                });
+            callStarted.countDown();
+          }
+        })
+        .build()
+        .start();
+    NioEventLoopGroup clientGroup = new NioEventLoopGroup(1);
+    ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+        .eventLoopGroup(clientGroup)
+        .channelType(NioSocketChannel.class)
+        .usePlaintext()
+        .build();
+    try {
+      SimpleServiceGrpc.newFutureStub(channel).unaryRpc(SimpleRequest.getDefaultInstance());
+      assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+
+      // The server waits for the call, until the connection drops without the client cancelling
+      // it. That connection is the last user of the paired call executors.
+      server.shutdown();
+      clientGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+      assertTrue(callCancelled.await(5, TimeUnit.SECONDS));
+      assertTrue(server.awaitTermination(5, TimeUnit.SECONDS));
+    } finally {
+      channel.shutdownNow();
+      server.shutdownNow();
+      clientGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+    }
+  }
+
   private static class NoopServerTransportListener implements ServerTransportListener {
     @Override public void streamCreated(ServerStream stream, String method, Metadata headers) {}
 
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -98,6 +99,8 @@ public abstract class NettyStreamTestBase<T extends Stream> {
     when(channel.write(any())).thenReturn(completedPromise);
     when(channel.writeAndFlush(any())).thenReturn(completedPromise);
     when(writeQueue.enqueue(any(QueuedCommand.class), anyBoolean())).thenReturn(completedPromise);
+    when(writeQueue.enqueueCoalesced(any(QueuedCommand.class), anyInt()))
+        .thenReturn(completedPromise);
     when(pipeline.firstContext()).thenReturn(ctx);
     when(eventLoop.inEventLoop()).thenReturn(true);
     when(http2Stream.id()).thenReturn(STREAM_ID);
@@ -19,12 +19,16 @@ package io.grpc.netty;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableListMultimap;
 import io.grpc.InternalChannelz;
 import io.grpc.InternalChannelz.SocketOptions;
+import io.grpc.InternalStatus;
 import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.internal.GrpcUtil;
@@ -131,6 +135,42 @@ public class UtilsTest {
     assertEquals(Utils.CONTENT_TYPE_GRPC, headers.get(GrpcUtil.CONTENT_TYPE_KEY.name()));
   }
 
+  @Test
+  public void convertTrailers_statusOnlyIsShared() {
+    for (Status.Code code : Status.Code.values()) {
+      for (boolean headersSent : new boolean[] {true, false}) {
+        Metadata trailers = new Metadata();
+        trailers.put(InternalStatus.CODE_KEY, code.toStatus());
+        Http2Headers output = Utils.convertTrailers(trailers, headersSent, code.toStatus());
+
+        Metadata expected = new Metadata();
+        expected.put(InternalStatus.CODE_KEY, code.toStatus());
+        assertThat(ImmutableListMultimap.copyOf(output)).containsExactlyEntriesIn(
+            ImmutableListMultimap.copyOf(Utils.convertTrailers(expected, headersSent))).inOrder();
+        assertSame(output, Utils.convertTrailers(trailers, headersSent, code.toStatus()));
+      }
+    }
+  }
+
+  @Test
+  public void convertTrailers_withDescriptionOrCustomTrailersIsConverted() {
+    Status status = Status.NOT_FOUND.withDescription("missing");
+    Metadata trailers = new Metadata();
+    trailers.put(InternalStatus.CODE_KEY, status);
+    trailers.put(InternalStatus.MESSAGE_KEY, status.getDescription());
+    assertThat(ImmutableListMultimap.copyOf(Utils.convertTrailers(trailers, true, status)))
+        .containsEntry(AsciiString.of("grpc-message"), AsciiString.of("missing"));
+
+    trailers = new Metadata();
+    trailers.put(InternalStatus.CODE_KEY, Status.OK);
+    trailers.put(userKey, userValue);
+    Http2Headers output = Utils.convertTrailers(trailers, true, Status.OK);
+    assertThat(ImmutableListMultimap.copyOf(output))
+        .containsEntry(AsciiString.of(userKey.name()), AsciiString.of(userValue));
+    assertThat(ImmutableListMultimap.copyOf(output))
+        .containsEntry(AsciiString.of("grpc-status"), AsciiString.of("0"));
+  }
+
   @Test
   public void channelOptionsTest_noLinger() {
     Channel channel = new EmbeddedChannel();
@@ -221,4 +261,36 @@ public class UtilsTest {
 
     assertThat(Utils.maybeGetTcpUserTimeoutOption()).isNotNull();
   }
+
+  @Test
+  public void nettySupportsIoUring() {
+    assertFalse(Utils.nettySupportsIoUring("4.1.42.Final"));
+    assertFalse(Utils.nettySupportsIoUring("4.1.51.Final"));
+    assertFalse(Utils.nettySupportsIoUring("4.0.60.Final"));
+    assertTrue(Utils.nettySupportsIoUring("4.1.52.Final"));
+    assertTrue(Utils.nettySupportsIoUring("4.1.100.Final-SNAPSHOT"));
+    assertTrue(Utils.nettySupportsIoUring("4.2.0.Final"));
+    assertFalse(Utils.nettySupportsIoUring("unknown"));
+    assertFalse(Utils.nettySupportsIoUring("4.1.x"));
+  }
+
+  @Test
+  public void ioUringEventLoopGroupAndChannelTypes_whenIoUringIsAvailable() {
+    assume().that(Utils.isIoUringAvailable()).isTrue();
+
+    EventLoopGroup bossGroup = Utils.IO_URING_BOSS_EVENT_LOOP_GROUP.create();
+    EventLoopGroup workerGroup = Utils.IO_URING_WORKER_EVENT_LOOP_GROUP.create();
+
+    assertThat(bossGroup.getClass().getName())
+        .isEqualTo("io.netty.incubator.channel.uring.IOUringEventLoopGroup");
+    assertThat(workerGroup.getClass().getName())
+        .isEqualTo("io.netty.incubator.channel.uring.IOUringEventLoopGroup");
+    assertThat(Utils.ioUringChannelType().getName())
+        .isEqualTo("io.netty.incubator.channel.uring.IOUringSocketChannel");
+    assertThat(Utils.ioUringServerChannelType().getName())
+        .isEqualTo("io.netty.incubator.channel.uring.IOUringServerSocketChannel");
+
+    bossGroup.shutdownGracefully();
+    workerGroup.shutdownGracefully();
+  }
 }
@@ -16,21 +16,28 @@
 
 package io.grpc.netty;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.grpc.InternalChannelz.TransportStats;
+import io.grpc.internal.TransportTracer;
 import io.grpc.netty.WriteQueue.QueuedCommand;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Before;
 import org.junit.Rule;
@@ -38,6 +45,7 @@ import org.junit.Test;
 import org.junit.rules.Timeout;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -58,6 +66,8 @@ public class WriteQueueTest {
   @Mock
   public ChannelPromise promise;
 
+  private EventLoop eventLoop;
+
   private long writeCalledNanos;
   private long flushCalledNanos = writeCalledNanos;
 
@@ -69,7 +79,7 @@ public class WriteQueueTest {
     MockitoAnnotations.initMocks(this);
     when(channel.newPromise()).thenReturn(promise);
 
-    EventLoop eventLoop = Mockito.mock(EventLoop.class);
+    eventLoop = Mockito.mock(EventLoop.class);
     doAnswer(new Answer<Void>() {
       @Override
       public Void answer(InvocationOnMock invocation) throws Throwable {
@@ -201,6 +211,120 @@ public class WriteQueueTest {
     verify(channel, times(writes)).write(isA(CuteCommand.class), eq(promise));
   }
 
+  @Test
+  public void coalescedWritesFlushedAfterDelay() {
+    WriteQueue queue = newCoalescingQueue(1000, TimeUnit.MICROSECONDS.toNanos(50));
+    for (int i = 0; i < 3; i++) {
+      queue.enqueueCoalesced(new CuteCommand(), 10);
+    }
+
+    verify(channel, never()).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel, never()).flush();
+    ArgumentCaptor<Runnable> deadline = ArgumentCaptor.forClass(Runnable.class);
+    verify(eventLoop).schedule(
+        deadline.capture(), eq(TimeUnit.MICROSECONDS.toNanos(50)), eq(TimeUnit.NANOSECONDS));
+
+    deadline.getValue().run();
+    verify(channel, times(3)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+
+    // The next coalesced write arms a new deadline.
+    queue.enqueueCoalesced(new CuteCommand(), 10);
+    verify(eventLoop, times(2)).schedule(
+        any(Runnable.class), eq(TimeUnit.MICROSECONDS.toNanos(50)), eq(TimeUnit.NANOSECONDS));
+  }
+
+  @Test
+  public void coalescedWritesFlushedOnceByteBudgetReached() {
+    WriteQueue queue = newCoalescingQueue(100, TimeUnit.SECONDS.toNanos(1));
+    queue.enqueueCoalesced(new CuteCommand(), 60);
+    verify(channel, never()).flush();
+
+    queue.enqueueCoalesced(new CuteCommand(), 60);
+    verify(channel, times(2)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+
+    // The budget starts over after the flush.
+    queue.enqueueCoalesced(new CuteCommand(), 60);
+    verify(channel).flush();
+  }
+
+  @Test
+  public void coalescedWritesFlushedWithUncoalescedWrite() {
+    WriteQueue queue = newCoalescingQueue(100, TimeUnit.SECONDS.toNanos(1));
+    queue.enqueueCoalesced(new CuteCommand(), 10);
+    queue.enqueue(new CuteCommand(), true);
+
+    verify(channel, times(2)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+  }
+
+  @Test
+  public void coalescingWithoutDelayFlushesImmediately() {
+    WriteQueue queue = newCoalescingQueue(100, 0);
+    queue.enqueueCoalesced(new CuteCommand(), 10);
+
+    verify(channel).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+  }
+
+  @Test
+  public void flushDeferredWhilePendingAndUnderByteBudget() {
+    TransportTracer transportTracer = new TransportTracer();
+    WriteQueue queue = new WriteQueue(channel, transportTracer, TimeUnit.HOURS.toNanos(1),
+        WriteQueue.DEFAULT_COALESCING_MAX_BYTES, WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS);
+    int writes = 3 * WriteQueue.DEQUE_CHUNK_SIZE + 10;
+    for (int i = 0; i < writes; i++) {
+      queue.enqueue(new CuteCommand(), false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(writes)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+    assertEquals(1, transportTracer.getStats().flushes);
+  }
+
+  @Test
+  public void flushNotDeferredOverByteBudget() {
+    // Even while the channel itself is writable, since written DATA frames may be waiting in the
+    // flow controller.
+    when(channel.isWritable()).thenReturn(true);
+    TransportTracer transportTracer = new TransportTracer();
+    WriteQueue queue = new WriteQueue(channel, transportTracer, TimeUnit.HOURS.toNanos(1),
+        WriteQueue.DEFAULT_COALESCING_MAX_BYTES, WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS);
+    int frameSize = WriteQueue.MAX_DEFERRED_FLUSH_BYTES / WriteQueue.DEQUE_CHUNK_SIZE;
+    int writes = WriteQueue.DEQUE_CHUNK_SIZE + 10;
+    for (int i = 0; i < writes; i++) {
+      queue.enqueue(new SendGrpcFrameCommand(
+          mock(StreamIdHolder.class), Unpooled.wrappedBuffer(new byte[frameSize]), false), false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(2)).flush();
+    assertEquals(2, transportTracer.getStats().flushes);
+    assertEquals((long) frameSize * writes, transportTracer.getStats().flushedBytes);
+  }
+
+  @Test
+  public void flushesReportedToTransportTracer() {
+    TransportTracer transportTracer = new TransportTracer();
+    WriteQueue queue = new WriteQueue(channel, transportTracer, 0,
+        WriteQueue.DEFAULT_COALESCING_MAX_BYTES, WriteQueue.DEFAULT_COALESCING_MAX_DELAY_NANOS);
+    queue.enqueue(new SendGrpcFrameCommand(
+        mock(StreamIdHolder.class), Unpooled.wrappedBuffer(new byte[10]), false), false);
+    queue.enqueue(new SendGrpcFrameCommand(
+        mock(StreamIdHolder.class), Unpooled.wrappedBuffer(new byte[5]), false), true);
+    queue.enqueue(new CuteCommand(), true);
+
+    TransportStats stats = transportTracer.getStats();
+    assertEquals(2, stats.flushes);
+    assertEquals(15, stats.flushedBytes);
+  }
+
+  private WriteQueue newCoalescingQueue(int maxBytes, long maxDelayNanos) {
+    return new WriteQueue(channel, new TransportTracer(), 0, maxBytes, maxDelayNanos);
+  }
+
   static class CuteCommand extends WriteQueue.AbstractQueuedCommand {
 
   }
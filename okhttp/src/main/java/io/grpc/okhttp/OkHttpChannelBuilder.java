@@ -126,6 +126,7 @@ public class OkHttpChannelBuilder extends
   private long keepAliveTimeNanos = KEEPALIVE_TIME_NANOS_DISABLED;
   private long keepAliveTimeoutNanos = DEFAULT_KEEPALIVE_TIMEOUT_NANOS;
   private int flowControlWindow = DEFAULT_FLOW_CONTROL_WINDOW;
+  private boolean autoFlowControl;
   private boolean keepAliveWithoutCalls;
   private int maxInboundMetadataSize = Integer.MAX_VALUE;
 
@@ -230,13 +231,31 @@ public class OkHttpChannelBuilder extends
     return this;
   }
 
+  /**
+   * Sets the initial flow control window in bytes and enables auto-tuning of the window. Each
+   * connection then measures its bandwidth-delay product with PING frames while receiving data, and
+   * raises the window of the connection and its streams up to twice the measured product, at most 8
+   * MiB. Use {@link #flowControlWindow} for a fixed window instead.
+   *
+   * @since 1.26.0
+   */
+  public OkHttpChannelBuilder initialFlowControlWindow(int initialFlowControlWindow) {
+    Preconditions.checkArgument(
+        initialFlowControlWindow > 0, "initialFlowControlWindow must be positive");
+    this.flowControlWindow = initialFlowControlWindow;
+    this.autoFlowControl = true;
+    return this;
+  }
+
   /**
    * Sets the flow control window in bytes. If not called, the default value
-   * is {@link #DEFAULT_FLOW_CONTROL_WINDOW}).
+   * is {@link #DEFAULT_FLOW_CONTROL_WINDOW}). This disables the auto-tuning enabled by {@link
+   * #initialFlowControlWindow}.
    */
   public OkHttpChannelBuilder flowControlWindow(int flowControlWindow) {
     Preconditions.checkState(flowControlWindow > 0, "flowControlWindow must be positive");
     this.flowControlWindow = flowControlWindow;
+    this.autoFlowControl = false;
     return this;
   }
 
@@ -395,6 +414,7 @@ public class OkHttpChannelBuilder extends
         keepAliveTimeNanos,
         keepAliveTimeoutNanos,
         flowControlWindow,
+        autoFlowControl,
         keepAliveWithoutCalls,
         maxInboundMetadataSize,
         transportTracerFactory,
@@ -453,6 +473,7 @@ public class OkHttpChannelBuilder extends
     private final AtomicBackoff keepAliveTimeNanos;
     private final long keepAliveTimeoutNanos;
     private final int flowControlWindow;
+    private final boolean autoFlowControl;
     private final boolean keepAliveWithoutCalls;
     private final int maxInboundMetadataSize;
     private final ScheduledExecutorService timeoutService;
@@ -471,6 +492,7 @@ public class OkHttpChannelBuilder extends
         long keepAliveTimeNanos,
         long keepAliveTimeoutNanos,
         int flowControlWindow,
+        boolean autoFlowControl,
         boolean keepAliveWithoutCalls,
         int maxInboundMetadataSize,
         TransportTracer.Factory transportTracerFactory,
@@ -487,6 +509,7 @@ public class OkHttpChannelBuilder extends
       this.keepAliveTimeNanos = new AtomicBackoff("keepalive time nanos", keepAliveTimeNanos);
       this.keepAliveTimeoutNanos = keepAliveTimeoutNanos;
       this.flowControlWindow = flowControlWindow;
+      this.autoFlowControl = autoFlowControl;
       this.keepAliveWithoutCalls = keepAliveWithoutCalls;
       this.maxInboundMetadataSize = maxInboundMetadataSize;
       this.useGetForSafeMethods = useGetForSafeMethods;
@@ -538,6 +561,9 @@ public class OkHttpChannelBuilder extends
         transport.enableKeepAlive(
             true, keepAliveTimeNanosState.get(), keepAliveTimeoutNanos, keepAliveWithoutCalls);
       }
+      if (autoFlowControl) {
+        transport.enableAutoFlowControl();
+      }
       return transport;
     }
 
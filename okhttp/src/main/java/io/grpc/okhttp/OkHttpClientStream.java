@@ -58,6 +58,7 @@ class OkHttpClientStream extends AbstractClientStream {
   private final TransportState state;
   private final Sink sink = new Sink();
   private final Attributes attributes;
+  private final int weight;
 
   private boolean useGet = false;
 
@@ -91,6 +92,8 @@ class OkHttpClientStream extends AbstractClientStream {
     // so it is safe to read the transport attributes.
     // We make a copy here for convenience, even though we can ask the transport.
     this.attributes = transport.getAttributes();
+    Integer weight = callOptions.getStreamWeight();
+    this.weight = weight != null ? weight : Utils.DEFAULT_STREAM_WEIGHT;
     this.state =
         new TransportState(
             maxMessageSize,
@@ -124,6 +127,13 @@ class OkHttpClientStream extends AbstractClientStream {
     return id;
   }
 
+  /**
+   * Returns the weight of this stream when sharing the connection's outbound window.
+   */
+  int weight() {
+    return weight;
+  }
+
   /**
    * Returns whether the stream uses GET. This is not known until after {@link Sink#writeHeaders} is
    * invoked.
@@ -211,7 +221,8 @@ class OkHttpClientStream extends AbstractClientStream {
   }
 
   class TransportState extends Http2ClientStreamTransportState {
-    private final int initialWindowSize;
+    @GuardedBy("lock")
+    private int initialWindowSize;
     private final Object lock;
     @GuardedBy("lock")
     private List<Header> requestHeaders;
@@ -306,6 +317,21 @@ class OkHttpClientStream extends AbstractClientStream {
       }
     }
 
+    /**
+     * Applies a larger initial window size sent to the server. As defined for {@code
+     * SETTINGS_INITIAL_WINDOW_SIZE}, the window grows by the difference with the previous size.
+     */
+    @GuardedBy("lock")
+    void raiseInitialWindowSize(int newInitialWindowSize) {
+      int delta = newInitialWindowSize - initialWindowSize;
+      if (delta <= 0) {
+        return;
+      }
+      initialWindowSize = newInitialWindowSize;
+      window += delta;
+      processedWindow += delta;
+    }
+
     @Override
     @GuardedBy("lock")
     public void deframerClosed(boolean hasPartialMessage) {
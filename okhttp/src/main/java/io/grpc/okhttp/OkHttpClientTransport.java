@@ -84,6 +84,7 @@ import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -161,7 +162,16 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
   // Wrap on executor, to guarantee some operations be executed serially.
   private final SerializingExecutor serializingExecutor;
   private final int maxMessageSize;
+  @GuardedBy("lock")
   private int connectionUnacknowledgedBytesRead;
+  /**
+   * The window size of the connection and initial window size of streams, which starts at {@link
+   * #initialWindowSize} and may be raised by auto flow control.
+   */
+  @GuardedBy("lock")
+  private int localWindowSize;
+  private boolean autoFlowControl;
+  private final FlowControlPinger flowControlPing = new FlowControlPinger();
   private ClientFrameHandler clientFrameHandler;
   // Caution: Not synchronized, new value can only be safely read after the connection is complete.
   private Attributes attributes;
@@ -246,6 +256,7 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
     this.defaultAuthority = authority;
     this.maxMessageSize = maxMessageSize;
     this.initialWindowSize = initialWindowSize;
+    this.localWindowSize = initialWindowSize;
     this.executor = Preconditions.checkNotNull(executor, "executor");
     serializingExecutor = new SerializingExecutor(executor);
     // Client initiated streams are odd, server initiated ones are even. Server should not need to
@@ -292,6 +303,7 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
     address = null;
     this.maxMessageSize = maxMessageSize;
     this.initialWindowSize = initialWindowSize;
+    this.localWindowSize = initialWindowSize;
     defaultAuthority = "notarealauthority:80";
     this.userAgent = GrpcUtil.getGrpcUserAgent("okhttp", userAgent);
     this.executor = Preconditions.checkNotNull(executor, "executor");
@@ -326,7 +338,7 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
         @Override
         public TransportTracer.FlowControlWindows read() {
           synchronized (lock) {
-            long local = -1; // okhttp does not track the local window size
+            long local = localWindowSize - connectionUnacknowledgedBytesRead;
             long remote = outboundFlow == null ? -1 : outboundFlow.windowUpdate(null, 0);
             return new TransportTracer.FlowControlWindows(local, remote);
           }
@@ -346,6 +358,14 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
     this.keepAliveWithoutCalls = keepAliveWithoutCalls;
   }
 
+  /**
+   * Enables auto-tuning of the local flow control window, based on the bandwidth-delay product
+   * measured with PING frames while receiving data.
+   */
+  void enableAutoFlowControl() {
+    autoFlowControl = true;
+  }
+
   private boolean isForTest() {
     return address == null;
   }
@@ -401,7 +421,7 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
           outboundFlow,
           lock,
           maxMessageSize,
-          initialWindowSize,
+          localWindowSize,
           defaultAuthority,
           userAgent,
           statsTraceCtx,
@@ -430,6 +450,8 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
         stream.id() == OkHttpClientStream.ABSENT_ID, "StreamId already assigned");
     streams.put(nextStreamId, stream);
     setInUse(stream);
+    // The window may have grown since the stream was created.
+    stream.transportState().raiseInitialWindowSize(localWindowSize);
     stream.transportState().start(nextStreamId);
     // For unary and server streaming, there will be a data frame soon, no need to flush the header.
     if ((stream.getType() != MethodType.UNARY && stream.getType() != MethodType.SERVER_STREAMING)
@@ -605,7 +627,13 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
       synchronized (lock) {
         frameWriter.connectionPreface();
         Settings settings = new Settings();
+        OkHttpSettingsUtil.set(settings, OkHttpSettingsUtil.INITIAL_WINDOW_SIZE, initialWindowSize);
         frameWriter.settings(settings);
+        if (initialWindowSize > Utils.DEFAULT_WINDOW_SIZE) {
+          // SETTINGS only apply to streams, the connection window has to be updated separately.
+          frameWriter.windowUpdate(
+              Utils.CONNECTION_STREAM_ID, initialWindowSize - Utils.DEFAULT_WINDOW_SIZE);
+        }
       }
     } finally {
       latch.countDown();
@@ -1055,6 +1083,88 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
     }
   }
 
+  /**
+   * Auto-tunes the local flow control window, like the Netty transport. While data is received, a
+   * PING is kept outstanding; when it is acknowledged, the bytes received meanwhile approximate the
+   * bandwidth-delay product, and the window is raised to twice that if the bandwidth grew. Only
+   * used from the frame reader thread.
+   */
+  @VisibleForTesting
+  final class FlowControlPinger {
+    static final long BDP_MEASUREMENT_PING = 1234;
+    static final int MAX_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    private boolean pinging;
+    private int dataSizeSincePing;
+    private long lastPingTime;
+    private long lastBandwidth; // bytes per second
+    private int pingCount;
+
+    void onDataRead(int dataLength) {
+      if (!autoFlowControl) {
+        return;
+      }
+      if (!pinging) {
+        pinging = true;
+        dataSizeSincePing = 0;
+        lastPingTime = System.nanoTime();
+        pingCount++;
+        synchronized (lock) {
+          frameWriter.ping(
+              false, (int) (BDP_MEASUREMENT_PING >>> 32), (int) BDP_MEASUREMENT_PING);
+        }
+      }
+      dataSizeSincePing += dataLength;
+    }
+
+    void updateWindow() {
+      if (!autoFlowControl) {
+        return;
+      }
+      pinging = false;
+      long elapsedTime = Math.max(System.nanoTime() - lastPingTime, 1);
+      long bandwidth = dataSizeSincePing * TimeUnit.SECONDS.toNanos(1) / elapsedTime;
+      // Double the observed BDP, but cap at max window
+      int targetWindow = (int) Math.min(dataSizeSincePing * 2L, MAX_WINDOW_SIZE);
+      synchronized (lock) {
+        if (targetWindow <= localWindowSize || bandwidth <= lastBandwidth) {
+          return;
+        }
+        lastBandwidth = bandwidth;
+        int increase = targetWindow - localWindowSize;
+        localWindowSize = targetWindow;
+        Settings settings = new Settings();
+        OkHttpSettingsUtil.set(settings, OkHttpSettingsUtil.INITIAL_WINDOW_SIZE, targetWindow);
+        frameWriter.settings(settings);
+        frameWriter.windowUpdate(Utils.CONNECTION_STREAM_ID, increase);
+        for (OkHttpClientStream stream : streams.values()) {
+          stream.transportState().raiseInitialWindowSize(targetWindow);
+        }
+      }
+    }
+
+    @VisibleForTesting
+    int getPingCount() {
+      return pingCount;
+    }
+
+    @VisibleForTesting
+    int getDataSincePing() {
+      return dataSizeSincePing;
+    }
+
+    @VisibleForTesting
+    void setDataSizeSincePing(int dataSize) {
+      dataSizeSincePing = dataSize;
+      lastPingTime = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+    }
+  }
+
+  @VisibleForTesting
+  FlowControlPinger flowControlPing() {
+    return flowControlPing;
+  }
+
   /**
    * Runnable which reads frames and dispatches them to in flight calls.
    */
@@ -1141,13 +1251,14 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
       }
 
       // connection window update
-      connectionUnacknowledgedBytesRead += length;
-      if (connectionUnacknowledgedBytesRead >= initialWindowSize * DEFAULT_WINDOW_UPDATE_RATIO) {
-        synchronized (lock) {
+      synchronized (lock) {
+        connectionUnacknowledgedBytesRead += length;
+        if (connectionUnacknowledgedBytesRead >= localWindowSize * DEFAULT_WINDOW_UPDATE_RATIO) {
           frameWriter.windowUpdate(0, connectionUnacknowledgedBytesRead);
+          connectionUnacknowledgedBytesRead = 0;
         }
-        connectionUnacknowledgedBytesRead = 0;
       }
+      flowControlPing.onDataRead(length);
     }
 
     /**
@@ -1273,6 +1384,8 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
         synchronized (lock) {
           frameWriter.ping(true, payload1, payload2);
         }
+      } else if (ackPayload == FlowControlPinger.BDP_MEASUREMENT_PING) {
+        flowControlPing.updateWindow();
       } else {
         Http2Ping p = null;
         synchronized (lock) {
@@ -17,6 +17,8 @@
 package io.grpc.okhttp;
 
 import io.grpc.internal.WritableBuffer;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
 import okio.Buffer;
 
 class OkHttpWritableBuffer implements WritableBuffer {
@@ -54,6 +56,18 @@ class OkHttpWritableBuffer implements WritableBuffer {
     return readableBytes;
   }
 
+  @Nullable
+  @Override
+  public ByteBuffer writableByteBuffer(int length) {
+    // okio segments are not exposed as ByteBuffers.
+    return null;
+  }
+
+  @Override
+  public void commitWritableByteBuffer(int length) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public void release() {
   }
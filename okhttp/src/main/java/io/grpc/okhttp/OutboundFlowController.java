@@ -17,19 +17,20 @@
 package io.grpc.okhttp;
 
 import static io.grpc.okhttp.Utils.CONNECTION_STREAM_ID;
-import static java.lang.Math.ceil;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import com.google.common.base.Preconditions;
 import io.grpc.okhttp.internal.framed.FrameWriter;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
 import javax.annotation.Nullable;
 import okio.Buffer;
 
 /**
- * Simple outbound flow controller that evenly splits the connection window across all existing
- * streams.
+ * Simple outbound flow controller that splits the connection window across all existing streams in
+ * proportion to their weights. Streams with higher weights also have their frames written first.
  */
 class OutboundFlowController {
   private final OkHttpClientTransport transport;
@@ -160,15 +161,25 @@ class OutboundFlowController {
    * <p>Must be called with holding transport lock.
    */
   void writeStreams() {
-    OkHttpClientStream[] streams = transport.getActiveStreams();
+    OkHttpClientStream[] activeStreams = transport.getActiveStreams();
+    // Stable, so streams of equal weight keep their order
+    Arrays.sort(activeStreams, BY_DESCENDING_WEIGHT);
+    OkHttpClientStream[] streams = activeStreams.clone();
     int connectionWindow = connectionState.window();
     for (int numStreams = streams.length; numStreams > 0 && connectionWindow > 0;) {
       int nextNumStreams = 0;
-      int windowSlice = (int) ceil(connectionWindow / (float) numStreams);
+      long totalWeight = 0;
+      for (int index = 0; index < numStreams; ++index) {
+        totalWeight += streams[index].weight();
+      }
+      int passWindow = connectionWindow;
       for (int index = 0; index < numStreams && connectionWindow > 0; ++index) {
         OkHttpClientStream stream = streams[index];
         OutboundFlowState state = state(stream);
 
+        // The stream's share of the window, rounded up so that every stream makes progress
+        int windowSlice =
+            (int) ((passWindow * (long) stream.weight() + totalWeight - 1) / totalWeight);
         int bytesForStream = min(connectionWindow, min(state.unallocatedBytes(), windowSlice));
         if (bytesForStream > 0) {
           state.allocateBytes(bytesForStream);
@@ -186,7 +197,7 @@ class OutboundFlowController {
 
     // Now take one last pass through all of the streams and write any allocated bytes.
     WriteStatus writeStatus = new WriteStatus();
-    for (OkHttpClientStream stream : transport.getActiveStreams()) {
+    for (OkHttpClientStream stream : activeStreams) {
       OutboundFlowState state = state(stream);
       state.writeBytes(state.allocatedBytes(), writeStatus);
       state.clearAllocatedBytes();
@@ -197,6 +208,14 @@ class OutboundFlowController {
     }
   }
 
+  private static final Comparator<OkHttpClientStream> BY_DESCENDING_WEIGHT =
+      new Comparator<OkHttpClientStream>() {
+        @Override
+        public int compare(OkHttpClientStream a, OkHttpClientStream b) {
+          return b.weight() - a.weight();
+        }
+      };
+
   /**
    * Simple status that keeps track of the number of writes performed.
    */
@@ -42,7 +42,11 @@ class Utils {
    * is sent to expand the window.
    */
   static final float DEFAULT_WINDOW_UPDATE_RATIO = 0.5f;
+  /** The window size of new connections and streams before any settings, per the HTTP/2 spec. */
+  static final int DEFAULT_WINDOW_SIZE = 65535;
   static final int CONNECTION_STREAM_ID = 0;
+  /** The weight of streams whose call options have none, the default weight of HTTP/2. */
+  static final int DEFAULT_STREAM_WEIGHT = 16;
 
   public static Metadata convertHeaders(List<Header> http2Headers) {
     return InternalMetadata.newMetadata(convertHeadersToArray(http2Headers));
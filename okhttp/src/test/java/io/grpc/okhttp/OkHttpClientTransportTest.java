@@ -168,6 +168,7 @@ public class OkHttpClientTransportTest {
   private long nanoTime; // backs a ticker, for testing ping round-trip time measurement
   private SettableFuture<Void> connectedFuture;
   private DelayConnectedCallback delayConnectedCallback;
+  private boolean autoFlowControl;
   private Runnable tooManyPingsRunnable = new Runnable() {
     @Override public void run() {
       throw new AssertionError();
@@ -240,6 +241,9 @@ public class OkHttpClientTransportTest {
         initialWindowSize,
         tooManyPingsRunnable,
         new TransportTracer());
+    if (autoFlowControl) {
+      clientTransport.enableAutoFlowControl();
+    }
     clientTransport.start(transportListener);
     if (waitingForConnected) {
       connectedFuture.get(TIME_OUT_MS, TimeUnit.MILLISECONDS);
@@ -717,8 +721,7 @@ public class OkHttpClientTransportTest {
     initTransport();
     TransportStats stats = getTransportStats(clientTransport);
     assertEquals(INITIAL_WINDOW_SIZE, stats.remoteFlowControlWindow);
-    // okhttp does not track local window sizes
-    assertEquals(-1, stats.localFlowControlWindow);
+    assertEquals(INITIAL_WINDOW_SIZE, stats.localFlowControlWindow);
   }
 
   @Test
@@ -726,14 +729,77 @@ public class OkHttpClientTransportTest {
     initTransport();
     TransportStats before = getTransportStats(clientTransport);
     assertEquals(INITIAL_WINDOW_SIZE, before.remoteFlowControlWindow);
-    // okhttp does not track local window sizes
-    assertEquals(-1, before.localFlowControlWindow);
+    assertEquals(INITIAL_WINDOW_SIZE, before.localFlowControlWindow);
 
     frameHandler().windowUpdate(0, 1000);
     TransportStats after = getTransportStats(clientTransport);
     assertEquals(INITIAL_WINDOW_SIZE + 1000, after.remoteFlowControlWindow);
-    // okhttp does not track local window sizes
-    assertEquals(-1, after.localFlowControlWindow);
+    assertEquals(INITIAL_WINDOW_SIZE, after.localFlowControlWindow);
+  }
+
+  @Test
+  public void transportTracer_windowSize_local() throws Exception {
+    initTransport();
+    OkHttpClientStream stream =
+        clientTransport.newStream(method, new Metadata(), CallOptions.DEFAULT);
+    stream.start(new MockStreamListener());
+    frameHandler().headers(false, false, 3, 0, grpcResponseHeaders(), HeadersMode.HTTP_20_HEADERS);
+    frameHandler().data(false, 3, createMessageFrame(new String(new char[1000])), 1000);
+
+    TransportStats stats = getTransportStats(clientTransport);
+    assertEquals(INITIAL_WINDOW_SIZE - 1000, stats.localFlowControlWindow);
+    stream.cancel(Status.CANCELLED);
+    shutdownAndVerify();
+  }
+
+  @Test
+  public void autoFlowControl_disabledByDefault() throws Exception {
+    initTransport();
+    OkHttpClientStream stream =
+        clientTransport.newStream(method, new Metadata(), CallOptions.DEFAULT);
+    stream.start(new MockStreamListener());
+    frameHandler().headers(false, false, 3, 0, grpcResponseHeaders(), HeadersMode.HTTP_20_HEADERS);
+    frameHandler().data(false, 3, createMessageFrame(new String(new char[1000])), 1000);
+
+    assertEquals(0, clientTransport.flowControlPing().getPingCount());
+    verify(frameWriter, never()).ping(anyBoolean(), anyInt(), anyInt());
+    stream.cancel(Status.CANCELLED);
+    shutdownAndVerify();
+  }
+
+  @Test
+  public void autoFlowControl_raisesWindowToMeasuredBdp() throws Exception {
+    autoFlowControl = true;
+    initTransport();
+    MockStreamListener listener = new MockStreamListener();
+    OkHttpClientStream stream =
+        clientTransport.newStream(method, new Metadata(), CallOptions.DEFAULT);
+    stream.start(listener);
+    frameHandler().headers(false, false, 3, 0, grpcResponseHeaders(), HeadersMode.HTTP_20_HEADERS);
+    frameHandler().data(false, 3, createMessageFrame(new String(new char[1000])), 1000);
+    assertEquals(1, clientTransport.flowControlPing().getPingCount());
+    verify(frameWriter, timeout(TIME_OUT_MS)).ping(eq(false), eq(0), eq(1234));
+
+    int bdp = 4 * INITIAL_WINDOW_SIZE;
+    clientTransport.flowControlPing().setDataSizeSincePing(bdp);
+    frameHandler().ping(true, 0, 1234);
+
+    ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass(Settings.class);
+    verify(frameWriter, timeout(TIME_OUT_MS)).settings(settings.capture());
+    assertEquals(2 * bdp,
+        OkHttpSettingsUtil.get(settings.getValue(), OkHttpSettingsUtil.INITIAL_WINDOW_SIZE));
+    verify(frameWriter, timeout(TIME_OUT_MS)).windowUpdate(0, 2 * bdp - INITIAL_WINDOW_SIZE);
+    assertEquals(2 * bdp - 1000, getTransportStats(clientTransport).localFlowControlWindow);
+
+    // The stream may now receive more than the initial window without a flow control error.
+    Buffer buffer = createMessageFrame(new byte[2 * INITIAL_WINDOW_SIZE]);
+    frameHandler().data(false, 3, buffer, (int) buffer.size());
+    verify(frameWriter, never()).rstStream(eq(3), any(ErrorCode.class));
+    assertEquals(1, activeStreamCount());
+
+    stream.cancel(Status.CANCELLED);
+    listener.waitUntilStreamClosed();
+    shutdownAndVerify();
   }
 
   @Test
@@ -888,6 +954,47 @@ public class OkHttpClientTransportTest {
     outboundFlowControl(INITIAL_WINDOW_SIZE * 2);
   }
 
+  @Test
+  public void outboundFlowControl_connectionWindowSharedByStreamWeight() throws Exception {
+    initTransport();
+    MockStreamListener listener1 = new MockStreamListener();
+    OkHttpClientStream stream1 =
+        clientTransport.newStream(method, new Metadata(), CallOptions.DEFAULT);
+    stream1.start(listener1);
+    MockStreamListener listener2 = new MockStreamListener();
+    CallOptions heavy = CallOptions.DEFAULT.withStreamWeight(Utils.DEFAULT_STREAM_WEIGHT * 3);
+    OkHttpClientStream stream2 = clientTransport.newStream(method, new Metadata(), heavy);
+    stream2.start(listener2);
+
+    // Use up the connection window with the default-weight stream.
+    int messageLength = INITIAL_WINDOW_SIZE - HEADER_LENGTH;
+    stream1.writeMessage(new ByteArrayInputStream(new byte[messageLength]));
+    stream1.flush();
+    verify(frameWriter, timeout(TIME_OUT_MS))
+        .data(eq(false), eq(3), any(Buffer.class), eq(INITIAL_WINDOW_SIZE));
+
+    // Both streams now have data pending on the connection window only.
+    frameHandler().windowUpdate(3, INITIAL_WINDOW_SIZE);
+    stream1.writeMessage(new ByteArrayInputStream(new byte[1000]));
+    stream1.flush();
+    stream2.writeMessage(new ByteArrayInputStream(new byte[1000]));
+    stream2.flush();
+
+    // The heavier stream gets three quarters of the credit and is written first.
+    frameHandler().windowUpdate(0, 400);
+    InOrder inOrder = inOrder(frameWriter);
+    inOrder.verify(frameWriter, timeout(TIME_OUT_MS))
+        .data(eq(false), eq(5), any(Buffer.class), eq(300));
+    inOrder.verify(frameWriter, timeout(TIME_OUT_MS))
+        .data(eq(false), eq(3), any(Buffer.class), eq(100));
+
+    stream1.cancel(Status.CANCELLED);
+    stream2.cancel(Status.CANCELLED);
+    listener1.waitUntilStreamClosed();
+    listener2.waitUntilStreamClosed();
+    shutdownAndVerify();
+  }
+
   @Test
   public void outboundFlowControlWithInitialWindowSizeChange() throws Exception {
     initTransport();
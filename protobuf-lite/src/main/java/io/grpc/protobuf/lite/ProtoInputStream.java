@@ -19,18 +19,21 @@ package io.grpc.protobuf.lite;
 import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
+import io.grpc.ByteBufferDrainable;
 import io.grpc.Drainable;
 import io.grpc.KnownLength;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import javax.annotation.Nullable;
 
 /**
  * An {@link InputStream} backed by a protobuf.
  */
-final class ProtoInputStream extends InputStream implements Drainable, KnownLength {
+final class ProtoInputStream extends InputStream
+    implements Drainable, ByteBufferDrainable, KnownLength {
 
   // ProtoInputStream is first initialized with a *message*. *partial* is initially null.
   // Once there has been a read operation on this stream, *message* is serialized to *partial* and
@@ -60,6 +63,29 @@ final class ProtoInputStream extends InputStream implements Drainable, KnownLeng
     return written;
   }
 
+  @Override
+  public int drainTo(ByteBuffer target) throws IOException {
+    int written;
+    if (message != null) {
+      written = message.getSerializedSize();
+      // This is zero-copy when target is heap-backed, or direct and the protobuf runtime can write
+      // to direct buffers without staging the bytes.
+      CodedOutputStream stream = CodedOutputStream.newInstance(target);
+      message.writeTo(stream);
+      stream.flush();
+      message = null;
+    } else if (partial != null) {
+      written = partial.available();
+      byte[] remaining = new byte[written];
+      partial.read(remaining, 0, written);
+      target.put(remaining);
+      partial = null;
+    } else {
+      written = 0;
+    }
+    return written;
+  }
+
   @Override
   public int read() {
     if (message != null) {
@@ -25,6 +25,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
 import io.grpc.ExperimentalApi;
+import io.grpc.HasByteBuffer;
 import io.grpc.KnownLength;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor.Marshaller;
@@ -35,6 +36,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * Utility methods for using protobuf with grpc.
@@ -117,8 +126,17 @@ public final class ProtoLiteUtils {
 
   private static final class MessageMarshaller<T extends MessageLite>
       implements PrototypeMarshaller<T> {
+    private static final Logger logger = Logger.getLogger(MessageMarshaller.class.getName());
     private static final ThreadLocal<Reference<byte[]>> bufs = new ThreadLocal<>();
 
+    /**
+     * {@code CodedInputStream.newInstance(Iterable<ByteBuffer>)}, or {@code null} if the protobuf
+     * runtime is too old to provide it. It is looked up reflectively because protobuf-lite 3.0.x,
+     * which this artifact is compiled against, predates it.
+     */
+    @Nullable
+    private static final Method NEW_INSTANCE_FROM_BUFFERS = getNewInstanceFromBuffersMethod();
+
     private final Parser<T> parser;
     private final T defaultInstance;
 
@@ -173,7 +191,13 @@ public final class ProtoLiteUtils {
       try {
         if (stream instanceof KnownLength) {
           int size = stream.available();
-          if (size > 0 && size <= DEFAULT_MAX_MESSAGE_SIZE) {
+          if (size > 0
+              && stream instanceof HasByteBuffer
+              && ((HasByteBuffer) stream).byteBufferSupported()
+              && stream.markSupported()) {
+            cis = newInstanceFromByteBuffers(stream, size);
+          }
+          if (cis == null && size > 0 && size <= DEFAULT_MAX_MESSAGE_SIZE) {
             Reference<byte[]> ref;
             // buf should not be used after this method has returned.
             byte[] buf;
@@ -219,6 +243,55 @@ public final class ProtoLiteUtils {
       }
     }
 
+    /**
+     * Creates a {@link CodedInputStream} that reads directly from the {@link ByteBuffer}s backing
+     * {@code stream}, avoiding any copy. The stream is left at its original position; it must not
+     * be closed until parsing completes since the buffers are only valid until then. Returns
+     * {@code null} if the buffers can not be used by the protobuf runtime.
+     */
+    @Nullable
+    private static CodedInputStream newInstanceFromByteBuffers(InputStream stream, int size)
+        throws IOException {
+      HasByteBuffer hasByteBuffer = (HasByteBuffer) stream;
+      stream.mark(size);
+      List<ByteBuffer> buffers = new ArrayList<>();
+      try {
+        while (stream.available() != 0) {
+          ByteBuffer buffer = hasByteBuffer.getByteBuffer();
+          int remaining = buffer.remaining();
+          if (remaining > 0) {
+            buffers.add(buffer);
+          }
+          stream.skip(remaining);
+        }
+      } finally {
+        stream.reset();
+      }
+      if (buffers.size() == 1) {
+        return CodedInputStream.newInstance(buffers.get(0));
+      }
+      if (NEW_INSTANCE_FROM_BUFFERS == null) {
+        return null;
+      }
+      try {
+        return (CodedInputStream) NEW_INSTANCE_FROM_BUFFERS.invoke(null, buffers);
+      } catch (IllegalAccessException e) {
+        throw new AssertionError(e);
+      } catch (InvocationTargetException e) {
+        throw new RuntimeException(e.getCause());
+      }
+    }
+
+    @Nullable
+    private static Method getNewInstanceFromBuffersMethod() {
+      try {
+        return CodedInputStream.class.getMethod("newInstance", Iterable.class);
+      } catch (NoSuchMethodException e) {
+        logger.log(Level.FINE, "CodedInputStream can not parse from multiple ByteBuffers", e);
+        return null;
+      }
+    }
+
     private T parseFrom(CodedInputStream stream) throws InvalidProtocolBufferException {
       T message = parser.parseFrom(stream, globalRegistry);
       try {
@@ -28,6 +28,7 @@ import com.google.protobuf.Empty;
 import com.google.protobuf.Enum;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Type;
+import io.grpc.ByteBufferDrainable;
 import io.grpc.Drainable;
 import io.grpc.KnownLength;
 import io.grpc.Metadata;
@@ -35,11 +36,14 @@ import io.grpc.MethodDescriptor.Marshaller;
 import io.grpc.MethodDescriptor.PrototypeMarshaller;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.internal.CompositeReadableBuffer;
 import io.grpc.internal.GrpcUtil;
+import io.grpc.internal.ReadableBuffers;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.junit.Rule;
 import org.junit.Test;
@@ -190,6 +194,37 @@ public class ProtoLiteUtilsTest {
     assertEquals(0, is.available());
   }
 
+  @Test
+  public void testDrainToByteBuffer_all() throws Exception {
+    byte[] golden = ByteStreams.toByteArray(marshaller.stream(proto));
+    InputStream is = marshaller.stream(proto);
+    ByteBuffer target = ByteBuffer.allocateDirect(golden.length);
+    int drained = ((ByteBufferDrainable) is).drainTo(target);
+    assertEquals(golden.length, drained);
+    byte[] result = new byte[drained];
+    target.clear();
+    target.get(result);
+    assertArrayEquals(golden, result);
+    assertEquals(0, is.available());
+  }
+
+  @Test
+  public void testDrainToByteBuffer_partial() throws Exception {
+    final byte[] golden;
+    {
+      InputStream is = marshaller.stream(proto);
+      is.read();
+      golden = ByteStreams.toByteArray(is);
+    }
+    InputStream is = marshaller.stream(proto);
+    is.read();
+    ByteBuffer target = ByteBuffer.allocate(golden.length);
+    int drained = ((ByteBufferDrainable) is).drainTo(target);
+    assertEquals(golden.length, drained);
+    assertArrayEquals(golden, target.array());
+    assertEquals(0, is.available());
+  }
+
   @Test
   public void metadataMarshaller_roundtrip() {
     Metadata.BinaryMarshaller<Type> metadataMarshaller =
@@ -226,6 +261,31 @@ public class ProtoLiteUtilsTest {
     assertEquals(expect, result);
   }
 
+  @Test
+  public void parseFromSingleByteBufferBackedStream() throws Exception {
+    Type expect = Type.newBuilder().setName("expected name").build();
+    CompositeReadableBuffer buffer = new CompositeReadableBuffer();
+    buffer.addBuffer(ReadableBuffers.wrap(ByteBuffer.wrap(expect.toByteArray())));
+    InputStream stream = ReadableBuffers.openStream(buffer, true);
+
+    assertEquals(expect, marshaller.parse(stream));
+  }
+
+  @Test
+  public void parseFromMultipleByteBufferBackedStream() throws Exception {
+    Type expect = Type.newBuilder().setName("expected name").build();
+    byte[] serialized = expect.toByteArray();
+    int split = serialized.length / 2;
+    CompositeReadableBuffer buffer = new CompositeReadableBuffer();
+    buffer.addBuffer(ReadableBuffers.wrap(ByteBuffer.wrap(serialized, 0, split)));
+    ByteBuffer direct = ByteBuffer.allocateDirect(serialized.length - split);
+    direct.put(serialized, split, serialized.length - split).flip();
+    buffer.addBuffer(ReadableBuffers.wrap(direct));
+    InputStream stream = ReadableBuffers.openStream(buffer, true);
+
+    assertEquals(expect, marshaller.parse(stream));
+  }
+
   @Test
   public void defaultMaxMessageSize() {
     assertEquals(GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE, ProtoLiteUtils.DEFAULT_MAX_MESSAGE_SIZE);
@@ -54,7 +54,12 @@ final class ChannelzTestHelper {
         /*lastMessageSentTimeNanos=*/ 9,
         /*lastMessageReceivedTimeNanos=*/ 10,
         /*localFlowControlWindow=*/ 11,
-        /*remoteFlowControlWindow=*/ 12);
+        /*remoteFlowControlWindow=*/ 12,
+        /*flushes=*/ 13,
+        /*flushedBytes=*/ 14,
+        /*streamsQueued=*/ 15,
+        /*streamsPending=*/ 16,
+        /*streamQueueWaitNanos=*/ 17);
     SocketAddress local = new InetSocketAddress("10.0.0.1", 1000);
     SocketAddress remote = new InetSocketAddress("10.0.0.2", 1000);
     InternalChannelz.SocketOptions socketOptions
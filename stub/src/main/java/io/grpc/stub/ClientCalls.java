@@ -655,6 +655,12 @@ public final class ClientCalls {
     }
   }
 
+  /**
+   * Executor that runs callbacks on the thread blocked in {@link #waitAndDrain}. Callbacks are
+   * handed off through the lock-free queue this class extends and the waiter is woken with {@link
+   * LockSupport}, so neither side ever holds a monitor and virtual threads blocked on a call stay
+   * unpinned.
+   */
   @SuppressWarnings("serial")
   private static final class ThreadlessExecutor extends ConcurrentLinkedQueue<Runnable>
       implements Executor {
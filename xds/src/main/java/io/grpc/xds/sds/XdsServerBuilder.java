@@ -18,10 +18,12 @@ package io.grpc.xds.sds;
 
 import io.envoyproxy.envoy.api.v2.auth.DownstreamTlsContext;
 import io.grpc.BindableService;
+import io.grpc.CompressionPolicy;
 import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
 import io.grpc.ExperimentalApi;
 import io.grpc.HandlerRegistry;
+import io.grpc.MethodDescriptor;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.ServerInterceptor;
@@ -64,6 +66,25 @@ public final class XdsServerBuilder extends ServerBuilder<XdsServerBuilder> {
     return this;
   }
 
+  @Override
+  public XdsServerBuilder virtualThreadExecutor() {
+    delegate.virtualThreadExecutor();
+    return this;
+  }
+
+  @Override
+  public XdsServerBuilder directExecutorWithOffload(
+      Executor offloadExecutor, long handlerTimeBudget, TimeUnit unit) {
+    delegate.directExecutorWithOffload(offloadExecutor, handlerTimeBudget, unit);
+    return this;
+  }
+
+  @Override
+  public XdsServerBuilder blockingMethod(MethodDescriptor<?, ?> method) {
+    delegate.blockingMethod(method);
+    return this;
+  }
+
   @Override
   public XdsServerBuilder addStreamTracerFactory(ServerStreamTracer.Factory factory) {
     delegate.addStreamTracerFactory(factory);
@@ -117,6 +138,12 @@ public final class XdsServerBuilder extends ServerBuilder<XdsServerBuilder> {
     return this;
   }
 
+  @Override
+  public XdsServerBuilder compressionPolicy(@Nullable CompressionPolicy policy) {
+    delegate.compressionPolicy(policy);
+    return this;
+  }
+
   @Override
   public XdsServerBuilder intercept(ServerInterceptor interceptor) {
     delegate.intercept(interceptor);